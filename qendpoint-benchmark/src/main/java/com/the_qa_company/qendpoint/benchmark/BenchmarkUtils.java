@@ -0,0 +1,73 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import org.apache.commons.io.file.PathUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Utilities to create the synthetic datasets of the benchmarks, the datasets
+ * are created with a fixed seed to be reproducible between 2 runs.
+ */
+public class BenchmarkUtils {
+	/**
+	 * seed of the synthetic datasets
+	 */
+	public static final long SEED = 42;
+
+	private BenchmarkUtils() {
+	}
+
+	/**
+	 * create the supplier of a synthetic dataset
+	 *
+	 * @param triples number of triples
+	 * @return supplier
+	 */
+	public static LargeFakeDataSetStreamSupplier supplier(long triples) {
+		return LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(triples, SEED).withMaxElementSplit(1000)
+				.withMaxLiteralSize(100);
+	}
+
+	/**
+	 * create a temporary directory for a benchmark
+	 *
+	 * @param name name of the benchmark
+	 * @return directory
+	 * @throws IOException create exception
+	 */
+	public static Path createTempDir(String name) throws IOException {
+		return Files.createTempDirectory("qendpoint-benchmark-" + name);
+	}
+
+	/**
+	 * delete a temporary directory, ignored if the directory is null
+	 *
+	 * @param dir directory
+	 * @throws IOException delete exception
+	 */
+	public static void deleteTempDir(Path dir) throws IOException {
+		if (dir != null) {
+			PathUtils.deleteDirectory(dir);
+		}
+	}
+
+	/**
+	 * create a synthetic HDT
+	 *
+	 * @param dir     directory to write the HDT
+	 * @param triples number of triples
+	 * @return path of the HDT
+	 * @throws IOException     write exception
+	 * @throws ParserException generation exception
+	 */
+	public static Path createHDT(Path dir, long triples) throws IOException, ParserException {
+		Path hdtPath = dir.resolve("dataset-" + triples + ".hdt");
+		supplier(triples).createAndSaveFakeHDT(HDTOptions.of(), hdtPath);
+		return hdtPath;
+	}
+}
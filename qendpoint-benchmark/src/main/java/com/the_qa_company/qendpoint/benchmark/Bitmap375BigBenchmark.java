@@ -0,0 +1,79 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.compact.bitmap.Bitmap375Big;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the rank1/select1 operations of an in-memory
+ * {@link Bitmap375Big}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class Bitmap375BigBenchmark {
+	private static final int SAMPLES = 1 << 16;
+
+	@Param({ "100000000" })
+	public long bits;
+	@Param({ "0.05", "0.5" })
+	public double density;
+
+	private Bitmap375Big bitmap;
+	private long[] positions;
+	private long[] ranks;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() {
+		Random random = new Random(BenchmarkUtils.SEED);
+		bitmap = Bitmap375Big.memory(bits);
+		for (long i = 0; i < bits; i++) {
+			if (random.nextDouble() < density) {
+				bitmap.set(i, true);
+			}
+		}
+		bitmap.updateIndex();
+
+		long ones = bitmap.countOnes();
+		positions = new long[SAMPLES];
+		ranks = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			positions[i] = (long) (random.nextDouble() * bits);
+			ranks[i] = 1 + (long) (random.nextDouble() * ones);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		bitmap.close();
+	}
+
+	@Benchmark
+	public long rank1() {
+		return bitmap.rank1(positions[index++ & (SAMPLES - 1)]);
+	}
+
+	@Benchmark
+	public long select1() {
+		return bitmap.select1(ranks[index++ & (SAMPLES - 1)]);
+	}
+}
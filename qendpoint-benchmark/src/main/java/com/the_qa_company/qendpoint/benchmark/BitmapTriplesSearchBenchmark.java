@@ -0,0 +1,99 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the BitmapTriples search for each triple pattern shape, the
+ * patterns are built from triples of the dataset and the number of read
+ * results is limited to measure the search and not the size of the dataset.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class BitmapTriplesSearchBenchmark {
+	private static final int SAMPLES = 1 << 12;
+	private static final int RESULTS_LIMIT = 1000;
+
+	@Param({ "200000" })
+	public long triples;
+	@Param({ "SPO", "SP?", "S?O", "S??", "?PO", "?P?", "??O", "???" })
+	public String pattern;
+
+	private Path root;
+	private HDT hdt;
+	private TripleID[] patterns;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, ParserException {
+		root = BenchmarkUtils.createTempDir("bitmaptriples");
+		Path hdtPath = BenchmarkUtils.createHDT(root, triples);
+		hdt = HDTManager.mapIndexedHDT(hdtPath, HDTOptions.of(), ProgressListener.ignore());
+
+		// take triples evenly distributed in the dataset
+		patterns = new TripleID[SAMPLES];
+		long step = Math.max(1, hdt.getTriples().getNumberOfElements() / SAMPLES);
+		IteratorTripleID it = hdt.getTriples().searchAll();
+		int count = 0;
+		for (long i = 0; it.hasNext() && count < SAMPLES; i++) {
+			TripleID triple = it.next();
+			if (i % step == 0) {
+				patterns[count++] = new TripleID(pattern.charAt(0) == '?' ? 0 : triple.getSubject(),
+						pattern.charAt(1) == '?' ? 0 : triple.getPredicate(),
+						pattern.charAt(2) == '?' ? 0 : triple.getObject());
+			}
+		}
+		for (int i = count; i < SAMPLES; i++) {
+			patterns[i] = patterns[i % count];
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try {
+			if (hdt != null) {
+				hdt.close();
+			}
+		} finally {
+			BenchmarkUtils.deleteTempDir(root);
+		}
+	}
+
+	@Benchmark
+	public long search() {
+		TripleID triple = patterns[index++ & (SAMPLES - 1)];
+		IteratorTripleID it = hdt.getTriples().search(triple);
+		long count = 0;
+		while (count < RESULTS_LIMIT && it.hasNext()) {
+			it.next();
+			count++;
+		}
+		return count;
+	}
+}
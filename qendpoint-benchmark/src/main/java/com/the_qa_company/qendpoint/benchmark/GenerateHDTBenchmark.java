@@ -0,0 +1,64 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the HDT generation from a synthetic triple stream
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class GenerateHDTBenchmark {
+	@Param({ "500000" })
+	public long triples;
+	@Param({ HDTOptionsKeys.LOADER_TYPE_VALUE_ONE_PASS, HDTOptionsKeys.LOADER_TYPE_VALUE_DISK })
+	public String loader;
+
+	private Path root;
+	private HDTOptions spec;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		root = BenchmarkUtils.createTempDir("generate");
+		spec = HDTOptions.of(HDTOptionsKeys.LOADER_TYPE_KEY, loader, HDTOptionsKeys.LOADER_DISK_LOCATION_KEY,
+				root.resolve("work"), HDTOptionsKeys.LOADER_DISK_FUTURE_HDT_LOCATION_KEY, root.resolve("future.hdt"));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkUtils.deleteTempDir(root);
+	}
+
+	@Benchmark
+	public long generate() throws IOException, ParserException {
+		try (HDT hdt = HDTManager.generateHDT(BenchmarkUtils.supplier(triples).createTripleStringStream(),
+				"http://example.org/#", spec, ProgressListener.ignore())) {
+			return hdt.getTriples().getNumberOfElements();
+		}
+	}
+}
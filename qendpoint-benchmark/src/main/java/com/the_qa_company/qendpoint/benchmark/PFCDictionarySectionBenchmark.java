@@ -0,0 +1,131 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the locate/extract methods of the PFC sections, a loaded HDT is
+ * using {@code PFCDictionarySection} and a mapped HDT is using
+ * {@code PFCDictionarySectionMap}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class PFCDictionarySectionBenchmark {
+	private static final int SAMPLES = 1 << 14;
+
+	@Param({ "200000" })
+	public long triples;
+	@Param({ "load", "map" })
+	public String mode;
+	@Param({ "shared", "subjects", "predicates", "objects" })
+	public String section;
+
+	private Path root;
+	private HDT hdt;
+	private DictionarySection dictionarySection;
+	private ByteString[] strings;
+	private long[] ids;
+	private int index;
+	private final ReplazableString buffer = new ReplazableString();
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException, ParserException {
+		root = BenchmarkUtils.createTempDir("pfc");
+		Path hdtPath = BenchmarkUtils.createHDT(root, triples);
+		hdt = switch (mode) {
+		case "load" -> HDTManager.loadHDT(hdtPath);
+		case "map" -> HDTManager.mapHDT(hdtPath);
+		default -> throw new IllegalArgumentException("Unknown mode: " + mode);
+		};
+		Dictionary dictionary = hdt.getDictionary();
+		dictionarySection = switch (section) {
+		case "shared" -> dictionary.getShared();
+		case "subjects" -> dictionary.getSubjects();
+		case "predicates" -> dictionary.getPredicates();
+		case "objects" -> dictionary.getObjects();
+		default -> throw new IllegalArgumentException("Unknown section: " + section);
+		};
+
+		long size = dictionarySection.getNumberOfElements();
+		if (size == 0) {
+			throw new IllegalArgumentException("Empty section: " + section);
+		}
+		Random random = new Random(BenchmarkUtils.SEED);
+		ids = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			ids[i] = 1 + (long) (random.nextDouble() * size);
+		}
+
+		List<ByteString> entries = new ArrayList<>();
+		Iterator<? extends CharSequence> it = dictionarySection.getSortedEntries();
+		long step = Math.max(1, size / SAMPLES);
+		for (long i = 0; it.hasNext(); i++) {
+			CharSequence entry = it.next();
+			if (i % step == 0) {
+				entries.add(ByteString.copy(entry));
+			}
+		}
+		Collections.shuffle(entries, random);
+		strings = new ByteString[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			strings[i] = entries.get(i % entries.size());
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try {
+			if (hdt != null) {
+				hdt.close();
+			}
+		} finally {
+			BenchmarkUtils.deleteTempDir(root);
+		}
+	}
+
+	@Benchmark
+	public long locate() {
+		return dictionarySection.locate(strings[index++ & (SAMPLES - 1)]);
+	}
+
+	@Benchmark
+	public CharSequence extract() {
+		return dictionarySection.extract(ids[index++ & (SAMPLES - 1)]);
+	}
+
+	@Benchmark
+	public ByteString extractBuffer() {
+		return dictionarySection.extract(ids[index++ & (SAMPLES - 1)], buffer);
+	}
+}
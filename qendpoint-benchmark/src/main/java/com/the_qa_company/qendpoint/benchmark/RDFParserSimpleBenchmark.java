@@ -0,0 +1,65 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.enums.RDFNotation;
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.rdf.parsers.RDFParserSimple;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the parsing of a N-Triples file with {@link RDFParserSimple}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+public class RDFParserSimpleBenchmark {
+	@Param({ "1000000" })
+	public long triples;
+	@Param({ "1", "0" })
+	public int threads;
+
+	private Path root;
+	private Path ntFile;
+	private RDFParserSimple parser;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		root = BenchmarkUtils.createTempDir("parser");
+		ntFile = root.resolve("dataset.nt");
+		BenchmarkUtils.supplier(triples).createNTFile(ntFile);
+		parser = new RDFParserSimple(HDTOptions.of(HDTOptionsKeys.NT_SIMPLE_PARSER_THREADS_KEY, threads));
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		BenchmarkUtils.deleteTempDir(root);
+	}
+
+	@Benchmark
+	public long parse() throws ParserException {
+		long[] count = { 0 };
+		parser.doParse(ntFile.toAbsolutePath().toString(), "http://example.org/#", RDFNotation.NTRIPLES, true,
+				(triple, pos) -> count[0]++);
+		return count[0];
+	}
+}
@@ -0,0 +1,95 @@
+package com.the_qa_company.qendpoint.benchmark;
+
+import com.the_qa_company.qendpoint.core.compact.sequence.Sequence;
+import com.the_qa_company.qendpoint.core.compact.sequence.SequenceLog64;
+import com.the_qa_company.qendpoint.core.compact.sequence.SequenceLog64Map;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.util.BitUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of the random access of a mapped {@link SequenceLog64Map}, the
+ * in-memory {@link SequenceLog64} is used as a reference.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class SequenceLog64MapBenchmark {
+	private static final int SAMPLES = 1 << 16;
+
+	@Param({ "50000000" })
+	public long entries;
+	@Param({ "27" })
+	public int numbits;
+	@Param({ "map", "memory" })
+	public String mode;
+
+	private Path root;
+	private Sequence sequence;
+	private long[] positions;
+	private int index;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		Random random = new Random(BenchmarkUtils.SEED);
+		long maxValue = BitUtil.maxVal(numbits);
+		SequenceLog64 memory = new SequenceLog64(numbits, entries);
+		for (long i = 0; i < entries; i++) {
+			memory.append((long) (random.nextDouble() * maxValue));
+		}
+
+		if (mode.equals("map")) {
+			root = BenchmarkUtils.createTempDir("sequence");
+			Path file = root.resolve("sequence.bin");
+			try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+				memory.save(os, ProgressListener.ignore());
+			}
+			memory.close();
+			sequence = new SequenceLog64Map(file.toFile());
+		} else {
+			sequence = memory;
+		}
+
+		positions = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			positions[i] = (long) (random.nextDouble() * entries);
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() throws IOException {
+		try {
+			sequence.close();
+		} finally {
+			BenchmarkUtils.deleteTempDir(root);
+		}
+	}
+
+	@Benchmark
+	public long get() {
+		return sequence.get(positions[index++ & (SAMPLES - 1)]);
+	}
+}
@@ -153,6 +153,28 @@ public class AdjacencyList {
 		return array.getNumberOfElements();
 	}
 
+	/**
+	 * Gets a range of consecutive elements
+	 *
+	 * @param pos    position of the first element
+	 * @param buffer buffer to fill
+	 * @param offset offset in the buffer
+	 * @param length number of elements to read
+	 */
+	public final void get(long pos, long[] buffer, int offset, int length) {
+		array.getRange(pos, buffer, offset, length);
+	}
+
+	/**
+	 * create a reader decoding the elements by blocks, for the sequential scans
+	 *
+	 * @param blockSize max number of elements decoded at once
+	 * @return reader
+	 */
+	public Reader createReader(int blockSize) {
+		return new Reader(blockSize);
+	}
+
 	/**
 	 * Finds the next appearance of the element "element" starting at global
 	 * pos: "oldpos" inclusive.
@@ -213,6 +235,86 @@ public class AdjacencyList {
 		return old + 1;
 	}
 
+	/**
+	 * Reader of the adjacency list elements, the elements are decoded by blocks
+	 * with {@link Sequence#getRange(long, long[], int, int)}, reading the
+	 * positions in order is only decoding each word once.
+	 */
+	public final class Reader {
+		private final int blockSize;
+		private long[] block;
+		private long start;
+		private long end;
+
+		private Reader(int blockSize) {
+			if (blockSize <= 0) {
+				throw new IllegalArgumentException("blockSize should be positive: " + blockSize);
+			}
+			this.blockSize = blockSize;
+		}
+
+		/**
+		 * get an element
+		 *
+		 * @param pos position of the element
+		 * @param max max position (exclusive) of the next reads, used to avoid
+		 *            decoding unused elements
+		 * @return element
+		 */
+		public long get(long pos, long max) {
+			if (pos >= start && pos < end) {
+				return block[(int) (pos - start)];
+			}
+			if (max - pos <= 1) {
+				// no next read, no need to decode a block
+				return array.get(pos);
+			}
+			fill(pos, max);
+			return block[0];
+		}
+
+		/**
+		 * Finds the next appearance of the element "element" starting at global
+		 * pos: "oldpos" inclusive.
+		 *
+		 * @param oldpos  Old global position to start searching.
+		 * @param element Element to be searched
+		 * @return Position of the next appearance, -1 if no more appearances.
+		 * @see AdjacencyList#findNextAppearance(long, long)
+		 */
+		public long findNextAppearance(long oldpos, long element) {
+			long count = array.getNumberOfElements();
+			long pos = oldpos;
+			while (pos < count) {
+				if (pos < start || pos >= end) {
+					fill(pos, count);
+				}
+				long[] block = this.block;
+				for (int i = (int) (pos - start), blockEnd = (int) (end - start); i < blockEnd; i++) {
+					if (block[i] == element) {
+						return start + i;
+					}
+				}
+				pos = end;
+			}
+			return -1;
+		}
+
+		private void fill(long pos, long max) {
+			long count = Math.min(max, array.getNumberOfElements());
+			if (pos < 0 || pos >= count) {
+				throw new IndexOutOfBoundsException(pos + " < 0 || " + pos + " >= " + count);
+			}
+			if (block == null) {
+				block = new long[blockSize];
+			}
+			int length = (int) Math.min(blockSize, count - pos);
+			array.getRange(pos, block, 0, length);
+			start = pos;
+			end = pos + length;
+		}
+	}
+
 	public void dump() {
 		for (long i = 0; i < getNumberOfElements(); i++) {
 			System.out.print(" " + get(i));
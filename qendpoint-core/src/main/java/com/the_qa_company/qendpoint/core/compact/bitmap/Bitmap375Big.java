@@ -35,6 +35,10 @@ import java.nio.file.Path;
  * limitation in size.
  * <p>
  * index -&gt; O(n) rank1 -&gt; O(1) select1 -&gt; O(log log n)
+ * <p>
+ * The select operations can use a sample of the super block of every k-th bit,
+ * see {@link #setSelectSampleRate(int)}, to reduce the binary search to the
+ * super blocks between 2 samples.
  *
  * @author mario.arias
  */
@@ -108,6 +112,9 @@ public class Bitmap375Big extends Bitmap64Big {
 	private final boolean useDiskSuperIndex;
 	private final CloseSuppressPath superBlocksPath;
 	private final CloseSuppressPath blocksPath;
+	private int selectSampleRate;
+	private LongArray selectSamples1;
+	private LongArray selectSamples0;
 
 	protected Bitmap375Big(LongArray words, Path location, boolean useDiskSuperIndex) {
 		super(words);
@@ -124,7 +131,94 @@ public class Bitmap375Big extends Bitmap64Big {
 	}
 
 	private void closeObject() throws IOException {
-		Closer.closeAll(superBlocks, superBlocksPath, blocks, blocksPath);
+		Closer.closeAll(superBlocks, superBlocksPath, blocks, blocksPath, selectSamples1, selectSamples0);
+	}
+
+	/**
+	 * set the select sample rate, the super block of every rate-th one and zero
+	 * bit are stored in memory to search the select super block between 2
+	 * samples
+	 *
+	 * @param selectSampleRate sample rate, 0 to disable the samples
+	 */
+	public void setSelectSampleRate(int selectSampleRate) {
+		if (selectSampleRate < 0) {
+			throw new IllegalArgumentException("Negative select sample rate: " + selectSampleRate);
+		}
+		this.selectSampleRate = selectSampleRate;
+		if (indexUpToDate) {
+			updateSelectSamples();
+		}
+	}
+
+	/**
+	 * @return the select sample rate, 0 if the samples are disabled
+	 */
+	public int getSelectSampleRate() {
+		return selectSampleRate;
+	}
+
+	private void updateSelectSamples() {
+		try {
+			Closer.closeAll(selectSamples1, selectSamples0);
+		} catch (IOException e) {
+			// ignore
+		}
+		if (selectSampleRate == 0) {
+			selectSamples1 = null;
+			selectSamples0 = null;
+			return;
+		}
+		selectSamples1 = createSelectSamples(true, pop);
+		selectSamples0 = createSelectSamples(false, numbits - pop);
+	}
+
+	private long superBlockCount(long superBlockIndex, boolean ones) {
+		long count = superBlocks.get(superBlockIndex);
+		return ones ? count : superBlockIndex * BLOCKS_PER_SUPER * W - count;
+	}
+
+	private LongArray createSelectSamples(boolean ones, long count) {
+		long superBlockCount = superBlocks.length();
+		long samplesCount = count == 0 ? 0 : (count - 1) / selectSampleRate + 1;
+		LongArray samples;
+		if (superBlockCount > Integer.MAX_VALUE) {
+			samples = SimpleSplitLongArray.int64Array(samplesCount);
+		} else {
+			samples = SimpleSplitLongArray.int32Array(samplesCount);
+		}
+
+		long sample = 0;
+		for (long sb = 0; sb < superBlockCount && sample < samplesCount; sb++) {
+			long next = sb + 1 < superBlockCount ? superBlockCount(sb + 1, ones) : Long.MAX_VALUE;
+			// the bits (count(sb), count(sb + 1)] are in the super block sb
+			while (sample < samplesCount && sample * selectSampleRate + 1 <= next) {
+				samples.set(sample++, sb);
+			}
+		}
+		return samples;
+	}
+
+	/**
+	 * search the last super block with less than x one or zero bits before it
+	 */
+	private long selectSuperBlock(long x, boolean ones) {
+		LongArray samples = ones ? selectSamples1 : selectSamples0;
+		long sample = (x - 1) / selectSampleRate;
+		long min = samples.get(sample);
+		long max = sample + 1 < samples.length() ? samples.get(sample + 1) + 1 : superBlocks.length();
+
+		while (min + 1 < max) {
+			long mid = (min + max) >>> 1;
+
+			if (superBlockCount(mid, ones) >= x) {
+				max = mid;
+			} else {
+				min = mid;
+			}
+		}
+
+		return min;
 	}
 
 	/**
@@ -181,6 +275,7 @@ public class Bitmap375Big extends Bitmap64Big {
 		}
 		pop = countSuperBlock + countBlock;
 		indexUpToDate = true;
+		updateSelectSamples();
 	}
 
 	/*
@@ -260,14 +355,21 @@ public class Bitmap375Big extends Bitmap64Big {
 			return numbits;
 		}
 
-		// Search superblock (binary Search)
-		long superBlockIndex = binarySearch0(superBlocks, 0, superBlocks.length(), x);
-		if (superBlockIndex < 0) {
-			// Not found exactly, gives the position where it should be inserted
-			superBlockIndex = -superBlockIndex - 2;
-		} else if (superBlockIndex > 0) {
-			// If found exact, we need to check previous block.
-			superBlockIndex--;
+		long superBlockIndex;
+		if (selectSamples0 != null && x > 0) {
+			// search between the samples
+			superBlockIndex = selectSuperBlock(x, false);
+		} else {
+			// Search superblock (binary Search)
+			superBlockIndex = binarySearch0(superBlocks, 0, superBlocks.length(), x);
+			if (superBlockIndex < 0) {
+				// Not found exactly, gives the position where it should be
+				// inserted
+				superBlockIndex = -superBlockIndex - 2;
+			} else if (superBlockIndex > 0) {
+				// If found exact, we need to check previous block.
+				superBlockIndex--;
+			}
 		}
 
 		// If there is a run of many ones, two correlative superblocks may have
@@ -323,8 +425,14 @@ public class Bitmap375Big extends Bitmap64Big {
 		if (numbits == 0) {
 			return 0;
 		}
-		// Search superblock (binary Search)
-		long superBlockIndex = binarySearch(superBlocks, x);
+		long superBlockIndex;
+		if (selectSamples1 != null && x > 0) {
+			// search between the samples
+			superBlockIndex = selectSuperBlock(x, true);
+		} else {
+			// Search superblock (binary Search)
+			superBlockIndex = binarySearch(superBlocks, x);
+		}
 
 		// If there is a run of many zeros, two correlative superblocks may have
 		// the same value,
@@ -385,8 +493,13 @@ public class Bitmap375Big extends Bitmap64Big {
 	public long getRealSizeBytes() {
 		updateIndex();
 
-		return super.getRealSizeBytes() + blocks.length() * blocks.sizeOf() / 8
+		long size = super.getRealSizeBytes() + blocks.length() * blocks.sizeOf() / 8
 				+ superBlocks.length() * superBlocks.sizeOf() / 8;
+		if (selectSamples1 != null) {
+			size += selectSamples1.length() * selectSamples1.sizeOf() / 8
+					+ selectSamples0.length() * selectSamples0.sizeOf() / 8;
+		}
+		return size;
 	}
 
 	/*
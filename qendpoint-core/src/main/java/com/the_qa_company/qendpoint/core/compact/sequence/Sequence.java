@@ -47,6 +47,22 @@ public interface Sequence extends Closeable {
 	 */
 	long get(long position);
 
+	/**
+	 * Gets a range of consecutive elements, the implementations can override it
+	 * to decode the elements a word at a time instead of calling
+	 * {@link #get(long)} for each element
+	 *
+	 * @param position The position of the first element
+	 * @param buffer   The buffer to fill
+	 * @param offset   The offset in the buffer
+	 * @param length   The number of elements to read
+	 */
+	default void getRange(long position, long[] buffer, int offset, int length) {
+		for (int i = 0; i < length; i++) {
+			buffer[offset + i] = get(position + i);
+		}
+	}
+
 	/**
 	 * Gets the total number of elements in the array
 	 *
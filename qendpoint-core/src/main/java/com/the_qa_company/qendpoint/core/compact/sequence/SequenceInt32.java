@@ -96,6 +96,18 @@ public class SequenceInt32 implements DynamicSequence {
 		return data[(int) position];
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		if (position < 0 || length < 0 || position + length > numelements) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		int start = (int) position;
+		for (int i = 0; i < length; i++) {
+			buffer[offset + i] = data[start + i];
+		}
+	}
+
 	@Override
 	public void set(long position, long value) {
 		if (position < 0 || position >= data.length) {
@@ -95,6 +95,13 @@ public class SequenceInt64 implements DynamicSequence {
 		return data[(int) position];
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		assert position >= 0 && position + length <= Integer.MAX_VALUE;
+
+		System.arraycopy(data, (int) position, buffer, offset, length);
+	}
+
 	@Override
 	public void set(long position, long value) {
 		assert position >= 0 && position <= Integer.MAX_VALUE;
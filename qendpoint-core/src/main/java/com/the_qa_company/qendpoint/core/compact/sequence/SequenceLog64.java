@@ -131,6 +131,48 @@ public class SequenceLog64 implements DynamicSequence {
 		return result;
 	}
 
+	/**
+	 * Retrieve the values of a range of indexes from array data where every
+	 * value uses bitsField bits, each word is read only once
+	 *
+	 * @param data      Array
+	 * @param bitsField Length in bits of each field
+	 * @param index     Position of the first value
+	 * @param buffer    Buffer to fill
+	 * @param offset    Offset in the buffer
+	 * @param length    Number of values to retrieve
+	 */
+	private static void getFields(long[] data, int bitsField, long index, long[] buffer, int offset, int length) {
+		if (length <= 0) {
+			return;
+		}
+		if (bitsField == 0) {
+			Arrays.fill(buffer, offset, offset + length, 0);
+			return;
+		}
+
+		long mask = -1L >>> (W - bitsField);
+		long bitPos = index * bitsField;
+		int i = (int) (bitPos / W);
+		int j = (int) (bitPos % W);
+		long word = data[i];
+		for (int k = offset, end = offset + length; k < end; k++) {
+			if (j == W) {
+				word = data[++i];
+				j = 0;
+			}
+			long value = word >>> j;
+			j += bitsField;
+			if (j > W) {
+				// the value is split between two words
+				word = data[++i];
+				j -= W;
+				value |= word << (bitsField - j);
+			}
+			buffer[k] = value & mask;
+		}
+	}
+
 	/**
 	 * Store a given value in index into array data where every value uses
 	 * bitsField bits
@@ -231,6 +273,15 @@ public class SequenceLog64 implements DynamicSequence {
 		return getField(data, numbits, position);
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		if (position < 0 || length < 0 || position + length > numentries) {
+			throw new IndexOutOfBoundsException();
+		}
+
+		getFields(data, numbits, position, buffer, offset, length);
+	}
+
 	@Override
 	public void set(long position, long value) {
 		if (value < 0 || value > maxvalue) {
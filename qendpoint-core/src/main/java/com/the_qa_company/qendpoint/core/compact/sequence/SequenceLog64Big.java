@@ -22,6 +22,7 @@ package com.the_qa_company.qendpoint.core.compact.sequence;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.Arrays;
 import java.util.Iterator;
 
 import com.the_qa_company.qendpoint.core.exceptions.CRCException;
@@ -117,6 +118,49 @@ public class SequenceLog64Big implements DynamicSequence {
 		return result;
 	}
 
+	/**
+	 * Retrieve the values of a range of indexes from array data where every
+	 * value uses bitsField bits, each word is read only once
+	 *
+	 * @param data      Array
+	 * @param bitsField Length in bits of each field
+	 * @param index     Position of the first value
+	 * @param buffer    Buffer to fill
+	 * @param offset    Offset in the buffer
+	 * @param length    Number of values to retrieve
+	 */
+	private static void getFields(UnsafeLongArray data, int bitsField, long index, long[] buffer, int offset,
+			int length) {
+		if (length <= 0) {
+			return;
+		}
+		if (bitsField == 0) {
+			Arrays.fill(buffer, offset, offset + length, 0);
+			return;
+		}
+
+		long mask = -1L >>> (W - bitsField);
+		long bitPos = index * bitsField;
+		long i = (long) (bitPos / W);
+		int j = (int) (bitPos % W);
+		long word = data.get(i);
+		for (int k = offset, end = offset + length; k < end; k++) {
+			if (j == W) {
+				word = data.get(++i);
+				j = 0;
+			}
+			long value = word >>> j;
+			j += bitsField;
+			if (j > W) {
+				// the value is split between two words
+				word = data.get(++i);
+				j -= W;
+				value |= word << (bitsField - j);
+			}
+			buffer[k] = value & mask;
+		}
+	}
+
 	/**
 	 * Store a given value in index into array data where every value uses
 	 * bitsField bits
@@ -201,6 +245,11 @@ public class SequenceLog64Big implements DynamicSequence {
 		return getField(data, numbits, position);
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		getFields(data, numbits, position, buffer, offset, length);
+	}
+
 	@Override
 	public void set(long position, long value) {
 		if (value < 0 || value > maxvalue) {
@@ -29,6 +29,7 @@ import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
 
 public class SequenceLog64BigDisk implements DynamicSequence, Closeable {
@@ -138,6 +139,48 @@ public class SequenceLog64BigDisk implements DynamicSequence, Closeable {
 		return result;
 	}
 
+	/**
+	 * Retrieve the values of a range of indexes from array data where every
+	 * value uses bitsField bits, each word is read only once
+	 *
+	 * @param data      Array
+	 * @param bitsField Length in bits of each field
+	 * @param index     Position of the first value
+	 * @param buffer    Buffer to fill
+	 * @param offset    Offset in the buffer
+	 * @param length    Number of values to retrieve
+	 */
+	private static void getFields(LongArray data, int bitsField, long index, long[] buffer, int offset, int length) {
+		if (length <= 0) {
+			return;
+		}
+		if (bitsField == 0) {
+			Arrays.fill(buffer, offset, offset + length, 0);
+			return;
+		}
+
+		long mask = -1L >>> (W - bitsField);
+		long bitPos = index * bitsField;
+		long i = (long) (bitPos / W);
+		int j = (int) (bitPos % W);
+		long word = data.get(i);
+		for (int k = offset, end = offset + length; k < end; k++) {
+			if (j == W) {
+				word = data.get(++i);
+				j = 0;
+			}
+			long value = word >>> j;
+			j += bitsField;
+			if (j > W) {
+				// the value is split between two words
+				word = data.get(++i);
+				j -= W;
+				value |= word << (bitsField - j);
+			}
+			buffer[k] = value & mask;
+		}
+	}
+
 	/**
 	 * Store a given value in index into array data where every value uses
 	 * bitsField bits
@@ -196,6 +239,16 @@ public class SequenceLog64BigDisk implements DynamicSequence, Closeable {
 		return getField(data, numbits, position);
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		if (position < 0 || length < 0 || numWordsFor(numbits, position + length) > data.length()) {
+			throw new IndexOutOfBoundsException(
+					position + " < 0 || " + (position + length) + " > " + data.length() * 64 / numbits);
+		}
+
+		getFields(data, numbits, position, buffer, offset, length);
+	}
+
 	@Override
 	public void set(long position, long value) {
 		if (value < 0 || value > maxvalue) {
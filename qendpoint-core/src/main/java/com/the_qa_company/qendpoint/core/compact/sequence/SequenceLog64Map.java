@@ -34,6 +34,8 @@ import com.the_qa_company.qendpoint.core.util.io.CloseMappedByteBuffer;
 import com.the_qa_company.qendpoint.core.util.io.Closer;
 import com.the_qa_company.qendpoint.core.util.io.CountInputStream;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.io.MappedSegment;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
 
 import java.io.BufferedInputStream;
 import java.io.Closeable;
@@ -46,17 +48,20 @@ import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Paths;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.function.BiConsumer;
 
 /**
  * @author mario.arias
  */
-public class SequenceLog64Map implements Sequence, Closeable {
+public class SequenceLog64Map implements Sequence, Closeable, MappedWarmable {
 	private static final byte W = 64;
 	private static final long LONGS_PER_BUFFER = 128 * 1024 * 1024; // 128*8 =
 	// 1Gb per
 	// chunk.
 	private CloseMappedByteBuffer[] buffers;
+	private MappedSegment segment;
 	private FileChannel ch;
 	private final int numbits;
 	private final long numentries;
@@ -131,8 +136,21 @@ public class SequenceLog64Map implements Sequence, Closeable {
 		if (buffers != null) {
 			IOUtil.closeAll(buffers);
 		}
-		buffers = new CloseMappedByteBuffer[(int) (1L + numwords / LONGS_PER_BUFFER)];
-		while (block < numwords) {
+		if (segment != null) {
+			segment.close();
+			segment = null;
+		}
+		if (MappedSegment.isSupported()) {
+			// map all the words in one segment
+			buffers = null;
+			if (numwords > 0) {
+				segment = IOUtil.mapSegment(f.getAbsolutePath(), ch, MapMode.READ_ONLY, base, maxSize - base,
+						ByteOrder.LITTLE_ENDIAN);
+			}
+		} else {
+			buffers = new CloseMappedByteBuffer[(int) (1L + numwords / LONGS_PER_BUFFER)];
+		}
+		while (buffers != null && block < numwords) {
 			long current = base + buffer * 8L * LONGS_PER_BUFFER;
 			long next = current + 8L * LONGS_PER_BUFFER;
 			long length = Math.min(maxSize, next) - current;
@@ -177,6 +195,9 @@ public class SequenceLog64Map implements Sequence, Closeable {
 		if (w == numwords - 1) {
 			return lastword;
 		}
+		if (segment != null) {
+			return segment.getLong(w * 8);
+		}
 
 		return buffers[(int) (w / LONGS_PER_BUFFER)].getLong((int) ((w % LONGS_PER_BUFFER) * 8));
 	}
@@ -206,6 +227,56 @@ public class SequenceLog64Map implements Sequence, Closeable {
 		return result;
 	}
 
+	@Override
+	public void getRange(long position, long[] buffer, int offset, int length) {
+		if (position < 0 || length < 0 || position + length > numentries) {
+			throw new IndexOutOfBoundsException(position + " < 0 || " + (position + length) + "> " + numentries);
+		}
+
+		getFields(numbits, position, buffer, offset, length);
+	}
+
+	/**
+	 * Retrieve the values of a range of indexes from the mapped words where
+	 * every value uses bitsField bits, each word is read only once
+	 *
+	 * @param bitsField Length in bits of each field
+	 * @param index     Position of the first value
+	 * @param buffer    Buffer to fill
+	 * @param offset    Offset in the buffer
+	 * @param length    Number of values to retrieve
+	 */
+	private void getFields(int bitsField, long index, long[] buffer, int offset, int length) {
+		if (length <= 0) {
+			return;
+		}
+		if (bitsField == 0) {
+			Arrays.fill(buffer, offset, offset + length, 0);
+			return;
+		}
+
+		long mask = -1L >>> (W - bitsField);
+		long bitPos = index * bitsField;
+		long i = (long) (bitPos / W);
+		int j = (int) (bitPos % W);
+		long word = getWord(i);
+		for (int k = offset, end = offset + length; k < end; k++) {
+			if (j == W) {
+				word = getWord(++i);
+				j = 0;
+			}
+			long value = word >>> j;
+			j += bitsField;
+			if (j > W) {
+				// the value is split between two words
+				word = getWord(++i);
+				j -= W;
+				value |= word << (bitsField - j);
+			}
+			buffer[k] = value & mask;
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.triples.array.Stream#getNumberOfElements()
@@ -279,12 +350,27 @@ public class SequenceLog64Map implements Sequence, Closeable {
 		throw new NotImplementedException();
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		if (segment != null) {
+			consumer.accept(component, Region.of(segment));
+		}
+		if (buffers != null) {
+			for (CloseMappedByteBuffer buffer : buffers) {
+				if (buffer != null) {
+					consumer.accept(component, Region.of(buffer));
+				}
+			}
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
 		try {
-			Closer.closeAll(buffers, ch);
+			Closer.closeAll(buffers, segment, ch);
 		} finally {
 			buffers = null;
+			segment = null;
 		}
 	}
 }
@@ -21,9 +21,11 @@ package com.the_qa_company.qendpoint.core.dictionary;
 import com.the_qa_company.qendpoint.core.enums.RDFNodeType;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.header.Header;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 import java.io.Closeable;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -42,6 +44,20 @@ public interface Dictionary extends Closeable {
 	 */
 	CharSequence idToString(long id, TripleComponentRole position);
 
+	/**
+	 * Returns the string for a given id, the string is decoded in a buffer if
+	 * the dictionary supports it, the returned value is only valid until the
+	 * next usage of this buffer.
+	 *
+	 * @param id     The id to convert to string
+	 * @param role   TriplePosition of the id in the dictionary
+	 * @param buffer The buffer to decode the string
+	 * @return String
+	 */
+	default CharSequence idToString(long id, TripleComponentRole role, ReplazableString buffer) {
+		return idToString(id, role);
+	}
+
 	/**
 	 * Returns the id for a given string
 	 *
@@ -51,6 +67,24 @@ public interface Dictionary extends Closeable {
 	 */
 	long stringToId(CharSequence str, TripleComponentRole position);
 
+	/**
+	 * Returns the ids of strings, the strings should be sorted in the
+	 * {@link com.the_qa_company.qendpoint.core.util.string.ByteString} order to
+	 * allow the implementation to search them with a single sweep over the
+	 * sections.
+	 *
+	 * @param strings  The sorted strings to convert to ids
+	 * @param position TriplePosition of the strings in the dictionary
+	 * @param ids      The array to fill with the ids, -1 for the strings not in
+	 *                 the dictionary
+	 */
+	default void stringToIds(List<? extends CharSequence> strings, TripleComponentRole position, long[] ids) {
+		for (int i = 0; i < strings.size(); i++) {
+			long id = stringToId(strings.get(i), position);
+			ids[i] = id > 0 ? id : -1;
+		}
+	}
+
 	/**
 	 * get a string iterator of a triple component role including the shared
 	 * elements
@@ -47,6 +47,7 @@ import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.options.HDTSpecification;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.string.ByteString;
 
 import java.nio.file.Path;
@@ -177,19 +178,27 @@ public class DictionaryFactory {
 	public static SectionCompressor createSectionCompressor(HDTOptions spec, CloseSuppressPath baseFileName,
 			AsyncIteratorFetcher<TripleString> source, MultiThreadListener listener, int bufferSize, long chunkSize,
 			int k, boolean debugSleepKwayDict) {
+		return createSectionCompressor(spec, baseFileName, source, listener, bufferSize, chunkSize, k,
+				debugSleepKwayDict, ChunkCodec.NONE);
+	}
+
+	public static SectionCompressor createSectionCompressor(HDTOptions spec, CloseSuppressPath baseFileName,
+			AsyncIteratorFetcher<TripleString> source, MultiThreadListener listener, int bufferSize, long chunkSize,
+			int k, boolean debugSleepKwayDict, ChunkCodec codec) {
 		String name = spec.get(HDTOptionsKeys.DICTIONARY_TYPE_KEY, "");
 
 		switch (name) {
 		case "":
 		case HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION:
 		case HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION_BIG:
-			return new SectionCompressor(baseFileName, source, listener, bufferSize, chunkSize, k, debugSleepKwayDict);
+			return new SectionCompressor(baseFileName, source, listener, bufferSize, chunkSize, k, debugSleepKwayDict,
+					codec);
 		case HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS:
 			return new MultiSectionSectionCompressor(baseFileName, source, listener, bufferSize, chunkSize, k,
-					debugSleepKwayDict);
+					debugSleepKwayDict, codec);
 		case HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG:
 			return new MultiSectionLangSectionCompressor(baseFileName, source, listener, bufferSize, chunkSize, k,
-					debugSleepKwayDict);
+					debugSleepKwayDict, codec);
 		default:
 			throw new IllegalFormatException("Implementation of section compressor not found for " + name);
 		}
@@ -202,16 +211,28 @@ public class DictionaryFactory {
 	 * @return Dictionary
 	 */
 	public static DictionaryPrivate createDictionary(ControlInfo ci) {
+		return createDictionary(ci, new HDTSpecification());
+	}
+
+	/**
+	 * Creates a dictionary to load or map an HDT, the spec is used for the read
+	 * options such as {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY}
+	 *
+	 * @param ci   the control info of the dictionary
+	 * @param spec the spec
+	 * @return Dictionary
+	 */
+	public static DictionaryPrivate createDictionary(ControlInfo ci, HDTOptions spec) {
 		String name = ci.getFormat();
 		switch (name) {
 		case HDTVocabulary.DICTIONARY_TYPE_FOUR_SECTION:
-			return new FourSectionDictionary(new HDTSpecification());
+			return new FourSectionDictionary(spec);
 		case HDTVocabulary.DICTIONARY_TYPE_FOUR_PSFC_SECTION:
-			return new PSFCFourSectionDictionary(new HDTSpecification());
+			return new PSFCFourSectionDictionary(spec);
 		case HDTVocabulary.DICTIONARY_TYPE_MULT_SECTION:
-			return new MultipleSectionDictionary(new HDTSpecification());
+			return new MultipleSectionDictionary(spec);
 		case HDTVocabulary.DICTIONARY_TYPE_MULT_SECTION_LANG:
-			return new MultipleSectionDictionaryLang(new HDTSpecification());
+			return new MultipleSectionDictionaryLang(spec);
 		default:
 			throw new IllegalFormatException("Implementation of dictionary not found for " + name);
 		}
@@ -18,8 +18,13 @@ package com.the_qa_company.qendpoint.core.dictionary;
  * Martinez-Prieto: migumar2@infor.uva.es Alejandro Andres: fuzzy.alej@gmail.com
  */
 
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.DelayedString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+
 import java.io.Closeable;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Interface that specifies the basic methods for a dictionary section
@@ -36,6 +41,21 @@ public interface DictionarySection extends Closeable {
 	 */
 	long locate(CharSequence s);
 
+	/**
+	 * Find the IDs of sorted strings, faster than calling
+	 * {@link #locate(CharSequence)} on each string for some implementations.
+	 *
+	 * @param strings the strings to search, sorted in the {@link ByteString}
+	 *                order
+	 * @param ids     the array to fill with the IDs, 0 for the strings not in
+	 *                the section
+	 */
+	default void locateAll(List<? extends CharSequence> strings, long[] ids) {
+		for (int i = 0; i < strings.size(); i++) {
+			ids[i] = locate(strings.get(i));
+		}
+	}
+
 	/**
 	 * Find the String associated to a given ID
 	 *
@@ -44,6 +64,24 @@ public interface DictionarySection extends Closeable {
 	 */
 	CharSequence extract(long pos);
 
+	/**
+	 * Find the String associated to a given ID, the string is decoded in a
+	 * buffer, the returned value is only valid until the next usage of this
+	 * buffer.
+	 *
+	 * @param id     the id to extract
+	 * @param buffer the buffer to decode the string
+	 * @return the String, or null if the id is not in the section
+	 */
+	default ByteString extract(long id, ReplazableString buffer) {
+		CharSequence str = extract(id);
+		if (str == null) {
+			return null;
+		}
+		buffer.replace(DelayedString.unwrap(str));
+		return buffer;
+	}
+
 	/**
 	 * Size in bytes of the strings held in the dictionary section.
 	 *
@@ -23,6 +23,7 @@ import com.the_qa_company.qendpoint.core.dictionary.DictionaryPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.TempDictionary;
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.enums.DictionarySectionRole;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
@@ -32,8 +33,11 @@ import com.the_qa_company.qendpoint.core.options.HDTOptions;
 import com.the_qa_company.qendpoint.core.util.LiteralsUtils;
 import com.the_qa_company.qendpoint.core.util.string.CompactString;
 import com.the_qa_company.qendpoint.core.util.string.DelayedString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -56,6 +60,17 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 		this.spec = spec;
 	}
 
+	/**
+	 * wrap the loaded sections with the cache configured in the spec
+	 */
+	protected void createSectionCaches() {
+		HDTOptions opt = HDTOptions.ofNullable(spec);
+		shared = DictionarySectionFactory.withCache(shared, opt);
+		subjects = DictionarySectionFactory.withCache(subjects, opt);
+		predicates = DictionarySectionFactory.withCache(predicates, opt);
+		objects = DictionarySectionFactory.withCache(objects, opt);
+	}
+
 	protected long getGlobalId(long id, DictionarySectionRole position) {
 		return switch (position) {
 		case SUBJECT, OBJECT -> shared.getNumberOfElements() + id;
@@ -157,6 +172,89 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 		}
 	}
 
+	@Override
+	public void stringToIds(List<? extends CharSequence> strings, TripleComponentRole position, long[] ids) {
+		int size = strings.size();
+		List<CharSequence> strs = new ArrayList<>(size);
+		for (CharSequence str : strings) {
+			str = DelayedString.unwrap(str);
+			if (str instanceof String) {
+				// CompactString is more efficient for the binary search.
+				str = new CompactString(str);
+			}
+			strs.add(str);
+		}
+
+		switch (position) {
+		case SUBJECT -> {
+			shared.locateAll(strs, ids);
+			locateMissing(strs, ids, subjects, DictionarySectionRole.SHARED, DictionarySectionRole.SUBJECT, false);
+		}
+		case PREDICATE -> {
+			predicates.locateAll(strs, ids);
+			for (int i = 0; i < size; i++) {
+				ids[i] = ids[i] != 0 ? getGlobalId(ids[i], DictionarySectionRole.PREDICATE) : -1;
+			}
+		}
+		case OBJECT -> {
+			// the literals can't be in the shared section
+			List<CharSequence> nonLiterals = new ArrayList<>(size);
+			int[] nonLiteralsIndex = new int[size];
+			for (int i = 0; i < size; i++) {
+				CharSequence str = strs.get(i);
+				ids[i] = 0;
+				if (str != null && !str.isEmpty() && str.charAt(0) != '"') {
+					nonLiteralsIndex[nonLiterals.size()] = i;
+					nonLiterals.add(str);
+				}
+			}
+			long[] sharedIds = new long[nonLiterals.size()];
+			shared.locateAll(nonLiterals, sharedIds);
+			for (int i = 0; i < sharedIds.length; i++) {
+				ids[nonLiteralsIndex[i]] = sharedIds[i];
+			}
+			locateMissing(strs, ids, objects, DictionarySectionRole.SHARED, DictionarySectionRole.OBJECT, true);
+		}
+		default -> throw new IllegalArgumentException();
+		}
+	}
+
+	/**
+	 * convert the ids found in the first section and search the missing strings
+	 * in the second section
+	 *
+	 * @param strs        strings
+	 * @param ids         ids, 0 for the missing strings
+	 * @param second      second section
+	 * @param firstRole   role of the first section
+	 * @param secondRole  role of the second section
+	 * @param searchEmpty search the empty strings
+	 */
+	private void locateMissing(List<CharSequence> strs, long[] ids, DictionarySection second,
+			DictionarySectionRole firstRole, DictionarySectionRole secondRole, boolean searchEmpty) {
+		List<CharSequence> missing = new ArrayList<>();
+		int[] missingIndex = new int[strs.size()];
+		for (int i = 0; i < strs.size(); i++) {
+			if (ids[i] != 0) {
+				ids[i] = getGlobalId(ids[i], firstRole);
+				continue;
+			}
+			ids[i] = -1;
+			CharSequence str = strs.get(i);
+			if (str != null && (searchEmpty || !str.isEmpty())) {
+				missingIndex[missing.size()] = i;
+				missing.add(str);
+			}
+		}
+		long[] secondIds = new long[missing.size()];
+		second.locateAll(missing, secondIds);
+		for (int i = 0; i < secondIds.length; i++) {
+			if (secondIds[i] != 0) {
+				ids[missingIndex[i]] = getGlobalId(secondIds[i], secondRole);
+			}
+		}
+	}
+
 	@Override
 	public long getNumberOfElements() {
 		return subjects.getNumberOfElements() + predicates.getNumberOfElements() + objects.getNumberOfElements()
@@ -241,6 +339,13 @@ public abstract class BaseDictionary implements DictionaryPrivate {
 		return section.extract(localId);
 	}
 
+	@Override
+	public CharSequence idToString(long id, TripleComponentRole role, ReplazableString buffer) {
+		DictionarySectionPrivate section = getSection(id, role);
+		long localId = getLocalId(id, role);
+		return section.extract(localId, buffer);
+	}
+
 	@Override
 	public TreeMap<? extends CharSequence, DictionarySection> getAllObjects() {
 		return new TreeMap<>(Map.of(LiteralsUtils.NO_DATATYPE, objects));
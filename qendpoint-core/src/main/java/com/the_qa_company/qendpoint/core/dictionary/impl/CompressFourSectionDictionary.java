@@ -6,12 +6,16 @@ import com.the_qa_company.qendpoint.core.dictionary.TempDictionarySection;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.OneReadDictionarySection;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.AsyncNodeConsumer;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.CompressionResult;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
 import com.the_qa_company.qendpoint.core.triples.IndexedNode;
 import com.the_qa_company.qendpoint.core.triples.TempTriples;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressUtil;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
 import com.the_qa_company.qendpoint.core.utils.DebugOrderNodeIterator;
+import com.the_qa_company.qendpoint.core.iterator.utils.AsyncPrefetchExceptionIterator;
+import com.the_qa_company.qendpoint.core.iterator.utils.ExceptionIterator;
 import com.the_qa_company.qendpoint.core.iterator.utils.MapIterator;
 import com.the_qa_company.qendpoint.core.iterator.utils.NotificationExceptionIterator;
 import com.the_qa_company.qendpoint.core.iterator.utils.PipedCopyIterator;
@@ -19,6 +23,7 @@ import com.the_qa_company.qendpoint.core.util.concurrent.ExceptionThread;
 import com.the_qa_company.qendpoint.core.util.string.CharSequenceComparator;
 import com.the_qa_company.qendpoint.core.util.string.CompactString;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.util.Comparator;
 import java.util.function.Consumer;
@@ -27,11 +32,19 @@ import java.util.function.Consumer;
  * Version of temp dictionary create the four sections from the SPO compressed
  * sections result, should be loaded in a async way with
  * {@link DictionaryPrivate#loadAsync(TempDictionary, ProgressListener)}
+ * <p>
+ * With the parallel mode, the sorted subjects, predicates and objects are read
+ * by their own threads and the ids are sent to the node consumer by one thread
+ * per role, the thread splitting the subjects and the objects is only comparing
+ * the nodes.
  *
  * @author Antoine Willerval
  */
 public class CompressFourSectionDictionary implements TempDictionary {
+	private static final int PREFETCH_BATCH_SIZE = 1024;
+	private static final int PREFETCH_BUFFERS = 4;
 	private final ExceptionThread cfsdThread;
+	private final Closeable[] asyncComponents;
 	private final TempDictionarySection subject;
 	private final TempDictionarySection predicate;
 	private final TempDictionarySection object;
@@ -44,24 +57,62 @@ public class CompressFourSectionDictionary implements TempDictionary {
 		pipe.addElement(new CompactString(node.getNode()));
 	}
 
+	private static ExceptionIterator<IndexedNode, IOException> prefetch(ExceptionIterator<IndexedNode, IOException> it,
+			String name) {
+		// the readers are reusing their nodes
+		return new AsyncPrefetchExceptionIterator<>(it, IndexedNode::clone, PREFETCH_BATCH_SIZE, PREFETCH_BUFFERS,
+				name);
+	}
+
 	public CompressFourSectionDictionary(CompressionResult compressionResult, NodeConsumer nodeConsumer,
 			ProgressListener listener, boolean debugOrder) {
+		this(compressionResult, nodeConsumer, listener, debugOrder, false);
+	}
+
+	/**
+	 * create the dictionary
+	 *
+	 * @param compressionResult compression result to read
+	 * @param nodeConsumer      consumer of the new ids
+	 * @param listener          listener
+	 * @param debugOrder        check the order of the nodes
+	 * @param parallel          read the roles and send the ids with multiple
+	 *                          threads, the ids are fully sent after the
+	 *                          {@link #close()} call
+	 */
+	public CompressFourSectionDictionary(CompressionResult compressionResult, NodeConsumer nodeConsumer,
+			ProgressListener listener, boolean debugOrder, boolean parallel) {
+		ExceptionIterator<IndexedNode, IOException> subjectsIt = compressionResult.getSubjects();
+		ExceptionIterator<IndexedNode, IOException> predicatesIt = compressionResult.getPredicates();
+		ExceptionIterator<IndexedNode, IOException> objectsIt = compressionResult.getObjects();
+		if (parallel) {
+			subjectsIt = prefetch(subjectsIt, "CFSDSubjectReader");
+			predicatesIt = prefetch(predicatesIt, "CFSDPredicateReader");
+			objectsIt = prefetch(objectsIt, "CFSDObjectReader");
+			nodeConsumer = new AsyncNodeConsumer(nodeConsumer);
+			// close the consumer before the readers to send the ids
+			asyncComponents = new Closeable[] { (Closeable) nodeConsumer, (Closeable) subjectsIt,
+					(Closeable) predicatesIt, (Closeable) objectsIt };
+		} else {
+			asyncComponents = new Closeable[0];
+		}
+		NodeConsumer consumer = nodeConsumer;
 		long splits = Math.max(20, compressionResult.getTripleCount() / 10_000);
 		Consumer<IndexedNode> debugOrderCheckerS = DebugOrderNodeIterator.of(debugOrder, "Subject");
 		Consumer<IndexedNode> debugOrderCheckerO = DebugOrderNodeIterator.of(debugOrder, "Object");
 		// send duplicate to the consumer while reading the nodes
 		CompressUtil.DuplicatedIterator sortedSubject = CompressUtil.asNoDupeCharSequenceIterator(
-				new NotificationExceptionIterator<>(compressionResult.getSubjects(), compressionResult.getTripleCount(),
-						splits, "Subject section filling", listener),
-				(originalIndex, duplicatedIndex, lastHeader) -> nodeConsumer.onSubject(duplicatedIndex, lastHeader));
+				new NotificationExceptionIterator<>(subjectsIt, compressionResult.getTripleCount(), splits,
+						"Subject section filling", listener),
+				(originalIndex, duplicatedIndex, lastHeader) -> consumer.onSubject(duplicatedIndex, lastHeader));
 		CompressUtil.DuplicatedIterator sortedPredicate = CompressUtil.asNoDupeCharSequenceIterator(
-				new NotificationExceptionIterator<>(compressionResult.getPredicates(),
-						compressionResult.getTripleCount(), splits, "Predicate section filling", listener),
-				(originalIndex, duplicatedIndex, lastHeader) -> nodeConsumer.onPredicate(duplicatedIndex, lastHeader));
+				new NotificationExceptionIterator<>(predicatesIt, compressionResult.getTripleCount(), splits,
+						"Predicate section filling", listener),
+				(originalIndex, duplicatedIndex, lastHeader) -> consumer.onPredicate(duplicatedIndex, lastHeader));
 		CompressUtil.DuplicatedIterator sortedObject = CompressUtil.asNoDupeCharSequenceIterator(
-				new NotificationExceptionIterator<>(compressionResult.getObjects(), compressionResult.getTripleCount(),
-						splits, "Object section filling", listener),
-				(originalIndex, duplicatedIndex, lastHeader) -> nodeConsumer.onObject(duplicatedIndex, lastHeader));
+				new NotificationExceptionIterator<>(objectsIt, compressionResult.getTripleCount(), splits,
+						"Object section filling", listener),
+				(originalIndex, duplicatedIndex, lastHeader) -> consumer.onObject(duplicatedIndex, lastHeader));
 		long subjects = compressionResult.getSubjectsCount();
 		long predicates = compressionResult.getPredicatesCount();
 		long objects = compressionResult.getObjectsCount();
@@ -88,24 +139,24 @@ public class CompressFourSectionDictionary implements TempDictionary {
 					while (comp != 0) {
 						if (comp < 0) {
 							sendPiped(newSubject, CompressUtil.getHeaderId(subjectId++), subject, sortedSubject,
-									nodeConsumer::onSubject);
+									consumer::onSubject);
 							if (!sortedSubject.hasNext()) {
 								// no more subjects, send the current object and
 								// break the shared loop
 								sendPiped(newObject, CompressUtil.getHeaderId(objectId++), object, sortedObject,
-										nodeConsumer::onObject);
+										consumer::onObject);
 								break sharedLoop;
 							}
 							newSubject = sortedSubject.next();
 							debugOrderCheckerS.accept(newSubject);
 						} else {
 							sendPiped(newObject, CompressUtil.getHeaderId(objectId++), object, sortedObject,
-									nodeConsumer::onObject);
+									consumer::onObject);
 							if (!sortedObject.hasNext()) {
 								// no more objects, send the current subject and
 								// break the shared loop
 								sendPiped(newSubject, CompressUtil.getHeaderId(subjectId++), subject, sortedSubject,
-										nodeConsumer::onSubject);
+										consumer::onSubject);
 								break sharedLoop;
 							}
 							newObject = sortedObject.next();
@@ -117,8 +168,8 @@ public class CompressFourSectionDictionary implements TempDictionary {
 					long shid = CompressUtil.asShared(sharedId++);
 					sortedSubject.setLastHeader(shid);
 					sortedObject.setLastHeader(shid);
-					nodeConsumer.onSubject(newSubject.getIndex(), shid);
-					nodeConsumer.onObject(newObject.getIndex(), shid);
+					consumer.onSubject(newSubject.getIndex(), shid);
+					consumer.onObject(newObject.getIndex(), shid);
 					shared.addElement(new CompactString(newSubject.getNode()));
 				}
 				// at least one iterator is empty, closing the shared pipe
@@ -127,15 +178,14 @@ public class CompressFourSectionDictionary implements TempDictionary {
 				while (sortedSubject.hasNext()) {
 					IndexedNode next = sortedSubject.next();
 					debugOrderCheckerS.accept(next);
-					sendPiped(next, CompressUtil.getHeaderId(subjectId++), subject, sortedSubject,
-							nodeConsumer::onSubject);
+					sendPiped(next, CompressUtil.getHeaderId(subjectId++), subject, sortedSubject, consumer::onSubject);
 				}
 				subject.closePipe();
 				// do we have objects?
 				while (sortedObject.hasNext()) {
 					IndexedNode next = sortedObject.next();
 					debugOrderCheckerO.accept(next);
-					sendPiped(next, CompressUtil.getHeaderId(objectId++), object, sortedObject, nodeConsumer::onObject);
+					sendPiped(next, CompressUtil.getHeaderId(objectId++), object, sortedObject, consumer::onObject);
 				}
 				object.closePipe();
 			} catch (Throwable t) {
@@ -151,7 +201,7 @@ public class CompressFourSectionDictionary implements TempDictionary {
 		this.predicate = new OneReadDictionarySection(new MapIterator<>(sortedPredicate, (node, index) -> {
 			long header = CompressUtil.getHeaderId(index + 1);
 			sortedPredicate.setLastHeader(header);
-			nodeConsumer.onPredicate(node.getIndex(), header);
+			consumer.onPredicate(node.getIndex(), header);
 			// force duplication because it's not made in a pipe like with the
 			// others
 			return new CompactString(node.getNode());
@@ -224,6 +274,8 @@ public class CompressFourSectionDictionary implements TempDictionary {
 			cfsdThread.joinAndCrashIfRequired();
 		} catch (InterruptedException e) {
 			// normal
+		} finally {
+			IOUtil.closeAll(asyncComponents);
 		}
 	}
 
@@ -1,5 +1,6 @@
 package com.the_qa_company.qendpoint.core.dictionary.impl;
 
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCDictionarySectionMap;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCOptimizedExtractor;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
@@ -10,10 +11,14 @@ public class DictionaryPFCOptimizedExtractor implements OptimizedExtractor {
 
 	public DictionaryPFCOptimizedExtractor(BaseDictionary origDict) {
 		numshared = origDict.getNshared();
-		shared = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.shared);
-		subjects = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.subjects);
-		predicates = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.predicates);
-		objects = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.objects);
+		shared = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.shared));
+		subjects = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.subjects));
+		predicates = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.predicates));
+		objects = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.objects));
 	}
 
 	public CharSequence idToString(long id, TripleComponentRole role) {
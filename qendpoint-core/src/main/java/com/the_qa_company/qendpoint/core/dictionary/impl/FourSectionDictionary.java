@@ -123,6 +123,8 @@ public class FourSectionDictionary extends BaseDictionary {
 		subjects = DictionarySectionFactory.loadFrom(input, iListener);
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 		objects = DictionarySectionFactory.loadFrom(input, iListener);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -146,6 +148,8 @@ public class FourSectionDictionary extends BaseDictionary {
 		// Use cache only for predicates. Preload only up to 100K predicates.
 		// FIXME: DISABLED
 //		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+
+		createSectionCaches();
 	}
 
 	/*
@@ -122,6 +122,8 @@ public class FourSectionDictionaryBig extends BaseDictionary {
 		subjects = DictionarySectionFactory.loadFrom(input, iListener);
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 		objects = DictionarySectionFactory.loadFrom(input, iListener);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -145,6 +147,8 @@ public class FourSectionDictionaryBig extends BaseDictionary {
 		// Use cache only for predicates. Preload only up to 100K predicates.
 		// FIXME: DISABLED
 //		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+
+		createSectionCaches();
 	}
 
 	/*
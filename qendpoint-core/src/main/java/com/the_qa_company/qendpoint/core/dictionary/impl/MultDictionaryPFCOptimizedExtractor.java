@@ -1,6 +1,7 @@
 package com.the_qa_company.qendpoint.core.dictionary.impl;
 
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCDictionarySectionMap;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCOptimizedExtractor;
 import com.the_qa_company.qendpoint.core.dictionary.impl.utilCat.SectionUtil;
@@ -21,13 +22,16 @@ public class MultDictionaryPFCOptimizedExtractor implements OptimizedExtractor {
 
 	public MultDictionaryPFCOptimizedExtractor(MultipleBaseDictionary origDict) {
 		numshared = (int) origDict.getNshared();
-		shared = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.shared);
-		subjects = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.subjects);
-		predicates = new PFCOptimizedExtractor((PFCDictionarySectionMap) origDict.predicates);
+		shared = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.shared));
+		subjects = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.subjects));
+		predicates = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(origDict.predicates));
 		objects = new TreeMap<>(CharSequenceComparator.getInstance());
 		for (Map.Entry<? extends CharSequence, DictionarySection> entry : origDict.getAllObjects().entrySet()) {
-			objects.put(ByteString.of(entry.getKey()),
-					new PFCOptimizedExtractor((PFCDictionarySectionMap) entry.getValue()));
+			objects.put(ByteString.of(entry.getKey()), new PFCOptimizedExtractor(
+					(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(entry.getValue())));
 		}
 	}
 
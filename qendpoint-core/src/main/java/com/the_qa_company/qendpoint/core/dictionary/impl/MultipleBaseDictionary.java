@@ -3,6 +3,7 @@ package com.the_qa_company.qendpoint.core.dictionary.impl;
 import com.the_qa_company.qendpoint.core.dictionary.DictionaryPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.dictionary.impl.utilCat.SectionUtil;
 import com.the_qa_company.qendpoint.core.enums.DictionarySectionRole;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
@@ -33,6 +34,17 @@ public abstract class MultipleBaseDictionary implements DictionaryPrivate {
 		this.spec = spec;
 	}
 
+	/**
+	 * wrap the loaded sections with the cache configured in the spec
+	 */
+	protected void createSectionCaches() {
+		HDTOptions opt = HDTOptions.ofNullable(spec);
+		shared = DictionarySectionFactory.withCache(shared, opt);
+		subjects = DictionarySectionFactory.withCache(subjects, opt);
+		predicates = DictionarySectionFactory.withCache(predicates, opt);
+		objects.replaceAll((type, section) -> DictionarySectionFactory.withCache(section, opt));
+	}
+
 	protected long getGlobalId(long id, DictionarySectionRole position, CharSequence str) {
 		switch (position) {
 		case SUBJECT -> {
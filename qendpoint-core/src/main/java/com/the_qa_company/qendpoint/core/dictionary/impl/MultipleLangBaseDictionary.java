@@ -3,6 +3,7 @@ package com.the_qa_company.qendpoint.core.dictionary.impl;
 import com.the_qa_company.qendpoint.core.dictionary.DictionaryPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.enums.RDFNodeType;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
@@ -70,6 +71,17 @@ public abstract class MultipleLangBaseDictionary implements DictionaryPrivate {
 		noRdfTypeIndex = this.spec.getBoolean(HDTOptionsKeys.DICTIONARY_MSDL_NO_RDFTYPE_INDEX, false);
 	}
 
+	/**
+	 * wrap the loaded subject, predicate and shared sections with the cache
+	 * configured in the spec, the literal sections are indexed by their
+	 * locations and are kept as is.
+	 */
+	protected void createSectionCaches() {
+		shared = DictionarySectionFactory.withCache(shared, spec);
+		subjects = DictionarySectionFactory.withCache(subjects, spec);
+		predicates = DictionarySectionFactory.withCache(predicates, spec);
+	}
+
 	@Override
 	public long getNAllObjects() {
 		return shared.getNumberOfElements() + nonTyped.getNumberOfElements()
@@ -203,6 +203,8 @@ public class MultipleSectionDictionary extends MultipleBaseDictionary {
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 
 		readLiteralsMap(input, listener);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -223,6 +225,8 @@ public class MultipleSectionDictionary extends MultipleBaseDictionary {
 		// Use cache only for predicates. Preload only up to 100K predicates.
 		// FIXME: DISABLED
 //		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -187,6 +187,8 @@ public class MultipleSectionDictionaryBig extends MultipleBaseDictionary {
 		predicates = DictionarySectionFactory.loadFrom(input, iListener);
 
 		readLiteralsMap(input, listener);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -210,6 +212,8 @@ public class MultipleSectionDictionaryBig extends MultipleBaseDictionary {
 		// Use cache only for predicates. Preload only up to 100K predicates.
 		// FIXME: DISABLED
 //		predicates = new DictionarySectionCacheAll(predicates, predicates.getNumberOfElements()<100000);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -80,6 +80,8 @@ public class MultipleSectionDictionaryLang extends MultipleLangBaseDictionary {
 		nonTyped = DictionarySectionFactory.loadFrom(input, iListener);
 
 		readLiteralsMaps(input, listener);
+
+		createSectionCaches();
 	}
 
 	@Override
@@ -97,6 +99,8 @@ public class MultipleSectionDictionaryLang extends MultipleLangBaseDictionary {
 		nonTyped = DictionarySectionFactory.loadFrom(in, f, iListener);
 
 		mapLiteralsMaps(in, f, listener);
+
+		createSectionCaches();
 	}
 
 	@Override
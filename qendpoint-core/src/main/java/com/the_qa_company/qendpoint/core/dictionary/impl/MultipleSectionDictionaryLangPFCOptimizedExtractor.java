@@ -1,5 +1,6 @@
 package com.the_qa_company.qendpoint.core.dictionary.impl;
 
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.DictionarySectionFactory;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCDictionarySectionMap;
 import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCOptimizedExtractor;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
@@ -13,12 +14,16 @@ public class MultipleSectionDictionaryLangPFCOptimizedExtractor implements Optim
 	public MultipleSectionDictionaryLangPFCOptimizedExtractor(MultipleLangBaseDictionary dict) {
 		this.dict = dict;
 		nshared = dict.getNshared();
-		shared = new PFCOptimizedExtractor((PFCDictionarySectionMap) dict.shared);
-		subjects = new PFCOptimizedExtractor((PFCDictionarySectionMap) dict.subjects);
-		predicates = new PFCOptimizedExtractor((PFCDictionarySectionMap) dict.predicates);
+		shared = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(dict.shared));
+		subjects = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(dict.subjects));
+		predicates = new PFCOptimizedExtractor(
+				(PFCDictionarySectionMap) DictionarySectionFactory.withoutCache(dict.predicates));
 		objects = new PFCOptimizedExtractor[dict.getObjectsSectionCount()];
 		for (int i = 0; i < objects.length; i++) {
-			objects[i] = new PFCOptimizedExtractor((PFCDictionarySectionMap) dict.getObjectsSectionFromId(i).section());
+			objects[i] = new PFCOptimizedExtractor((PFCDictionarySectionMap) DictionarySectionFactory
+					.withoutCache(dict.getObjectsSectionFromId(i).section()));
 		}
 	}
 
@@ -9,6 +9,9 @@ import com.the_qa_company.qendpoint.core.util.string.CompactString;
 import com.the_qa_company.qendpoint.core.util.string.DelayedString;
 import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Prefix AND Suffix front-coded dictionary encodes strings so
  * PFCDictionarySection will encode more efficiently than w/the standard NTriple
@@ -62,11 +65,25 @@ public class PSFCFourSectionDictionary extends FourSectionDictionary {
 		return super.stringToId(encode(str), position);
 	}
 
+	@Override
+	public void stringToIds(List<? extends CharSequence> strings, TripleComponentRole position, long[] ids) {
+		List<CharSequence> encoded = new ArrayList<>(strings.size());
+		for (CharSequence str : strings) {
+			encoded.add(encode(str));
+		}
+		super.stringToIds(encoded, position, ids);
+	}
+
 	@Override
 	public CharSequence idToString(long id, TripleComponentRole position) {
 		return decode(super.idToString(id, position));
 	}
 
+	@Override
+	public CharSequence idToString(long id, TripleComponentRole position, ReplazableString buffer) {
+		return decode(super.idToString(id, position, buffer));
+	}
+
 	@Override
 	public String getType() {
 		return HDTVocabulary.DICTIONARY_TYPE_FOUR_PSFC_SECTION;
@@ -5,11 +5,14 @@ import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.TempDictionarySection;
 import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Iterator;
+import java.util.List;
 
 /**
  * Implementation of {@link DictionarySectionPrivate} from a
@@ -38,11 +41,21 @@ public class UnmodifiableDictionarySectionPrivate implements DictionarySectionPr
 		return wrapper.locate(s);
 	}
 
+	@Override
+	public void locateAll(List<? extends CharSequence> strings, long[] ids) {
+		wrapper.locateAll(strings, ids);
+	}
+
 	@Override
 	public CharSequence extract(long pos) {
 		return wrapper.extract(pos);
 	}
 
+	@Override
+	public ByteString extract(long id, ReplazableString buffer) {
+		return wrapper.extract(id, buffer);
+	}
+
 	@Override
 	public long size() {
 		return wrapper.size();
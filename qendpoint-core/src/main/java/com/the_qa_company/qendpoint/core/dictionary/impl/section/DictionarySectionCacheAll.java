@@ -25,10 +25,12 @@ import java.io.OutputStream;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.Map;
+import java.util.function.BiConsumer;
 
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
 import com.the_qa_company.qendpoint.core.dictionary.TempDictionarySection;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
 
 /**
  * DictionarySection that caches results returned by a child DictionarySection
@@ -36,7 +38,7 @@ import com.the_qa_company.qendpoint.core.listener.ProgressListener;
  *
  * @author mario.arias
  */
-public class DictionarySectionCacheAll implements DictionarySectionPrivate {
+public class DictionarySectionCacheAll implements DictionarySectionPrivate, MappedWarmable {
 
 	final int CACHE_ENTRIES = 128;
 	private final DictionarySectionPrivate child;
@@ -163,6 +165,13 @@ public class DictionarySectionCacheAll implements DictionarySectionPrivate {
 		child.load(it, count, listener);
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		if (child instanceof MappedWarmable warmable) {
+			warmable.collectRegions(component, consumer);
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
 		cacheString = null;
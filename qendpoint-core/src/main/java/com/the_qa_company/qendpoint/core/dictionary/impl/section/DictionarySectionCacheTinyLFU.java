@@ -0,0 +1,186 @@
+package com.the_qa_company.qendpoint.core.dictionary.impl.section;
+
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
+import com.the_qa_company.qendpoint.core.dictionary.TempDictionarySection;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.util.TinyLFUCache;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.CompactString;
+import com.the_qa_company.qendpoint.core.util.string.DelayedString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * DictionarySection caching the results of a child DictionarySection in a cache
+ * shared by all the threads, the memory budget is split between the locate and
+ * the extract caches.
+ *
+ * @see TinyLFUCache
+ */
+public class DictionarySectionCacheTinyLFU implements DictionarySectionPrivate, MappedWarmable {
+	/**
+	 * approximation of the memory used by a cache entry without the bytes of
+	 * the string
+	 */
+	static final long ENTRY_OVERHEAD = 96;
+	private static final long EXPECTED_STRING_SIZE = 64;
+
+	private final DictionarySectionPrivate child;
+	private final TinyLFUCache<ByteString, Long> locateCache;
+	private final TinyLFUCache<Long, CompactString> extractCache;
+
+	/**
+	 * create a cache section
+	 *
+	 * @param child     cached section
+	 * @param maxMemory memory budget of the cache in bytes
+	 */
+	public DictionarySectionCacheTinyLFU(DictionarySectionPrivate child, long maxMemory) {
+		this.child = child;
+		long cacheSize = Math.max(1, maxMemory / 2);
+		locateCache = new TinyLFUCache<>(cacheSize, ENTRY_OVERHEAD + EXPECTED_STRING_SIZE,
+				(key, id) -> ENTRY_OVERHEAD + key.length());
+		extractCache = new TinyLFUCache<>(cacheSize, ENTRY_OVERHEAD + EXPECTED_STRING_SIZE,
+				(id, str) -> ENTRY_OVERHEAD + str.length());
+	}
+
+	private static CompactString asKey(CharSequence s) {
+		CharSequence str = DelayedString.unwrap(s);
+		if (str instanceof CompactString cs) {
+			return cs;
+		}
+		// copy the mutable strings
+		return new CompactString(str);
+	}
+
+	@Override
+	public long locate(CharSequence s) {
+		// the byte strings are hashed like the compact strings, so the key is
+		// only copied when it is added to the cache
+		ByteString str = ByteString.of(s);
+		Long id = locateCache.get(str);
+		if (id == null) {
+			id = child.locate(str);
+			locateCache.put(asKey(str), id);
+		}
+		return id;
+	}
+
+	@Override
+	public void locateAll(List<? extends CharSequence> strings, long[] ids) {
+		// bulk searches are usually done once, they would only pollute the
+		// cache
+		child.locateAll(strings, ids);
+	}
+
+	@Override
+	public CharSequence extract(long pos) {
+		CompactString str = extractCache.get(pos);
+		if (str == null) {
+			CharSequence extracted = child.extract(pos);
+			if (extracted == null) {
+				return null;
+			}
+			str = asKey(extracted);
+			extractCache.put(pos, str);
+		}
+		return str;
+	}
+
+	@Override
+	public ByteString extract(long id, ReplazableString buffer) {
+		CompactString str = extractCache.get(id);
+		if (str != null) {
+			// the cached strings are immutable, no need to copy them
+			return str;
+		}
+		ByteString extracted = child.extract(id, buffer);
+		if (extracted != null) {
+			extractCache.put(id, asKey(extracted));
+		}
+		return extracted;
+	}
+
+	/**
+	 * @return the locate cache
+	 */
+	public TinyLFUCache<ByteString, Long> getLocateCache() {
+		return locateCache;
+	}
+
+	/**
+	 * @return the extract cache
+	 */
+	public TinyLFUCache<Long, CompactString> getExtractCache() {
+		return extractCache;
+	}
+
+	/**
+	 * @return the cached section
+	 */
+	public DictionarySectionPrivate getChild() {
+		return child;
+	}
+
+	@Override
+	public long size() {
+		return child.size();
+	}
+
+	@Override
+	public long getNumberOfElements() {
+		return child.getNumberOfElements();
+	}
+
+	@Override
+	public Iterator<? extends CharSequence> getSortedEntries() {
+		return child.getSortedEntries();
+	}
+
+	@Override
+	public void save(OutputStream output, ProgressListener listener) throws IOException {
+		child.save(output, listener);
+	}
+
+	@Override
+	public void load(InputStream input, ProgressListener listener) throws IOException {
+		locateCache.clear();
+		extractCache.clear();
+		child.load(input, listener);
+	}
+
+	@Override
+	public void load(TempDictionarySection other, ProgressListener listener) {
+		locateCache.clear();
+		extractCache.clear();
+		child.load(other, listener);
+	}
+
+	@Override
+	public void load(Iterator<? extends CharSequence> it, long count, ProgressListener listener) {
+		locateCache.clear();
+		extractCache.clear();
+		child.load(it, count, listener);
+	}
+
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		if (child instanceof MappedWarmable warmable) {
+			warmable.collectRegions(component, consumer);
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		locateCache.clear();
+		extractCache.clear();
+		child.close();
+	}
+}
@@ -23,8 +23,11 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
 import com.the_qa_company.qendpoint.core.dictionary.DictionarySectionPrivate;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.options.HDTSpecification;
 import com.the_qa_company.qendpoint.core.util.io.CountInputStream;
 
@@ -33,9 +36,49 @@ import com.the_qa_company.qendpoint.core.util.io.CountInputStream;
  */
 public class DictionarySectionFactory {
 
+	/**
+	 * default memory budget of a section cache
+	 */
+	public static final long DEFAULT_CACHE_SIZE = 8L * 1024 * 1024;
+
 	private DictionarySectionFactory() {
 	}
 
+	/**
+	 * wrap a section with the cache described in the spec
+	 *
+	 * @param section the section
+	 * @param spec    the spec, see {@link HDTOptionsKeys#DICTIONARY_CACHE_KEY}
+	 * @return the cached section, or section if no cache is configured
+	 */
+	public static DictionarySectionPrivate withCache(DictionarySectionPrivate section, HDTOptions spec) {
+		String type = spec.get(HDTOptionsKeys.DICTIONARY_CACHE_KEY, HDTOptionsKeys.DICTIONARY_CACHE_VALUE_NONE);
+		return switch (type) {
+		case HDTOptionsKeys.DICTIONARY_CACHE_VALUE_NONE -> section;
+		case HDTOptionsKeys.DICTIONARY_CACHE_VALUE_PER_THREAD -> new DictionarySectionCachePerThread(section);
+		case HDTOptionsKeys.DICTIONARY_CACHE_VALUE_TINY_LFU -> new DictionarySectionCacheTinyLFU(section,
+				spec.getInt(HDTOptionsKeys.DICTIONARY_CACHE_SIZE_KEY, DEFAULT_CACHE_SIZE));
+		default -> throw new IllegalArgumentException("Unknown dictionary cache type: " + type);
+		};
+	}
+
+	/**
+	 * get the section cached by a section created with
+	 * {@link #withCache(DictionarySectionPrivate, HDTOptions)}
+	 *
+	 * @param section the section
+	 * @return the cached section, or section if it isn't a cache
+	 */
+	public static DictionarySection withoutCache(DictionarySection section) {
+		if (section instanceof DictionarySectionCachePerThread cache) {
+			return cache.getChild();
+		}
+		if (section instanceof DictionarySectionCacheTinyLFU cache) {
+			return cache.getChild();
+		}
+		return section;
+	}
+
 	public static DictionarySectionPrivate loadFrom(InputStream input, ProgressListener listener) throws IOException {
 		if (!input.markSupported()) {
 			throw new IllegalArgumentException(
@@ -26,6 +26,7 @@ import com.the_qa_company.qendpoint.core.exceptions.IllegalFormatException;
 import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
 import com.the_qa_company.qendpoint.core.util.io.BigMappedByteBuffer;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
 import com.the_qa_company.qendpoint.core.compact.integer.VByte;
 import com.the_qa_company.qendpoint.core.compact.sequence.Sequence;
 import com.the_qa_company.qendpoint.core.compact.sequence.SequenceFactory;
@@ -42,29 +43,44 @@ import org.slf4j.LoggerFactory;
 
 import java.io.BufferedInputStream;
 import java.io.Closeable;
+import java.io.EOFException;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.ref.WeakReference;
 import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.channels.FileChannel.MapMode;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
+import java.util.function.BiConsumer;
+import java.util.List;
 
 /**
  * @author mario.arias
  * @author Dennis Diefenbach
  */
-public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closeable {
+public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closeable, MappedWarmable {
 	private static final Logger log = LoggerFactory.getLogger(PFCDictionarySectionMap.class);
 
 	static final int BLOCKS_PER_BYTEBUFFER = 50000;
 	protected FileChannel ch;
 	protected BigMappedByteBuffer[] buffers; // Encoded sequence
 	long[] posFirst; // Global byte position of the start of each buffer
+	long[] buffersSize; // Size of each buffer
+	/**
+	 * readers of the threads, the readers are static classes and are cleared
+	 * when the section is closed, so the thread maps aren't keeping the section
+	 * or its mapped buffers. The readers are weakly referenced to be collected
+	 * with their threads.
+	 */
+	private final List<WeakReference<BlockReader>> createdReaders = new ArrayList<>();
+	private final ThreadLocal<BlockReader> readers = ThreadLocal.withInitial(this::createReader);
 	protected int blocksize;
 	protected long numstrings;
 	protected Sequence blocks;
@@ -116,6 +132,7 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 		long numBuffers = 1L + numBlocks / BLOCKS_PER_BYTEBUFFER;
 		buffers = new BigMappedByteBuffer[(int) numBuffers];
 		posFirst = new long[(int) numBuffers];
+		buffersSize = new long[(int) numBuffers];
 
 		while (block < numBlocks - 1) {
 			long nextBlock = Math.min(numBlocks - 1, block + BLOCKS_PER_BYTEBUFFER);
@@ -126,6 +143,7 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 			buffers[buffer].order(ByteOrder.LITTLE_ENDIAN);
 
 			posFirst[buffer] = bytePos;
+			buffersSize[buffer] = nextBytePos - bytePos;
 
 			bytePos = nextBytePos;
 			block += BLOCKS_PER_BYTEBUFFER;
@@ -133,12 +151,11 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 		}
 	}
 
-	private long locateBlock(ByteString str) {
+	private long locateBlock(ByteString str, long low) {
 		if (blocks.getNumberOfElements() == 0) {
 			return -1;
 		}
 
-		long low = 0;
 		long high = blocks.getNumberOfElements() - 1;
 		long max = high;
 
@@ -175,7 +192,7 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 			return 0;
 		}
 
-		long blocknum = locateBlock(bstr);
+		long blocknum = locateBlock(bstr, 0);
 		if (blocknum >= 0) {
 			// Located exactly
 			return (blocknum * blocksize) + 1;
@@ -195,37 +212,73 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 		return 0;
 	}
 
+	@Override
+	public void locateAll(List<? extends CharSequence> strings, long[] ids) {
+		if (buffers == null || blocks == null) {
+			Arrays.fill(ids, 0, strings.size(), 0);
+			return;
+		}
+
+		// the strings are sorted, so the block of a string can't be before the
+		// block of the previous string
+		long low = 0;
+		ByteString prev = null;
+		for (int i = 0; i < strings.size(); i++) {
+			ByteString bstr = ByteString.of(strings.get(i));
+			if (prev != null && bstr.compareTo(prev) < 0) {
+				// not sorted, restart from the first block
+				low = 0;
+			}
+			prev = bstr;
+			long blocknum = locateBlock(bstr, low);
+			if (blocknum >= 0) {
+				// Located exactly
+				ids[i] = (blocknum * blocksize) + 1;
+				low = blocknum;
+				continue;
+			}
+			blocknum = -blocknum - 2;
+			if (blocknum < 0) {
+				ids[i] = 0;
+				continue;
+			}
+			low = blocknum;
+			long idblock = locateInBlock(blocknum, bstr);
+			ids[i] = idblock != 0 ? (blocknum * blocksize) + idblock + 1 : 0;
+		}
+	}
+
 	protected long locateInBlock(long block, ByteString str) {
 		if (block >= blocks.getNumberOfElements()) {
 			return 0;
 		}
 
-		ReplazableString tempString = new ReplazableString();
+		BlockReader reader = readers.get();
+		ReplazableString tempString = reader.tempString;
 
 		long idInBlock = 0;
 		int cshared = 0;
 
 //		dumpBlock(block);
 
-		BigMappedByteBuffer buffer = buffers[(int) (block / BLOCKS_PER_BYTEBUFFER)].duplicate();
-		buffer.position(blocks.get(block) - posFirst[(int) (block / BLOCKS_PER_BYTEBUFFER)]);
+		seek(reader, block);
 
 		try {
-			if (!buffer.hasRemaining()) {
+			if (!reader.hasRemaining()) {
 				return 0;
 			}
 
 			// Read the first string in the block
-			tempString.replace(buffer, 0);
+			reader.readString(tempString, 0);
 
 			idInBlock++;
 
-			while ((idInBlock < blocksize) && buffer.hasRemaining()) {
+			while ((idInBlock < blocksize) && reader.hasRemaining()) {
 				// Decode prefix
-				long delta = VByte.decode(buffer);
+				long delta = reader.readDelta();
 
 				// Copy suffix
-				tempString.replace(buffer, (int) delta);
+				reader.readString(tempString, (int) delta);
 
 				if (delta >= cshared) {
 					// Current delta value means that this string
@@ -256,6 +309,15 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 	 */
 	@Override
 	public CharSequence extract(long id) {
+		ByteString str = extract(id, readers.get().tempString);
+		if (str == null) {
+			return null;
+		}
+		return new CompactString(str).getDelayed();
+	}
+
+	@Override
+	public ByteString extract(long id, ReplazableString buffer) {
 		if (buffers == null || blocks == null) {
 			return null;
 		}
@@ -265,25 +327,108 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 		}
 
 		long block = (id - 1) / blocksize;
-		BigMappedByteBuffer buffer = buffers[(int) (block / BLOCKS_PER_BYTEBUFFER)].duplicate();
-		buffer.position(blocks.get(block) - posFirst[(int) (block / BLOCKS_PER_BYTEBUFFER)]);
+		BlockReader reader = readers.get();
+		seek(reader, block);
 
 		try {
-			ReplazableString tempString = new ReplazableString();
-			tempString.replace(buffer, 0);
+			reader.readString(buffer, 0);
 
 			long stringid = (id - 1) % blocksize;
 			for (long i = 0; i < stringid; i++) {
-				long delta = VByte.decode(buffer);
-				tempString.replace(buffer, (int) delta);
+				long delta = reader.readDelta();
+				reader.readString(buffer, (int) delta);
 			}
-			return new CompactString(tempString).getDelayed();
+			return buffer;
 		} catch (IOException e) {
 			log.error("Unexpected exception.", e);
 			return null;
 		}
 	}
 
+	private BlockReader createReader() {
+		BlockReader reader = new BlockReader();
+		synchronized (createdReaders) {
+			// remove the readers of the ended threads
+			createdReaders.removeIf(ref -> ref.get() == null);
+			createdReaders.add(new WeakReference<>(reader));
+		}
+		return reader;
+	}
+
+	/**
+	 * move a reader to the start of a block
+	 *
+	 * @param reader reader
+	 * @param block  block
+	 */
+	private void seek(BlockReader reader, long block) {
+		int index = (int) (block / BLOCKS_PER_BYTEBUFFER);
+		reader.buffer = buffers[index];
+		reader.offset = blocks.get(block) - posFirst[index];
+		reader.end = buffersSize[index];
+	}
+
+	/**
+	 * reader of the blocks of a thread, the mapped buffers are read with
+	 * absolute offsets, so we don't have to duplicate them for each read.
+	 */
+	private static class BlockReader {
+		private final ReplazableString tempString = new ReplazableString();
+		private BigMappedByteBuffer buffer;
+		private long offset;
+		private long end;
+
+		/**
+		 * remove the reference to the mapped buffer
+		 */
+		void clear() {
+			buffer = null;
+			offset = end = 0;
+		}
+
+		/**
+		 * @return if the reader can read another string
+		 */
+		boolean hasRemaining() {
+			return offset < end;
+		}
+
+		/**
+		 * read the VByte encoded shared prefix size
+		 *
+		 * @return prefix size
+		 * @throws IOException if the buffer ended
+		 */
+		long readDelta() throws IOException {
+			long out = 0;
+			int shift = 0;
+			byte readbyte;
+			do {
+				if (offset >= end) {
+					throw new EOFException();
+				}
+				if (shift >= 50) { // We read more bytes than required to load
+									// the max long
+					throw new IllegalArgumentException("Read more bytes than required to load the max long");
+				}
+				readbyte = buffer.get(offset++);
+				out |= (readbyte & 127L) << shift;
+				shift += 7;
+			} while ((readbyte & 0x80) == 0);
+			return out;
+		}
+
+		/**
+		 * read a string after the shared prefix
+		 *
+		 * @param str string to fill
+		 * @param pos shared prefix size
+		 */
+		void readString(ReplazableString str, int pos) {
+			offset = str.replace(buffer, offset, pos, end);
+		}
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.dictionary.DictionarySection#size()
@@ -349,8 +494,33 @@ public class PFCDictionarySectionMap implements DictionarySectionPrivate, Closea
 		}
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		if (blocks instanceof MappedWarmable warmable) {
+			warmable.collectRegions(component + ".blocks", consumer);
+		}
+		if (buffers != null) {
+			for (BigMappedByteBuffer buffer : buffers) {
+				if (buffer != null) {
+					buffer.collectRegions(component + ".data", consumer);
+				}
+			}
+		}
+	}
+
 	@Override
 	public void close() throws IOException {
+		// the other threads can keep their reader until they end
+		synchronized (createdReaders) {
+			for (WeakReference<BlockReader> ref : createdReaders) {
+				BlockReader reader = ref.get();
+				if (reader != null) {
+					reader.clear();
+				}
+			}
+			createdReaders.clear();
+		}
+		readers.remove();
 		blocks.close();
 		if (buffers != null) {
 			for (BigMappedByteBuffer buffer : buffers) {
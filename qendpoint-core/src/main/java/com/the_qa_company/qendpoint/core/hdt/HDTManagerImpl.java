@@ -25,6 +25,7 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.Bitmap;
 import com.the_qa_company.qendpoint.core.dictionary.impl.MultipleSectionDictionary;
 import com.the_qa_company.qendpoint.core.dictionary.impl.kcat.KCatImpl;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.CatTreeImpl;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.GenerationCheckpoint;
 import com.the_qa_company.qendpoint.core.iterator.utils.MapIterator;
 import com.the_qa_company.qendpoint.core.iterator.utils.PipedCopyIterator;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
@@ -72,8 +73,9 @@ public class HDTManagerImpl extends HDTManager {
 
 	@Override
 	protected HDT doMapHDT(String hdtFileName, ProgressListener listener, HDTOptions spec) throws IOException {
-		HDTPrivate hdt = new HDTImpl(spec);
+		HDTImpl hdt = new HDTImpl(spec);
 		hdt.mapFromHDT(new File(hdtFileName), 0, listener);
+		hdt.startWarmup(spec, listener);
 		return hdt;
 	}
 
@@ -94,9 +96,10 @@ public class HDTManagerImpl extends HDTManager {
 
 	@Override
 	public HDT doMapIndexedHDT(String hdtFileName, ProgressListener listener, HDTOptions spec) throws IOException {
-		HDTPrivate hdt = new HDTImpl(spec);
+		HDTImpl hdt = new HDTImpl(spec);
 		hdt.mapFromHDT(new File(hdtFileName), 0, listener);
 		hdt.loadOrCreateIndex(listener, spec);
+		hdt.startWarmup(spec, listener);
 		return hdt;
 	}
 
@@ -269,7 +272,8 @@ public class HDTManagerImpl extends HDTManager {
 		// read this file as stream, do not compress to allow the
 		// compressionType to be different from the file extension
 		try (InputStream stream = IOUtil.getFileInputStream(rdfFileName, false)) {
-			return doGenerateHDTDisk(stream, baseURI, rdfNotation, compressionType, hdtFormat, listener);
+			return doGenerateHDTDisk(stream, baseURI, rdfNotation, compressionType,
+					withCheckpointInput(hdtFormat, rdfFileName), listener);
 		}
 	}
 
@@ -411,8 +415,33 @@ public class HDTManagerImpl extends HDTManager {
 			RDFNotation rdfNotation, HDTOptions hdtFormat, ProgressListener listener)
 			throws IOException, ParserException {
 		try (InputStream is = IOUtil.getFileInputStream(filename)) {
-			return doHDTCatTree(fluxStop, supplier, is, baseURI, rdfNotation, hdtFormat, listener);
+			return doHDTCatTree(fluxStop, supplier, is, baseURI, rdfNotation, withCheckpointInput(hdtFormat, filename),
+					listener);
+		}
+	}
+
+	/**
+	 * set the identity of the input file for the generation checkpoints, if
+	 * they are used and the identity isn't already set
+	 *
+	 * @param hdtFormat options
+	 * @param filename  input file
+	 * @return options with the input identity
+	 * @throws IOException can't read the file attributes
+	 */
+	private static HDTOptions withCheckpointInput(HDTOptions hdtFormat, String filename) throws IOException {
+		if (!hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_CHECKPOINT_KEY, false)
+				&& !hdtFormat.getBoolean(HDTOptionsKeys.LOADER_CATTREE_CHECKPOINT_KEY, false)
+				|| hdtFormat.get(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY) != null) {
+			return hdtFormat;
+		}
+		String identity = GenerationCheckpoint.fileIdentity(filename);
+		if (identity == null) {
+			return hdtFormat;
 		}
+		HDTOptions spec = hdtFormat.pushTop();
+		spec.set(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY, identity);
+		return spec;
 	}
 
 	@Override
@@ -0,0 +1,263 @@
+package com.the_qa_company.qendpoint.core.hdt;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Warmup of the mapped components of an HDT, the mapped regions of the selected
+ * components are loaded in memory by slices, in the file order, to avoid the
+ * random page faults of the first queries after a mapping.
+ * <p>
+ * The components are named with their path in the HDT, a name is selecting all
+ * the sub components starting with it:
+ * <ul>
+ * <li>{@link #DICTIONARY_BLOCKS}: positions of the blocks of the dictionary
+ * sections, used by all the binary searches</li>
+ * <li>{@link #DICTIONARY_DATA}: front coded strings of the dictionary
+ * sections</li>
+ * <li>{@link #TRIPLES_SEQ_Y}: Y sequence of the triples</li>
+ * <li>{@link #TRIPLES_SEQ_Z}: Z sequence of the triples, usually the biggest
+ * component</li>
+ * <li>{@link #TRIPLES_INDEX}: sequences of the triples indexes</li>
+ * </ul>
+ * The bitmaps aren't mapped, they are already in memory after the mapping.
+ *
+ * @see HDTOptionsKeys#WARMUP_COMPONENTS_KEY
+ */
+public class HDTWarmup implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(HDTWarmup.class);
+
+	/**
+	 * block positions of the dictionary sections
+	 */
+	public static final String DICTIONARY_BLOCKS = "dictionary.blocks";
+	/**
+	 * strings of the dictionary sections
+	 */
+	public static final String DICTIONARY_DATA = "dictionary.data";
+	/**
+	 * Y sequence of the triples
+	 */
+	public static final String TRIPLES_SEQ_Y = "triples.seqY";
+	/**
+	 * Z sequence of the triples
+	 */
+	public static final String TRIPLES_SEQ_Z = "triples.seqZ";
+	/**
+	 * sequences of the triples indexes
+	 */
+	public static final String TRIPLES_INDEX = "triples.index";
+	/**
+	 * components loaded with the {@link #VALUE_DEFAULT} value, the Z sequence,
+	 * the indexes and the strings are lazy
+	 */
+	public static final Set<String> DEFAULT_COMPONENTS = Set.of(DICTIONARY_BLOCKS, TRIPLES_SEQ_Y);
+	/**
+	 * value for the {@link #DEFAULT_COMPONENTS}
+	 */
+	public static final String VALUE_DEFAULT = "default";
+	/**
+	 * value for all the components
+	 */
+	public static final String VALUE_ALL = "all";
+	/**
+	 * value for no component
+	 */
+	public static final String VALUE_NONE = "none";
+
+	/**
+	 * max size loaded at once, the warmup can be cancelled between two slices
+	 */
+	private static final long SLICE_SIZE = 16L * 1024 * 1024;
+
+	/**
+	 * read the components of a {@link HDTOptionsKeys#WARMUP_COMPONENTS_KEY}
+	 * value
+	 *
+	 * @param value comma separated components, {@link #VALUE_DEFAULT},
+	 *              {@link #VALUE_ALL} or {@link #VALUE_NONE}, can be null
+	 * @return components, empty for no component
+	 */
+	public static Set<String> parseComponents(String value) {
+		Set<String> components = new TreeSet<>();
+		if (value == null) {
+			return components;
+		}
+		for (String part : value.split(",")) {
+			String component = part.trim();
+			switch (component) {
+			case "", VALUE_NONE -> {
+			}
+			case VALUE_DEFAULT -> components.addAll(DEFAULT_COMPONENTS);
+			case VALUE_ALL -> {
+				components.add("dictionary");
+				components.add("triples");
+			}
+			default -> components.add(component);
+			}
+		}
+		return components;
+	}
+
+	/**
+	 * test if a component is selected
+	 *
+	 * @param components selected components
+	 * @param component  component
+	 * @return true if the component or one of its parents is selected
+	 */
+	static boolean isSelected(Collection<String> components, String component) {
+		for (String selected : components) {
+			if (component.equals(selected) || component.startsWith(selected + ".")) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * create the warmup of the mapped components of an HDT
+	 *
+	 * @param hdt        HDT
+	 * @param components components to load
+	 * @return warmup
+	 */
+	public static HDTWarmup of(HDT hdt, Collection<String> components) {
+		List<MappedWarmable.Region> regions = new ArrayList<>();
+		if (!components.isEmpty()) {
+			Dictionary dictionary = hdt.getDictionary();
+			List<DictionarySection> sections = new ArrayList<>();
+			sections.add(dictionary.getShared());
+			sections.add(dictionary.getSubjects());
+			sections.add(dictionary.getPredicates());
+			sections.addAll(dictionary.getAllObjects().values());
+			for (DictionarySection section : sections) {
+				MappedWarmable.collectRegions(section, "dictionary", (component, region) -> {
+					if (isSelected(components, component)) {
+						regions.add(region);
+					}
+				});
+			}
+			MappedWarmable.collectRegions(hdt.getTriples(), "triples", (component, region) -> {
+				if (isSelected(components, component)) {
+					regions.add(region);
+				}
+			});
+		}
+		return new HDTWarmup(regions);
+	}
+
+	private final List<MappedWarmable.Region> regions;
+	private final long size;
+	private volatile boolean cancelled;
+	private volatile long loaded;
+	private Thread thread;
+
+	private HDTWarmup(List<MappedWarmable.Region> regions) {
+		this.regions = regions;
+		this.size = regions.stream().mapToLong(MappedWarmable.Region::size).sum();
+	}
+
+	/**
+	 * @return the size of the regions to load in bytes
+	 */
+	public long getSize() {
+		return size;
+	}
+
+	/**
+	 * @return the number of loaded bytes
+	 */
+	public long getLoaded() {
+		return loaded;
+	}
+
+	/**
+	 * load the regions in memory with the current thread
+	 *
+	 * @param listener listener
+	 * @return the number of loaded bytes
+	 */
+	public long run(ProgressListener listener) {
+		ProgressListener pl = ProgressListener.ofNullable(listener);
+		for (MappedWarmable.Region region : regions) {
+			long regionSize = region.size();
+			for (long offset = 0; offset < regionSize; offset += SLICE_SIZE) {
+				if (cancelled) {
+					return loaded;
+				}
+				long length = Math.min(SLICE_SIZE, regionSize - offset);
+				region.load(offset, length);
+				loaded += length;
+				pl.notifyProgress(100f * loaded / size, "warmup " + loaded + "/" + size + " bytes");
+			}
+		}
+		return loaded;
+	}
+
+	/**
+	 * load the regions in memory with a background thread
+	 *
+	 * @param listener listener
+	 */
+	public synchronized void start(ProgressListener listener) {
+		if (thread != null) {
+			throw new IllegalStateException("Warmup already started");
+		}
+		thread = new Thread(() -> {
+			long start = System.currentTimeMillis();
+			try {
+				run(listener);
+				logger.debug("Warmup of {}/{} bytes in {}ms", loaded, size, System.currentTimeMillis() - start);
+			} catch (Throwable t) {
+				logger.warn("Can't warmup the HDT", t);
+			}
+		}, "HDTWarmup");
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * cancel the warmup and wait for the end of the background thread, the
+	 * mapped regions can be closed after this call
+	 */
+	public void cancel() {
+		cancelled = true;
+		Thread thread;
+		synchronized (this) {
+			thread = this.thread;
+		}
+		if (thread == null || thread == Thread.currentThread()) {
+			return;
+		}
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				// we can't close the regions before the end of the thread
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	@Override
+	public void close() {
+		cancel();
+	}
+}
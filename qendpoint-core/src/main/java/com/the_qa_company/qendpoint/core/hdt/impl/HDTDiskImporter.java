@@ -9,8 +9,12 @@ import com.the_qa_company.qendpoint.core.hdt.HDT;
 import com.the_qa_company.qendpoint.core.hdt.HDTVocabulary;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.CompressTripleMapper;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.CompressionResult;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.CompressionResultFile;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.GenerationCheckpoint;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.MapOnCallHDT;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.SectionCompressor;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.TripleCompressionResult;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.TripleCompressionResultFile;
 import com.the_qa_company.qendpoint.core.header.HeaderPrivate;
 import com.the_qa_company.qendpoint.core.iterator.utils.AsyncIteratorFetcher;
 import com.the_qa_company.qendpoint.core.listener.MultiThreadListener;
@@ -25,10 +29,14 @@ import com.the_qa_company.qendpoint.core.util.Profiler;
 import com.the_qa_company.qendpoint.core.util.StringUtil;
 import com.the_qa_company.qendpoint.core.util.concurrent.KWayMerger;
 import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.io.compress.MapCompressTripleMerger;
 import com.the_qa_company.qendpoint.core.util.io.compress.TripleGenerator;
 import com.the_qa_company.qendpoint.core.util.listener.IntermediateListener;
 import com.the_qa_company.qendpoint.core.util.listener.ListenerUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -42,6 +50,34 @@ import java.util.Iterator;
  * @author Antoine Willerval
  */
 public class HDTDiskImporter implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(HDTDiskImporter.class);
+	/**
+	 * checkpoint step of the merged sections
+	 */
+	public static final String CHECKPOINT_STEP_SECTIONS = "sections";
+	/**
+	 * checkpoint step of the mapped and sorted triples
+	 */
+	public static final String CHECKPOINT_STEP_TRIPLES = "triples";
+	private static final String CHECKPOINT_SECTIONS_PATH = "sections.path";
+	private static final String CHECKPOINT_SECTIONS_TRIPLES = "sections.triples";
+	private static final String CHECKPOINT_SECTIONS_RAW_SIZE = "sections.rawSize";
+	private static final String CHECKPOINT_TRIPLES_PATH = "triples.path";
+	private static final String CHECKPOINT_TRIPLES_COUNT = "triples.count";
+	private static final CompressFourSectionDictionary.NodeConsumer NO_NODE_CONSUMER = new CompressFourSectionDictionary.NodeConsumer() {
+		@Override
+		public void onSubject(long preMapId, long newMapId) {
+		}
+
+		@Override
+		public void onPredicate(long preMapId, long newMapId) {
+		}
+
+		@Override
+		public void onObject(long preMapId, long newMapId) {
+		}
+	};
+
 	/**
 	 * @return ram on the system
 	 */
@@ -50,6 +86,24 @@ public class HDTDiskImporter implements Closeable {
 		return (runtime.maxMemory() - (runtime.totalMemory() - runtime.freeMemory()));
 	}
 
+	/**
+	 * read a sort method option
+	 *
+	 * @param spec spec
+	 * @param key  key of the option
+	 * @return true for {@link HDTOptionsKeys#SORT_METHOD_VALUE_RADIX}, false
+	 *         for {@link HDTOptionsKeys#SORT_METHOD_VALUE_COMPARATOR}
+	 * @throws IllegalArgumentException if the method is unknown
+	 */
+	public static boolean isRadixSort(HDTOptions spec, String key) {
+		String method = spec.get(key, HDTOptionsKeys.SORT_METHOD_VALUE_RADIX);
+		return switch (method) {
+		case HDTOptionsKeys.SORT_METHOD_VALUE_RADIX -> true;
+		case HDTOptionsKeys.SORT_METHOD_VALUE_COMPARATOR -> false;
+		default -> throw new IllegalArgumentException("Unknown sort method for " + key + ": " + method);
+		};
+	}
+
 	/**
 	 * @return a theoretical maximum amount of memory the JVM will attempt to
 	 *         use
@@ -71,6 +125,9 @@ public class HDTDiskImporter implements Closeable {
 	private final int bufferSize;
 	private final boolean mapHDT;
 	private final boolean debugHDTBuilding;
+	private final boolean parallelDictionary;
+	private final ChunkCodec chunkCodec;
+	private final GenerationCheckpoint checkpoint;
 	private final Profiler profiler;
 	private final HDTBase<? extends HeaderPrivate, ? extends DictionaryPrivate, ? extends TriplesPrivate> hdt;
 	private long rawSize;
@@ -79,6 +136,7 @@ public class HDTDiskImporter implements Closeable {
 	private boolean dict = false;
 	private boolean header = false;
 	private boolean triples = false;
+	private boolean completed = false;
 
 	public HDTDiskImporter(HDTOptions hdtFormat, ProgressListener progressListener, String baseURI) throws IOException {
 		this.hdtFormat = hdtFormat;
@@ -132,6 +190,12 @@ public class HDTDiskImporter implements Closeable {
 		// memory while mergin
 		futureHDTLocation = hdtFormat.get(HDTOptionsKeys.LOADER_DISK_FUTURE_HDT_LOCATION_KEY);
 		futureHDTLocationPath = futureHDTLocation == null ? null : Path.of(futureHDTLocation);
+		boolean useCheckpoint = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_CHECKPOINT_KEY, false);
+		if (useCheckpoint && (baseNameOpt == null || baseNameOpt.isEmpty())) {
+			throw new IllegalArgumentException("The disk generation checkpoint requires the "
+					+ HDTOptionsKeys.LOADER_DISK_LOCATION_KEY + " option");
+		}
+		String inputConfig = useCheckpoint ? GenerationCheckpoint.inputConfig(hdtFormat, baseURI) : null;
 
 		profiler = Profiler.createOrLoadSubSection("doGenerateHDTDisk", hdtFormat, true);
 		try {
@@ -144,6 +208,25 @@ public class HDTDiskImporter implements Closeable {
 			mapHDT = futureHDTLocation != null && !futureHDTLocation.isEmpty();
 			// debug the build strategy
 			debugHDTBuilding = hdtFormat.getBoolean("debug.disk.build");
+			parallelDictionary = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_DISK_PARALLEL_DICTIONARY_KEY, workers > 1);
+			chunkCodec = ChunkCodec.of(hdtFormat, HDTOptionsKeys.LOADER_DISK_CHUNK_CODEC_KEY);
+
+			if (useCheckpoint) {
+				checkpoint = GenerationCheckpoint.of(basePath,
+						"dictionary=" + hdtFormat.get(HDTOptionsKeys.DICTIONARY_TYPE_KEY, "") + ",order="
+								+ hdtFormat.get(HDTOptionsKeys.TRIPLE_ORDER_KEY, "") + ",mode=" + compressMode + ","
+								+ inputConfig);
+				if (!checkpoint.isStarted()) {
+					// nothing to resume, remove the files of a previous run
+					if (Files.exists(basePath)) {
+						IOUtil.deleteDirRecurse(basePath);
+					}
+				} else {
+					checkCheckpointFiles();
+				}
+			} else {
+				checkpoint = null;
+			}
 
 			// create working directory
 			basePath.mkdirs();
@@ -165,10 +248,42 @@ public class HDTDiskImporter implements Closeable {
 		}
 	}
 
+	/**
+	 * remove the steps of the checkpoint with missing files
+	 */
+	private void checkCheckpointFiles() {
+		if (checkpoint.isCompleted(CHECKPOINT_STEP_SECTIONS)) {
+			String sections = checkpoint.get(CHECKPOINT_SECTIONS_PATH);
+			if (sections == null || !Files.exists(basePath.resolve(sections))) {
+				logger.warn("Missing checkpoint sections {}, restart from the start", sections);
+				checkpoint.uncomplete(CHECKPOINT_STEP_SECTIONS);
+			}
+		}
+		if (checkpoint.isCompleted(CHECKPOINT_STEP_TRIPLES)) {
+			String triples = checkpoint.get(CHECKPOINT_TRIPLES_PATH);
+			// the sections are required to create the dictionary again
+			if (!checkpoint.isCompleted(CHECKPOINT_STEP_SECTIONS) || triples == null
+					|| !Files.exists(basePath.resolve(triples))) {
+				logger.warn("Missing checkpoint triples {}, restart from the sections", triples);
+				checkpoint.uncomplete(CHECKPOINT_STEP_TRIPLES);
+			}
+		}
+	}
+
+	/**
+	 * @return if the triples are read from the checkpoint
+	 */
+	private boolean isResumingTriples() {
+		return checkpoint != null && checkpoint.isCompleted(CHECKPOINT_STEP_TRIPLES);
+	}
+
 	/**
 	 * create the Dictonary of the HDT
 	 *
-	 * @param iterator the triples stream to create the dictionary
+	 * @param iterator the triples stream to create the dictionary, not read if
+	 *                 the sections are resumed from a checkpoint
+	 * @return the mapper to create the triples, null if the triples are resumed
+	 *         from a checkpoint
 	 * @throws java.lang.IllegalArgumentException is the component was already
 	 *                                            built
 	 */
@@ -186,10 +301,24 @@ public class HDTDiskImporter implements Closeable {
 		profiler.pushSection("section compression");
 		CompressionResult compressionResult;
 		try {
-			compressionResult = DictionaryFactory
-					.createSectionCompressor(hdtFormat, basePath.resolve("sectionCompression"), source, listener,
-							bufferSize, chunkSize, 1 << ways, hdtFormat.getBoolean("debug.disk.slow.stream2"))
-					.compress(workers, compressMode);
+			SectionCompressor compressor = DictionaryFactory.createSectionCompressor(hdtFormat,
+					basePath.resolve("sectionCompression"), source, listener, bufferSize, chunkSize, 1 << ways,
+					hdtFormat.getBoolean("debug.disk.slow.stream2"), chunkCodec);
+			if (checkpoint != null && checkpoint.isCompleted(CHECKPOINT_STEP_SECTIONS)) {
+				listener.notifyProgress(0, "Resume the sections from the checkpoint " + checkpoint.getFile());
+				compressionResult = compressor.openCompressedFile(
+						basePath.resolve(checkpoint.get(CHECKPOINT_SECTIONS_PATH)),
+						checkpoint.getLong(CHECKPOINT_SECTIONS_TRIPLES, 0),
+						checkpoint.getLong(CHECKPOINT_SECTIONS_RAW_SIZE, 0));
+			} else {
+				compressionResult = compressor.compress(workers, compressMode);
+				if (checkpoint != null && compressionResult instanceof CompressionResultFile file) {
+					checkpoint.set(CHECKPOINT_SECTIONS_PATH, basePath.relativize(file.getSections().getRoot()));
+					checkpoint.set(CHECKPOINT_SECTIONS_TRIPLES, file.getTripleCount());
+					checkpoint.set(CHECKPOINT_SECTIONS_RAW_SIZE, file.getRawSize());
+					checkpoint.complete(CHECKPOINT_STEP_SECTIONS);
+				}
+			}
 		} catch (KWayMerger.KWayMergerException | InterruptedException e) {
 			throw new ParserException(e);
 		}
@@ -201,9 +330,11 @@ public class HDTDiskImporter implements Closeable {
 		profiler.pushSection("dictionary write");
 		// create sections and triple mapping
 		DictionaryPrivate dictionary = hdt.getDictionary();
-		CompressTripleMapper mapper = new CompressTripleMapper(basePath, compressionResult.getTripleCount(), chunkSize);
+		// the mapper isn't required if the triples are already mapped
+		CompressTripleMapper mapper = isResumingTriples() ? null
+				: new CompressTripleMapper(basePath, compressionResult.getTripleCount(), chunkSize);
 		try (CompressFourSectionDictionary modifiableDictionary = new CompressFourSectionDictionary(compressionResult,
-				mapper, listener, debugHDTBuilding)) {
+				mapper != null ? mapper : NO_NODE_CONSUMER, listener, debugHDTBuilding, parallelDictionary)) {
 			dictionary.loadAsync(modifiableDictionary, listener);
 		} catch (InterruptedException e) {
 			throw new ParserException(e);
@@ -211,9 +342,16 @@ public class HDTDiskImporter implements Closeable {
 		profiler.popSection();
 
 		// complete the mapper with the shared count and delete compression data
-		compressionResult.delete();
+		if (checkpoint != null) {
+			// keep the sections to resume from the checkpoint
+			compressionResult.close();
+		} else {
+			compressionResult.delete();
+		}
 		rawSize = compressionResult.getRawSize();
-		mapper.setShared(dictionary.getNshared());
+		if (mapper != null) {
+			mapper.setShared(dictionary.getNshared());
+		}
 
 		this.dict = true;
 		return mapper;
@@ -222,7 +360,8 @@ public class HDTDiskImporter implements Closeable {
 	/**
 	 * create the Triples of the HDT
 	 *
-	 * @param mapper the mapper from the dictionary building
+	 * @param mapper the mapper from the dictionary building, can be null if the
+	 *               triples are resumed from a checkpoint
 	 * @throws java.lang.IllegalArgumentException is the component was already
 	 *                                            built
 	 */
@@ -237,10 +376,26 @@ public class HDTDiskImporter implements Closeable {
 		TripleComponentOrder order = triples.getOrder();
 		profiler.pushSection("triple compression/map");
 		try {
-			MapCompressTripleMerger tripleMapper = new MapCompressTripleMerger(basePath.resolve("tripleMapper"),
-					new AsyncIteratorFetcher<>(new TripleGenerator(mapper.getTripleCount())), mapper, listener, order,
-					bufferSize, chunkSize, 1 << ways);
-			tripleCompressionResult = tripleMapper.merge(workers, compressMode);
+			if (isResumingTriples()) {
+				listener.notifyProgress(40, "Resume the triples from the checkpoint " + checkpoint.getFile());
+				TripleCompressionResultFile file = new TripleCompressionResultFile(
+						checkpoint.getLong(CHECKPOINT_TRIPLES_COUNT, 0),
+						basePath.resolve(checkpoint.get(CHECKPOINT_TRIPLES_PATH)), order, bufferSize);
+				file.keepTriplesFile();
+				tripleCompressionResult = file;
+			} else {
+				MapCompressTripleMerger tripleMapper = new MapCompressTripleMerger(basePath.resolve("tripleMapper"),
+						new AsyncIteratorFetcher<>(new TripleGenerator(mapper.getTripleCount())), mapper, listener,
+						order, bufferSize, chunkSize, 1 << ways,
+						isRadixSort(hdtFormat, HDTOptionsKeys.LOADER_DISK_TRIPLE_SORT_KEY), chunkCodec);
+				tripleCompressionResult = tripleMapper.merge(workers, compressMode);
+				if (checkpoint != null && tripleCompressionResult instanceof TripleCompressionResultFile file) {
+					file.keepTriplesFile();
+					checkpoint.set(CHECKPOINT_TRIPLES_PATH, basePath.relativize(file.getTriplesPath()));
+					checkpoint.set(CHECKPOINT_TRIPLES_COUNT, file.getTripleCount());
+					checkpoint.complete(CHECKPOINT_STEP_TRIPLES);
+				}
+			}
 		} catch (KWayMerger.KWayMergerException | InterruptedException e) {
 			throw new ParserException(e);
 		}
@@ -259,7 +414,9 @@ public class HDTDiskImporter implements Closeable {
 			tempTriples.close();
 
 			// completed the triples, delete the mapper
-			mapper.delete();
+			if (mapper != null) {
+				mapper.delete();
+			}
 		} finally {
 			tripleCompressionResult.close();
 		}
@@ -317,6 +474,7 @@ public class HDTDiskImporter implements Closeable {
 			} finally {
 				hdt.close();
 			}
+			completed = true;
 			IntermediateListener il = new IntermediateListener(listener);
 			il.setPrefix("Map HDT: ");
 			il.setRange(95, 100);
@@ -327,6 +485,7 @@ public class HDTDiskImporter implements Closeable {
 				profiler.popSection();
 			}
 		} else {
+			completed = true;
 			listener.notifyProgress(100, "HDT completed");
 			return hdt;
 		}
@@ -360,7 +519,12 @@ public class HDTDiskImporter implements Closeable {
 			listener.notifyProgress(100, "Clearing disk");
 		} finally {
 			try {
-				basePath.close();
+				if (checkpoint != null && !completed) {
+					// keep the work directory to resume the generation
+					logger.info("Keeping the disk generation checkpoint {}", checkpoint.getFile());
+				} else {
+					basePath.close();
+				}
 			} finally {
 				profiler.close();
 			}
@@ -40,6 +40,7 @@ import com.the_qa_company.qendpoint.core.exceptions.NotImplementedException;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
 import com.the_qa_company.qendpoint.core.hdt.HDTVersion;
 import com.the_qa_company.qendpoint.core.hdt.HDTVocabulary;
+import com.the_qa_company.qendpoint.core.hdt.HDTWarmup;
 import com.the_qa_company.qendpoint.core.hdt.TempHDT;
 import com.the_qa_company.qendpoint.core.header.HeaderFactory;
 import com.the_qa_company.qendpoint.core.header.HeaderPrivate;
@@ -85,6 +86,7 @@ import java.io.OutputStream;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.Map;
+import java.util.Set;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -97,6 +99,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 	private String baseUri;
 	private boolean isMapped;
 	private boolean isClosed = false;
+	private HDTWarmup warmup;
 
 	public HDTImpl(HDTOptions spec) throws IOException {
 		super(spec);
@@ -141,14 +144,14 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(5, 60);
-		dictionary = DictionaryFactory.createDictionary(ci);
+		dictionary = DictionaryFactory.createDictionary(ci, spec);
 		dictionary.load(input, ci, iListener);
 
 		// Load Triples
 		ci.clear();
 		ci.load(input);
 		iListener.setRange(60, 100);
-		triples = TriplesFactory.createTriples(ci);
+		triples = TriplesFactory.createTriples(ci, spec);
 		triples.load(input, ci, iListener);
 
 		isClosed = false;
@@ -230,7 +233,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 			ci.load(input);
 			input.reset();
 			iListener.setRange(5, 60);
-			dictionary = DictionaryFactory.createDictionary(ci);
+			dictionary = DictionaryFactory.createDictionary(ci, spec);
 			dictionary.mapFromFile(input, f, iListener);
 
 			// Load Triples
@@ -240,7 +243,7 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 			input.reset();
 			iListener.setRange(60, 100);
 			input.printIndex("HDT Triples");
-			triples = TriplesFactory.createTriples(ci);
+			triples = TriplesFactory.createTriples(ci, spec);
 			triples.mapFromFile(input, f, iListener);
 		}
 
@@ -419,6 +422,11 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		} finally {
 			IOUtil.closeQuietly(in);
 		}
+
+		// additional orders
+		if (spec != null && triples instanceof BitmapTriples bitmapTriples) {
+			bitmapTriples.loadOrCreatePermutations(hdtFileName, isMapped, spec, dictionary, listener);
+		}
 	}
 
 	@Override
@@ -430,13 +438,46 @@ public class HDTImpl extends HDTBase<HeaderPrivate, DictionaryPrivate, TriplesPr
 		this.triples = triples;
 	}
 
+	/**
+	 * load the mapped components selected by the
+	 * {@link HDTOptionsKeys#WARMUP_COMPONENTS_KEY} key, the warmup is cancelled
+	 * when the HDT is closed
+	 *
+	 * @param spec     spec
+	 * @param listener listener
+	 */
+	public void startWarmup(HDTOptions spec, ProgressListener listener) {
+		if (!isMapped) {
+			return; // already in memory
+		}
+		Set<String> components = HDTWarmup.parseComponents(spec.get(HDTOptionsKeys.WARMUP_COMPONENTS_KEY));
+		if (components.isEmpty()) {
+			return;
+		}
+		IOUtil.closeQuietly(warmup);
+		warmup = HDTWarmup.of(this, components);
+		if (spec.getBoolean(HDTOptionsKeys.WARMUP_ASYNC_KEY, true)) {
+			warmup.start(listener);
+		} else {
+			warmup.run(listener);
+		}
+	}
+
+	/**
+	 * @return the last warmup of this HDT, null if no warmup was started
+	 */
+	public HDTWarmup getWarmup() {
+		return warmup;
+	}
+
 	@Override
 	public void close() throws IOException {
 		if (isClosed) {
 			return;
 		}
 		isClosed = true;
-		IOUtil.closeAll(dictionary, triples);
+		// wait for the warmup before unmapping its regions
+		IOUtil.closeAll(warmup, dictionary, triples);
 	}
 
 	// For debugging
@@ -0,0 +1,160 @@
+package com.the_qa_company.qendpoint.core.hdt.impl.diskimport;
+
+import com.the_qa_company.qendpoint.core.dictionary.impl.CompressFourSectionDictionary;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * {@link CompressFourSectionDictionary.NodeConsumer} sending the ids to another
+ * consumer with one thread per role, the subject, predicate and object mappings
+ * are written concurrently while the sections are built.
+ * <p>
+ * Each role should be called by one thread at a time, all the ids are sent to
+ * the wrapped consumer once {@link #close()} returns.
+ */
+public class AsyncNodeConsumer implements CompressFourSectionDictionary.NodeConsumer, Closeable {
+	private static final long[] END = new long[0];
+	private static final long WAIT_MS = 100;
+	private static final int BATCH_SIZE = 4096;
+	private static final int BUFFERS = 8;
+
+	@FunctionalInterface
+	private interface IdConsumer {
+		void consume(long preMapId, long newMapId);
+	}
+
+	private final RoleWriter subjects;
+	private final RoleWriter predicates;
+	private final RoleWriter objects;
+
+	public AsyncNodeConsumer(CompressFourSectionDictionary.NodeConsumer consumer) {
+		subjects = new RoleWriter(consumer::onSubject, "AsyncNodeConsumerS");
+		predicates = new RoleWriter(consumer::onPredicate, "AsyncNodeConsumerP");
+		objects = new RoleWriter(consumer::onObject, "AsyncNodeConsumerO");
+	}
+
+	@Override
+	public void onSubject(long preMapId, long newMapId) {
+		subjects.add(preMapId, newMapId);
+	}
+
+	@Override
+	public void onPredicate(long preMapId, long newMapId) {
+		predicates.add(preMapId, newMapId);
+	}
+
+	@Override
+	public void onObject(long preMapId, long newMapId) {
+		objects.add(preMapId, newMapId);
+	}
+
+	/**
+	 * send the remaining ids and wait for the end of the writers
+	 *
+	 * @throws IOException exception of a writer
+	 */
+	@Override
+	public void close() throws IOException {
+		IOUtil.closeAll(subjects, predicates, objects);
+	}
+
+	private static class RoleWriter implements Closeable {
+		private final IdConsumer consumer;
+		private final BlockingQueue<long[]> queue = new ArrayBlockingQueue<>(BUFFERS);
+		private final Thread thread;
+		private volatile Throwable exception;
+		private long[] buffer = new long[BATCH_SIZE * 2];
+		private int size;
+		private boolean closed;
+
+		RoleWriter(IdConsumer consumer, String name) {
+			this.consumer = consumer;
+			thread = new Thread(this::write, name);
+			thread.setDaemon(true);
+			thread.start();
+		}
+
+		private void write() {
+			try {
+				while (true) {
+					long[] ids = queue.take();
+					if (ids == END) {
+						return;
+					}
+					for (int i = 0; i < ids.length; i += 2) {
+						consumer.consume(ids[i], ids[i + 1]);
+					}
+				}
+			} catch (Throwable t) {
+				exception = t;
+				queue.clear();
+			}
+		}
+
+		void add(long preMapId, long newMapId) {
+			buffer[size++] = preMapId;
+			buffer[size++] = newMapId;
+			if (size == buffer.length) {
+				push(buffer);
+				buffer = new long[BATCH_SIZE * 2];
+				size = 0;
+			}
+		}
+
+		private void push(long[] ids) {
+			try {
+				while (!queue.offer(ids, WAIT_MS, TimeUnit.MILLISECONDS)) {
+					if (!thread.isAlive()) {
+						throwIfError();
+						throw new IllegalStateException("The id writer is closed");
+					}
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IllegalStateException("Interrupted while sending the ids", e);
+			}
+		}
+
+		private void throwIfError() {
+			Throwable t = exception;
+			if (t == null) {
+				return;
+			}
+			if (t instanceof RuntimeException re) {
+				throw re;
+			}
+			if (t instanceof Error err) {
+				throw err;
+			}
+			throw new IllegalStateException("Can't write the ids", t);
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (closed) {
+				return;
+			}
+			closed = true;
+			if (thread.isAlive()) {
+				if (size != 0) {
+					push(Arrays.copyOf(buffer, size));
+					size = 0;
+				}
+				push(END);
+			}
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new IOException("Interrupted while waiting for the id writer", e);
+			}
+			throwIfError();
+		}
+	}
+}
@@ -13,7 +13,10 @@ import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.Profiler;
 import com.the_qa_company.qendpoint.core.iterator.utils.FluxStopTripleStringIterator;
 import com.the_qa_company.qendpoint.core.util.io.Closer;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
 import com.the_qa_company.qendpoint.core.util.listener.PrefixListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.io.Closeable;
 import java.io.IOException;
@@ -21,10 +24,13 @@ import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * code for managing the Cat-Tree disk generation
@@ -32,6 +38,14 @@ import java.util.stream.Collectors;
  * @author Antoine Willerval
  */
 public class CatTreeImpl implements Closeable {
+	private static final Logger logger = LoggerFactory.getLogger(CatTreeImpl.class);
+	private static final String CHECKPOINT_GEN = "gen";
+	private static final String CHECKPOINT_CAT = "cat";
+	private static final String CHECKPOINT_CONSUMED = "consumed";
+	private static final String CHECKPOINT_NEXT_FILE = "nextFile";
+	private static final String CHECKPOINT_FILES = "files";
+	private static final String CHECKPOINT_CURRENT = "current";
+	private static final String CHECKPOINT_STEP_STARTED = "started";
 	private final HideHDTOptions hdtFormat;
 	private final int kHDTCat;
 	private final Path basePath;
@@ -39,6 +53,7 @@ public class CatTreeImpl implements Closeable {
 	private final Closer closer = Closer.of();
 	private final Profiler profiler;
 	private final boolean async;
+	private final boolean checkpoint;
 
 	/**
 	 * create implementation
@@ -58,8 +73,13 @@ public class CatTreeImpl implements Closeable {
 			}
 
 			String baseNameOpt = hdtFormat.get(HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY);
+			checkpoint = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_CATTREE_CHECKPOINT_KEY, false);
 
 			if (baseNameOpt == null || baseNameOpt.isEmpty()) {
+				if (checkpoint) {
+					throw new IllegalArgumentException("The CatTree checkpoint requires the "
+							+ HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY + " option");
+				}
 				basePath = Files.createTempDirectory("hdt-java-cat-tree");
 			} else {
 				basePath = Path.of(baseNameOpt);
@@ -72,8 +92,14 @@ public class CatTreeImpl implements Closeable {
 			boolean async = hdtFormat.getBoolean(HDTOptionsKeys.LOADER_CATTREE_ASYNC_KEY, false);
 			// hide the loader type to avoid infinite recursion
 			this.hdtFormat = new HideHDTOptions(hdtFormat, this::mapHiddenKeys);
+			// the generations are sharing the same disk location, a disk
+			// checkpoint can't be linked to a particular generation
+			this.hdtFormat.overrideValue(HDTOptionsKeys.LOADER_DISK_CHECKPOINT_KEY, false);
 
-			if (async) {
+			if (async && checkpoint) {
+				logger.warn("The async CatTree can't be resumed, using the sync version with the checkpoint");
+				this.async = false;
+			} else if (async) {
 				long worker = hdtFormat.getInt(HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, -1);
 
 				int processors;
@@ -213,34 +239,78 @@ public class CatTreeImpl implements Closeable {
 	 */
 	public HDT doGenerationSync(RDFFluxStop fluxStop, HDTSupplier supplier, Iterator<TripleString> iterator,
 			String baseURI, ProgressListener listener) throws IOException, ParserException {
-		FluxStopTripleStringIterator it = new FluxStopTripleStringIterator(iterator, fluxStop);
-
 		List<HDTFile> files = new ArrayList<>();
 
 		long gen = 0;
 		long cat = 0;
+		long consumed = 0;
+		boolean nextFile = true;
+		// the current HDT to merge with the previous files, only set when
+		// resuming during the merges of a generation
+		HDTFile current = null;
 
 		Path hdtStore = basePath.resolve("hdt-store");
 		Path hdtCatLocationPath = basePath.resolve("cat");
 
+		GenerationCheckpoint cp;
+		if (checkpoint) {
+			cp = GenerationCheckpoint.of(basePath, "kcat=" + kHDTCat + ",flux=" + fluxStop.asConfig() + ","
+					+ GenerationCheckpoint.inputConfig(hdtFormat, baseURI));
+			if (cp.isCompleted(CHECKPOINT_STEP_STARTED)) {
+				gen = cp.getLong(CHECKPOINT_GEN, 0);
+				cat = cp.getLong(CHECKPOINT_CAT, 0);
+				consumed = cp.getLong(CHECKPOINT_CONSUMED, 0);
+				nextFile = cp.getBoolean(CHECKPOINT_NEXT_FILE, true);
+				files.addAll(readCheckpointFiles(hdtStore, cp.get(CHECKPOINT_FILES)));
+				List<HDTFile> currentFile = readCheckpointFiles(hdtStore, cp.get(CHECKPOINT_CURRENT));
+				current = currentFile.isEmpty() ? null : currentFile.get(0);
+				listener.notifyProgress(0, "resuming after the generation #" + gen + " and the cat #" + cat + ", skip "
+						+ consumed + " triples");
+				deleteUnusedFiles(hdtStore, files, current);
+				// skip the triples of the previous generations
+				for (long i = 0; i < consumed; i++) {
+					if (!iterator.hasNext()) {
+						throw new IOException("The stream is smaller than the checkpoint " + cp.getFile() + ": " + i
+								+ " < " + consumed);
+					}
+					iterator.next();
+				}
+			} else if (Files.exists(hdtStore)) {
+				// nothing to resume, remove the files of a previous run
+				IOUtil.deleteDirRecurse(hdtStore);
+			}
+		} else {
+			cp = null;
+		}
+
 		Files.createDirectories(hdtStore);
 		Files.createDirectories(hdtCatLocationPath);
 
-		boolean nextFile;
-		do {
-			// generate the hdt
-			gen++;
-			profiler.pushSection("generateHDT #" + gen);
-			PrefixListener il = PrefixListener.of("gen#" + gen, listener);
-			Path hdtLocation = hdtStore.resolve("hdt-" + gen + ".hdt");
-			// help memory flooding algorithm
-			System.gc();
-			supplier.doGenerateHDT(it, baseURI, hdtFormat, il, hdtLocation);
-			il.clearThreads();
-
-			nextFile = it.hasNextFlux();
-			HDTFile hdtFile = new HDTFile(hdtLocation, 1);
-			profiler.popSection();
+		FluxStopTripleStringIterator it = new FluxStopTripleStringIterator(iterator, fluxStop);
+
+		while (nextFile || current != null) {
+			HDTFile hdtFile;
+			if (current != null) {
+				// resume the merge of a previous generation
+				hdtFile = current;
+				current = null;
+			} else {
+				// generate the hdt
+				gen++;
+				profiler.pushSection("generateHDT #" + gen);
+				PrefixListener il = PrefixListener.of("gen#" + gen, listener);
+				Path hdtLocation = hdtStore.resolve("hdt-" + gen + ".hdt");
+				// help memory flooding algorithm
+				System.gc();
+				supplier.doGenerateHDT(it, baseURI, hdtFormat, il, hdtLocation);
+				il.clearThreads();
+
+				nextFile = it.hasNextFlux();
+				hdtFile = new HDTFile(hdtLocation, 1);
+				profiler.popSection();
+
+				writeCheckpoint(cp, gen, cat, consumed + it.getCount(), nextFile, files, hdtFile);
+			}
 
 			// merge the generated hdt with each block with enough size
 			if (kHDTCat == 1) { // default impl
@@ -256,11 +326,13 @@ public class CatTreeImpl implements Closeable {
 						abcat.saveToHDT(hdtCatFileLocation, ilc);
 					}
 					ilc.clearThreads();
+					HDTFile catFile = new HDTFile(hdtCatFileLocation, lastHDTFile.getChunks() + hdtFile.getChunks());
+					writeCheckpoint(cp, gen, cat, consumed + it.getCount(), nextFile, files, catFile);
 					// delete previous chunks
 					Files.delete(lastHDTFile.getHdtFile());
 					Files.delete(hdtFile.getHdtFile());
 					// note the new hdt file and the number of chunks
-					hdtFile = new HDTFile(hdtCatFileLocation, lastHDTFile.getChunks() + hdtFile.getChunks());
+					hdtFile = catFile;
 
 					profiler.popSection();
 				}
@@ -291,20 +363,23 @@ public class CatTreeImpl implements Closeable {
 
 					ilc.clearThreads();
 
+					// note the new hdt file and the number of chunks
+					long chunks = nextHDTs.stream().mapToLong(HDTFile::getChunks).sum();
+					HDTFile catFile = new HDTFile(hdtCatFileLocation, chunks);
+					writeCheckpoint(cp, gen, cat, consumed + it.getCount(), nextFile, files, catFile);
 					// delete previous chunks
 					for (HDTFile nextHDT : nextHDTs) {
 						Files.delete(nextHDT.getHdtFile());
 					}
-					// note the new hdt file and the number of chunks
-					long chunks = nextHDTs.stream().mapToLong(HDTFile::getChunks).sum();
-					hdtFile = new HDTFile(hdtCatFileLocation, chunks);
+					hdtFile = catFile;
 
 					profiler.popSection();
 				}
 			}
 			assert nextFile || files.isEmpty() : "no data remaining, but contains files";
 			files.add(hdtFile);
-		} while (nextFile);
+			writeCheckpoint(cp, gen, cat, consumed + it.getCount(), nextFile, files, null);
+		}
 
 		listener.notifyProgress(100, "done, loading HDT");
 
@@ -328,12 +403,103 @@ public class CatTreeImpl implements Closeable {
 			// after
 			return HDTManager.loadHDT(hdtFile.toAbsolutePath().toString());
 		} finally {
+			if (cp != null) {
+				cp.clear();
+			}
 			Files.deleteIfExists(hdtFile);
 			profiler.stop();
 			profiler.writeProfiling();
 		}
 	}
 
+	/**
+	 * write the state of the generation in the checkpoint
+	 *
+	 * @param cp       checkpoint, null to ignore
+	 * @param gen      number of generated HDTs
+	 * @param cat      number of merged HDTs
+	 * @param consumed number of triples read by the generations
+	 * @param nextFile if the stream has remaining triples
+	 * @param files    the completed HDTs
+	 * @param current  the HDT to merge with the completed HDTs, null if the
+	 *                 merges of the generation are done
+	 * @throws IOException can't write the checkpoint
+	 */
+	private static void writeCheckpoint(GenerationCheckpoint cp, long gen, long cat, long consumed, boolean nextFile,
+			List<HDTFile> files, HDTFile current) throws IOException {
+		if (cp == null) {
+			return;
+		}
+		cp.set(CHECKPOINT_GEN, gen);
+		cp.set(CHECKPOINT_CAT, cat);
+		cp.set(CHECKPOINT_CONSUMED, consumed);
+		cp.set(CHECKPOINT_NEXT_FILE, nextFile);
+		cp.set(CHECKPOINT_FILES, files.stream().map(HDTFile::toCheckpoint).collect(Collectors.joining(";")));
+		cp.set(CHECKPOINT_CURRENT, current == null ? null : current.toCheckpoint());
+		cp.complete(CHECKPOINT_STEP_STARTED);
+	}
+
+	/**
+	 * read the HDTs of a checkpoint
+	 *
+	 * @param hdtStore the HDTs directory
+	 * @param value    the checkpoint value
+	 * @return HDTs
+	 * @throws IOException bad checkpoint value or missing HDT
+	 */
+	private static List<HDTFile> readCheckpointFiles(Path hdtStore, String value) throws IOException {
+		if (value == null || value.isEmpty()) {
+			return List.of();
+		}
+		List<HDTFile> files = new ArrayList<>();
+		for (String file : value.split(";")) {
+			int idx = file.lastIndexOf(':');
+			if (idx == -1) {
+				throw new IOException("Bad checkpoint HDT: " + file);
+			}
+			Path path = hdtStore.resolve(file.substring(0, idx));
+			if (!Files.exists(path)) {
+				throw new IOException("Missing checkpoint HDT: " + path);
+			}
+			try {
+				files.add(new HDTFile(path, Long.parseLong(file.substring(idx + 1))));
+			} catch (NumberFormatException e) {
+				throw new IOException("Bad checkpoint HDT: " + file, e);
+			}
+		}
+		return files;
+	}
+
+	/**
+	 * delete the files of the HDT store not in the checkpoint, written by an
+	 * interrupted generation or merge
+	 *
+	 * @param hdtStore HDT store
+	 * @param files    the completed HDTs
+	 * @param current  the HDT to merge, can be null
+	 * @throws IOException can't delete a file
+	 */
+	private static void deleteUnusedFiles(Path hdtStore, List<HDTFile> files, HDTFile current) throws IOException {
+		if (!Files.exists(hdtStore)) {
+			return;
+		}
+		Set<Path> used = new HashSet<>();
+		for (HDTFile file : files) {
+			used.add(file.getHdtFile().getFileName());
+		}
+		if (current != null) {
+			used.add(current.getHdtFile().getFileName());
+		}
+		try (Stream<Path> list = Files.list(hdtStore)) {
+			for (Path path : (Iterable<Path>) list::iterator) {
+				if (!used.contains(path.getFileName())) {
+					logger.debug("delete unused file {}", path);
+					IOUtil.deleteDirRecurse(path);
+				}
+			}
+		}
+	}
+
 	public HideHDTOptions getHdtFormat() {
 		return hdtFormat;
 	}
@@ -376,6 +542,10 @@ public class CatTreeImpl implements Closeable {
 			return hdtFile;
 		}
 
+		String toCheckpoint() {
+			return hdtFile.getFileName() + ":" + chunks;
+		}
+
 		@Override
 		public String toString() {
 			return "HDTFile{" + "hdtFile=" + hdtFile + ", chunks=" + chunks + '}';
@@ -50,6 +50,13 @@ public class CompressionResultFile implements CompressionResult {
 		return objects;
 	}
 
+	/**
+	 * @return the sections files
+	 */
+	public SectionCompressor.TripleFile getSections() {
+		return sections;
+	}
+
 	@Override
 	public void delete() throws IOException {
 		sections.delete();
@@ -0,0 +1,236 @@
+package com.the_qa_company.qendpoint.core.hdt.impl.diskimport;
+
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Properties;
+
+/**
+ * Manifest of the completed steps of a generation, stored in the working
+ * directory to resume the generation after a crash. The manifest is rewritten
+ * atomically after each step, so a crash can only lose the current step.
+ */
+public class GenerationCheckpoint {
+	private static final Logger logger = LoggerFactory.getLogger(GenerationCheckpoint.class);
+	/**
+	 * name of the manifest file in the working directory
+	 */
+	public static final String FILE_NAME = "checkpoint.properties";
+	private static final String CONFIG_KEY = "config";
+	private static final String STEP_PREFIX = "step.";
+
+	/**
+	 * read the checkpoint of a working directory, if the checkpoint was written
+	 * with another configuration, it is ignored and an empty checkpoint is
+	 * returned
+	 *
+	 * @param workDir working directory
+	 * @param config  configuration of the generation, the checkpoint is only
+	 *                valid with the same configuration
+	 * @return checkpoint
+	 * @throws IOException can't read the manifest
+	 */
+	public static GenerationCheckpoint of(Path workDir, String config) throws IOException {
+		GenerationCheckpoint checkpoint = new GenerationCheckpoint(workDir.resolve(FILE_NAME), config);
+		if (Files.exists(checkpoint.file)) {
+			Properties previous = new Properties();
+			try (Reader reader = Files.newBufferedReader(checkpoint.file, StandardCharsets.UTF_8)) {
+				previous.load(reader);
+			}
+			if (config.equals(previous.getProperty(CONFIG_KEY))) {
+				checkpoint.properties.putAll(previous);
+			} else {
+				logger.warn("Ignoring the checkpoint {} written with another configuration: {} != {}", checkpoint.file,
+						previous.getProperty(CONFIG_KEY), config);
+			}
+		}
+		return checkpoint;
+	}
+
+	/**
+	 * identity of a generated file, to put in the
+	 * {@link HDTOptionsKeys#LOADER_CHECKPOINT_INPUT_KEY} option
+	 *
+	 * @param file file name
+	 * @return identity with the path, the size and the modification time of the
+	 *         file, null if it isn't a local file
+	 * @throws IOException can't read the file attributes
+	 */
+	public static String fileIdentity(String file) throws IOException {
+		Path path;
+		try {
+			path = Path.of(file);
+		} catch (InvalidPathException e) {
+			return null;
+		}
+		if (!Files.isRegularFile(path)) {
+			return null;
+		}
+		return "file=" + path.toAbsolutePath() + ",size=" + Files.size(path) + ",mtime="
+				+ Files.getLastModifiedTime(path).toMillis();
+	}
+
+	/**
+	 * describe the input of a generation for its configuration, a checkpoint
+	 * written for another input can't be resumed
+	 *
+	 * @param spec    generation options
+	 * @param baseURI base URI of the generation
+	 * @return input configuration
+	 * @throws IllegalArgumentException if the input identity isn't set
+	 */
+	public static String inputConfig(HDTOptions spec, String baseURI) {
+		String input = spec.get(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY);
+		if (input == null || input.isEmpty()) {
+			throw new IllegalArgumentException("The generation checkpoint requires the "
+					+ HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY + " option when the input isn't a file");
+		}
+		return "input=" + input + ",baseURI=" + baseURI;
+	}
+
+	private final Path file;
+	private final Properties properties = new Properties();
+
+	private GenerationCheckpoint(Path file, String config) {
+		this.file = file;
+		properties.setProperty(CONFIG_KEY, config);
+	}
+
+	/**
+	 * @return if the checkpoint contains at least one completed step
+	 */
+	public boolean isStarted() {
+		return properties.size() > 1;
+	}
+
+	/**
+	 * @param step step name
+	 * @return if the step was completed
+	 */
+	public boolean isCompleted(String step) {
+		return Boolean.parseBoolean(properties.getProperty(STEP_PREFIX + step));
+	}
+
+	/**
+	 * mark a step as completed and write the checkpoint, the values set with
+	 * {@link #set(String, Object)} are written with it
+	 *
+	 * @param step step name
+	 * @throws IOException can't write the manifest
+	 */
+	public void complete(String step) throws IOException {
+		properties.setProperty(STEP_PREFIX + step, "true");
+		write();
+	}
+
+	/**
+	 * remove a completed step, the checkpoint isn't written
+	 *
+	 * @param step step name
+	 */
+	public void uncomplete(String step) {
+		properties.remove(STEP_PREFIX + step);
+	}
+
+	/**
+	 * set a value of the checkpoint, the checkpoint isn't written
+	 *
+	 * @param key   key
+	 * @param value value, null to remove the key
+	 */
+	public void set(String key, Object value) {
+		if (value == null) {
+			properties.remove(key);
+		} else {
+			properties.setProperty(key, String.valueOf(value));
+		}
+	}
+
+	/**
+	 * @param key key
+	 * @return value, null if not defined
+	 */
+	public String get(String key) {
+		return properties.getProperty(key);
+	}
+
+	/**
+	 * @param key          key
+	 * @param defaultValue default value
+	 * @return value, defaultValue if not defined
+	 * @throws IOException if the value isn't a number
+	 */
+	public long getLong(String key, long defaultValue) throws IOException {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		try {
+			return Long.parseLong(value);
+		} catch (NumberFormatException e) {
+			throw new IOException("Bad checkpoint value for " + key + ": " + value, e);
+		}
+	}
+
+	/**
+	 * @param key          key
+	 * @param defaultValue default value
+	 * @return value, defaultValue if not defined
+	 */
+	public boolean getBoolean(String key, boolean defaultValue) {
+		String value = properties.getProperty(key);
+		if (value == null) {
+			return defaultValue;
+		}
+		return Boolean.parseBoolean(value);
+	}
+
+	/**
+	 * write the checkpoint
+	 *
+	 * @throws IOException can't write the manifest
+	 */
+	public void write() throws IOException {
+		Path tmp = file.resolveSibling(file.getFileName() + ".tmp");
+		Files.createDirectories(Objects.requireNonNull(file.toAbsolutePath().getParent()));
+		try (Writer writer = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8)) {
+			properties.store(writer, "generation checkpoint");
+		}
+		try {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING);
+		}
+	}
+
+	/**
+	 * clear the steps and delete the manifest, the configuration is kept
+	 *
+	 * @throws IOException can't delete the manifest
+	 */
+	public void clear() throws IOException {
+		String config = properties.getProperty(CONFIG_KEY);
+		properties.clear();
+		properties.setProperty(CONFIG_KEY, config);
+		Files.deleteIfExists(file);
+	}
+
+	/**
+	 * @return the manifest file
+	 */
+	public Path getFile() {
+		return file;
+	}
+}
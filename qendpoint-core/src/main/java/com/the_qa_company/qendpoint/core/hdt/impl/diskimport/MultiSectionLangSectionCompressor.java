@@ -5,6 +5,7 @@ import com.the_qa_company.qendpoint.core.listener.MultiThreadListener;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.LiteralsUtils;
 import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.string.ByteString;
 import com.the_qa_company.qendpoint.core.util.string.CompactString;
 
@@ -14,6 +15,12 @@ public class MultiSectionLangSectionCompressor extends SectionCompressor {
 		super(baseFileName, source, listener, bufferSize, chunkSize, k, debugSleepKwayDict);
 	}
 
+	public MultiSectionLangSectionCompressor(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleString> source,
+			MultiThreadListener listener, int bufferSize, long chunkSize, int k, boolean debugSleepKwayDict,
+			ChunkCodec codec) {
+		super(baseFileName, source, listener, bufferSize, chunkSize, k, debugSleepKwayDict, codec);
+	}
+
 	@Override
 	protected ByteString convertObject(CharSequence seq) {
 		// no need to create a new ByteString from it knowing it's already a new
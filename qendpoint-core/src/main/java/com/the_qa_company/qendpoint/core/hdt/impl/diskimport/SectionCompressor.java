@@ -4,6 +4,7 @@ import com.the_qa_company.qendpoint.core.listener.MultiThreadListener;
 import com.the_qa_company.qendpoint.core.triples.IndexedNode;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.ParallelSortableArrayList;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressNodeMergeIterator;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressNodeReader;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressUtil;
@@ -50,9 +51,29 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 	private final long chunkSize;
 	private final int k;
 	private final boolean debugSleepKwayDict;
+	private final ChunkCodec codec;
 
 	public SectionCompressor(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleString> source,
 			MultiThreadListener listener, int bufferSize, long chunkSize, int k, boolean debugSleepKwayDict) {
+		this(baseFileName, source, listener, bufferSize, chunkSize, k, debugSleepKwayDict, ChunkCodec.NONE);
+	}
+
+	/**
+	 * create the compressor
+	 *
+	 * @param baseFileName       base directory of the chunks
+	 * @param source             source of the triples
+	 * @param listener           listener
+	 * @param bufferSize         size of the file buffers
+	 * @param chunkSize          max size of a chunk
+	 * @param k                  number of chunks merged at once
+	 * @param debugSleepKwayDict slow the merge for debug
+	 * @param codec              codec to compress the section chunks
+	 */
+	public SectionCompressor(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleString> source,
+			MultiThreadListener listener, int bufferSize, long chunkSize, int k, boolean debugSleepKwayDict,
+			ChunkCodec codec) {
+		this.codec = codec;
 		this.source = source;
 		this.listener = listener;
 		this.baseFileName = baseFileName;
@@ -124,6 +145,22 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		return new CompressionResultFile(triples.get(), ntRawSize.get(), new TripleFile(sections.get(), false));
 	}
 
+	/**
+	 * open the pre-sections files of a previous {@link #compressToFile(int)}
+	 * call, used to resume a generation
+	 *
+	 * @param root      the root of the sections files, the
+	 *                  {@link TripleFile#getRoot()} of the previous result
+	 * @param triples   the number of triples of the previous result
+	 * @param ntRawSize the raw size of the previous result
+	 * @return compression result
+	 * @throws IOException io exception
+	 */
+	public CompressionResult openCompressedFile(CloseSuppressPath root, long triples, long ntRawSize)
+			throws IOException {
+		return new CompressionResultFile(triples, ntRawSize, new TripleFile(root, false));
+	}
+
 	/**
 	 * Compress the stream into multiple pre-sections files and merge them on
 	 * the fly
@@ -335,7 +372,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public OutputStream openWSubject() throws IOException {
-			return s.openOutputStream(bufferSize);
+			return codec.openOutputStream(s, bufferSize);
 		}
 
 		/**
@@ -343,7 +380,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public OutputStream openWPredicate() throws IOException {
-			return p.openOutputStream(bufferSize);
+			return codec.openOutputStream(p, bufferSize);
 		}
 
 		/**
@@ -351,7 +388,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public OutputStream openWObject() throws IOException {
-			return o.openOutputStream(bufferSize);
+			return codec.openOutputStream(o, bufferSize);
 		}
 
 		/**
@@ -359,7 +396,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public InputStream openRSubject() throws IOException {
-			return s.openInputStream(bufferSize);
+			return ChunkCodec.openInputStream(s, bufferSize);
 		}
 
 		/**
@@ -367,7 +404,7 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public InputStream openRPredicate() throws IOException {
-			return p.openInputStream(bufferSize);
+			return ChunkCodec.openInputStream(p, bufferSize);
 		}
 
 		/**
@@ -375,7 +412,14 @@ public class SectionCompressor implements KWayMerger.KWayMergerImpl<TripleString
 		 * @throws IOException can't open the stream
 		 */
 		public InputStream openRObject() throws IOException {
-			return o.openInputStream(bufferSize);
+			return ChunkCodec.openInputStream(o, bufferSize);
+		}
+
+		/**
+		 * @return the directory of the files
+		 */
+		public CloseSuppressPath getRoot() {
+			return root;
 		}
 
 		/**
@@ -2,6 +2,7 @@ package com.the_qa_company.qendpoint.core.hdt.impl.diskimport;
 
 import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
 import com.the_qa_company.qendpoint.core.triples.TempTriples;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressTripleReader;
 import com.the_qa_company.qendpoint.core.triples.impl.OneReadTempTriples;
 import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
@@ -19,11 +20,12 @@ public class TripleCompressionResultFile implements TripleCompressionResult {
 	private final CompressTripleReader reader;
 	private final TripleComponentOrder order;
 	private final CloseSuppressPath triples;
+	private boolean keepTriplesFile;
 
 	public TripleCompressionResultFile(long tripleCount, CloseSuppressPath triples, TripleComponentOrder order,
 			int bufferSize) throws IOException {
 		this.tripleCount = tripleCount;
-		this.reader = new CompressTripleReader(triples.openInputStream(bufferSize));
+		this.reader = new CompressTripleReader(ChunkCodec.openInputStream(triples, bufferSize));
 		this.order = order;
 		this.triples = triples;
 	}
@@ -38,8 +40,27 @@ public class TripleCompressionResultFile implements TripleCompressionResult {
 		return tripleCount;
 	}
 
+	/**
+	 * @return the sorted triples file
+	 */
+	public CloseSuppressPath getTriplesPath() {
+		return triples;
+	}
+
+	/**
+	 * keep the sorted triples file after the close of this result, used to
+	 * resume a generation from a checkpoint
+	 */
+	public void keepTriplesFile() {
+		keepTriplesFile = true;
+	}
+
 	@Override
 	public void close() throws IOException {
-		IOUtil.closeAll(reader, triples);
+		if (keepTriplesFile) {
+			reader.close();
+		} else {
+			IOUtil.closeAll(reader, triples);
+		}
 	}
 }
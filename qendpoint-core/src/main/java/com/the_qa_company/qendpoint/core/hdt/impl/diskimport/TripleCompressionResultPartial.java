@@ -4,6 +4,7 @@ import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
 import com.the_qa_company.qendpoint.core.triples.TempTriples;
 import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressTripleMergeIterator;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.io.compress.CompressTripleReader;
 import com.the_qa_company.qendpoint.core.iterator.utils.ExceptionIterator;
 import com.the_qa_company.qendpoint.core.triples.impl.OneReadTempTriples;
@@ -41,7 +42,7 @@ public class TripleCompressionResultPartial implements TripleCompressionResult {
 			return ExceptionIterator.empty();
 		}
 		if (size == 1) {
-			CompressTripleReader r = new CompressTripleReader(files.get(start).openInputStream(bufferSize));
+			CompressTripleReader r = new CompressTripleReader(ChunkCodec.openInputStream(files.get(start), bufferSize));
 			this.files.add(r);
 			return r;
 		}
@@ -1,6 +1,8 @@
 package com.the_qa_company.qendpoint.core.hdt.impl.diskindex;
 
 import com.the_qa_company.qendpoint.core.listener.MultiThreadListener;
+import com.the_qa_company.qendpoint.core.util.PackedTripleList;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.ParallelSortableArrayList;
 import com.the_qa_company.qendpoint.core.util.io.compress.Pair;
 import com.the_qa_company.qendpoint.core.util.io.compress.PairMergeIterator;
@@ -35,9 +37,54 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 	private final int k;
 	private final Comparator<Pair> comparator;
 	private final AtomicLong read = new AtomicLong();
+	private final boolean radixSort;
+	private final ChunkCodec codec;
 
 	public DiskIndexSort(CloseSuppressPath baseFileName, AsyncIteratorFetcher<Pair> source,
 			MultiThreadListener listener, int bufferSize, long chunkSize, int k, Comparator<Pair> comparator) {
+		this(baseFileName, source, listener, bufferSize, chunkSize, k, comparator, false);
+	}
+
+	/**
+	 * create the sort
+	 *
+	 * @param baseFileName base directory of the chunks
+	 * @param source       source of the pairs
+	 * @param listener     listener
+	 * @param bufferSize   size of the file buffers
+	 * @param chunkSize    max size of a chunk
+	 * @param k            number of chunks merged at once
+	 * @param comparator   comparator of the pairs
+	 * @param radixSort    sort the chunks with a {@link PackedTripleList} in
+	 *                     the (object, predicate, predicatePosition) order, the
+	 *                     comparator should be compatible with this order
+	 */
+	public DiskIndexSort(CloseSuppressPath baseFileName, AsyncIteratorFetcher<Pair> source,
+			MultiThreadListener listener, int bufferSize, long chunkSize, int k, Comparator<Pair> comparator,
+			boolean radixSort) {
+		this(baseFileName, source, listener, bufferSize, chunkSize, k, comparator, radixSort, ChunkCodec.NONE);
+	}
+
+	/**
+	 * create the sort
+	 *
+	 * @param baseFileName base directory of the chunks
+	 * @param source       source of the pairs
+	 * @param listener     listener
+	 * @param bufferSize   size of the file buffers
+	 * @param chunkSize    max size of a chunk
+	 * @param k            number of chunks merged at once
+	 * @param comparator   comparator of the pairs
+	 * @param radixSort    sort the chunks with a {@link PackedTripleList} in
+	 *                     the (object, predicate, predicatePosition) order, the
+	 *                     comparator should be compatible with this order
+	 * @param codec        codec to compress the chunks
+	 */
+	public DiskIndexSort(CloseSuppressPath baseFileName, AsyncIteratorFetcher<Pair> source,
+			MultiThreadListener listener, int bufferSize, long chunkSize, int k, Comparator<Pair> comparator,
+			boolean radixSort, ChunkCodec codec) {
+		this.radixSort = radixSort;
+		this.codec = codec;
 		this.source = source;
 		this.listener = MultiThreadListener.ofNullable(listener);
 		this.baseFileName = baseFileName;
@@ -49,6 +96,10 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 
 	@Override
 	public void createChunk(SizeFetcher<Pair> flux, CloseSuppressPath output) throws KWayMerger.KWayMergerException {
+		if (radixSort) {
+			createChunkRadix(flux, output);
+			return;
+		}
 		ParallelSortableArrayList<Pair> pairs = new ParallelSortableArrayList<>(Pair[].class);
 
 		Pair pair;
@@ -71,7 +122,7 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 		IntermediateListener il = new IntermediateListener(listener);
 		il.setRange(70, 100);
 		il.notifyProgress(0, "creating file");
-		try (PairWriter w = new PairWriter(output.openOutputStream(bufferSize), pairs.size())) {
+		try (PairWriter w = new PairWriter(codec.openOutputStream(output, bufferSize), pairs.size())) {
 			// encode the size of the chunk
 			for (int i = 0; i < pairs.size(); i++) {
 				if (i % block == 0) {
@@ -85,6 +136,47 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 		}
 	}
 
+	private void createChunkRadix(SizeFetcher<Pair> flux, CloseSuppressPath output)
+			throws KWayMerger.KWayMergerException {
+		PackedTripleList pairs = new PackedTripleList();
+
+		Pair pair;
+		// loading the pairs
+		listener.notifyProgress(10, "reading pairs part 0");
+		while ((pair = flux.get()) != null) {
+			pairs.add(pair.object, pair.predicate, pair.predicatePosition);
+			long r = read.incrementAndGet();
+			if (r % 1_000_000 == 0) {
+				listener.notifyProgress(10, "reading pairs part " + r);
+			}
+			if (pairs.isFull()) {
+				break;
+			}
+		}
+
+		// sort the pairs, the chunks are already sorted by multiple workers
+		pairs.sort();
+
+		// write the result on disk
+		int block = pairs.size() < 10 ? 1 : pairs.size() / 10;
+		IntermediateListener il = new IntermediateListener(listener);
+		il.setRange(70, 100);
+		il.notifyProgress(0, "creating file");
+		Pair next = new Pair();
+		try (PairWriter w = new PairWriter(codec.openOutputStream(output, bufferSize), pairs.size())) {
+			for (int i = 0; i < pairs.size(); i++) {
+				if (i % block == 0) {
+					il.notifyProgress(i / (block / 10f), "writing pair " + i + "/" + pairs.size());
+				}
+				next.setAll(pairs.getZ(i), pairs.getX(i), pairs.getY(i));
+				w.append(next);
+			}
+			listener.notifyProgress(100, "writing completed " + pairs.size() + " " + output.getFileName());
+		} catch (IOException e) {
+			throw new KWayMerger.KWayMergerException("Can't write chunk", e);
+		}
+	}
+
 	@Override
 	public void mergeChunks(List<CloseSuppressPath> inputs, CloseSuppressPath output)
 			throws KWayMerger.KWayMergerException {
@@ -94,7 +186,7 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 			long count = 0;
 			try {
 				for (int i = 0; i < inputs.size(); i++) {
-					readers[i] = new PairReader(inputs.get(i).openInputStream(bufferSize));
+					readers[i] = new PairReader(ChunkCodec.openInputStream(inputs.get(i), bufferSize));
 				}
 
 				ExceptionIterator<Pair, IOException> it = PairMergeIterator.buildOfTree(readers, comparator);
@@ -102,7 +194,7 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 				long rSize = it.getSize();
 				long size = Math.max(rSize, 1);
 				long block = size < 10 ? 1 : size / 10;
-				try (PairWriter w = new PairWriter(output.openOutputStream(bufferSize), rSize)) {
+				try (PairWriter w = new PairWriter(codec.openOutputStream(output, bufferSize), rSize)) {
 					while (it.hasNext()) {
 						w.append(it.next());
 						if (count % block == 0) {
@@ -150,7 +242,7 @@ public class DiskIndexSort implements KWayMerger.KWayMergerImpl<Pair, SizeFetche
 			return ExceptionIterator.empty();
 		}
 		CloseSuppressPath path = sections.get();
-		return new PairReader(path.openInputStream(bufferSize)) {
+		return new PairReader(ChunkCodec.openInputStream(path, bufferSize)) {
 			@Override
 			public void close() throws IOException {
 				try {
@@ -0,0 +1,56 @@
+package com.the_qa_company.qendpoint.core.hdt.impl.diskindex;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.iterator.utils.FetcherIterator;
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.core.triples.impl.TripleOrderConvert;
+import com.the_qa_company.qendpoint.core.util.io.compress.Pair;
+
+import java.util.Comparator;
+
+/**
+ * Read the triples of an iterator as pairs in another order, to sort them with
+ * the {@link DiskIndexSort}. The first components of the triple in the new
+ * order (x, y) and the position of the triple are stored in the pair as
+ * ({@link Pair#object}, {@link Pair#predicate},
+ * {@link Pair#predicatePosition}). With x and y fixed, the positions are sorted
+ * like the last component z, so the pairs are sorted like the triples in the
+ * new order.
+ */
+public class PermutationPairReader extends FetcherIterator<Pair> {
+	/**
+	 * comparator of the pairs created by this reader
+	 */
+	public static final Comparator<Pair> COMPARATOR = Comparator.<Pair>comparingLong(p -> p.object)
+			.thenComparingLong(p -> p.predicate).thenComparingLong(p -> p.predicatePosition);
+
+	private final IteratorTripleID iterator;
+	private final TripleComponentOrder order;
+	private final TripleID triple = new TripleID();
+
+	/**
+	 * create a reader
+	 *
+	 * @param iterator iterator of the triples, returning SPO triples and their
+	 *                 positions
+	 * @param order    order of the pairs
+	 */
+	public PermutationPairReader(IteratorTripleID iterator, TripleComponentOrder order) {
+		this.iterator = iterator;
+		this.order = order;
+	}
+
+	@Override
+	protected Pair getNext() {
+		if (!iterator.hasNext()) {
+			return null;
+		}
+		triple.assign(iterator.next());
+		TripleOrderConvert.swapComponentOrder(triple, TripleComponentOrder.SPO, order);
+
+		Pair pair = new Pair();
+		pair.setAll(iterator.getLastTriplePosition(), triple.getSubject(), triple.getPredicate());
+		return pair;
+	}
+}
@@ -189,6 +189,20 @@ public class SequentialSearchIteratorTripleID implements SuppliableIteratorTripl
 		throw new IllegalArgumentException("Called goTo() on an unsupported implementation");
 	}
 
+	@Override
+	public boolean canGoToSubject() {
+		return iterator.canGoToSubject();
+	}
+
+	@Override
+	public void goToSubject(long subject) {
+		if (!goingUp || !hasMoreTriples || nextTriple.getSubject() >= subject) {
+			return;
+		}
+		iterator.goToSubject(subject);
+		doFetchNext();
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.iterator.IteratorTripleID#getOrder()
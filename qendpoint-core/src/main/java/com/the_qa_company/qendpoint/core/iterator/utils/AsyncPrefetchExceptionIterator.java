@@ -0,0 +1,169 @@
+package com.the_qa_company.qendpoint.core.iterator.utils;
+
+import java.io.Closeable;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+
+/**
+ * Iterator reading another iterator with a background thread, the elements are
+ * sent by batches to reduce the synchronization between the threads. The
+ * elements are copied with a copy function before being sent, so the wrapped
+ * iterator can reuse its elements.
+ * <p>
+ * The iterator should be closed to stop the background thread if it isn't fully
+ * consumed.
+ *
+ * @param <T> iterator type
+ * @param <E> iterator exception
+ */
+public class AsyncPrefetchExceptionIterator<T, E extends Exception> implements ExceptionIterator<T, E>, Closeable {
+	private static final Object[] END = new Object[0];
+	private static final long WAIT_MS = 100;
+
+	private final ExceptionIterator<T, E> iterator;
+	private final UnaryOperator<T> copy;
+	private final int batchSize;
+	private final BlockingQueue<Object[]> queue;
+	private final Thread thread;
+	private volatile boolean closed;
+	private volatile Throwable exception;
+	private Object[] batch;
+	private int index;
+	private boolean end;
+
+	/**
+	 * create and start the prefetch iterator
+	 *
+	 * @param iterator  wrapped iterator, read by the background thread
+	 * @param copy      copy function of the elements
+	 * @param batchSize number of elements sent at once
+	 * @param buffers   number of batches waiting for the consumer
+	 * @param name      name of the background thread
+	 */
+	public AsyncPrefetchExceptionIterator(ExceptionIterator<T, E> iterator, UnaryOperator<T> copy, int batchSize,
+			int buffers, String name) {
+		if (batchSize <= 0 || buffers <= 0) {
+			throw new IllegalArgumentException("batchSize and buffers should be positive!");
+		}
+		this.iterator = iterator;
+		this.copy = copy;
+		this.batchSize = batchSize;
+		this.queue = new ArrayBlockingQueue<>(buffers);
+		this.thread = new Thread(this::fetch, name);
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	private void fetch() {
+		try {
+			while (!closed) {
+				Object[] next = new Object[batchSize];
+				int size = 0;
+				while (size < batchSize && iterator.hasNext()) {
+					next[size++] = copy.apply(iterator.next());
+				}
+				if (size == 0) {
+					break;
+				}
+				push(size == batchSize ? next : Arrays.copyOf(next, size));
+				if (size < batchSize) {
+					break;
+				}
+			}
+		} catch (Throwable t) {
+			exception = t;
+		} finally {
+			try {
+				push(END);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void push(Object[] elements) throws InterruptedException {
+		while (!closed) {
+			if (queue.offer(elements, WAIT_MS, TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private void throwIfError() throws E {
+		Throwable t = exception;
+		if (t == null) {
+			return;
+		}
+		if (t instanceof RuntimeException re) {
+			throw re;
+		}
+		if (t instanceof Error err) {
+			throw err;
+		}
+		// only the exceptions of the wrapped iterator can be thrown
+		throw (E) t;
+	}
+
+	@Override
+	public boolean hasNext() throws E {
+		if (batch != null && index < batch.length) {
+			return true;
+		}
+		if (end) {
+			return false;
+		}
+		Object[] next;
+		try {
+			next = queue.take();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new PipedCopyIterator.PipedIteratorException("Can't read the prefetched elements", e);
+		}
+		if (next == END) {
+			end = true;
+			batch = null;
+			throwIfError();
+			return false;
+		}
+		batch = next;
+		index = 0;
+		return true;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public T next() throws E {
+		if (!hasNext()) {
+			return null;
+		}
+		return (T) batch[index++];
+	}
+
+	@Override
+	public long getSize() {
+		return iterator.getSize();
+	}
+
+	@Override
+	public void close() {
+		closed = true;
+		queue.clear();
+		boolean interrupted = false;
+		while (thread.isAlive()) {
+			try {
+				thread.join();
+			} catch (InterruptedException e) {
+				// the wrapped iterator can't be released before the end of the
+				// thread
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -104,6 +104,64 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.BOOLEAN, desc = "specify that the method doesn't have to copy the triple strings between 2 calls to the iterator")
 	public static final String LOADER_DISK_NO_COPY_ITERATOR_KEY = "loader.disk.noCopyIterator";
+	/**
+	 * Key for the {@link HDTManager} generateHDTDisk methods, read the sorted
+	 * sections and write the triple id mapping with one thread per role while
+	 * building the dictionary, default true if more than one
+	 * {@link #LOADER_DISK_COMPRESSION_WORKER_KEY} worker is used
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Read the sections and write the id mapping with one thread per role while building the dictionary")
+	public static final String LOADER_DISK_PARALLEL_DICTIONARY_KEY = "loader.disk.parallelDictionary";
+	/**
+	 * Key for the {@link HDTManager} generateHDTDisk methods, keep a checkpoint
+	 * of the completed steps in the {@link #LOADER_DISK_LOCATION_KEY} directory
+	 * and resume from it after a crash, the directory isn't deleted if the
+	 * generation fails. Only the
+	 * {@link #LOADER_DISK_COMPRESSION_MODE_VALUE_COMPLETE} mode is resumed,
+	 * default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Resume the disk generation from the checkpoint of the work directory")
+	public static final String LOADER_DISK_CHECKPOINT_KEY = "loader.disk.checkpoint";
+	/**
+	 * Key for the {@link HDTManager} generateHDTDisk methods, the method to
+	 * sort the triple id chunks, {@link #SORT_METHOD_VALUE_RADIX} by default
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Sort method of the triple id chunks")
+	public static final String LOADER_DISK_TRIPLE_SORT_KEY = "loader.disk.tripleSort";
+	/**
+	 * Value for {@link #LOADER_DISK_TRIPLE_SORT_KEY}, radix sort of the packed
+	 * ids, no object per triple
+	 */
+	@Value(key = LOADER_DISK_TRIPLE_SORT_KEY, desc = "radix sort of the packed ids, no object per triple, default")
+	public static final String SORT_METHOD_VALUE_RADIX = "radix";
+	/**
+	 * Value for {@link #LOADER_DISK_TRIPLE_SORT_KEY}, parallel comparison sort
+	 * of triple objects
+	 */
+	@Value(key = LOADER_DISK_TRIPLE_SORT_KEY, desc = "parallel comparison sort of triple objects")
+	public static final String SORT_METHOD_VALUE_COMPARATOR = "comparator";
+	/**
+	 * Key for the {@link HDTManager} generateHDTDisk methods, the codec to
+	 * compress the section and triple chunk files in the work directory,
+	 * {@link #CHUNK_CODEC_VALUE_NONE} by default
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Compression codec of the chunk files")
+	public static final String LOADER_DISK_CHUNK_CODEC_KEY = "loader.disk.chunkCodec";
+	/**
+	 * Value for {@link #LOADER_DISK_CHUNK_CODEC_KEY}, no compression
+	 */
+	@Value(key = LOADER_DISK_CHUNK_CODEC_KEY, desc = "no compression, default")
+	public static final String CHUNK_CODEC_VALUE_NONE = "none";
+	/**
+	 * Value for {@link #LOADER_DISK_CHUNK_CODEC_KEY}, LZ4 frame compression
+	 */
+	@Value(key = LOADER_DISK_CHUNK_CODEC_KEY, desc = "LZ4 frame compression")
+	public static final String CHUNK_CODEC_VALUE_LZ4 = "lz4";
+	/**
+	 * Value for {@link #LOADER_DISK_CHUNK_CODEC_KEY}, Snappy frame compression
+	 */
+	@Value(key = LOADER_DISK_CHUNK_CODEC_KEY, desc = "Snappy frame compression")
+	public static final String CHUNK_CODEC_VALUE_SNAPPY = "snappy";
 
 	/**
 	 * Key for the loading mode of a RDF file for the
@@ -148,6 +206,25 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.PATH, desc = "Path of the CatTree generation")
 	public static final String LOADER_CATTREE_LOCATION_KEY = "loader.cattree.location";
+	/**
+	 * Key for the {@link HDTManager} catTree methods, keep a checkpoint of the
+	 * generated and merged HDTs in the {@link #LOADER_CATTREE_LOCATION_KEY}
+	 * directory and resume from it after a crash, the input stream is skipped
+	 * to the first triple not in a completed HDT. The checkpoint disables the
+	 * {@link #LOADER_CATTREE_ASYNC_KEY} option, default false
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Resume the CatTree generation from the checkpoint of the work directory")
+	public static final String LOADER_CATTREE_CHECKPOINT_KEY = "loader.cattree.checkpoint";
+	/**
+	 * Key for the {@link #LOADER_DISK_CHECKPOINT_KEY} and
+	 * {@link #LOADER_CATTREE_CHECKPOINT_KEY} options, identity of the input of
+	 * the generation, a checkpoint is only resumed with the same input and base
+	 * URI. Set to the path, size and modification time of the file when
+	 * generating from a file, required when generating from a stream or an
+	 * iterator
+	 */
+	@Key(type = Key.Type.STRING, desc = "Identity of the input of a checkpointed generation")
+	public static final String LOADER_CHECKPOINT_INPUT_KEY = "loader.checkpoint.input";
 	/**
 	 * Key to use async version of the {@link HDTManager} catTree methods, will
 	 * run the k-HDTCAT algorithm, by default the value is false, boolean value
@@ -260,6 +337,19 @@ public class HDTOptionsKeys {
 	 */
 	@Key(type = Key.Type.BOOLEAN, desc = "Use the canonical NT file parser, removing checks")
 	public static final String NT_SIMPLE_PARSER_KEY = "parser.ntSimpleParser";
+	/**
+	 * Key for setting the number of threads used by the canonical NTriple file
+	 * simple parser, 1 for no parallel parsing, 0 for the number of processors,
+	 * default 1. Number value
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Number of threads of the canonical NT file parser")
+	public static final String NT_SIMPLE_PARSER_THREADS_KEY = "parser.ntSimpleParser.threads";
+	/**
+	 * Key for setting the size of the chunks read by the parallel canonical
+	 * NTriple file simple parser, default 4MB. Number value
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Size of the chunks of the parallel canonical NT file parser")
+	public static final String NT_SIMPLE_PARSER_CHUNK_SIZE_KEY = "parser.ntSimpleParser.chunkSize";
 	/**
 	 * Key for setting the maximum amount of file loaded with the directory
 	 * parser, 1 for no async parsing, 0 for the number of processors, default
@@ -351,6 +441,50 @@ public class HDTOptionsKeys {
 	@Key(type = Key.Type.ENUM, desc = "Ignore MSDL RDFTYPE INDEX")
 	public static final String DICTIONARY_MSDL_NO_RDFTYPE_INDEX = "dictionary.msdl.nordftypeindex";
 
+	/**
+	 * Key for the cache of the sections of a loaded or mapped dictionary, the
+	 * default value is {@link #DICTIONARY_CACHE_VALUE_NONE}
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Cache of the dictionary sections")
+	public static final String DICTIONARY_CACHE_KEY = "dictionary.cache";
+	/**
+	 * No cache
+	 */
+	@Value(key = DICTIONARY_CACHE_KEY, desc = "No cache")
+	public static final String DICTIONARY_CACHE_VALUE_NONE = "none";
+	/**
+	 * LRU cache for each thread
+	 */
+	@Value(key = DICTIONARY_CACHE_KEY, desc = "LRU cache for each thread")
+	public static final String DICTIONARY_CACHE_VALUE_PER_THREAD = "perThread";
+	/**
+	 * Cache shared between the threads with a frequency-based admission
+	 */
+	@Value(key = DICTIONARY_CACHE_KEY, desc = "Shared cache with a frequency-based admission")
+	public static final String DICTIONARY_CACHE_VALUE_TINY_LFU = "tinyLFU";
+	/**
+	 * Key for the memory budget in bytes of the cache of each dictionary
+	 * section with the {@link #DICTIONARY_CACHE_VALUE_TINY_LFU} cache, 8MB by
+	 * default
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Memory budget in bytes of the cache of each dictionary section")
+	public static final String DICTIONARY_CACHE_SIZE_KEY = "dictionary.cache.size";
+
+	/**
+	 * Key for the components of a mapped HDT loaded in memory after the
+	 * mapping, comma separated list of the
+	 * {@link com.the_qa_company.qendpoint.core.hdt.HDTWarmup} components,
+	 * "default", "all" or "none", "none" by default
+	 */
+	@Key(type = Key.Type.STRING, desc = "Components of a mapped HDT loaded in memory after the mapping, comma separated")
+	public static final String WARMUP_COMPONENTS_KEY = "warmup.components";
+	/**
+	 * Key to load the {@link #WARMUP_COMPONENTS_KEY} components with a
+	 * background thread, true by default
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "Load the warmup components with a background thread, default true")
+	public static final String WARMUP_ASYNC_KEY = "warmup.async";
+
 	/**
 	 * Location of the HDTCat temp files
 	 */
@@ -420,6 +554,14 @@ public class HDTOptionsKeys {
 	@Key(type = Key.Type.STRING, desc = "Sequence type for the Z sequence, default " + HDTVocabulary.SEQ_TYPE_LOG)
 	public static final String BITMAPTRIPLES_SEQ_Z = "seq.z";
 
+	/**
+	 * Sample rate of the select index of the triples bitmaps, the super block
+	 * of every n-th bit is kept in memory to speed up the select operations, 0
+	 * to disable it, default 0
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "Sample rate of the select index of the triples bitmaps, 0 to disable it, default 0")
+	public static final String BITMAPTRIPLES_SELECT_SAMPLE_RATE = "bitmaptriples.select.samplerate";
+
 	/**
 	 * Indexing method for the bitmap triples, default
 	 * {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_RECOMMENDED}
@@ -454,6 +596,16 @@ public class HDTOptionsKeys {
 	@Value(key = BITMAPTRIPLES_INDEX_METHOD_KEY, desc = "Memory optimized option")
 	public static final String BITMAPTRIPLES_INDEX_METHOD_VALUE_OPTIMIZED = "optimized";
 
+	/**
+	 * Additional triple orders to index with the bitmap triples, comma
+	 * separated list of {@link TripleComponentOrder} names (for example
+	 * "POS,OSP"), none by default. Each order is a full copy of the triples,
+	 * stored next to the .hdt.index file and used to search the patterns the
+	 * SPO order can't search with a range.
+	 */
+	@Key(type = Key.Type.STRING, desc = "Additional triple orders to index, comma separated list, for example POS,OSP")
+	public static final String BITMAPTRIPLES_INDEX_OTHERS = "bitmaptriples.index.others";
+
 	/**
 	 * Key for the {@link HDTManager} loadIndexed methods, say the number of
 	 * workers to merge the data. default to the number of processor. long
@@ -490,6 +642,24 @@ public class HDTOptionsKeys {
 	@Key(type = Key.Type.NUMBER, desc = "log of the number of way the system can merge in "
 			+ BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK + " index method")
 	public static final String BITMAPTRIPLES_DISK_KWAY_KEY = "bitmaptriples.indexmethod.disk.kway";
+	/**
+	 * Key for the method to sort the pair chunks of the
+	 * {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK} index method,
+	 * {@link #SORT_METHOD_VALUE_RADIX} or
+	 * {@link #SORT_METHOD_VALUE_COMPARATOR}, radix by default
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Sort method of the pair chunks with " + BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK
+			+ " index method")
+	public static final String BITMAPTRIPLES_DISK_SORT_KEY = "bitmaptriples.indexmethod.disk.sort";
+	/**
+	 * Key for the codec to compress the pair chunks of the
+	 * {@link #BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK} index method, same values
+	 * as {@link #LOADER_DISK_CHUNK_CODEC_KEY}, {@link #CHUNK_CODEC_VALUE_NONE}
+	 * by default
+	 */
+	@Key(type = Key.Type.ENUM, desc = "Compression codec of the pair chunks with "
+			+ BITMAPTRIPLES_INDEX_METHOD_VALUE_DISK + " index method")
+	public static final String BITMAPTRIPLES_DISK_CHUNK_CODEC_KEY = "bitmaptriples.indexmethod.disk.chunkCodec";
 
 	@Key(type = Key.Type.BOOLEAN, desc = "Dump binary offsets, default false")
 	public static final String DUMP_BINARY_OFFSETS = "bump.binary.offsets";
@@ -52,7 +52,7 @@ public class RDFParserFactory {
 		switch (notation) {
 		case NTRIPLES, NQUAD:
 			if (useSimple(spec)) {
-				return new RDFParserSimple();
+				return new RDFParserSimple(spec);
 			}
 		case TURTLE:
 		case N3:
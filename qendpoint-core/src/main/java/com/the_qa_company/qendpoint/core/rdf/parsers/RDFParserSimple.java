@@ -20,10 +20,14 @@ package com.the_qa_company.qendpoint.core.rdf.parsers;
 
 import com.the_qa_company.qendpoint.core.enums.RDFNotation;
 import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.quads.QuadString;
 import com.the_qa_company.qendpoint.core.rdf.RDFParserCallback;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.string.ByteStringUtil;
+import com.the_qa_company.qendpoint.core.util.string.CompactString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -31,12 +35,48 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * @author mario.arias
  */
 public class RDFParserSimple implements RDFParserCallback {
 	private static final Logger log = LoggerFactory.getLogger(RDFParserSimple.class);
+	private static final int DEFAULT_CHUNK_SIZE = 1 << 22;
+
+	private final int threads;
+	private final int chunkSize;
+
+	public RDFParserSimple(HDTOptions spec) {
+		long threadsValue = spec.getInt(HDTOptionsKeys.NT_SIMPLE_PARSER_THREADS_KEY, 1);
+		if (threadsValue == 0) {
+			// use processor count for 0 to be full parallel
+			threads = Runtime.getRuntime().availableProcessors();
+		} else if (threadsValue < 0 || threadsValue >= Integer.MAX_VALUE - 5) {
+			throw new IllegalArgumentException(
+					"Invalid value for " + HDTOptionsKeys.NT_SIMPLE_PARSER_THREADS_KEY + ": " + threadsValue);
+		} else {
+			threads = (int) threadsValue;
+		}
+		long chunkSizeValue = spec.getInt(HDTOptionsKeys.NT_SIMPLE_PARSER_CHUNK_SIZE_KEY, DEFAULT_CHUNK_SIZE);
+		if (chunkSizeValue <= 0 || chunkSizeValue >= Integer.MAX_VALUE - 5) {
+			throw new IllegalArgumentException(
+					"Invalid value for " + HDTOptionsKeys.NT_SIMPLE_PARSER_CHUNK_SIZE_KEY + ": " + chunkSizeValue);
+		}
+		chunkSize = (int) chunkSizeValue;
+	}
+
+	public RDFParserSimple() {
+		this(HDTOptions.EMPTY);
+	}
 
 	/*
 	 * (non-Javadoc)
@@ -47,6 +87,14 @@ public class RDFParserSimple implements RDFParserCallback {
 	@Override
 	public void doParse(String fileName, String baseUri, RDFNotation notation, boolean keepBNode, RDFCallback callback)
 			throws ParserException {
+		if (threads != 1) {
+			try (InputStream input = IOUtil.getFileInputStream(fileName)) {
+				doParseParallel(input, notation, callback);
+			} catch (IOException e) {
+				throw new ParserException(e);
+			}
+			return;
+		}
 		BufferedReader reader;
 		try {
 			reader = IOUtil.getFileReader(fileName);
@@ -64,6 +112,14 @@ public class RDFParserSimple implements RDFParserCallback {
 	@Override
 	public void doParse(InputStream input, String baseUri, RDFNotation notation, boolean keepBNode,
 			RDFCallback callback) throws ParserException {
+		if (threads != 1) {
+			try (input) {
+				doParseParallel(input, notation, callback);
+			} catch (IOException e) {
+				throw new ParserException(e);
+			}
+			return;
+		}
 		try (BufferedReader reader = new BufferedReader(new InputStreamReader(input))) {
 			doParse(reader, baseUri, notation, keepBNode, callback);
 		} catch (IOException e) {
@@ -120,4 +176,143 @@ public class RDFParserSimple implements RDFParserCallback {
 			throw new ParserException(e);
 		}
 	}
+
+	/**
+	 * parse a stream with multiple threads, the stream is split into chunks
+	 * ending with a new line, the chunks are parsed by the workers and the
+	 * triples are sent to the callback in the order of the stream by the
+	 * current thread.
+	 *
+	 * @param input    stream
+	 * @param notation notation
+	 * @param callback callback
+	 * @throws ParserException parsing exception
+	 */
+	private void doParseParallel(InputStream input, RDFNotation notation, RDFCallback callback) throws ParserException {
+		boolean readQuad = notation == RDFNotation.NQUAD;
+		ExecutorService executorService = Executors.newFixedThreadPool(threads);
+		try {
+			// the chunks are parsed in order, we keep a limited number of
+			// chunks in memory
+			Deque<Future<ParsedChunk>> chunks = new ArrayDeque<>();
+			long numLine = 1;
+			byte[] buffer = new byte[chunkSize];
+			int size = 0;
+			boolean end = false;
+			while (!end) {
+				int read = input.readNBytes(buffer, size, buffer.length - size);
+				size += read;
+				end = size < buffer.length;
+
+				int chunkEnd = size;
+				if (!end) {
+					// search the last new line to split the chunk
+					chunkEnd = size - 1;
+					while (chunkEnd >= 0 && buffer[chunkEnd] != '\n') {
+						chunkEnd--;
+					}
+					chunkEnd++;
+					if (chunkEnd == 0) {
+						// no new line in the chunk, the line is bigger than
+						// the chunk
+						buffer = Arrays.copyOf(buffer, buffer.length * 2);
+						continue;
+					}
+				}
+
+				byte[] chunk = buffer;
+				int chunkLength = chunkEnd;
+				chunks.add(executorService.submit(() -> parseChunk(chunk, chunkLength, readQuad)));
+
+				// move the remaining bytes to the next buffer
+				byte[] next = new byte[Math.max(chunkSize, size - chunkEnd)];
+				System.arraycopy(buffer, chunkEnd, next, 0, size - chunkEnd);
+				size -= chunkEnd;
+				buffer = next;
+
+				while (chunks.size() > threads * 2) {
+					numLine = processChunk(chunks.removeFirst(), numLine, callback);
+				}
+			}
+			while (!chunks.isEmpty()) {
+				numLine = processChunk(chunks.removeFirst(), numLine, callback);
+			}
+		} catch (IOException e) {
+			throw new ParserException(e);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ParserException(e);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private long processChunk(Future<ParsedChunk> future, long numLine, RDFCallback callback)
+			throws InterruptedException, ParserException {
+		ParsedChunk chunk;
+		try {
+			chunk = future.get();
+		} catch (ExecutionException e) {
+			log.error("Unexpected exception.", e.getCause());
+			throw new ParserException(e.getCause());
+		}
+		for (int i = 0; i < chunk.invalidLines.size(); i++) {
+			log.warn("Could not parse triple at line " + (numLine + chunk.invalidLinesIndex.get(i))
+					+ ", ignored and not processed.\n" + chunk.invalidLines.get(i));
+		}
+		for (TripleString triple : chunk.triples) {
+			callback.processTriple(triple, 0);
+		}
+		return numLine + chunk.lines;
+	}
+
+	private static ParsedChunk parseChunk(byte[] buffer, int size, boolean readQuad) throws ParserException {
+		ParsedChunk chunk = new ParsedChunk();
+		CompactString str = new CompactString(buffer);
+		int lineStart = 0;
+		while (lineStart < size) {
+			int lineEnd = lineStart;
+			while (lineEnd < size && buffer[lineEnd] != '\n') {
+				lineEnd++;
+			}
+			int nextLine = lineEnd + 1;
+			if (lineEnd > lineStart && buffer[lineEnd - 1] == '\r') {
+				lineEnd--;
+			}
+
+			// trim, find start
+			int start = lineStart;
+			while (start < lineEnd && (buffer[start] == ' ' || buffer[start] == '\t')) {
+				start++;
+			}
+			// trim, find end
+			int end = lineEnd - 1;
+			while (end >= lineStart && (buffer[end] == ' ' || buffer[end] == '\t')) {
+				end--;
+			}
+			// check that we have at least one element and this line isn't a
+			// comment
+			if (start + 1 < end && buffer[start] != '#') {
+				TripleString triple = readQuad ? new QuadString() : new TripleString();
+				triple.read(str, start, end, readQuad);
+				if (!triple.hasEmpty()) {
+					chunk.triples.add(triple);
+				} else {
+					chunk.invalidLinesIndex.add(chunk.lines);
+					chunk.invalidLines
+							.add(new String(buffer, lineStart, lineEnd - lineStart, ByteStringUtil.STRING_ENCODING));
+				}
+			}
+			chunk.lines++;
+			lineStart = nextLine;
+		}
+		return chunk;
+	}
+
+	private static class ParsedChunk {
+		private final List<TripleString> triples = new ArrayList<>();
+		private final List<Long> invalidLinesIndex = new ArrayList<>();
+		private final List<String> invalidLines = new ArrayList<>();
+		private long lines;
+	}
 }
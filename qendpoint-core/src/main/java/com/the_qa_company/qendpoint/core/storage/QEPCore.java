@@ -17,6 +17,7 @@ import com.the_qa_company.qendpoint.core.listener.ProgressListener;
 import com.the_qa_company.qendpoint.core.options.HDTOptions;
 import com.the_qa_company.qendpoint.core.storage.converter.NodeConverter;
 import com.the_qa_company.qendpoint.core.storage.iterator.CatQueryCloseable;
+import com.the_qa_company.qendpoint.core.storage.iterator.ParallelCatQueryCloseable;
 import com.the_qa_company.qendpoint.core.storage.iterator.QueryCloseableIterator;
 import com.the_qa_company.qendpoint.core.storage.merge.QEPCoreMergeThread;
 import com.the_qa_company.qendpoint.core.storage.search.QEPComponentTriple;
@@ -43,8 +44,17 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -129,6 +139,10 @@ public class QEPCore implements AutoCloseable {
 	private final HDTOptions options;
 	private final boolean memoryDataset;
 	private final boolean noCoIndex;
+	private final boolean useFilters;
+	private final int filterBits;
+	private final ExecutorService searchExecutor;
+	private final int searchBuffer;
 	private final Path location;
 	private ProgressListener listener = ProgressListener.ignore();
 	private long maxId;
@@ -139,6 +153,10 @@ public class QEPCore implements AutoCloseable {
 		options = HDTOptions.of();
 		memoryDataset = false;
 		noCoIndex = false;
+		useFilters = false;
+		filterBits = QEPDatasetFilter.DEFAULT_BITS_PER_ELEMENT;
+		searchExecutor = null;
+		searchBuffer = 0;
 		location = Path.of("tests");
 		mergeThread = new QEPCoreMergeThread(this, options);
 		namespaceData = new NamespaceData(getNamespaceDataLocation());
@@ -245,6 +263,25 @@ public class QEPCore implements AutoCloseable {
 
 		memoryDataset = this.options.getBoolean(OPTION_IN_MEMORY_DATASET, false);
 		noCoIndex = this.options.getBoolean(OPTION_NO_CO_INDEX, false);
+		useFilters = this.options.getBoolean(QEPCoreOptions.QEPC_DATASET_FILTER, true);
+		filterBits = (int) this.options.getInt(QEPCoreOptions.QEPC_DATASET_FILTER_BITS,
+				QEPDatasetFilter.DEFAULT_BITS_PER_ELEMENT);
+		int searchThreads = (int) this.options.getInt(QEPCoreOptions.QEPC_SEARCH_THREADS, 1);
+		if (searchThreads > 1) {
+			// the readers are waiting for their consumers, so the tasks can't
+			// be queued behind them: a nested search would never start. The
+			// tasks are rejected when the searchThreads threads are used, the
+			// datasets are then read by the calling thread.
+			searchExecutor = new ThreadPoolExecutor(searchThreads, searchThreads, 0L, TimeUnit.MILLISECONDS,
+					new SynchronousQueue<>(), r -> {
+						Thread thread = new Thread(r, "QEPCoreSearch");
+						thread.setDaemon(true);
+						return thread;
+					});
+		} else {
+			searchExecutor = null;
+		}
+		searchBuffer = (int) this.options.getInt(QEPCoreOptions.QEPC_SEARCH_BUFFER, 1024);
 
 		mergeThread = new QEPCoreMergeThread(this, options);
 
@@ -318,13 +355,36 @@ public class QEPCore implements AutoCloseable {
 				}
 			}
 
-			return new QEPDataset(this, id, path, dataset, bitmap, deltaBitmaps);
+			QEPDataset ds = new QEPDataset(this, id, path, dataset, bitmap, deltaBitmaps);
+			if (useFilters) {
+				ds.setFilter(openFilter(path, dataset));
+			}
+			return ds;
 		} catch (Throwable t) {
 			Closer.closeAll(t, dataset, bitmap, deltaBitmaps);
 			throw new AssertionError();
 		}
 	}
 
+	private QEPDatasetFilter openFilter(Path path, HDT dataset) {
+		Path filterPath = QEPDatasetFilter.getFilterPath(path);
+		try {
+			QEPDatasetFilter filter = QEPDatasetFilter.load(filterPath, dataset.getDictionary());
+			if (filter != null) {
+				return filter;
+			}
+		} catch (IOException e) {
+			logger.warn("Can't read the filter {}, rebuilding it", filterPath, e);
+		}
+		QEPDatasetFilter filter = QEPDatasetFilter.build(dataset.getDictionary(), filterBits);
+		try {
+			filter.save(filterPath);
+		} catch (IOException e) {
+			logger.warn("Can't write the filter {}", filterPath, e);
+		}
+		return filter;
+	}
+
 	/**
 	 * Reload the dataset with the disk
 	 *
@@ -342,6 +402,17 @@ public class QEPCore implements AutoCloseable {
 					files.forEach(path -> {
 						String filename = path.getFileName().toString();
 
+						try {
+							if (QEPDatasetFilter.deleteIfOrphan(path)) {
+								// the dataset of this filter was removed
+								logger.debug("deleted the filter {} of a removed dataset", path);
+								return;
+							}
+						} catch (IOException e) {
+							logger.warn("Can't delete the filter {} of a removed dataset", path, e);
+							return;
+						}
+
 						if (!filename.startsWith(FILE_DATASET_PREFIX) || !filename.endsWith(FILE_DATASET_SUFFIX)) {
 							// we ignore this file because it's most likely not
 							// what
@@ -663,9 +734,24 @@ public class QEPCore implements AutoCloseable {
 	 * @throws QEPCoreException search exception
 	 */
 	public QueryCloseableIterator search(QEPCoreContext context, QEPComponentTriple triple) throws QEPCoreException {
-		List<QueryCloseableIterator> iterators = new ArrayList<>();
 		QEPComponentTriple clone = triple.freeze();
+		if (searchExecutor != null) {
+			// read the datasets concurrently
+			List<ParallelCatQueryCloseable.QuerySupplier> suppliers = new ArrayList<>();
+			for (QEPDatasetContext dsctx : context.getContexts()) {
+				if (!dsctx.dataset().mayContain(clone)) {
+					continue; // a bound term isn't in this dataset
+				}
+				suppliers.add(() -> dsctx.dataset().search(dsctx, clone));
+			}
+			return ParallelCatQueryCloseable.of(suppliers, searchExecutor, searchBuffer);
+		}
+
+		List<QueryCloseableIterator> iterators = new ArrayList<>();
 		for (QEPDatasetContext dsctx : context.getContexts()) {
+			if (!dsctx.dataset().mayContain(clone)) {
+				continue; // a bound term isn't in this dataset
+			}
 			iterators.add(dsctx.dataset().search(dsctx, clone));
 		}
 
@@ -955,11 +1041,78 @@ public class QEPCore implements AutoCloseable {
 	 * @return estimation
 	 */
 	public long cardinality(QEPComponent s, QEPComponent p, QEPComponent o) {
-		try (QueryCloseableIterator se = search(s, p, o)) {
-			return se.estimateCardinality();
+		if (searchExecutor == null) {
+			try (QueryCloseableIterator se = search(s, p, o)) {
+				return se.estimateCardinality();
+			}
+		}
+		try (QEPCoreContext ctx = createSearchContext()) {
+			return cardinality(ctx, QEPComponentTriple.of(s, p, o));
 		}
 	}
 
+	/**
+	 * estimate the cardinality of a triple, the datasets are searched
+	 * concurrently if the core is configured with
+	 * {@link QEPCoreOptions#QEPC_SEARCH_THREADS}
+	 *
+	 * @param context search context
+	 * @param triple  triple
+	 * @return estimation
+	 * @throws QEPCoreException search exception
+	 */
+	public long cardinality(QEPCoreContext context, QEPComponentTriple triple) throws QEPCoreException {
+		if (searchExecutor == null) {
+			try (QueryCloseableIterator se = search(context, triple)) {
+				return se.estimateCardinality();
+			}
+		}
+		QEPComponentTriple clone = triple.freeze();
+		List<Future<Long>> futures = new ArrayList<>();
+		for (QEPDatasetContext dsctx : context.getContexts()) {
+			if (!dsctx.dataset().mayContain(clone)) {
+				continue; // a bound term isn't in this dataset
+			}
+			Callable<Long> task = () -> {
+				try (QueryCloseableIterator se = dsctx.dataset().search(dsctx, clone)) {
+					return se.estimateCardinality();
+				}
+			};
+			try {
+				futures.add(searchExecutor.submit(task));
+			} catch (RejectedExecutionException e) {
+				// all the threads are used, estimate it with this thread
+				FutureTask<Long> future = new FutureTask<>(task);
+				future.run();
+				futures.add(future);
+			}
+		}
+		long cardinality = 0;
+		try {
+			for (Future<Long> future : futures) {
+				cardinality += future.get();
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QEPCoreException("Interrupted while estimating the cardinality", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof QEPCoreException qce) {
+				throw qce;
+			}
+			throw new QEPCoreException(e.getCause());
+		} finally {
+			// wait for the other searches before closing the context
+			for (Future<Long> future : futures) {
+				try {
+					future.get();
+				} catch (InterruptedException | ExecutionException ignore) {
+					// already reported
+				}
+			}
+		}
+		return cardinality;
+	}
+
 	/**
 	 * @return a search context, all the search operations created using this
 	 *         context will be done using a non-mutable version of the core.
@@ -1124,6 +1277,7 @@ public class QEPCore implements AutoCloseable {
 				try {
 					// delete the dataset file if it was already used
 					Files.deleteIfExists(datasetPath);
+					QEPDatasetFilter.delete(datasetPath);
 				} catch (IOException e) {
 					t.addSuppressed(e);
 				}
@@ -1348,6 +1502,9 @@ public class QEPCore implements AutoCloseable {
 		synchronized (datasetLock) {
 			synchronized (bindLock) {
 				mergeThread.interrupt();
+				if (searchExecutor != null) {
+					searchExecutor.shutdown();
+				}
 				try {
 					Closer.closeAll(dataset, map);
 				} catch (IOException e) {
@@ -37,4 +37,30 @@ public class QEPCoreOptions {
 	 */
 	@Key(type = Key.Type.NUMBER, desc = "QEPCore merge epsilon between each dataset")
 	public static final String QEPC_MERGE_PROGRESS = "qepcore.merge.progress";
+	/**
+	 * Key to use the term filters of the datasets to skip them during the
+	 * searches, true by default, see {@link QEPDatasetFilter}.
+	 */
+	@Key(type = Key.Type.BOOLEAN, desc = "QEPCore use dataset term filters")
+	public static final String QEPC_DATASET_FILTER = "qepcore.dataset.filter";
+	/**
+	 * Key for the number of bits per term of the dataset filters, 10 by
+	 * default, see {@link QEPDatasetFilter}.
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "QEPCore dataset term filters bits per term")
+	public static final String QEPC_DATASET_FILTER_BITS = "qepcore.dataset.filter.bits";
+	/**
+	 * Key for the number of threads used to search the datasets concurrently, 1
+	 * by default to search them one after another, when all the threads are
+	 * used, the datasets are searched by the calling thread, see
+	 * {@link com.the_qa_company.qendpoint.core.storage.iterator.ParallelCatQueryCloseable}.
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "QEPCore number of threads to search the datasets")
+	public static final String QEPC_SEARCH_THREADS = "qepcore.search.threads";
+	/**
+	 * Key for the number of results buffered by the concurrent searches, 1024
+	 * by default, used with {@link #QEPC_SEARCH_THREADS}.
+	 */
+	@Key(type = Key.Type.NUMBER, desc = "QEPCore buffer size of the concurrent searches")
+	public static final String QEPC_SEARCH_BUFFER = "qepcore.search.buffer";
 }
@@ -60,6 +60,7 @@ public class QEPDataset implements Closeable {
 	private final AddSnapshotBitmap deleteBitmap;
 	private final ModifiableBitmap[] deltaBitmaps;
 	private final int uid;
+	private QEPDatasetFilter filter;
 
 	/**
 	 * @param core         core
@@ -105,6 +106,49 @@ public class QEPDataset implements Closeable {
 		return uid;
 	}
 
+	/**
+	 * @return the term filter of this dataset, null if the dataset has no
+	 *         filter
+	 */
+	public QEPDatasetFilter filter() {
+		return filter;
+	}
+
+	/**
+	 * set the term filter of this dataset
+	 *
+	 * @param filter filter, null to remove it
+	 */
+	public void setFilter(QEPDatasetFilter filter) {
+		this.filter = filter;
+	}
+
+	/**
+	 * test with the filter of the dataset if a pattern might have results in
+	 * this dataset, only the components with a known string are tested.
+	 *
+	 * @param pattern pattern
+	 * @return false if the pattern can't have results in this dataset, true if
+	 *         it might have
+	 */
+	public boolean mayContain(QEPComponentTriple pattern) {
+		QEPDatasetFilter filter = this.filter;
+		if (filter == null) {
+			return true;
+		}
+		return mayContain(filter, pattern.getSubject(), TripleComponentRole.SUBJECT)
+				&& mayContain(filter, pattern.getPredicate(), TripleComponentRole.PREDICATE)
+				&& mayContain(filter, pattern.getObject(), TripleComponentRole.OBJECT);
+	}
+
+	private static boolean mayContain(QEPDatasetFilter filter, QEPComponent component, TripleComponentRole role) {
+		if (component == null || component.value == null) {
+			// unbound or id component, we can't test it without decoding it
+			return true;
+		}
+		return filter.mightContain(role, component.value);
+	}
+
 	public ComponentFind find(CharSequence seq) {
 		long pid = Math.max(0, dataset.getDictionary().stringToId(seq, TripleComponentRole.PREDICATE));
 
@@ -0,0 +1,300 @@
+package com.the_qa_company.qendpoint.core.storage;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.util.crc.CRC32;
+import com.the_qa_company.qendpoint.core.util.crc.CRCInputStream;
+import com.the_qa_company.qendpoint.core.util.crc.CRCOutputStream;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Bloom filters over the terms of a dataset, one filter for each triple
+ * component role, used to skip the datasets without a bound term without
+ * searching in their dictionaries.
+ *
+ * @see QEPDataset#mayContain(com.the_qa_company.qendpoint.core.storage.search.QEPComponentTriple)
+ */
+public class QEPDatasetFilter {
+	private static final long MAGIC = 0x51455046494c5452L; // QEPFILTR
+	private static final int VERSION = 2;
+	private static final String FILE_SUFFIX = ".filter";
+	/**
+	 * default number of bits for each element
+	 */
+	public static final int DEFAULT_BITS_PER_ELEMENT = 10;
+
+	/**
+	 * get the filter path of a dataset
+	 *
+	 * @param datasetPath dataset path
+	 * @return filter path
+	 */
+	public static Path getFilterPath(Path datasetPath) {
+		return datasetPath.resolveSibling(datasetPath.getFileName() + FILE_SUFFIX);
+	}
+
+	/**
+	 * delete the filter of a removed dataset
+	 *
+	 * @param datasetPath dataset path
+	 * @throws IOException delete exception
+	 */
+	public static void delete(Path datasetPath) throws IOException {
+		Files.deleteIfExists(getFilterPath(datasetPath));
+	}
+
+	/**
+	 * delete a file if it is the filter of a dataset which doesn't exist
+	 * anymore
+	 *
+	 * @param path file path
+	 * @return if the file was deleted
+	 * @throws IOException delete exception
+	 */
+	public static boolean deleteIfOrphan(Path path) throws IOException {
+		String filename = path.getFileName().toString();
+		if (!filename.endsWith(FILE_SUFFIX)) {
+			return false;
+		}
+		Path datasetPath = path.resolveSibling(filename.substring(0, filename.length() - FILE_SUFFIX.length()));
+		if (Files.exists(datasetPath)) {
+			return false;
+		}
+		return Files.deleteIfExists(path);
+	}
+
+	/**
+	 * build the filter of a dataset dictionary
+	 *
+	 * @param dictionary     dictionary
+	 * @param bitsPerElement bits for each element, 10 bits are giving a false
+	 *                       positive probability of about 1%
+	 * @return filter
+	 */
+	public static QEPDatasetFilter build(Dictionary dictionary, int bitsPerElement) {
+		if (bitsPerElement <= 0) {
+			throw new IllegalArgumentException("bitsPerElement should be positive: " + bitsPerElement);
+		}
+		int hashes = Math.max(1, (int) Math.round(bitsPerElement * Math.log(2)));
+		TripleComponentRole[] roles = TripleComponentRole.values();
+		long[][] filters = new long[roles.length][];
+		for (TripleComponentRole role : roles) {
+			long count = dictionary.getNSection(role, role != TripleComponentRole.PREDICATE);
+			long[] bits = createFilter(count, bitsPerElement);
+			if (role == TripleComponentRole.OBJECT) {
+				// the object iterators of the multi section dictionaries aren't
+				// using the same literal syntax as the searches (language
+				// literals), we use the id syntax
+				for (long id = 1; id <= count; id++) {
+					add(bits, hashes, hash(dictionary.idToString(id, role)));
+				}
+			} else {
+				Iterator<? extends CharSequence> it = dictionary.stringIterator(role, true);
+				while (it.hasNext()) {
+					add(bits, hashes, hash(it.next()));
+				}
+			}
+			filters[role.ordinal()] = bits;
+		}
+		return new QEPDatasetFilter(signature(dictionary), hashes, filters);
+	}
+
+	/**
+	 * load the filter of a dataset
+	 *
+	 * @param path       filter path
+	 * @param dictionary dictionary of the dataset, used to check that the
+	 *                   filter was built for this dataset
+	 * @return filter, null if the filter doesn't exist or if it was built for
+	 *         another dataset
+	 * @throws IOException read exception
+	 */
+	public static QEPDatasetFilter load(Path path, Dictionary dictionary) throws IOException {
+		if (!Files.exists(path)) {
+			return null;
+		}
+		try (CRCInputStream is = new CRCInputStream(new BufferedInputStream(Files.newInputStream(path)), new CRC32())) {
+			if (IOUtil.readLong(is) != MAGIC) {
+				throw new IOException("Bad filter magic in " + path);
+			}
+			int version = IOUtil.readInt(is);
+			if (version != VERSION) {
+				// unknown version, rebuild it
+				return null;
+			}
+			long[] signature = readLongs(is, SIGNATURE_SIZE);
+			int hashes = IOUtil.readInt(is);
+			long[][] filters = new long[TripleComponentRole.values().length][];
+			for (int i = 0; i < filters.length; i++) {
+				filters[i] = readLongs(is, IOUtil.readInt(is));
+			}
+			if (!is.readCRCAndCheck()) {
+				throw new IOException("Bad CRC for filter " + path);
+			}
+			if (!Arrays.equals(signature, signature(dictionary))) {
+				return null;
+			}
+			return new QEPDatasetFilter(signature, hashes, filters);
+		}
+	}
+
+	private static final int SIGNATURE_SIZE = 5;
+
+	/**
+	 * compute the signature of a dictionary, the section counts and the CRC32
+	 * of the strings of each role
+	 *
+	 * @param dictionary dictionary
+	 * @return signature
+	 */
+	private static long[] signature(Dictionary dictionary) {
+		CRC32 crc = new CRC32();
+		for (TripleComponentRole role : TripleComponentRole.values()) {
+			Iterator<? extends CharSequence> it = dictionary.stringIterator(role, true);
+			while (it.hasNext()) {
+				ByteString str = ByteString.of(it.next());
+				crc.update(str.getBuffer(), 0, str.length());
+				// separator
+				crc.update((byte) 0);
+			}
+			// role separator
+			crc.update((byte) 1);
+		}
+		return new long[] { dictionary.getNshared(), dictionary.getNsubjects(), dictionary.getNpredicates(),
+				dictionary.getNobjects(), crc.getValue() };
+	}
+
+	private static long[] readLongs(InputStream is, int count) throws IOException {
+		long[] values = new long[count];
+		for (int i = 0; i < count; i++) {
+			values[i] = IOUtil.readLong(is);
+		}
+		return values;
+	}
+
+	private static long[] createFilter(long count, int bitsPerElement) {
+		long bits = Math.max(64, count * bitsPerElement);
+		long words = (bits + 63) >>> 6;
+		if (words > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException("Too many elements for a filter: " + count);
+		}
+		return new long[(int) words];
+	}
+
+	/**
+	 * 64 bits hash of the UTF-8 bytes of a string (FNV-1a with a final mix)
+	 */
+	private static long hash(CharSequence seq) {
+		ByteString str = ByteString.of(seq);
+		byte[] buffer = str.getBuffer();
+		int length = str.length();
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < length; i++) {
+			h ^= buffer[i] & 0xFF;
+			h *= 0x100000001b3L;
+		}
+		h ^= h >>> 33;
+		h *= 0xff51afd7ed558ccdL;
+		h ^= h >>> 33;
+		h *= 0xc4ceb9fe1a85ec53L;
+		h ^= h >>> 33;
+		return h;
+	}
+
+	private static void add(long[] bits, int hashes, long hash) {
+		long numBits = (long) bits.length << 6;
+		long h1 = hash & 0xFFFFFFFFL;
+		long h2 = hash >>> 32;
+		for (int i = 0; i < hashes; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, numBits);
+			bits[(int) (index >>> 6)] |= 1L << index;
+		}
+	}
+
+	private static boolean contains(long[] bits, int hashes, long hash) {
+		long numBits = (long) bits.length << 6;
+		long h1 = hash & 0xFFFFFFFFL;
+		long h2 = hash >>> 32;
+		for (int i = 0; i < hashes; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, numBits);
+			if ((bits[(int) (index >>> 6)] & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private final long[] signature;
+	private final int hashes;
+	private final long[][] filters;
+
+	private QEPDatasetFilter(long[] signature, int hashes, long[][] filters) {
+		this.signature = signature;
+		this.hashes = hashes;
+		this.filters = filters;
+	}
+
+	/**
+	 * test if a term might be in the dataset
+	 *
+	 * @param role role of the term
+	 * @param term term
+	 * @return false if the term isn't in the dataset with this role, true if it
+	 *         might be
+	 */
+	public boolean mightContain(TripleComponentRole role, CharSequence term) {
+		return contains(filters[role.ordinal()], hashes, hash(term));
+	}
+
+	/**
+	 * @return the size of the filters in bytes
+	 */
+	public long getSizeBytes() {
+		long size = 0;
+		for (long[] filter : filters) {
+			size += (long) filter.length * Long.BYTES;
+		}
+		return size;
+	}
+
+	/**
+	 * save the filter
+	 *
+	 * @param path filter path
+	 * @throws IOException write exception
+	 */
+	public void save(Path path) throws IOException {
+		Path tmp = path.resolveSibling(path.getFileName() + ".tmp");
+		try (CRCOutputStream os = new CRCOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)),
+				new CRC32())) {
+			IOUtil.writeLong(os, MAGIC);
+			IOUtil.writeInt(os, VERSION);
+			writeLongs(os, signature);
+			IOUtil.writeInt(os, hashes);
+			for (long[] filter : filters) {
+				IOUtil.writeInt(os, filter.length);
+				writeLongs(os, filter);
+			}
+			os.writeCRC();
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING);
+	}
+
+	private static void writeLongs(OutputStream os, long[] values) throws IOException {
+		for (long value : values) {
+			IOUtil.writeLong(os, value);
+		}
+	}
+}
@@ -0,0 +1,233 @@
+package com.the_qa_company.qendpoint.core.storage.iterator;
+
+import com.the_qa_company.qendpoint.core.storage.QEPCoreException;
+import com.the_qa_company.qendpoint.core.storage.search.QEPComponentTriple;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Version of {@link CatQueryCloseable} opening and reading the iterators
+ * concurrently with an executor, the results are sent to a bounded buffer, so
+ * the reading threads are waiting for the consumer if it is too slow. The order
+ * of the results isn't kept.
+ * <p>
+ * The iterator should be closed to release the executor threads. The readers
+ * are blocking their threads until the results are consumed, so the executor
+ * shouldn't queue the tasks behind them, otherwise a search started by the
+ * consumer can't be read. The iterators rejected by the executor are read by
+ * the consumer thread when the buffer is empty.
+ */
+public class ParallelCatQueryCloseable extends FetcherCloseableIterator<QEPComponentTriple, QEPCoreException>
+		implements QueryCloseableIterator {
+	/**
+	 * iterator supplier
+	 */
+	@FunctionalInterface
+	public interface QuerySupplier {
+		/**
+		 * @return the iterator
+		 * @throws QEPCoreException search exception
+		 */
+		QueryCloseableIterator open() throws QEPCoreException;
+	}
+
+	private static final Object END = new Object();
+	private static final long WAIT_MS = 100;
+
+	/**
+	 * create iterator
+	 *
+	 * @param suppliers  suppliers of the iterators, called by the executor
+	 * @param executor   executor, starting the tasks without queuing them or
+	 *                   rejecting them
+	 * @param bufferSize size of the buffer between the readers and the consumer
+	 * @return iterator
+	 */
+	public static QueryCloseableIterator of(List<QuerySupplier> suppliers, Executor executor, int bufferSize) {
+		// handle easy cases
+		if (suppliers.isEmpty()) {
+			return QueryCloseableIterator.empty();
+		}
+		if (suppliers.size() == 1) {
+			return suppliers.get(0).open();
+		}
+		return new ParallelCatQueryCloseable(suppliers, executor, bufferSize);
+	}
+
+	private final BlockingQueue<Object> buffer;
+	private final long[] cardinalities;
+	private final CountDownLatch opened;
+	private final CountDownLatch ended;
+	private final AtomicReference<Throwable> exception = new AtomicReference<>();
+	private final List<QueryCloseableIterator> localIterators = new ArrayList<>();
+	private final QueryCloseableIterator local;
+	private volatile boolean closed;
+	private int remaining;
+
+	private ParallelCatQueryCloseable(List<QuerySupplier> suppliers, Executor executor, int bufferSize) {
+		buffer = new ArrayBlockingQueue<>(Math.max(1, bufferSize));
+		cardinalities = new long[suppliers.size()];
+		opened = new CountDownLatch(suppliers.size());
+		ended = new CountDownLatch(suppliers.size());
+		remaining = suppliers.size();
+
+		int i = 0;
+		try {
+			for (; i < suppliers.size(); i++) {
+				int index = i;
+				QuerySupplier supplier = suppliers.get(i);
+				try {
+					executor.execute(() -> read(index, supplier));
+				} catch (RejectedExecutionException e) {
+					// all the threads are used, the consumer will read it
+					opened.countDown();
+					ended.countDown();
+					remaining--;
+					localIterators.add(supplier.open());
+				}
+			}
+		} catch (Throwable t) {
+			// the readers of the next iterators won't be started
+			for (int j = i + 1; j < suppliers.size(); j++) {
+				opened.countDown();
+				ended.countDown();
+			}
+			try {
+				close();
+			} catch (Throwable t2) {
+				t.addSuppressed(t2);
+			}
+			throw t;
+		}
+		local = CatQueryCloseable.of(localIterators);
+	}
+
+	private void read(int index, QuerySupplier supplier) {
+		boolean open = false;
+		try {
+			if (closed) {
+				return;
+			}
+			try (QueryCloseableIterator it = supplier.open()) {
+				cardinalities[index] = it.estimateCardinality();
+				opened.countDown();
+				open = true;
+
+				while (!closed && it.hasNext()) {
+					// the iterators are reusing their triples
+					QEPComponentTriple next = it.next();
+					QEPComponentTriple copy = QEPComponentTriple.of(next.getSubject(), next.getPredicate(),
+							next.getObject(), next.getId());
+					copy.setDatasetId(next.getDatasetId());
+					push(copy);
+				}
+			}
+		} catch (Throwable t) {
+			exception.accumulateAndGet(t, (a, b) -> {
+				if (a == null) {
+					return b;
+				}
+				a.addSuppressed(b);
+				return a;
+			});
+		} finally {
+			if (!open) {
+				opened.countDown();
+			}
+			try {
+				push(END);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} finally {
+				ended.countDown();
+			}
+		}
+	}
+
+	private void push(Object element) throws InterruptedException {
+		while (!closed) {
+			if (buffer.offer(element, WAIT_MS, TimeUnit.MILLISECONDS)) {
+				return;
+			}
+		}
+	}
+
+	private void throwIfError() {
+		Throwable t = exception.get();
+		if (t == null) {
+			return;
+		}
+		if (t instanceof QEPCoreException qce) {
+			throw qce;
+		}
+		if (t instanceof Error err) {
+			throw err;
+		}
+		throw new QEPCoreException(t);
+	}
+
+	@Override
+	protected QEPComponentTriple getNext() {
+		try {
+			while (remaining > 0) {
+				Object next = buffer.poll();
+				if (next == null) {
+					if (local.hasNext()) {
+						// the readers are slower, read the rejected iterators
+						return local.next();
+					}
+					next = buffer.take();
+				}
+				if (next == END) {
+					remaining--;
+					throwIfError();
+					continue;
+				}
+				return (QEPComponentTriple) next;
+			}
+			return local.hasNext() ? local.next() : null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QEPCoreException("Interrupted while waiting for the search results", e);
+		}
+	}
+
+	@Override
+	public long estimateCardinality() {
+		try {
+			opened.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QEPCoreException("Interrupted while waiting for the search cardinality", e);
+		}
+		throwIfError();
+		long sum = local.estimateCardinality();
+		for (long cardinality : cardinalities) {
+			sum += cardinality;
+		}
+		return sum;
+	}
+
+	@Override
+	public void close() throws QEPCoreException {
+		closed = true;
+		buffer.clear();
+		try {
+			// wait for the readers to stop using the datasets
+			ended.await();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new QEPCoreException("Interrupted while closing the search", e);
+		} finally {
+			AutoCloseableGeneric.closeAll(localIterators);
+		}
+	}
+}
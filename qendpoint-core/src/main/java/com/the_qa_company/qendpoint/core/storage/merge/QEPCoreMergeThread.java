@@ -14,6 +14,7 @@ import com.the_qa_company.qendpoint.core.storage.QEPCoreException;
 import com.the_qa_company.qendpoint.core.storage.QEPCoreOptions;
 import com.the_qa_company.qendpoint.core.storage.QEPDataset;
 import com.the_qa_company.qendpoint.core.storage.QEPDatasetContext;
+import com.the_qa_company.qendpoint.core.storage.QEPDatasetFilter;
 import com.the_qa_company.qendpoint.core.storage.QEPMap;
 import org.apache.commons.io.file.PathUtils;
 
@@ -237,9 +238,22 @@ public class QEPCoreMergeThread extends Thread {
 						listener.sub(10, 70, "diffcat: "), false)) {
 					diffCat.saveToHDT(output, listener.sub(70, 75, "saving diffcat: "));
 
+					QEPDatasetFilter filter;
+					if (options.getBoolean(QEPCoreOptions.QEPC_DATASET_FILTER, true)) {
+						// build the filter now to avoid building it while
+						// opening the dataset, it should be moved with it
+						filter = QEPDatasetFilter.build(diffCat.getDictionary(),
+								(int) options.getInt(QEPCoreOptions.QEPC_DATASET_FILTER_BITS,
+										QEPDatasetFilter.DEFAULT_BITS_PER_ELEMENT));
+						filter.save(QEPDatasetFilter.getFilterPath(output));
+					} else {
+						filter = null;
+					}
+
 					// start linking
 					String newDatasetId = core.createNewDatasetId();
 					QEPDataset nds = new QEPDataset(core, newDatasetId, null, diffCat, null, null);
+					nds.setFilter(filter);
 
 					// pause updates
 
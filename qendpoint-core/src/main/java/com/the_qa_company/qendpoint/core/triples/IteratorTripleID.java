@@ -64,6 +64,52 @@ public interface IteratorTripleID extends Iterator<TripleID> {
 	 */
 	void goTo(long pos);
 
+	/**
+	 * Specifies whether the iterator can move to a subject with
+	 * {@link #goToSubject(long)}, the iterator should return the triples sorted
+	 * by subject.
+	 *
+	 * @return boolean
+	 */
+	default boolean canGoToSubject() {
+		return false;
+	}
+
+	/**
+	 * Move the cursor forward so the next triple is the first triple with a
+	 * subject greater or equal to the given subject, nothing is done if the
+	 * next triple already has a greater or equal subject. Only use whenever
+	 * canGoToSubject() returns true.
+	 *
+	 * @param subject subject id
+	 */
+	default void goToSubject(long subject) {
+		throw new UnsupportedOperationException("Called goToSubject() on an unsupported implementation");
+	}
+
+	/**
+	 * Specifies whether the iterator can move to an object with
+	 * {@link #goToObject(long)}, the subject and the predicate of the iterator
+	 * should be fixed and the triples should be sorted by object.
+	 *
+	 * @return boolean
+	 */
+	default boolean canGoToObject() {
+		return false;
+	}
+
+	/**
+	 * Move the cursor forward so the next triple is the first triple with an
+	 * object greater or equal to the given object, nothing is done if the next
+	 * triple already has a greater or equal object. Only use whenever
+	 * canGoToObject() returns true.
+	 *
+	 * @param object object id
+	 */
+	default void goToObject(long object) {
+		throw new UnsupportedOperationException("Called goToObject() on an unsupported implementation");
+	}
+
 	/**
 	 * Returns the number of estimated results of the Iterator. It is usually
 	 * more efficient than going through all the results.
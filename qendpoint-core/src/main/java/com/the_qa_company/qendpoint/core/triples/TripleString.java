@@ -22,9 +22,11 @@ package com.the_qa_company.qendpoint.core.triples;
 import com.the_qa_company.qendpoint.core.exceptions.ParserException;
 import com.the_qa_company.qendpoint.core.util.UnicodeEscape;
 import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.ByteStringUtil;
 import com.the_qa_company.qendpoint.core.util.string.CompactString;
 
 import java.io.IOException;
+import java.util.Arrays;
 
 /**
  * TripleString holds a triple as Strings
@@ -210,24 +212,55 @@ public class TripleString {
 		read(line, 0, line.length(), processQuad);
 	}
 
-	private int searchNextTabOrSpace(String line, int start, int end) {
+	private static int indexOf(CharSequence line, char c, int start, int end) {
+		if (line instanceof String str) {
+			int index = str.indexOf(c, start);
+			return index < end ? index : -1;
+		}
+		for (int i = start; i < end; i++) {
+			if (line.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int lastIndexOf(CharSequence line, char c, int start) {
+		if (line instanceof String str) {
+			return str.lastIndexOf(c, start);
+		}
+		for (int i = Math.min(start, line.length() - 1); i >= 0; i--) {
+			if (line.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private int searchNextTabOrSpace(CharSequence line, int start, int end) {
 		// searching space
-		int sindex = line.indexOf(' ', start);
-		if (sindex != -1 && sindex < end) {
+		int sindex = indexOf(line, ' ', start, end);
+		if (sindex != -1) {
 			return sindex;
 		}
 
 		// not found, searching tabs
-		int tindex = line.indexOf('\t', start);
-		if (tindex != -1 && tindex < end) {
-			return tindex;
-		}
+		return indexOf(line, '\t', start, end);
+	}
 
-		// not found
-		return -1;
+	private static CharSequence unescape(CharSequence line, int start, int end) {
+		if (line instanceof ByteString bs) {
+			if (indexOf(line, '\\', start, end) == -1) {
+				// nothing to unescape, we can copy the bytes
+				return new CompactString(Arrays.copyOfRange(bs.getBuffer(), start, end));
+			}
+			return UnicodeEscape
+					.unescapeString(new String(bs.getBuffer(), start, end - start, ByteStringUtil.STRING_ENCODING));
+		}
+		return UnicodeEscape.unescapeString(line.toString(), start, end);
 	}
 
-	private int searchBNodeBackward(String line, int start, int end) {
+	private int searchBNodeBackward(CharSequence line, int start, int end) {
 		// bn grammar
 		// BLANK_NODE_LABEL ::= '_:' (PN_CHARS_U | [0-9]) ((PN_CHARS | '.')*
 		// PN_CHARS)?
@@ -290,6 +323,24 @@ public class TripleString {
 	 * @throws ParserException if the line is not RDF complient
 	 */
 	public void read(String line, int start, int end, boolean processQuad) throws ParserException {
+		read((CharSequence) line, start, end, processQuad);
+	}
+
+	/**
+	 * Read from a line, where each component is separated by space. The
+	 * components are read as {@link ByteString} without decoding the line.
+	 *
+	 * @param line        line to read
+	 * @param start       start in the string
+	 * @param end         in the string
+	 * @param processQuad process quad
+	 * @throws ParserException if the line is not RDF complient
+	 */
+	public void read(ByteString line, int start, int end, boolean processQuad) throws ParserException {
+		read((CharSequence) line, start, end, processQuad);
+	}
+
+	private void read(CharSequence line, int start, int end, boolean processQuad) throws ParserException {
 		int split, posa, posb;
 		// for quad implementation, don't forget to clear the graph
 		this.clear();
@@ -309,7 +360,7 @@ public class TripleString {
 			}
 		}
 
-		this.setSubject(UnicodeEscape.unescapeString(line, posa, posb));
+		this.setSubject(unescape(line, posa, posb));
 
 		// SET PREDICATE
 		posa = split + 1;
@@ -325,7 +376,7 @@ public class TripleString {
 			}
 		}
 
-		this.setPredicate(UnicodeEscape.unescapeString(line, posa, posb));
+		this.setPredicate(unescape(line, posa, posb));
 
 		if (processQuad) {
 			// SET OBJECT
@@ -349,13 +400,14 @@ public class TripleString {
 					// object IRI
 					// graph IRI
 
-					int iriStart = line.lastIndexOf('<', posb);
+					int iriStart = lastIndexOf(line, '<', posb);
 
 					if (iriStart < posa) {
-						throw new ParserException("end of a '>' without a start '<'", line, posb);
+						throw new ParserException("end of a '>' without a start '<'",
+								line.subSequence(start, end).toString(), posb - start);
 					}
 					if (posa != iriStart && line.charAt(iriStart - 1) != '^') {
-						this.setGraph(UnicodeEscape.unescapeString(line, iriStart + 1, posb - 1));
+						this.setGraph(unescape(line, iriStart + 1, posb - 1));
 						posb = iriStart - 1;
 					}
 					// not the current element, literal or object iri
@@ -371,7 +423,7 @@ public class TripleString {
 
 					int bnodeStart = searchBNodeBackward(line, posa, posb);
 					if (bnodeStart > posa) {
-						this.setGraph(UnicodeEscape.unescapeString(line, bnodeStart + 1, posb - 1));
+						this.setGraph(unescape(line, bnodeStart + 1, posb - 1));
 						posb = bnodeStart;
 					}
 					// not the current element, literal language or object bnode
@@ -403,7 +455,7 @@ public class TripleString {
 			}
 		}
 
-		this.setObject(UnicodeEscape.unescapeString(line, posa, posb));
+		this.setObject(unescape(line, posa, posb));
 	}
 
 	/*
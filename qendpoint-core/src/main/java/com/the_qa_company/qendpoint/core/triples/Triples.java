@@ -42,6 +42,19 @@ public interface Triples extends Closeable {
 	 */
 	IteratorTripleID search(TripleID pattern);
 
+	/**
+	 * Iterates over all triples that match the pattern, the implementation
+	 * should prefer the indexes returning the triples sorted by subject. The
+	 * order still has to be checked with {@link IteratorTripleID#getOrder()} or
+	 * {@link IteratorTripleID#canGoToSubject()}.
+	 *
+	 * @param pattern The pattern to match against
+	 * @return IteratorTripleID
+	 */
+	default IteratorTripleID searchSubjectSorted(TripleID pattern) {
+		return search(pattern);
+	}
+
 	/**
 	 * Returns the total number of triples
 	 *
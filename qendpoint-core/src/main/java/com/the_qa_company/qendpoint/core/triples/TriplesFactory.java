@@ -21,6 +21,7 @@ package com.the_qa_company.qendpoint.core.triples;
 import com.the_qa_company.qendpoint.core.hdt.HDTVocabulary;
 import com.the_qa_company.qendpoint.core.options.ControlInfo;
 import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.options.HDTSpecification;
 import com.the_qa_company.qendpoint.core.triples.impl.BitmapTriples;
 import com.the_qa_company.qendpoint.core.triples.impl.TriplesList;
@@ -64,6 +65,22 @@ public class TriplesFactory {
 		}
 	}
 
+	/**
+	 * Creates a new Triples based on a ControlInformation and configure it with
+	 * the user options
+	 *
+	 * @param ci   The ControlInfo to read
+	 * @param spec The user options
+	 * @return Triples
+	 */
+	public static TriplesPrivate createTriples(ControlInfo ci, HDTOptions spec) throws IOException {
+		TriplesPrivate triples = createTriples(ci);
+		if (triples instanceof BitmapTriples bt && spec != null) {
+			bt.setSelectSampleRate((int) spec.getInt(HDTOptionsKeys.BITMAPTRIPLES_SELECT_SAMPLE_RATE, 0));
+		}
+		return triples;
+	}
+
 	/**
 	 * Creates a new Triples based on a ControlInformation
 	 *
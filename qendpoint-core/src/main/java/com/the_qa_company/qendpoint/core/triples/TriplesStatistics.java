@@ -0,0 +1,637 @@
+package com.the_qa_company.qendpoint.core.triples;
+
+import com.the_qa_company.qendpoint.core.compact.bitmap.Bitmap64Big;
+import com.the_qa_company.qendpoint.core.compact.integer.VByte;
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.exceptions.CRCException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.triples.impl.BitmapTriples;
+import com.the_qa_company.qendpoint.core.util.crc.CRC32;
+import com.the_qa_company.qendpoint.core.util.crc.CRCInputStream;
+import com.the_qa_company.qendpoint.core.util.crc.CRCOutputStream;
+import com.the_qa_company.qendpoint.core.util.listener.IntermediateListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Statistics of the triples of an HDT used to estimate the cardinality of the
+ * joins. It contains:
+ * <ul>
+ * <li>the number of triples, distinct subjects and distinct objects of each
+ * predicate,</li>
+ * <li>the characteristic sets, the sets of predicates describing the subjects,
+ * with the number of subjects and the number of triples of each predicate,</li>
+ * <li>the number of subjects described by each pair of predicates.</li>
+ * </ul>
+ * Only the most frequent characteristic sets are kept, the pair co-occurrences
+ * are computed before this truncation and are exact.
+ */
+public class TriplesStatistics {
+	/**
+	 * Current version of the statistics file
+	 */
+	public static final byte VERSION = 0x11;
+	public static final byte[] MAGIC = { '$', 'Q', 'E', 'P', 'S', 'T', 'S' };
+	/**
+	 * default maximum number of characteristic sets to keep
+	 */
+	public static final int DEFAULT_MAX_CHARACTERISTIC_SETS = 10_000;
+
+	/**
+	 * build the statistics of an HDT, the triples should be sorted by subject
+	 *
+	 * @param hdt      hdt
+	 * @param maxSets  maximum number of characteristic sets to keep
+	 * @param listener listener
+	 * @return statistics
+	 * @throws IllegalArgumentException if the triples aren't sorted by subject
+	 * @throws IOException              if the signature of the triples can't be
+	 *                                  computed
+	 */
+	public static TriplesStatistics build(HDT hdt, int maxSets, ProgressListener listener) throws IOException {
+		Dictionary dict = hdt.getDictionary();
+		Triples triples = hdt.getTriples();
+		long numTriples = triples.getNumberOfElements();
+		int npredicates = (int) dict.getNpredicates();
+		IntermediateListener il = new IntermediateListener(ProgressListener.ofNullable(listener));
+
+		long[] predicateTriples = new long[npredicates + 1];
+		long[] predicateSubjects = new long[npredicates + 1];
+		long[] predicateObjects = new long[npredicates + 1];
+		Map<PredicateSet, long[]> sets = new HashMap<>();
+		long numSubjects = 0;
+
+		il.setRange(0, 50);
+		il.setPrefix("characteristic sets: ");
+		IteratorTripleID it = triples.searchAll();
+		if (it.getOrder().getSubjectMapping() != TripleComponentRole.SUBJECT) {
+			throw new IllegalArgumentException("The triples should be sorted by subject, order: " + it.getOrder());
+		}
+
+		// predicates of the current subject, with the number of triples
+		long[] predicates = new long[16];
+		long[] occurrences = new long[16];
+		int count = 0;
+		long subject = 0;
+		long read = 0;
+		while (true) {
+			TripleID triple = it.hasNext() ? it.next() : null;
+
+			if (triple == null || triple.getSubject() != subject) {
+				if (count != 0) {
+					// end of the subject, add it to its characteristic set
+					numSubjects++;
+					long[] set = Arrays.copyOf(predicates, count);
+					long[] occ = Arrays.copyOf(occurrences, count);
+					for (int i = 0; i < count; i++) {
+						predicateTriples[(int) set[i]] += occ[i];
+						predicateSubjects[(int) set[i]]++;
+					}
+					long[] stats = sets.computeIfAbsent(new PredicateSet(set), k -> new long[set.length + 1]);
+					stats[0]++;
+					for (int i = 0; i < count; i++) {
+						stats[i + 1] += occ[i];
+					}
+					count = 0;
+				}
+				if (triple == null) {
+					break;
+				}
+				subject = triple.getSubject();
+			}
+
+			long predicate = triple.getPredicate();
+			// the predicates are sorted with the SPO order, but not with SOP
+			int index = Arrays.binarySearch(predicates, 0, count, predicate);
+			if (index >= 0) {
+				occurrences[index]++;
+			} else {
+				index = -index - 1;
+				if (count == predicates.length) {
+					predicates = Arrays.copyOf(predicates, count * 2);
+					occurrences = Arrays.copyOf(occurrences, count * 2);
+				}
+				System.arraycopy(predicates, index, predicates, index + 1, count - index);
+				System.arraycopy(occurrences, index, occurrences, index + 1, count - index);
+				predicates[index] = predicate;
+				occurrences[index] = 1;
+				count++;
+			}
+
+			if (read++ % 100_000 == 0) {
+				il.notifyProgress(100f * read / Math.max(1, numTriples), "read triples " + read + "/" + numTriples);
+			}
+		}
+
+		// the pairs are computed with all the sets, before the truncation
+		Map<Long, long[]> pairs = new HashMap<>();
+		for (Map.Entry<PredicateSet, long[]> e : sets.entrySet()) {
+			long[] set = e.getKey().predicates;
+			long subjects = e.getValue()[0];
+			for (int i = 0; i < set.length; i++) {
+				for (int j = i + 1; j < set.length; j++) {
+					pairs.computeIfAbsent(pairKey(set[i], set[j]), k -> new long[1])[0] += subjects;
+				}
+			}
+		}
+		long[] pairKeys = pairs.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+		long[] pairSubjects = new long[pairKeys.length];
+		for (int i = 0; i < pairKeys.length; i++) {
+			pairSubjects[i] = pairs.get(pairKeys[i])[0];
+		}
+
+		List<Map.Entry<PredicateSet, long[]>> sortedSets = new ArrayList<>(sets.entrySet());
+		sortedSets.sort(Comparator.comparingLong((Map.Entry<PredicateSet, long[]> e) -> e.getValue()[0]).reversed());
+		int numSets = Math.min(sortedSets.size(), maxSets);
+		long[][] setPredicates = new long[numSets][];
+		long[][] setStats = new long[numSets][];
+		for (int i = 0; i < numSets; i++) {
+			setPredicates[i] = sortedSets.get(i).getKey().predicates;
+			setStats[i] = sortedSets.get(i).getValue();
+		}
+
+		il.setRange(50, 100);
+		il.setPrefix("predicate objects: ");
+		// distinct objects of each predicate, one bitmap reused for all the
+		// predicates
+		try (Bitmap64Big seen = Bitmap64Big.memory(dict.getNobjects() + 1)) {
+			TripleID pattern = new TripleID();
+			for (int p = 1; p <= npredicates; p++) {
+				pattern.setAll(0, p, 0);
+				long distinct = 0;
+				IteratorTripleID pit = triples.search(pattern);
+				while (pit.hasNext()) {
+					long object = pit.next().getObject();
+					if (!seen.access(object)) {
+						seen.set(object, true);
+						distinct++;
+					}
+				}
+				predicateObjects[p] = distinct;
+				// clear the bitmap for the next predicate
+				pit = triples.search(pattern);
+				while (pit.hasNext()) {
+					seen.set(pit.next().getObject(), false);
+				}
+				il.notifyProgress(100f * p / npredicates, "read predicate " + p + "/" + npredicates);
+			}
+		} catch (IOException e) {
+			throw new RuntimeException("Can't close the bitmap", e);
+		}
+
+		return new TriplesStatistics(getSignature(triples), numTriples, numSubjects, dict.getNshared(),
+				dict.getNsubjects(), npredicates, dict.getNobjects(), predicateTriples, predicateSubjects,
+				predicateObjects, setPredicates, setStats, sortedSets.size() > numSets, pairKeys, pairSubjects);
+	}
+
+	/**
+	 * load statistics from a file
+	 *
+	 * @param file file
+	 * @return statistics
+	 * @throws IOException can't read the file
+	 */
+	public static TriplesStatistics load(Path file) throws IOException {
+		try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+			byte[] header = is.readNBytes(MAGIC.length + 1);
+			if (header.length < MAGIC.length + 1) {
+				throw new EOFException("Can't read statistics magic!");
+			}
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (header[i] != MAGIC[i]) {
+					throw new IOException("Bad magic header!");
+				}
+			}
+			if (header[MAGIC.length] != VERSION) {
+				throw new IOException("Unknown statistics version: " + header[MAGIC.length] + ", current: " + VERSION);
+			}
+
+			CRCInputStream in = new CRCInputStream(is, new CRC32());
+			long signature = VByte.decode(in);
+			long numTriples = VByte.decode(in);
+			long numSubjects = VByte.decode(in);
+			long nshared = VByte.decode(in);
+			long nsubjects = VByte.decode(in);
+			int npredicates = (int) VByte.decode(in);
+			long nobjects = VByte.decode(in);
+
+			long[] predicateTriples = new long[npredicates + 1];
+			long[] predicateSubjects = new long[npredicates + 1];
+			long[] predicateObjects = new long[npredicates + 1];
+			for (int p = 1; p <= npredicates; p++) {
+				predicateTriples[p] = VByte.decode(in);
+				predicateSubjects[p] = VByte.decode(in);
+				predicateObjects[p] = VByte.decode(in);
+			}
+
+			boolean truncated = in.read() != 0;
+			int numSets = (int) VByte.decode(in);
+			long[][] setPredicates = new long[numSets][];
+			long[][] setStats = new long[numSets][];
+			for (int i = 0; i < numSets; i++) {
+				int size = (int) VByte.decode(in);
+				long[] set = new long[size];
+				long[] stats = new long[size + 1];
+				stats[0] = VByte.decode(in);
+				long last = 0;
+				for (int j = 0; j < size; j++) {
+					// delta encoding of the sorted predicates
+					set[j] = last += VByte.decode(in);
+					stats[j + 1] = VByte.decode(in);
+				}
+				setPredicates[i] = set;
+				setStats[i] = stats;
+			}
+
+			int numPairs = (int) VByte.decode(in);
+			long[] pairKeys = new long[numPairs];
+			long[] pairSubjects = new long[numPairs];
+			long last = 0;
+			for (int i = 0; i < numPairs; i++) {
+				pairKeys[i] = last += VByte.decode(in);
+				pairSubjects[i] = VByte.decode(in);
+			}
+
+			if (!in.readCRCAndCheck()) {
+				throw new CRCException("CRC Error while reading the statistics " + file);
+			}
+
+			return new TriplesStatistics(signature, numTriples, numSubjects, nshared, nsubjects, npredicates, nobjects,
+					predicateTriples, predicateSubjects, predicateObjects, setPredicates, setStats, truncated, pairKeys,
+					pairSubjects);
+		}
+	}
+
+	/**
+	 * get the signature of triples
+	 *
+	 * @param triples triples
+	 * @return signature, 0 if the triples don't have a signature
+	 * @throws IOException if the signature can't be computed
+	 * @see BitmapTriples#getSignature()
+	 */
+	private static long getSignature(Triples triples) throws IOException {
+		if (triples instanceof BitmapTriples bt) {
+			return bt.getSignature();
+		}
+		return 0;
+	}
+
+	private static long pairKey(long p1, long p2) {
+		if (p1 > p2) {
+			return (p2 << 32) | p1;
+		}
+		return (p1 << 32) | p2;
+	}
+
+	private final long signature;
+	private final long numTriples;
+	private final long numSubjects;
+	private final long nshared;
+	private final long nsubjects;
+	private final int npredicates;
+	private final long nobjects;
+	private final long[] predicateTriples;
+	private final long[] predicateSubjects;
+	private final long[] predicateObjects;
+	/**
+	 * sorted predicates of each characteristic set
+	 */
+	private final long[][] setPredicates;
+	/**
+	 * number of subjects of each characteristic set, followed by the number of
+	 * triples of each predicate
+	 */
+	private final long[][] setStats;
+	private final boolean truncated;
+	/**
+	 * index of the characteristic sets containing a predicate
+	 */
+	private final int[][] predicateSets;
+	private final long[] pairKeys;
+	private final long[] pairSubjects;
+
+	private TriplesStatistics(long signature, long numTriples, long numSubjects, long nshared, long nsubjects,
+			int npredicates, long nobjects, long[] predicateTriples, long[] predicateSubjects, long[] predicateObjects,
+			long[][] setPredicates, long[][] setStats, boolean truncated, long[] pairKeys, long[] pairSubjects) {
+		this.signature = signature;
+		this.numTriples = numTriples;
+		this.numSubjects = numSubjects;
+		this.nshared = nshared;
+		this.nsubjects = nsubjects;
+		this.npredicates = npredicates;
+		this.nobjects = nobjects;
+		this.predicateTriples = predicateTriples;
+		this.predicateSubjects = predicateSubjects;
+		this.predicateObjects = predicateObjects;
+		this.setPredicates = setPredicates;
+		this.setStats = setStats;
+		this.truncated = truncated;
+		this.pairKeys = pairKeys;
+		this.pairSubjects = pairSubjects;
+
+		int[] sizes = new int[npredicates + 1];
+		for (long[] set : setPredicates) {
+			for (long p : set) {
+				sizes[(int) p]++;
+			}
+		}
+		predicateSets = new int[npredicates + 1][];
+		for (int p = 0; p <= npredicates; p++) {
+			predicateSets[p] = new int[sizes[p]];
+			sizes[p] = 0;
+		}
+		for (int i = 0; i < setPredicates.length; i++) {
+			for (long p : setPredicates[i]) {
+				predicateSets[(int) p][sizes[(int) p]++] = i;
+			}
+		}
+	}
+
+	/**
+	 * save the statistics into a file
+	 *
+	 * @param file file
+	 * @throws IOException can't write the file
+	 */
+	public void save(Path file) throws IOException {
+		try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+			os.write(MAGIC);
+			os.write(VERSION);
+
+			CRCOutputStream out = new CRCOutputStream(os, new CRC32());
+			VByte.encode(out, signature);
+			VByte.encode(out, numTriples);
+			VByte.encode(out, numSubjects);
+			VByte.encode(out, nshared);
+			VByte.encode(out, nsubjects);
+			VByte.encode(out, npredicates);
+			VByte.encode(out, nobjects);
+
+			for (int p = 1; p <= npredicates; p++) {
+				VByte.encode(out, predicateTriples[p]);
+				VByte.encode(out, predicateSubjects[p]);
+				VByte.encode(out, predicateObjects[p]);
+			}
+
+			out.write(truncated ? 1 : 0);
+			VByte.encode(out, setPredicates.length);
+			for (int i = 0; i < setPredicates.length; i++) {
+				long[] set = setPredicates[i];
+				long[] stats = setStats[i];
+				VByte.encode(out, set.length);
+				VByte.encode(out, stats[0]);
+				long last = 0;
+				for (int j = 0; j < set.length; j++) {
+					VByte.encode(out, set[j] - last);
+					VByte.encode(out, stats[j + 1]);
+					last = set[j];
+				}
+			}
+
+			VByte.encode(out, pairKeys.length);
+			long last = 0;
+			for (int i = 0; i < pairKeys.length; i++) {
+				VByte.encode(out, pairKeys[i] - last);
+				VByte.encode(out, pairSubjects[i]);
+				last = pairKeys[i];
+			}
+
+			out.writeCRC();
+		}
+	}
+
+	/**
+	 * test if these statistics were computed for an HDT, the signature of the
+	 * triples and the sizes of the dictionary are compared
+	 *
+	 * @param hdt hdt
+	 * @return true if the statistics can be used with this HDT
+	 * @throws IOException if the signature of the triples can't be computed
+	 */
+	public boolean isComputedFor(HDT hdt) throws IOException {
+		Dictionary dict = hdt.getDictionary();
+		return hdt.getTriples().getNumberOfElements() == numTriples && getSignature(hdt.getTriples()) == signature
+				&& dict.getNshared() == nshared && dict.getNsubjects() == nsubjects
+				&& dict.getNpredicates() == npredicates && dict.getNobjects() == nobjects;
+	}
+
+	/**
+	 * @return the number of triples
+	 */
+	public long getNumberOfTriples() {
+		return numTriples;
+	}
+
+	/**
+	 * @return the number of distinct subjects
+	 */
+	public long getNumberOfSubjects() {
+		return numSubjects;
+	}
+
+	/**
+	 * @return the number of distinct objects of the dictionary
+	 */
+	public long getNumberOfObjects() {
+		return nobjects;
+	}
+
+	/**
+	 * @return the number of predicates
+	 */
+	public long getNumberOfPredicates() {
+		return npredicates;
+	}
+
+	/**
+	 * @return the number of characteristic sets kept in the statistics
+	 */
+	public int getNumberOfCharacteristicSets() {
+		return setPredicates.length;
+	}
+
+	/**
+	 * @return if the least frequent characteristic sets were removed
+	 */
+	public boolean isTruncated() {
+		return truncated;
+	}
+
+	private boolean isPredicate(long predicate) {
+		return predicate > 0 && predicate <= npredicates;
+	}
+
+	/**
+	 * @param predicate predicate id
+	 * @return number of triples with this predicate
+	 */
+	public long getPredicateTriples(long predicate) {
+		return isPredicate(predicate) ? predicateTriples[(int) predicate] : 0;
+	}
+
+	/**
+	 * @param predicate predicate id
+	 * @return number of distinct subjects with this predicate
+	 */
+	public long getPredicateSubjects(long predicate) {
+		return isPredicate(predicate) ? predicateSubjects[(int) predicate] : 0;
+	}
+
+	/**
+	 * @param predicate predicate id
+	 * @return number of distinct objects with this predicate
+	 */
+	public long getPredicateObjects(long predicate) {
+		return isPredicate(predicate) ? predicateObjects[(int) predicate] : 0;
+	}
+
+	/**
+	 * get the number of subjects described by two predicates
+	 *
+	 * @param p1 first predicate id
+	 * @param p2 second predicate id
+	 * @return number of subjects
+	 */
+	public long getPairSubjects(long p1, long p2) {
+		if (!isPredicate(p1) || !isPredicate(p2)) {
+			return 0;
+		}
+		if (p1 == p2) {
+			return getPredicateSubjects(p1);
+		}
+		int index = Arrays.binarySearch(pairKeys, pairKey(p1, p2));
+		return index >= 0 ? pairSubjects[index] : 0;
+	}
+
+	/**
+	 * estimate the number of subjects described by all the predicates of a star
+	 *
+	 * @param predicates predicate ids, can contain duplicates
+	 * @return estimated number of subjects
+	 */
+	public double estimateStarSubjects(long... predicates) {
+		return estimateStar(predicates, false);
+	}
+
+	/**
+	 * estimate the number of results of a star
+	 * {@code ?s p1 ?o1 . ?s p2 ?o2 ...} with the characteristic sets
+	 *
+	 * @param predicates predicate ids, can contain duplicates
+	 * @return estimated number of results
+	 */
+	public double estimateStar(long... predicates) {
+		return estimateStar(predicates, true);
+	}
+
+	private double estimateStar(long[] predicates, boolean results) {
+		if (predicates.length == 0) {
+			return results ? numTriples : numSubjects;
+		}
+		long[] distinct = Arrays.stream(predicates).distinct().sorted().toArray();
+		// iterate over the sets of the rarest predicate
+		long rarest = -1;
+		for (long p : distinct) {
+			if (!isPredicate(p)) {
+				return 0;
+			}
+			if (rarest == -1 || predicateSets[(int) p].length < predicateSets[(int) rarest].length) {
+				rarest = p;
+			}
+		}
+
+		double estimation = 0;
+		for (int setIndex : predicateSets[(int) rarest]) {
+			long[] set = setPredicates[setIndex];
+			long[] stats = setStats[setIndex];
+			double setEstimation = stats[0];
+			for (long p : predicates) {
+				int index = Arrays.binarySearch(set, p);
+				if (index < 0) {
+					setEstimation = 0;
+					break;
+				}
+				if (results) {
+					// average number of triples of this predicate by subject
+					setEstimation *= (double) stats[index + 1] / stats[0];
+				}
+			}
+			estimation += setEstimation;
+		}
+
+		if (estimation == 0 && truncated) {
+			// the sets of this star might have been removed, use the pairs
+			return estimateStarIndependent(predicates, distinct, results);
+		}
+		return estimation;
+	}
+
+	private double estimateStarIndependent(long[] predicates, long[] distinct, boolean results) {
+		if (numSubjects == 0) {
+			return 0;
+		}
+		// upper bound with the pairs, the predicates are assumed independent
+		// otherwise
+		double subjects = getPredicateSubjects(distinct[0]);
+		for (int i = 1; i < distinct.length; i++) {
+			subjects = subjects * getPredicateSubjects(distinct[i]) / numSubjects;
+		}
+		for (int i = 0; i < distinct.length; i++) {
+			for (int j = i + 1; j < distinct.length; j++) {
+				subjects = Math.min(subjects, getPairSubjects(distinct[i], distinct[j]));
+			}
+		}
+		if (!results) {
+			return subjects;
+		}
+		for (long p : predicates) {
+			long s = getPredicateSubjects(p);
+			if (s != 0) {
+				subjects *= (double) getPredicateTriples(p) / s;
+			}
+		}
+		return subjects;
+	}
+
+	private static class PredicateSet {
+		private final long[] predicates;
+		private final int hash;
+
+		private PredicateSet(long[] predicates) {
+			this.predicates = predicates;
+			hash = Arrays.hashCode(predicates);
+		}
+
+		@Override
+		public boolean equals(Object o) {
+			if (this == o) {
+				return true;
+			}
+			if (!(o instanceof PredicateSet that)) {
+				return false;
+			}
+			return hash == that.hash && Arrays.equals(predicates, that.predicates);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+	}
+}
@@ -25,11 +25,14 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.BitmapFactory;
 import com.the_qa_company.qendpoint.core.compact.bitmap.ModifiableBitmap;
 import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.exceptions.IllegalFormatException;
+import com.the_qa_company.qendpoint.core.hdt.HDTVersion;
 import com.the_qa_company.qendpoint.core.hdt.HDTVocabulary;
 import com.the_qa_company.qendpoint.core.hdt.impl.HDTDiskImporter;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskindex.DiskIndexSort;
 import com.the_qa_company.qendpoint.core.hdt.impl.diskindex.ObjectAdjReader;
+import com.the_qa_company.qendpoint.core.hdt.impl.diskindex.PermutationPairReader;
 import com.the_qa_company.qendpoint.core.header.Header;
 import com.the_qa_company.qendpoint.core.iterator.SequentialSearchIteratorTripleID;
 import com.the_qa_company.qendpoint.core.iterator.SuppliableIteratorTripleID;
@@ -48,6 +51,8 @@ import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.triples.TriplesPrivate;
 import com.the_qa_company.qendpoint.core.util.BitUtil;
 import com.the_qa_company.qendpoint.core.util.StopWatch;
+import com.the_qa_company.qendpoint.core.util.crc.CRC32;
+import com.the_qa_company.qendpoint.core.util.io.compress.ChunkCodec;
 import com.the_qa_company.qendpoint.core.util.io.compress.Pair;
 import org.apache.commons.io.file.PathUtils;
 import com.the_qa_company.qendpoint.core.compact.bitmap.*;
@@ -63,6 +68,7 @@ import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
 import com.the_qa_company.qendpoint.core.util.io.Closer;
 import com.the_qa_company.qendpoint.core.util.io.CountInputStream;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
 import com.the_qa_company.qendpoint.core.util.listener.IntermediateListener;
 import com.the_qa_company.qendpoint.core.util.listener.ListenerUtil;
 import org.slf4j.Logger;
@@ -72,14 +78,25 @@ import java.io.*;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
 
 /**
  * @author mario.arias
  */
-public class BitmapTriples implements TriplesPrivate {
+public class BitmapTriples implements TriplesPrivate, MappedWarmable {
 	private static final Logger log = LoggerFactory.getLogger(BitmapTriples.class);
+	/**
+	 * version of the permutation index files, the version 1 is storing the
+	 * positions of the triples in the main triples
+	 */
+	private static final long PERMUTATION_VERSION = 1;
 
 	protected TripleComponentOrder order;
 
@@ -91,11 +108,20 @@ public class BitmapTriples implements TriplesPrivate {
 	// Index for Y
 	public PredicateIndex predicateIndex;
 
+	// Additional orders of the triples
+	protected final Map<TripleComponentOrder, BitmapTriples> permutations = new EnumMap<>(TripleComponentOrder.class);
+	// positions in the main triples of the triples of a permutation, null if
+	// these triples aren't a permutation
+	protected Sequence mainPositions;
+
 	boolean diskSequence;
 	boolean diskSubIndex;
+	int selectSampleRate;
 	CreateOnUsePath diskSequenceLocation;
 
 	private boolean isClosed;
+	// last 4 bytes (CRC32) of the 4 saved components, null if not computed
+	private byte[] componentsCRC;
 
 	public BitmapTriples() throws IOException {
 		this(new HDTSpecification());
@@ -110,6 +136,7 @@ public class BitmapTriples implements TriplesPrivate {
 		}
 
 		loadDiskSequence(spec);
+		selectSampleRate = (int) spec.getInt(HDTOptionsKeys.BITMAPTRIPLES_SELECT_SAMPLE_RATE, 0);
 
 		bitmapY = BitmapFactory.createBitmap(spec.get(HDTOptionsKeys.BITMAPTRIPLES_BITMAP_Y));
 		bitmapZ = BitmapFactory.createBitmap(spec.get(HDTOptionsKeys.BITMAPTRIPLES_BITMAP_Z));
@@ -160,6 +187,23 @@ public class BitmapTriples implements TriplesPrivate {
 		}
 	}
 
+	/**
+	 * set the select sample rate of the bitmaps, used by the next loaded
+	 * bitmaps
+	 *
+	 * @param selectSampleRate sample rate, 0 to disable the samples
+	 * @see HDTOptionsKeys#BITMAPTRIPLES_SELECT_SAMPLE_RATE
+	 */
+	public void setSelectSampleRate(int selectSampleRate) {
+		this.selectSampleRate = selectSampleRate;
+	}
+
+	private void useSelectSamples(Bitmap bitmap) {
+		if (selectSampleRate > 0 && bitmap instanceof Bitmap375Big bm) {
+			bm.setSelectSampleRate(selectSampleRate);
+		}
+	}
+
 	public CreateOnUsePath getDiskSequenceLocation() {
 		return diskSequenceLocation;
 	}
@@ -176,6 +220,13 @@ public class BitmapTriples implements TriplesPrivate {
 		return predicateCount;
 	}
 
+	/**
+	 * @return the additional orders of the triples, by order
+	 */
+	public Map<TripleComponentOrder, BitmapTriples> getPermutations() {
+		return Collections.unmodifiableMap(permutations);
+	}
+
 	public void load(IteratorTripleID it, ProgressListener listener) {
 
 		long number = it.estimatedNumResults();
@@ -257,6 +308,7 @@ public class BitmapTriples implements TriplesPrivate {
 		seqZ = vectorZ;
 		bitmapY = bitY;
 		bitmapZ = bitZ;
+		componentsCRC = null;
 
 		adjY = new AdjacencyList(seqY, bitmapY);
 		adjZ = new AdjacencyList(seqZ, bitmapZ);
@@ -288,6 +340,23 @@ public class BitmapTriples implements TriplesPrivate {
 	 */
 	@Override
 	public SuppliableIteratorTripleID search(TripleID pattern) {
+		return search(pattern, false);
+	}
+
+	@Override
+	public SuppliableIteratorTripleID searchSubjectSorted(TripleID pattern) {
+		return search(pattern, true);
+	}
+
+	/**
+	 * search a pattern
+	 *
+	 * @param pattern       pattern
+	 * @param subjectSorted if the permutations not returning the triples sorted
+	 *                      by subject should be ignored
+	 * @return iterator
+	 */
+	private SuppliableIteratorTripleID search(TripleID pattern, boolean subjectSorted) {
 		if (isClosed) {
 			throw new IllegalStateException("Cannot search on BitmapTriples if it's already closed");
 		}
@@ -300,6 +369,13 @@ public class BitmapTriples implements TriplesPrivate {
 		TripleOrderConvert.swapComponentOrder(reorderedPat, TripleComponentOrder.SPO, order);
 		String patternString = reorderedPat.getPatternString();
 
+		if (!isRangePattern(patternString)) {
+			BitmapTriples permutation = findPermutation(pattern, subjectSorted);
+			if (permutation != null) {
+				return new BitmapTriplesIteratorPermutation(permutation.mainPositions, permutation.search(pattern));
+			}
+		}
+
 		if (patternString.equals("?P?")) {
 			if (this.predicateIndex != null) {
 				return new BitmapTriplesIteratorYFOQ(this, pattern);
@@ -324,8 +400,7 @@ public class BitmapTriples implements TriplesPrivate {
 		}
 
 		SuppliableIteratorTripleID bitIt = new BitmapTriplesIterator(this, pattern);
-		if (patternString.equals("???") || patternString.equals("S??") || patternString.equals("SP?")
-				|| patternString.equals("SPO")) {
+		if (isRangePattern(patternString)) {
 			return bitIt;
 		} else {
 			return new SequentialSearchIteratorTripleID(pattern, bitIt);
@@ -333,6 +408,73 @@ public class BitmapTriples implements TriplesPrivate {
 
 	}
 
+	/**
+	 * test if a pattern can be searched with a range in the triples
+	 *
+	 * @param patternString pattern string in the order of the triples
+	 * @return true if the bound components are a prefix of the order
+	 */
+	private static boolean isRangePattern(String patternString) {
+		return switch (patternString) {
+		case "???", "S??", "SP?", "SPO" -> true;
+		default -> false;
+		};
+	}
+
+	/**
+	 * find the best permutation to search a pattern with a range, the
+	 * permutations keeping the subjects sorted are preferred.
+	 *
+	 * @param pattern       SPO pattern
+	 * @param subjectSorted if the permutations should return the triples sorted
+	 *                      by subject
+	 * @return permutation, null if no permutation can search this pattern with
+	 *         a range
+	 */
+	private BitmapTriples findPermutation(TripleID pattern, boolean subjectSorted) {
+		BitmapTriples best = null;
+		int bestSubjectIndex = Integer.MAX_VALUE;
+		for (BitmapTriples permutation : permutations.values()) {
+			TripleID reordered = new TripleID(pattern);
+			TripleOrderConvert.swapComponentOrder(reordered, TripleComponentOrder.SPO, permutation.order);
+			if (!isRangePattern(reordered.getPatternString())) {
+				continue;
+			}
+			int subjectIndex;
+			if (permutation.order.getSubjectMapping() == TripleComponentRole.SUBJECT) {
+				subjectIndex = 0;
+			} else if (permutation.order.getPredicateMapping() == TripleComponentRole.SUBJECT) {
+				subjectIndex = 1;
+			} else {
+				subjectIndex = 2;
+			}
+			if (subjectSorted && !isSubjectSorted(reordered, subjectIndex)) {
+				continue;
+			}
+			if (subjectIndex < bestSubjectIndex) {
+				best = permutation;
+				bestSubjectIndex = subjectIndex;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * test if a range search returns the triples sorted by subject, the
+	 * components before the subject should be bound
+	 *
+	 * @param reordered    pattern in the order of the triples
+	 * @param subjectIndex index of the subject in the order
+	 * @return true if the triples are sorted by subject
+	 */
+	private static boolean isSubjectSorted(TripleID reordered, int subjectIndex) {
+		return switch (subjectIndex) {
+		case 0 -> true;
+		case 1 -> reordered.getSubject() != 0;
+		default -> reordered.getSubject() != 0 && reordered.getPredicate() != 0;
+		};
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.triples.Triples#searchAll()
@@ -404,18 +546,28 @@ public class BitmapTriples implements TriplesPrivate {
 		order = TripleComponentOrder.values()[(int) ci.getInt("order")];
 
 		IntermediateListener iListener = new IntermediateListener(listener);
+		TailInputStream tail = new TailInputStream(input);
+		byte[] crcs = new byte[16];
 
-		bitmapY = BitmapFactory.createBitmap(input);
-		bitmapY.load(input, iListener);
+		bitmapY = BitmapFactory.createBitmap(tail);
+		bitmapY.load(tail, iListener);
+		useSelectSamples(bitmapY);
+		tail.copyTail(crcs, 0);
 
-		bitmapZ = BitmapFactory.createBitmap(input);
-		bitmapZ.load(input, iListener);
+		bitmapZ = BitmapFactory.createBitmap(tail);
+		bitmapZ.load(tail, iListener);
+		useSelectSamples(bitmapZ);
+		tail.copyTail(crcs, 4);
+
+		seqY = SequenceFactory.createStream(tail);
+		seqY.load(tail, iListener);
+		tail.copyTail(crcs, 8);
 
-		seqY = SequenceFactory.createStream(input);
-		seqY.load(input, iListener);
+		seqZ = SequenceFactory.createStream(tail);
+		seqZ.load(tail, iListener);
+		tail.copyTail(crcs, 12);
 
-		seqZ = SequenceFactory.createStream(input);
-		seqZ.load(input, iListener);
+		componentsCRC = crcs;
 
 		adjY = new AdjacencyList(seqY, bitmapY);
 		adjZ = new AdjacencyList(seqZ, bitmapZ);
@@ -440,18 +592,36 @@ public class BitmapTriples implements TriplesPrivate {
 
 		IntermediateListener iListener = new IntermediateListener(listener);
 
+		long[] ends = new long[4];
+
 		input.printIndex("bitmapY");
 		bitmapY = BitmapFactory.createBitmap(input);
 		bitmapY.load(input, iListener);
+		useSelectSamples(bitmapY);
+		ends[0] = input.getTotalBytes();
 
 		input.printIndex("bitmapZ");
 		bitmapZ = BitmapFactory.createBitmap(input);
 		bitmapZ.load(input, iListener);
+		useSelectSamples(bitmapZ);
+		ends[1] = input.getTotalBytes();
 
 		input.printIndex("seqY");
 		seqY = SequenceFactory.createStream(input, f);
+		ends[2] = input.getTotalBytes();
 		input.printIndex("seqZ");
 		seqZ = SequenceFactory.createStream(input, f);
+		ends[3] = input.getTotalBytes();
+
+		// the sequences are mapped, read the CRCs from the file
+		byte[] crcs = new byte[16];
+		try (RandomAccessFile raf = new RandomAccessFile(f, "r")) {
+			for (int i = 0; i < ends.length; i++) {
+				raf.seek(ends[i] - 4);
+				raf.readFully(crcs, i * 4, 4);
+			}
+		}
+		componentsCRC = crcs;
 
 		adjY = new AdjacencyList(seqY, bitmapY);
 		adjZ = new AdjacencyList(seqZ, bitmapZ);
@@ -511,23 +681,18 @@ public class BitmapTriples implements TriplesPrivate {
 		return (long) (HDTDiskImporter.getAvailableMemory() * 0.85 / (3L * workers));
 	}
 
-	private void createIndexObjectDisk(HDTOptions spec, Dictionary dictionary, ProgressListener plistener)
-			throws IOException {
-		MultiThreadListener listener = ListenerUtil.multiThreadListener(plistener);
-		StopWatch global = new StopWatch();
-		// load the config
-		Path diskLocation;
-		if (diskSequence) {
-			diskLocation = diskSequenceLocation.createOrGetPath();
-		} else {
-			diskLocation = Files.createTempDirectory("bitmapTriples");
-		}
+	private static int getDiskIndexWorkers(HDTOptions spec) {
 		int workers = (int) spec.getInt(HDTOptionsKeys.BITMAPTRIPLES_DISK_WORKER_KEY,
 				Runtime.getRuntime()::availableProcessors);
 		// check and set default values if required
 		if (workers <= 0) {
 			throw new IllegalArgumentException("Number of workers should be positive!");
 		}
+		return workers;
+	}
+
+	private static DiskIndexSort createDiskIndexSort(HDTOptions spec, Path diskLocation, int workers,
+			AsyncIteratorFetcher<Pair> source, MultiThreadListener listener, Comparator<Pair> comparator) {
 		long chunkSize = spec.getInt(HDTOptionsKeys.BITMAPTRIPLES_DISK_CHUNK_SIZE_KEY,
 				() -> getMaxChunkSizeDiskIndex(workers));
 		if (chunkSize < 0) {
@@ -556,11 +721,28 @@ public class BitmapTriples implements TriplesPrivate {
 		} else {
 			bufferSize = (int) bufferSizeLong;
 		}
+		return new DiskIndexSort(CloseSuppressPath.of(diskLocation).resolve("chunks"), source, listener, bufferSize,
+				chunkSize, k, comparator, HDTDiskImporter.isRadixSort(spec, HDTOptionsKeys.BITMAPTRIPLES_DISK_SORT_KEY),
+				ChunkCodec.of(spec, HDTOptionsKeys.BITMAPTRIPLES_DISK_CHUNK_CODEC_KEY));
+	}
+
+	private void createIndexObjectDisk(HDTOptions spec, Dictionary dictionary, ProgressListener plistener)
+			throws IOException {
+		MultiThreadListener listener = ListenerUtil.multiThreadListener(plistener);
+		StopWatch global = new StopWatch();
+		// load the config
+		Path diskLocation;
+		if (diskSequence) {
+			diskLocation = diskSequenceLocation.createOrGetPath();
+		} else {
+			diskLocation = Files.createTempDirectory("bitmapTriples");
+		}
+		int workers = getDiskIndexWorkers(spec);
 
 		// start the indexing
-		DiskIndexSort sort = new DiskIndexSort(CloseSuppressPath.of(diskLocation).resolve("chunks"),
-				new AsyncIteratorFetcher<>(new ObjectAdjReader(seqZ, seqY, bitmapZ)), listener, bufferSize, chunkSize,
-				k, Comparator.<Pair>comparingLong(p -> p.object).thenComparingLong(p -> p.predicate));
+		DiskIndexSort sort = createDiskIndexSort(spec, diskLocation, workers,
+				new AsyncIteratorFetcher<>(new ObjectAdjReader(seqZ, seqY, bitmapZ)), listener,
+				Comparator.<Pair>comparingLong(p -> p.object).thenComparingLong(p -> p.predicate));
 
 		// Serialize
 		DynamicSequence indexZ = null;
@@ -944,6 +1126,299 @@ public class BitmapTriples implements TriplesPrivate {
 		this.adjIndex = new AdjacencyList(this.indexZ, this.bitmapIndexZ);
 	}
 
+	/**
+	 * get the additional orders to index from a spec
+	 *
+	 * @param spec spec
+	 * @return orders
+	 * @see HDTOptionsKeys#BITMAPTRIPLES_INDEX_OTHERS
+	 */
+	public static Set<TripleComponentOrder> getPermutationOrders(HDTOptions spec) {
+		Set<TripleComponentOrder> orders = EnumSet.noneOf(TripleComponentOrder.class);
+		String value = spec.get(HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS, "");
+		for (String name : value.split(",")) {
+			String orderName = name.trim().toUpperCase();
+			if (orderName.isEmpty()) {
+				continue;
+			}
+			TripleComponentOrder order;
+			try {
+				order = TripleComponentOrder.valueOf(orderName);
+			} catch (IllegalArgumentException e) {
+				order = TripleComponentOrder.Unknown;
+			}
+			if (order == TripleComponentOrder.Unknown) {
+				throw new IllegalArgumentException("Bad triple order for " + HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS
+						+ ": '" + name.trim() + "'");
+			}
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	/**
+	 * get a signature of the triples, computed from the CRC32 ending the saved
+	 * bitmaps and sequences, it can be used to check that a file computed from
+	 * these triples isn't outdated.
+	 *
+	 * @return signature
+	 * @throws IOException if the components can't be read
+	 */
+	public long getSignature() throws IOException {
+		byte[] crcs = componentsCRC;
+		if (crcs == null) {
+			// not read from a file, save the components to get their CRCs
+			crcs = new byte[16];
+			TailOutputStream out = new TailOutputStream();
+			ProgressListener listener = ProgressListener.ignore();
+			bitmapY.save(out, listener);
+			out.copyTail(crcs, 0);
+			bitmapZ.save(out, listener);
+			out.copyTail(crcs, 4);
+			seqY.save(out, listener);
+			out.copyTail(crcs, 8);
+			seqZ.save(out, listener);
+			out.copyTail(crcs, 12);
+			componentsCRC = crcs;
+		}
+		CRC32 crc = new CRC32();
+		crc.update(crcs, 0, crcs.length);
+		crc.update((byte) order.ordinal());
+		return crc.getValue() & 0xFFFFFFFFL;
+	}
+
+	/**
+	 * get the file of an additional order index
+	 *
+	 * @param hdtFileName hdt file
+	 * @param order       order of the index
+	 * @return file
+	 */
+	public static Path getPermutationIndexFile(String hdtFileName, TripleComponentOrder order) {
+		return Path.of(hdtFileName + "." + order.name().toLowerCase() + HDTVersion.get_index_suffix("-"));
+	}
+
+	/**
+	 * load the additional order indexes asked in the spec, the missing indexes
+	 * are generated and saved next to the HDT file.
+	 *
+	 * @param hdtFileName hdt file, null to only generate the indexes in memory
+	 * @param mapped      map the indexes instead of loading them
+	 * @param spec        spec
+	 * @param dictionary  dictionary of the HDT
+	 * @param listener    listener
+	 * @throws IOException generation exception
+	 * @see HDTOptionsKeys#BITMAPTRIPLES_INDEX_OTHERS
+	 */
+	public void loadOrCreatePermutations(String hdtFileName, boolean mapped, HDTOptions spec, Dictionary dictionary,
+			ProgressListener listener) throws IOException {
+		for (TripleComponentOrder permutationOrder : getPermutationOrders(spec)) {
+			if (permutationOrder == order || permutations.containsKey(permutationOrder)) {
+				continue;
+			}
+			Path file = hdtFileName == null ? null : getPermutationIndexFile(hdtFileName, permutationOrder);
+
+			BitmapTriples permutation = null;
+			if (file != null && Files.exists(file)) {
+				try {
+					permutation = loadPermutation(file, permutationOrder, mapped, listener);
+				} catch (IOException | IllegalFormatException e) {
+					log.warn("Error reading {}, generating a new one.", file, e);
+				}
+			}
+
+			if (permutation == null) {
+				StopWatch st = new StopWatch();
+				permutation = createPermutation(permutationOrder, spec, dictionary, listener);
+				if (file != null) {
+					try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(file))) {
+						ControlInfo ci = new ControlInformation();
+						ci.setType(ControlInfo.Type.INDEX);
+						ci.setFormat(HDTVocabulary.INDEX_TYPE_PERMUTATION);
+						ci.setInt("numTriples", getNumberOfElements());
+						ci.setInt("order", permutationOrder.ordinal());
+						ci.setInt("signature", getSignature());
+						ci.setInt("version", PERMUTATION_VERSION);
+						ci.save(out);
+						permutation.save(out, new ControlInformation(), listener);
+						permutation.mainPositions.save(out, listener);
+						log.info("{} index generated and saved in {}", permutationOrder, st.stopAndShow());
+					} catch (IOException e) {
+						log.error("Error writing {} index file.", permutationOrder, e);
+					}
+				}
+			}
+			permutations.put(permutationOrder, permutation);
+		}
+	}
+
+	private BitmapTriples loadPermutation(Path file, TripleComponentOrder permutationOrder, boolean mapped,
+			ProgressListener listener) throws IOException {
+		try (CountInputStream in = new CountInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+			ControlInfo ci = new ControlInformation();
+			ci.load(in);
+			if (ci.getType() != ControlInfo.Type.INDEX
+					|| !HDTVocabulary.INDEX_TYPE_PERMUTATION.equals(ci.getFormat())) {
+				throw new IllegalFormatException("Trying to read a permutation index but it was not one.");
+			}
+			if (ci.getInt("numTriples") != getNumberOfElements() || ci.getInt("signature") != getSignature()) {
+				throw new IllegalFormatException("This index is not associated to the HDT file");
+			}
+			if (ci.getInt("order") != permutationOrder.ordinal()) {
+				throw new IllegalFormatException("The order of the index isn't " + permutationOrder);
+			}
+			if (ci.getInt("version") != PERMUTATION_VERSION) {
+				throw new IllegalFormatException("Outdated permutation index");
+			}
+
+			BitmapTriples permutation = new BitmapTriples();
+			permutation.setSelectSampleRate(selectSampleRate);
+			try {
+				if (mapped) {
+					permutation.mapFromFile(in, file.toFile(), listener);
+					permutation.mainPositions = SequenceFactory.createStream(in, file.toFile());
+				} else {
+					ci.clear();
+					ci.load(in);
+					permutation.load(in, ci, listener);
+					permutation.mainPositions = SequenceFactory.createStream(in);
+					permutation.mainPositions.load(in, listener);
+				}
+				if (permutation.mainPositions.getNumberOfElements() != permutation.getNumberOfElements()) {
+					throw new IllegalFormatException("The positions of the index aren't the ones of its triples");
+				}
+				if (permutation.order != permutationOrder) {
+					throw new IllegalFormatException("The order of the index isn't " + permutationOrder);
+				}
+			} catch (Throwable t) {
+				try {
+					permutation.close();
+				} catch (Throwable t2) {
+					t.addSuppressed(t2);
+				}
+				throw t;
+			}
+			return permutation;
+		}
+	}
+
+	private static long getMaxId(Dictionary dictionary, TripleComponentRole role) {
+		return switch (role) {
+		case SUBJECT -> dictionary.getNsubjects();
+		case PREDICATE -> dictionary.getNpredicates();
+		case OBJECT -> dictionary.getNobjects();
+		};
+	}
+
+	private BitmapTriples createPermutation(TripleComponentOrder permutationOrder, HDTOptions spec,
+			Dictionary dictionary, ProgressListener plistener) throws IOException {
+		MultiThreadListener listener = ListenerUtil.multiThreadListener(plistener);
+		StopWatch global = new StopWatch();
+		Path diskLocation;
+		if (diskSequence) {
+			diskLocation = diskSequenceLocation.createOrGetPath();
+		} else {
+			diskLocation = Files.createTempDirectory("bitmapTriples");
+		}
+		String name = permutationOrder.name().toLowerCase();
+		int workers = getDiskIndexWorkers(spec);
+
+		DiskIndexSort sort = createDiskIndexSort(spec, diskLocation.resolve(name), workers,
+				new AsyncIteratorFetcher<>(
+						new PermutationPairReader(new BitmapTriplesIterator(this, new TripleID()), permutationOrder)),
+				listener, PermutationPairReader.COMPARATOR);
+
+		long numTriples = getNumberOfElements();
+		DynamicSequence vectorY = null;
+		DynamicSequence vectorZ = null;
+		DynamicSequence positions = null;
+		ModifiableBitmap bitY = null;
+		ModifiableBitmap bitZ = null;
+		try {
+			vectorY = createSequence64(diskLocation, name + "SeqY",
+					BitUtil.log2(getMaxId(dictionary, permutationOrder.getPredicateMapping())), numTriples);
+			vectorZ = createSequence64(diskLocation, name + "SeqZ",
+					BitUtil.log2(getMaxId(dictionary, permutationOrder.getObjectMapping())), numTriples);
+			positions = createSequence64(diskLocation, name + "Positions", BitUtil.log2(numTriples), numTriples);
+			bitY = createBitmap375(diskLocation, name + "BitmapY", numTriples);
+			bitZ = createBitmap375(diskLocation, name + "BitmapZ", numTriples);
+
+			ExceptionIterator<Pair, IOException> sortedPairs = sort.sort(workers);
+			log.info("{} triples sorted in {}", permutationOrder, global.stopAndShow());
+			global.reset();
+			try {
+				long lastX = 0, lastY = 0;
+				long indexY = 0, indexZ = 0;
+
+				// same structure as the SPO triples, x is implicit
+				while (sortedPairs.hasNext()) {
+					Pair pair = sortedPairs.next();
+					long x = pair.object;
+					long y = pair.predicate;
+					long position = pair.predicatePosition;
+					TripleID triple = findTriple(position);
+					TripleOrderConvert.swapComponentOrder(triple, order, permutationOrder);
+					long z = triple.getObject();
+
+					if (indexZ == 0) {
+						if (x != 1) {
+							throw new IllegalFormatException("Upper level must start at 1: " + x);
+						}
+						vectorY.set(indexY++, y);
+					} else if (x != lastX) {
+						if (x != lastX + 1) {
+							throw new IllegalFormatException("Upper level must be increasing and correlative.");
+						}
+						// X changed
+						bitY.set(indexY - 1, true);
+						bitZ.set(indexZ - 1, true);
+						vectorY.set(indexY++, y);
+					} else if (y != lastY) {
+						// Y changed
+						bitZ.set(indexZ - 1, true);
+						vectorY.set(indexY++, y);
+					}
+					vectorZ.set(indexZ, z);
+					positions.set(indexZ++, position);
+
+					lastX = x;
+					lastY = y;
+					ListenerUtil.notifyCond(listener, "Converting to " + permutationOrder, indexZ, indexZ, numTriples);
+				}
+				if (indexZ != 0) {
+					bitY.set(indexY - 1, true);
+					bitZ.set(indexZ - 1, true);
+				}
+				vectorY.resize(indexY);
+				listener.notifyProgress(100, name + " completed " + indexZ);
+			} finally {
+				IOUtil.closeObject(sortedPairs);
+			}
+			log.info("{} index completed in {}", permutationOrder, global.stopAndShow());
+
+			BitmapTriples permutation = new BitmapTriples(HDTOptions.empty(), vectorY, vectorZ, bitY, bitZ,
+					permutationOrder);
+			permutation.mainPositions = positions;
+			return permutation;
+		} catch (KWayMerger.KWayMergerException | InterruptedException e) {
+			Closer.closeAll(vectorY, vectorZ, positions, bitY, bitZ);
+			if (e.getCause() != null) {
+				IOUtil.throwIOOrRuntime(e.getCause());
+			}
+			throw new RuntimeException("Can't sort triples", e);
+		} catch (Throwable t) {
+			try {
+				throw t;
+			} finally {
+				Closer.closeAll(vectorY, vectorZ, positions, bitY, bitZ);
+			}
+		} finally {
+			if (!diskSequence) {
+				PathUtils.deleteDirectory(diskLocation);
+			}
+		}
+	}
+
 	@Override
 	public void generateIndex(ProgressListener listener, HDTOptions specIndex, Dictionary dictionary)
 			throws IOException {
@@ -1093,6 +1568,7 @@ public class BitmapTriples implements TriplesPrivate {
 		bitmapIndexZ = BitmapFactory.createBitmap(input);
 		try {
 			bitmapIndexZ.load(input, iListener);
+			useSelectSamples(bitmapIndexZ);
 
 			if (indexZ != null) {
 				try {
@@ -1191,6 +1667,7 @@ public class BitmapTriples implements TriplesPrivate {
 
 		bitmapIndexZ = BitmapFactory.createBitmap(input);
 		bitmapIndexZ.load(input, iListener);
+		useSelectSamples(bitmapIndexZ);
 
 		indexZ = SequenceFactory.createStream(input, f);
 
@@ -1206,12 +1683,26 @@ public class BitmapTriples implements TriplesPrivate {
 		this.adjIndex = new AdjacencyList(this.indexZ, this.bitmapIndexZ);
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		MappedWarmable.collectRegions(seqY, component + ".seqY", consumer);
+		MappedWarmable.collectRegions(seqZ, component + ".seqZ", consumer);
+		MappedWarmable.collectRegions(indexZ, component + ".index", consumer);
+		MappedWarmable.collectRegions(predicateCount, component + ".index", consumer);
+		MappedWarmable.collectRegions(predicateIndex, component + ".index", consumer);
+		MappedWarmable.collectRegions(mainPositions, component + ".positions", consumer);
+		permutations
+				.forEach((order, permutation) -> permutation.collectRegions(component + ".index." + order, consumer));
+	}
+
 	@Override
 	public void close() throws IOException {
 		isClosed = true;
 		try {
-			Closer.closeAll(seqY, seqZ, indexZ, predicateCount, predicateIndex, bitmapIndexZ, diskSequenceLocation);
+			Closer.closeAll(seqY, seqZ, indexZ, predicateCount, predicateIndex, bitmapIndexZ, mainPositions,
+					permutations.values(), diskSequenceLocation);
 		} finally {
+			permutations.clear();
 			diskSequenceLocation = null;
 			seqY = null;
 			seqZ = null;
@@ -1219,6 +1710,7 @@ public class BitmapTriples implements TriplesPrivate {
 			predicateCount = null;
 			predicateIndex = null;
 			bitmapIndexZ = null;
+			mainPositions = null;
 		}
 	}
 
@@ -1279,4 +1771,84 @@ public class BitmapTriples implements TriplesPrivate {
 			}
 		}
 	}
+
+	/**
+	 * stream keeping the last 4 bytes read
+	 */
+	private static class TailInputStream extends FilterInputStream {
+		private final byte[] tail = new byte[4];
+		private int tailIndex;
+
+		TailInputStream(InputStream in) {
+			super(in);
+		}
+
+		void copyTail(byte[] dest, int offset) {
+			for (int i = 0; i < 4; i++) {
+				dest[offset + i] = tail[(tailIndex + i) & 3];
+			}
+		}
+
+		@Override
+		public int read() throws IOException {
+			int b = super.read();
+			if (b != -1) {
+				tail[tailIndex] = (byte) b;
+				tailIndex = (tailIndex + 1) & 3;
+			}
+			return b;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			int r = super.read(b, off, len);
+			for (int i = Math.max(0, r - 4); i < r; i++) {
+				tail[tailIndex] = b[off + i];
+				tailIndex = (tailIndex + 1) & 3;
+			}
+			return r;
+		}
+
+		@Override
+		public long skip(long n) throws IOException {
+			// read the skipped bytes to keep the tail
+			byte[] buffer = new byte[(int) Math.min(n, 4096)];
+			long skipped = 0;
+			while (skipped < n) {
+				int r = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+				if (r == -1) {
+					break;
+				}
+				skipped += r;
+			}
+			return skipped;
+		}
+	}
+
+	/**
+	 * stream only keeping the last 4 bytes written
+	 */
+	private static class TailOutputStream extends OutputStream {
+		private final byte[] tail = new byte[4];
+		private int tailIndex;
+
+		void copyTail(byte[] dest, int offset) {
+			for (int i = 0; i < 4; i++) {
+				dest[offset + i] = tail[(tailIndex + i) & 3];
+			}
+		}
+
+		@Override
+		public void write(int b) {
+			tail[tailIndex] = (byte) b;
+			tailIndex = (tailIndex + 1) & 3;
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+			for (int i = Math.max(0, len - 4); i < len; i++) {
+				write(b[off + i]);
+			}
+		}
+	}
 }
@@ -21,6 +21,7 @@ package com.the_qa_company.qendpoint.core.triples.impl;
 
 import com.the_qa_company.qendpoint.core.enums.ResultEstimationType;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.iterator.SuppliableIteratorTripleID;
 import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.compact.bitmap.AdjacencyList;
@@ -29,6 +30,10 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.AdjacencyList;
  * @author mario.arias
  */
 public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
+	/**
+	 * number of elements decoded at once by the readers
+	 */
+	private static final int READ_BLOCK_SIZE = 256;
 
 	private final BitmapTriples triples;
 	private final TripleID pattern, returnTriple;
@@ -36,6 +41,7 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 	private long patX, patY, patZ;
 
 	private AdjacencyList adjY, adjZ;
+	private AdjacencyList.Reader readerY, readerZ;
 	long posY, posZ, minY, minZ, maxY, maxZ;
 	private long nextY, nextZ;
 	private long x, y, z;
@@ -53,6 +59,7 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 		this.pattern = new TripleID();
 		adjY = triples.adjY;
 		adjZ = triples.adjZ;
+		createReaders();
 
 		this.minZ = minZ;
 		this.maxZ = maxZ;
@@ -71,6 +78,7 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 
 		adjY = triples.adjY;
 		adjZ = triples.adjZ;
+		createReaders();
 
 		// ((BitSequence375)triples.bitmapZ).dump();
 
@@ -78,6 +86,13 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 		goToStart();
 	}
 
+	private void createReaders() {
+		if (readerY == null) {
+			readerY = adjY.createReader(READ_BLOCK_SIZE);
+			readerZ = adjZ.createReader(READ_BLOCK_SIZE);
+		}
+	}
+
 	private void updateOutput() {
 		lastPosition = posZ;
 		returnTriple.setAll(x, y, z);
@@ -141,10 +156,10 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 	 */
 	@Override
 	public TripleID next() {
-		z = adjZ.get(posZ);
+		z = readerZ.get(posZ, maxZ);
 		if (posZ == nextZ) {
 			posY++;
-			y = adjY.get(posY);
+			y = readerY.get(posY, maxY);
 //			nextZ = adjZ.find(posY+1);
 			nextZ = adjZ.findNext(nextZ) + 1;
 
@@ -254,6 +269,10 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 			throw new ArrayIndexOutOfBoundsException("Cannot goTo beyond last triple");
 		}
 
+		moveTo(pos);
+	}
+
+	private void moveTo(long pos) {
 		posZ = pos;
 		posY = adjZ.findListIndex(posZ);
 
@@ -265,6 +284,103 @@ public class BitmapTriplesIterator implements SuppliableIteratorTripleID {
 		nextZ = adjZ.last(posY) + 1;
 	}
 
+	@Override
+	public boolean canGoToSubject() {
+		return isSubjectX() || isSubjectY();
+	}
+
+	private boolean isSubjectX() {
+		// ? ? ? with the subjects as x
+		return patX == 0 && triples.order.getSubjectMapping() == TripleComponentRole.SUBJECT;
+	}
+
+	private boolean isSubjectY() {
+		// X ? ? with the subjects as y
+		return patX != 0 && patY == 0 && patZ == 0
+				&& triples.order.getPredicateMapping() == TripleComponentRole.SUBJECT;
+	}
+
+	@Override
+	public void goToSubject(long subject) {
+		if (!canGoToSubject()) {
+			throw new IllegalAccessError("Cannot goToSubject on this bitmaptriples pattern");
+		}
+		if (!hasNext()) {
+			return;
+		}
+		long pos;
+		if (isSubjectX()) {
+			if (subject - 1 >= adjY.countListsX()) {
+				// after the last subject
+				posZ = maxZ;
+				return;
+			}
+			pos = adjZ.find(adjY.find(subject - 1));
+		} else {
+			// the subjects are sorted in the y list of x, find the first
+			// subject greater or equal
+			long low = minY;
+			long high = maxY;
+			while (low < high) {
+				long mid = (low + high) >>> 1;
+				if (adjY.get(mid) < subject) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			if (low >= maxY) {
+				posZ = maxZ;
+				return;
+			}
+			pos = adjZ.find(low);
+		}
+		if (pos <= posZ) {
+			return; // already at or after this subject
+		}
+		if (pos >= maxZ) {
+			posZ = maxZ;
+			return;
+		}
+
+		moveTo(pos);
+	}
+
+	@Override
+	public boolean canGoToObject() {
+		// S P ? with the objects as z, the z list is sorted
+		return patX != 0 && patY != 0 && patZ == 0 && triples.order.getObjectMapping() == TripleComponentRole.OBJECT;
+	}
+
+	@Override
+	public void goToObject(long object) {
+		if (!canGoToObject()) {
+			throw new IllegalAccessError("Cannot goToObject on this bitmaptriples pattern");
+		}
+		if (!hasNext()) {
+			return;
+		}
+		long low = posZ;
+		long high = maxZ;
+		while (low < high) {
+			long mid = (low + high) >>> 1;
+			if (adjZ.get(mid) < object) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		if (low == posZ) {
+			return; // already at or after this object
+		}
+		if (low >= maxZ) {
+			posZ = maxZ;
+			return;
+		}
+
+		moveTo(low);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.iterator.IteratorTripleID#getOrder()
@@ -0,0 +1,112 @@
+package com.the_qa_company.qendpoint.core.triples.impl;
+
+import com.the_qa_company.qendpoint.core.compact.sequence.Sequence;
+import com.the_qa_company.qendpoint.core.enums.ResultEstimationType;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.iterator.SuppliableIteratorTripleID;
+import com.the_qa_company.qendpoint.core.iterator.TriplePositionSupplier;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+
+/**
+ * Iterator over an additional order of {@link BitmapTriples}, the positions of
+ * the triples are the positions in the main triples, read from the positions
+ * stored with the permutation.
+ */
+public class BitmapTriplesIteratorPermutation implements SuppliableIteratorTripleID {
+	private final Sequence mainPositions;
+	private final SuppliableIteratorTripleID iterator;
+
+	/**
+	 * create the iterator
+	 *
+	 * @param mainPositions positions in the main triples of the triples of the
+	 *                      permutation
+	 * @param iterator      iterator of the permutation
+	 */
+	public BitmapTriplesIteratorPermutation(Sequence mainPositions, SuppliableIteratorTripleID iterator) {
+		this.mainPositions = mainPositions;
+		this.iterator = iterator;
+	}
+
+	@Override
+	public boolean hasNext() {
+		return iterator.hasNext();
+	}
+
+	@Override
+	public TripleID next() {
+		return iterator.next();
+	}
+
+	@Override
+	public boolean hasPrevious() {
+		return iterator.hasPrevious();
+	}
+
+	@Override
+	public TripleID previous() {
+		return iterator.previous();
+	}
+
+	@Override
+	public void goToStart() {
+		iterator.goToStart();
+	}
+
+	@Override
+	public boolean canGoTo() {
+		// the positions aren't the same in the permutation
+		return false;
+	}
+
+	@Override
+	public void goTo(long pos) {
+		throw new UnsupportedOperationException("Called goTo() on a permutation iterator");
+	}
+
+	@Override
+	public boolean canGoToSubject() {
+		return iterator.canGoToSubject();
+	}
+
+	@Override
+	public void goToSubject(long subject) {
+		iterator.goToSubject(subject);
+	}
+
+	@Override
+	public boolean canGoToObject() {
+		return iterator.canGoToObject();
+	}
+
+	@Override
+	public void goToObject(long object) {
+		iterator.goToObject(object);
+	}
+
+	@Override
+	public long estimatedNumResults() {
+		return iterator.estimatedNumResults();
+	}
+
+	@Override
+	public ResultEstimationType numResultEstimation() {
+		return iterator.numResultEstimation();
+	}
+
+	@Override
+	public TripleComponentOrder getOrder() {
+		return iterator.getOrder();
+	}
+
+	@Override
+	public long getLastTriplePosition() {
+		return mainPositions.get(iterator.getLastTriplePosition());
+	}
+
+	@Override
+	public TriplePositionSupplier getLastTriplePositionSupplier() {
+		TriplePositionSupplier supplier = iterator.getLastTriplePositionSupplier();
+		return () -> mainPositions.get(supplier.compute());
+	}
+}
@@ -33,6 +33,10 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.AdjacencyList;
  * @author mario.arias
  */
 public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
+	/**
+	 * number of elements decoded at once by the readers
+	 */
+	private static final int READ_BLOCK_SIZE = 256;
 
 	private final BitmapTriples triples;
 	private long lastPosZ, lastNextZ, lastNextY;
@@ -41,6 +45,8 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 
 	private final AdjacencyList adjY;
 	private final AdjacencyList adjZ;
+	private final AdjacencyList.Reader readerY;
+	private final AdjacencyList.Reader readerZ;
 	long posY, posZ;
 	private long prevY, nextY, prevZ, nextZ;
 	private long x, y, z;
@@ -58,6 +64,8 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 
 		adjY = triples.adjY;
 		adjZ = triples.adjZ;
+		readerY = adjY.createReader(READ_BLOCK_SIZE);
+		readerZ = adjZ.createReader(READ_BLOCK_SIZE);
 
 		goToStart();
 	}
@@ -88,16 +96,16 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 		if (posZ > nextZ) {
 			prevY = posY;
 			posY = nextY;
-			nextY = adjY.findNextAppearance(nextY + 1, patY);
+			nextY = readerY.findNextAppearance(nextY + 1, patY);
 
 			posZ = prevZ = adjZ.find(posY);
 			nextZ = adjZ.last(posY);
 
 			x = adjY.findListIndex(posY) + 1;
 			y = adjY.get(posY);
-			z = adjZ.get(posZ);
+			z = readerZ.get(posZ, nextZ + 1);
 		} else {
-			z = adjZ.get(posZ);
+			z = readerZ.get(posZ, nextZ + 1);
 		}
 
 		updateOutput();
@@ -150,8 +158,8 @@ public class BitmapTriplesIteratorY implements SuppliableIteratorTripleID {
 	@Override
 	public void goToStart() {
 		prevY = -1;
-		posY = adjY.findNextAppearance(0, patY);
-		nextY = adjY.findNextAppearance(posY + 1, patY);
+		posY = readerY.findNextAppearance(0, patY);
+		nextY = readerY.findNextAppearance(posY + 1, patY);
 
 		posZ = prevZ = adjZ.find(posY);
 		nextZ = adjZ.last(posY);
@@ -202,6 +202,61 @@ public class BitmapTriplesIteratorYFOQ implements SuppliableIteratorTripleID {
 		}
 	}
 
+	@Override
+	public boolean canGoToSubject() {
+		return triples.order == TripleComponentOrder.SPO;
+	}
+
+	@Override
+	public void goToSubject(long subject) {
+		if (!canGoToSubject()) {
+			throw new IllegalAccessError("Cannot goToSubject on this bitmaptriples order");
+		}
+		if (!hasNext() || (posZ <= nextZ ? x : adjY.findListIndex(nextOccurrencePosY()) + 1) >= subject) {
+			return; // already at or after this subject
+		}
+		if (subject - 1 >= adjY.countListsX()) {
+			// after the last subject
+			numOccurrence = numOccurrences;
+			posZ = nextZ + 1;
+			return;
+		}
+		long firstY = adjY.find(subject - 1);
+
+		// binary search of the first occurrence after the subject start
+		long low = numOccurrence + 1;
+		long high = numOccurrences;
+		while (low <= high) {
+			long mid = (low + high) >>> 1;
+			if (triples.predicateIndex.getOccurrence(predBase, mid) < firstY) {
+				low = mid + 1;
+			} else {
+				high = mid - 1;
+			}
+		}
+
+		if (low > numOccurrences) {
+			// no more occurrence
+			numOccurrence = numOccurrences;
+			posZ = nextZ + 1;
+			return;
+		}
+
+		numOccurrence = low;
+		posY = triples.predicateIndex.getOccurrence(predBase, numOccurrence);
+
+		posZ = prevZ = adjZ.find(posY);
+		nextZ = adjZ.last(posY);
+
+		x = adjY.findListIndex(posY) + 1;
+		y = adjY.get(posY);
+		z = adjZ.get(posZ);
+	}
+
+	private long nextOccurrencePosY() {
+		return triples.predicateIndex.getOccurrence(predBase, numOccurrence + 1);
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see hdt.iterator.IteratorTripleID#getOrder()
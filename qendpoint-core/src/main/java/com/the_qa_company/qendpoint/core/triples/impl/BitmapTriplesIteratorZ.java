@@ -30,6 +30,11 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.AdjacencyList;
  * @author mario.arias
  */
 public class BitmapTriplesIteratorZ implements SuppliableIteratorTripleID {
+	/**
+	 * number of elements decoded at once while scanning the Z sequence
+	 */
+	private static final int READ_BLOCK_SIZE = 1024;
+
 	private final BitmapTriples triples;
 	private long lastPosition;
 	private final TripleID returnTriple;
@@ -37,6 +42,7 @@ public class BitmapTriplesIteratorZ implements SuppliableIteratorTripleID {
 
 	private final AdjacencyList adjY;
 	private final AdjacencyList adjZ;
+	private final AdjacencyList.Reader readerZ;
 	long posZ;
 	private long x, y, z;
 
@@ -53,6 +59,7 @@ public class BitmapTriplesIteratorZ implements SuppliableIteratorTripleID {
 
 		adjY = triples.adjY;
 		adjZ = triples.adjZ;
+		readerZ = adjZ.createReader(READ_BLOCK_SIZE);
 
 		goToStart();
 	}
@@ -82,14 +89,14 @@ public class BitmapTriplesIteratorZ implements SuppliableIteratorTripleID {
 		long posY = adjZ.findListIndex(posZ);
 
 		// Set full triple
-		z = adjZ.get(posZ);
+		z = readerZ.get(posZ, posZ + 1);
 		y = adjY.get(posY);
 		x = adjY.findListIndex(posY) + 1;
 
 		updateOutput();
 
 		// Go forward finding next appearance
-		posZ = adjZ.findNextAppearance(posZ + 1, patZ);
+		posZ = readerZ.findNextAppearance(posZ + 1, patZ);
 
 		return returnTriple;
 	}
@@ -118,7 +125,7 @@ public class BitmapTriplesIteratorZ implements SuppliableIteratorTripleID {
 	 */
 	@Override
 	public void goToStart() {
-		posZ = adjZ.findNextAppearance(0, patZ);
+		posZ = readerZ.findNextAppearance(0, patZ);
 	}
 
 	/*
@@ -5,6 +5,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.nio.file.Path;
+import java.util.function.BiConsumer;
 
 import com.the_qa_company.qendpoint.core.compact.sequence.DynamicSequence;
 import com.the_qa_company.qendpoint.core.compact.sequence.Sequence;
@@ -21,10 +22,11 @@ import com.the_qa_company.qendpoint.core.compact.bitmap.ModifiableBitmap;
 import com.the_qa_company.qendpoint.core.util.io.Closer;
 import com.the_qa_company.qendpoint.core.util.io.CountInputStream;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.io.MappedWarmable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-class PredicateIndexArray implements PredicateIndex {
+class PredicateIndexArray implements PredicateIndex, MappedWarmable {
 	private static final Logger log = LoggerFactory.getLogger(PredicateIndexArray.class);
 
 	BitmapTriples triples;
@@ -35,6 +37,11 @@ class PredicateIndexArray implements PredicateIndex {
 		this.triples = triples;
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		MappedWarmable.collectRegions(array, component, consumer);
+	}
+
 	@Override
 	public long getBase(long pred) {
 		if (pred <= 1) {
@@ -0,0 +1,335 @@
+package com.the_qa_company.qendpoint.core.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * List of (x, y, z) long triples packed in a single long array, can be sorted
+ * in the (x, y, z) order with an in-place radix sort without allocating an
+ * object per triple, unlike a {@link ParallelSortableArrayList} of triples.
+ * <p>
+ * The components should be positive, the sort is only reading the bits used by
+ * the biggest component of each position.
+ */
+public class PackedTripleList {
+	/**
+	 * max number of triples in a list
+	 */
+	public static final int MAX_SIZE = (Integer.MAX_VALUE - 8) / 3;
+	private static final int RADIX_BITS = 8;
+	private static final int RADIX = 1 << RADIX_BITS;
+	/**
+	 * max size of a range sorted with an insertion sort
+	 */
+	private static final int INSERTION_SORT_THRESHOLD = 48;
+	/**
+	 * min size of a range sorted with a new task with the parallel sort
+	 */
+	private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+	private long[] data;
+	private int size;
+	private long maskX;
+	private long maskY;
+	private long maskZ;
+
+	public PackedTripleList() {
+		this(16);
+	}
+
+	public PackedTripleList(int capacity) {
+		data = new long[Math.max(1, capacity) * 3];
+	}
+
+	/**
+	 * add a triple at the end of the list
+	 *
+	 * @param x x component
+	 * @param y y component
+	 * @param z z component
+	 * @throws IllegalArgumentException if a component is negative
+	 * @throws IllegalStateException    if the list is full
+	 */
+	public void add(long x, long y, long z) {
+		if ((x | y | z) < 0) {
+			throw new IllegalArgumentException("Negative component: " + x + ", " + y + ", " + z);
+		}
+		if (size * 3 == data.length) {
+			if (size == MAX_SIZE) {
+				throw new IllegalStateException("The list is full");
+			}
+			// don't allocate beyond the max size
+			int newSize = (int) Math.min(MAX_SIZE, (long) (size * ParallelSortableArrayList.GROW_FACTOR) + 1);
+			data = Arrays.copyOf(data, newSize * 3);
+		}
+		int index = size++ * 3;
+		data[index] = x;
+		data[index + 1] = y;
+		data[index + 2] = z;
+		maskX |= x;
+		maskY |= y;
+		maskZ |= z;
+	}
+
+	/**
+	 * @return the number of triples
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return if no more triples can be added to the list
+	 */
+	public boolean isFull() {
+		return size == MAX_SIZE;
+	}
+
+	/**
+	 * @param index triple index
+	 * @return the x component of the triple
+	 */
+	public long getX(int index) {
+		return data[index * 3];
+	}
+
+	/**
+	 * @param index triple index
+	 * @return the y component of the triple
+	 */
+	public long getY(int index) {
+		return data[index * 3 + 1];
+	}
+
+	/**
+	 * @param index triple index
+	 * @return the z component of the triple
+	 */
+	public long getZ(int index) {
+		return data[index * 3 + 2];
+	}
+
+	/**
+	 * remove all the triples, the memory isn't released
+	 */
+	public void clear() {
+		size = 0;
+		maskX = 0;
+		maskY = 0;
+		maskZ = 0;
+	}
+
+	/**
+	 * sort the triples in the (x, y, z) order with the current thread
+	 */
+	public void sort() {
+		sort(false);
+	}
+
+	/**
+	 * sort the triples in the (x, y, z) order
+	 *
+	 * @param parallel sort the big ranges with the common fork join pool
+	 */
+	public void sort(boolean parallel) {
+		if (size < 2) {
+			return;
+		}
+		Digits digits = new Digits(maskX, maskY, maskZ);
+		if (parallel && size >= PARALLEL_THRESHOLD) {
+			ForkJoinPool.commonPool().invoke(new SortTask(digits, 0, size, 0));
+		} else {
+			sortRange(digits, new int[digits.count + 1][], 0, size, 0, false);
+		}
+	}
+
+	private void sortRange(Digits digits, int[][] bounds, int start, int end, int level, boolean parallel) {
+		while (true) {
+			if (end - start <= INSERTION_SORT_THRESHOLD) {
+				insertionSort(start, end);
+				return;
+			}
+			if (level == digits.count) {
+				// all the keys are equal
+				return;
+			}
+
+			int component = digits.component[level];
+			int shift = digits.shift[level];
+			long mask = digits.mask[level];
+
+			// count the elements of each bucket
+			int[] bucketEnds = bounds[level];
+			if (bucketEnds == null) {
+				bounds[level] = bucketEnds = new int[RADIX];
+			} else {
+				Arrays.fill(bucketEnds, 0);
+			}
+			for (int i = start; i < end; i++) {
+				bucketEnds[(int) ((data[i * 3 + component] >>> shift) & mask)]++;
+			}
+
+			// only one bucket, no need to move the elements
+			int used = 0;
+			for (int count : bucketEnds) {
+				if (count != 0 && ++used > 1) {
+					break;
+				}
+			}
+			if (used == 1) {
+				level++;
+				continue;
+			}
+
+			// compute the bucket positions, the last slot isn't used by a
+			// level and can be shared by all the ranges
+			int[] next = bounds[digits.count];
+			if (next == null) {
+				bounds[digits.count] = next = new int[RADIX];
+			}
+			int position = start;
+			for (int b = 0; b < RADIX; b++) {
+				next[b] = position;
+				position += bucketEnds[b];
+				bucketEnds[b] = position;
+			}
+
+			// move the elements to their buckets
+			for (int b = 0; b < RADIX; b++) {
+				int bucketEnd = bucketEnds[b];
+				while (next[b] < bucketEnd) {
+					int i = next[b];
+					int d = (int) ((data[i * 3 + component] >>> shift) & mask);
+					if (d == b) {
+						next[b]++;
+					} else {
+						swap(i, next[d]++);
+					}
+				}
+			}
+
+			// sort the buckets on the next digit
+			List<SortTask> tasks = null;
+			int bucketStart = start;
+			for (int b = 0; b < RADIX; b++) {
+				int bucketEnd = bucketEnds[b];
+				if (bucketEnd - bucketStart > 1) {
+					if (parallel && bucketEnd - bucketStart >= PARALLEL_THRESHOLD) {
+						if (tasks == null) {
+							tasks = new ArrayList<>();
+						}
+						tasks.add(new SortTask(digits, bucketStart, bucketEnd, level + 1));
+					} else {
+						sortRange(digits, bounds, bucketStart, bucketEnd, level + 1, false);
+					}
+				}
+				bucketStart = bucketEnd;
+			}
+			if (tasks != null) {
+				ForkJoinTask.invokeAll(tasks);
+			}
+			return;
+		}
+	}
+
+	private void insertionSort(int start, int end) {
+		for (int i = start + 1; i < end; i++) {
+			long x = data[i * 3];
+			long y = data[i * 3 + 1];
+			long z = data[i * 3 + 2];
+			int j = i - 1;
+			while (j >= start && compare(j, x, y, z) > 0) {
+				data[(j + 1) * 3] = data[j * 3];
+				data[(j + 1) * 3 + 1] = data[j * 3 + 1];
+				data[(j + 1) * 3 + 2] = data[j * 3 + 2];
+				j--;
+			}
+			data[(j + 1) * 3] = x;
+			data[(j + 1) * 3 + 1] = y;
+			data[(j + 1) * 3 + 2] = z;
+		}
+	}
+
+	private int compare(int index, long x, long y, long z) {
+		int c = Long.compare(data[index * 3], x);
+		if (c != 0) {
+			return c;
+		}
+		c = Long.compare(data[index * 3 + 1], y);
+		if (c != 0) {
+			return c;
+		}
+		return Long.compare(data[index * 3 + 2], z);
+	}
+
+	private void swap(int i, int j) {
+		int a = i * 3;
+		int b = j * 3;
+		for (int k = 0; k < 3; k++) {
+			long tmp = data[a + k];
+			data[a + k] = data[b + k];
+			data[b + k] = tmp;
+		}
+	}
+
+	/**
+	 * digits of the keys, from the most significant bits of x to the least
+	 * significant bits of z
+	 */
+	private static class Digits {
+		final int count;
+		final int[] component;
+		final int[] shift;
+		final long[] mask;
+
+		Digits(long maskX, long maskY, long maskZ) {
+			long[] masks = { maskX, maskY, maskZ };
+			int total = 0;
+			for (long m : masks) {
+				total += (bits(m) + RADIX_BITS - 1) / RADIX_BITS;
+			}
+			count = total;
+			component = new int[total];
+			shift = new int[total];
+			mask = new long[total];
+			int level = 0;
+			for (int c = 0; c < masks.length; c++) {
+				int bits = bits(masks[c]);
+				for (int s = bits - RADIX_BITS; s > -RADIX_BITS; s -= RADIX_BITS) {
+					component[level] = c;
+					shift[level] = Math.max(0, s);
+					// the last digit can be smaller than the radix
+					mask[level] = (1L << (s >= 0 ? RADIX_BITS : RADIX_BITS + s)) - 1;
+					level++;
+				}
+			}
+		}
+
+		private static int bits(long mask) {
+			return Long.SIZE - Long.numberOfLeadingZeros(mask);
+		}
+	}
+
+	private class SortTask extends RecursiveAction {
+		private final Digits digits;
+		private final int start;
+		private final int end;
+		private final int level;
+
+		SortTask(Digits digits, int start, int end, int level) {
+			this.digits = digits;
+			this.start = start;
+			this.end = end;
+			this.level = level;
+		}
+
+		@Override
+		protected void compute() {
+			sortRange(digits, new int[digits.count + 1][], start, end, level, true);
+		}
+	}
+}
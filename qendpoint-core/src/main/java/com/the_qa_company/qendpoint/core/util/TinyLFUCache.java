@@ -0,0 +1,352 @@
+package com.the_qa_company.qendpoint.core.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.ToLongBiFunction;
+
+/**
+ * Thread-safe cache bounded by a weight budget, the cache is split into
+ * lock-striped LRU segments and a new entry is only admitted if it was
+ * requested more often than the entry it would evict (TinyLFU admission).
+ * <p>
+ * The frequencies are estimated with a 4-bit count-min sketch per segment, aged
+ * periodically to forget the old accesses.
+ *
+ * @param <K> key type, the keys should be immutable
+ * @param <V> value type
+ */
+public class TinyLFUCache<K, V> {
+	private static final long[] SEEDS = { 0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL,
+			0xcbf29ce484222325L };
+
+	private final Segment<K, V>[] segments;
+	private final int segmentShift;
+	private final ToLongBiFunction<? super K, ? super V> weigher;
+	private final LongAdder hits = new LongAdder();
+	private final LongAdder misses = new LongAdder();
+	private final LongAdder evictions = new LongAdder();
+	private final LongAdder rejections = new LongAdder();
+
+	/**
+	 * create a cache with a segment count depending on the number of processors
+	 *
+	 * @param maxWeight         max weight of the cache
+	 * @param expectedEntrySize expected weight of an entry, used to size the
+	 *                          frequency sketch
+	 * @param weigher           weight function of an entry
+	 */
+	public TinyLFUCache(long maxWeight, long expectedEntrySize, ToLongBiFunction<? super K, ? super V> weigher) {
+		this(maxWeight, expectedEntrySize, Runtime.getRuntime().availableProcessors() * 4, weigher);
+	}
+
+	/**
+	 * create a cache
+	 *
+	 * @param maxWeight         max weight of the cache
+	 * @param expectedEntrySize expected weight of an entry, used to size the
+	 *                          frequency sketch
+	 * @param concurrencyLevel  expected number of threads using the cache
+	 * @param weigher           weight function of an entry
+	 */
+	@SuppressWarnings("unchecked")
+	public TinyLFUCache(long maxWeight, long expectedEntrySize, int concurrencyLevel,
+			ToLongBiFunction<? super K, ? super V> weigher) {
+		if (maxWeight <= 0) {
+			throw new IllegalArgumentException("maxWeight should be positive: " + maxWeight);
+		}
+		if (expectedEntrySize <= 0) {
+			throw new IllegalArgumentException("expectedEntrySize should be positive: " + expectedEntrySize);
+		}
+		this.weigher = weigher;
+		// at least one expected entry per segment
+		long maxSegments = Math.max(1, Math.min(maxWeight / expectedEntrySize, 1 << 16));
+		int count = 1;
+		while (count < concurrencyLevel && count * 2L <= maxSegments) {
+			count <<= 1;
+		}
+		segmentShift = 32 - Integer.numberOfTrailingZeros(count);
+		segments = new Segment[count];
+		long segmentWeight = maxWeight / count;
+		int segmentEntries = (int) Math.min(Integer.MAX_VALUE >> 4, Math.max(1, segmentWeight / expectedEntrySize));
+		for (int i = 0; i < count; i++) {
+			segments[i] = new Segment<>(segmentWeight, segmentEntries);
+		}
+	}
+
+	private static int spread(int hash) {
+		hash ^= hash >>> 17;
+		hash *= 0xed5ad4bb;
+		hash ^= hash >>> 11;
+		hash *= 0xac4c1b51;
+		hash ^= hash >>> 15;
+		return hash;
+	}
+
+	private Segment<K, V> segmentFor(int hash) {
+		return segmentShift == 32 ? segments[0] : segments[hash >>> segmentShift];
+	}
+
+	/**
+	 * get a value of the cache and record the access
+	 *
+	 * @param key key
+	 * @return value, null if the key isn't in the cache
+	 */
+	public V get(K key) {
+		int hash = spread(key.hashCode());
+		Segment<K, V> segment = segmentFor(hash);
+		V value;
+		synchronized (segment) {
+			segment.sketch.increment(hash);
+			value = segment.map.get(key);
+		}
+		if (value == null) {
+			misses.increment();
+		} else {
+			hits.increment();
+		}
+		return value;
+	}
+
+	/**
+	 * get a value of the cache or compute it, the computation is done outside
+	 * the locks, so the same value can be computed by 2 threads at the same
+	 * time.
+	 *
+	 * @param key    key
+	 * @param loader loader of the value, can return null to skip the caching
+	 * @return value
+	 */
+	public V get(K key, Function<? super K, ? extends V> loader) {
+		V value = get(key);
+		if (value != null) {
+			return value;
+		}
+		value = loader.apply(key);
+		if (value != null) {
+			put(key, value);
+		}
+		return value;
+	}
+
+	/**
+	 * put a value in the cache, the value is ignored if the admission policy
+	 * rejects it
+	 *
+	 * @param key   key
+	 * @param value value
+	 * @return if the value was added to the cache
+	 */
+	public boolean put(K key, V value) {
+		int hash = spread(key.hashCode());
+		Segment<K, V> segment = segmentFor(hash);
+		long weight = weigher.applyAsLong(key, value);
+		synchronized (segment) {
+			if (weight > segment.maxWeight) {
+				rejections.increment();
+				return false;
+			}
+			V old = segment.map.remove(key);
+			if (old != null) {
+				segment.weight -= weigher.applyAsLong(key, old);
+			}
+
+			if (segment.weight + weight > segment.maxWeight) {
+				Iterator<Map.Entry<K, V>> it = segment.map.entrySet().iterator();
+				if (old == null && it.hasNext()) {
+					// compare with the LRU entry, a candidate less used than
+					// the victim would only pollute the cache
+					K victim = it.next().getKey();
+					if (segment.sketch.frequency(hash) <= segment.sketch.frequency(spread(victim.hashCode()))) {
+						rejections.increment();
+						return false;
+					}
+					it = segment.map.entrySet().iterator();
+				}
+				while (segment.weight + weight > segment.maxWeight && it.hasNext()) {
+					Map.Entry<K, V> eldest = it.next();
+					segment.weight -= weigher.applyAsLong(eldest.getKey(), eldest.getValue());
+					it.remove();
+					evictions.increment();
+				}
+			}
+
+			segment.map.put(key, value);
+			segment.weight += weight;
+		}
+		return true;
+	}
+
+	/**
+	 * clear the cache, the statistics are kept
+	 */
+	public void clear() {
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				segment.map.clear();
+				segment.weight = 0;
+			}
+		}
+	}
+
+	/**
+	 * @return the number of entries in the cache
+	 */
+	public long size() {
+		long size = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				size += segment.map.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * @return the weight of the entries in the cache
+	 */
+	public long weight() {
+		long weight = 0;
+		for (Segment<K, V> segment : segments) {
+			synchronized (segment) {
+				weight += segment.weight;
+			}
+		}
+		return weight;
+	}
+
+	/**
+	 * @return the number of segments of this cache
+	 */
+	public int getSegmentCount() {
+		return segments.length;
+	}
+
+	/**
+	 * @return the number of get calls returning a value
+	 */
+	public long getHitCount() {
+		return hits.sum();
+	}
+
+	/**
+	 * @return the number of get calls without value
+	 */
+	public long getMissCount() {
+		return misses.sum();
+	}
+
+	/**
+	 * @return the number of entries removed to add new entries
+	 */
+	public long getEvictionCount() {
+		return evictions.sum();
+	}
+
+	/**
+	 * @return the number of entries rejected by the admission policy
+	 */
+	public long getRejectionCount() {
+		return rejections.sum();
+	}
+
+	/**
+	 * @return the hit rate of the cache, 0 if the cache wasn't used
+	 */
+	public double getHitRate() {
+		long hits = getHitCount();
+		long requests = hits + getMissCount();
+		return requests == 0 ? 0 : (double) hits / requests;
+	}
+
+	@Override
+	public String toString() {
+		return "TinyLFUCache{size=" + size() + ", weight=" + weight() + ", hits=" + getHitCount() + ", misses="
+				+ getMissCount() + ", evictions=" + getEvictionCount() + ", rejections=" + getRejectionCount() + "}";
+	}
+
+	private static class Segment<K, V> {
+		final LinkedHashMap<K, V> map = new LinkedHashMap<>(16, .75F, true);
+		final FrequencySketch sketch;
+		final long maxWeight;
+		long weight;
+
+		Segment(long maxWeight, int expectedEntries) {
+			this.maxWeight = maxWeight;
+			this.sketch = new FrequencySketch(expectedEntries);
+		}
+	}
+
+	/**
+	 * count-min sketch with 4 rows of 4-bit counters, each long of the table is
+	 * storing 16 counters, 4 for each row.
+	 */
+	static class FrequencySketch {
+		private static final long RESET_MASK = 0x7777777777777777L;
+		private final long[] table;
+		private final int mask;
+		private final int sampleSize;
+		private int additions;
+
+		FrequencySketch(int expectedEntries) {
+			int length = Integer.highestOneBit(Math.max(expectedEntries, 8) - 1) << 1;
+			table = new long[length];
+			mask = length - 1;
+			sampleSize = 10 * length;
+		}
+
+		private int index(int hash, int row) {
+			long h = (hash + SEEDS[row]) * SEEDS[row];
+			h += h >>> 32;
+			return (int) h & mask;
+		}
+
+		private static int shift(int hash, int row) {
+			// counter of the row in the long
+			return ((row << 2) + ((hash >>> (row << 3)) & 3)) << 2;
+		}
+
+		/**
+		 * @param hash spread hash of the element
+		 * @return estimated frequency of the element
+		 */
+		int frequency(int hash) {
+			int frequency = 15;
+			for (int row = 0; row < 4; row++) {
+				int count = (int) ((table[index(hash, row)] >>> shift(hash, row)) & 0xF);
+				frequency = Math.min(frequency, count);
+			}
+			return frequency;
+		}
+
+		/**
+		 * record an access to an element
+		 *
+		 * @param hash spread hash of the element
+		 */
+		void increment(int hash) {
+			boolean added = false;
+			for (int row = 0; row < 4; row++) {
+				int index = index(hash, row);
+				int shift = shift(hash, row);
+				if (((table[index] >>> shift) & 0xF) != 0xF) {
+					table[index] += 1L << shift;
+					added = true;
+				}
+			}
+			if (added && ++additions == sampleSize) {
+				reset();
+			}
+		}
+
+		private void reset() {
+			for (int i = 0; i < table.length; i++) {
+				table[i] = (table[i] >>> 1) & RESET_MASK;
+			}
+			additions >>>= 1;
+		}
+	}
+}
@@ -20,11 +20,14 @@
 package com.the_qa_company.qendpoint.core.util.disk;
 
 import com.the_qa_company.qendpoint.core.util.io.CloseMappedByteBuffer;
+import com.the_qa_company.qendpoint.core.util.io.Closer;
 import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.io.MappedSegment;
 
 import java.io.Closeable;
 import java.io.IOException;
 import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
 import java.nio.MappedByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
@@ -38,6 +41,7 @@ public class LongArrayDisk implements Closeable, LongArray {
 	private final boolean closeChannel;
 	private final FileChannel channel;
 	private CloseMappedByteBuffer[] mappings;
+	private MappedSegment segment;
 	private long size;
 	private final long startByte;
 	private final Path location;
@@ -77,29 +81,14 @@ public class LongArrayDisk implements Closeable, LongArray {
 				this.channel = channel;
 				this.closeChannel = closeChannel;
 			}
-			long sizeBytes = getSizeBytes();
-			int blocks = (int) Math.ceil((double) sizeBytes / MAPPING_SIZE);
-			mappings = new CloseMappedByteBuffer[blocks];
-			for (int block = 0; block < blocks; block++) {
-				long sizeMapping;
-				if (block + 1 == blocks && sizeBytes % MAPPING_SIZE != 0) {
-					sizeMapping = Math.min(MAPPING_SIZE, sizeBytes % MAPPING_SIZE);
-				} else {
-					sizeMapping = MAPPING_SIZE;
-				}
-				assert mappings[block] == null;
-				mappings[block] = IOUtil.mapChannel(location.toAbsolutePath().toString(), this.channel,
-						FileChannel.MapMode.READ_WRITE, start + block * MAPPING_SIZE, sizeMapping);
-			}
+			mapFile();
 			if (overwrite) {
 				clear();
 			}
 		} catch (IOException e) {
 			try {
 				try {
-					if (mappings != null) {
-						IOUtil.closeAll(mappings);
-					}
+					Closer.closeAll(mappings, segment);
 				} finally {
 					if (closeChannel && channel != null) {
 						channel.close();
@@ -112,6 +101,38 @@ public class LongArrayDisk implements Closeable, LongArray {
 		}
 	}
 
+	private void mapFile() throws IOException {
+		long sizeBytes = getSizeBytes();
+		if (MappedSegment.isSupported()) {
+			// one segment for the whole array
+			mappings = new CloseMappedByteBuffer[0];
+			segment = IOUtil.mapSegment(location.toAbsolutePath().toString(), channel, FileChannel.MapMode.READ_WRITE,
+					startByte, sizeBytes, ByteOrder.BIG_ENDIAN);
+			return;
+		}
+		int blocks = (int) Math.ceil((double) sizeBytes / MAPPING_SIZE);
+		CloseMappedByteBuffer[] mappings = new CloseMappedByteBuffer[blocks];
+		try {
+			for (int block = 0; block < blocks; block++) {
+				long sizeMapping;
+				if (block + 1 == blocks && sizeBytes % MAPPING_SIZE != 0) {
+					sizeMapping = Math.min(MAPPING_SIZE, sizeBytes % MAPPING_SIZE);
+				} else {
+					sizeMapping = MAPPING_SIZE;
+				}
+				mappings[block] = IOUtil.mapChannel(location.toAbsolutePath().toString(), channel,
+						FileChannel.MapMode.READ_WRITE, startByte + block * MAPPING_SIZE, sizeMapping);
+			}
+		} catch (Throwable e) {
+			try {
+				throw e;
+			} finally {
+				IOUtil.closeAll(mappings);
+			}
+		}
+		this.mappings = mappings;
+	}
+
 	/**
 	 * Allows the {@link RandomAccessFile} and the array of
 	 * {@link MappedByteBuffer} held by the instance to be garbage-collected.
@@ -119,9 +140,10 @@ public class LongArrayDisk implements Closeable, LongArray {
 	@Override
 	public void close() throws IOException {
 		try {
-			IOUtil.closeAll(mappings);
+			Closer.closeAll(mappings, segment);
 		} finally {
 			mappings = null;
+			segment = null;
 			if (closeChannel) {
 				channel.close();
 			}
@@ -131,6 +153,9 @@ public class LongArrayDisk implements Closeable, LongArray {
 	@Override
 	public long get(long x) {
 		long p = x * 8;
+		if (segment != null) {
+			return segment.getLong(p);
+		}
 		int block = (int) (p / MAPPING_SIZE);
 		int offset = (int) (p % MAPPING_SIZE);
 		return mappings[block].getLong(offset);
@@ -142,6 +167,10 @@ public class LongArrayDisk implements Closeable, LongArray {
 			throw new IndexOutOfBoundsException();
 		}
 		long p = index * 8;
+		if (segment != null) {
+			segment.putLong(p, value);
+			return;
+		}
 		int block = (int) (p / MAPPING_SIZE);
 		int offset = (int) (p % MAPPING_SIZE);
 		mappings[block].putLong(offset, value);
@@ -179,6 +208,11 @@ public class LongArrayDisk implements Closeable, LongArray {
 		if (start >= end) {
 			return;
 		}
+		if (segment != null) {
+			segment.fill(start, end - start, (byte) 0);
+			segment.force();
+			return;
+		}
 		int startBlock = (int) (start / MAPPING_SIZE);
 		int endBlock = (int) ((end - 1) / MAPPING_SIZE);
 
@@ -246,42 +280,28 @@ public class LongArrayDisk implements Closeable, LongArray {
 		this.size = newSize;
 		long sizeBytes = getSizeBytes();
 
-		int blocks = (int) Math.ceil((double) sizeBytes / MAPPING_SIZE);
-		CloseMappedByteBuffer[] mappings = new CloseMappedByteBuffer[blocks];
-		try {
-			for (CloseMappedByteBuffer mapping : this.mappings) {
-				if (mapping != null) {
-					mapping.force();
-				}
+		for (CloseMappedByteBuffer mapping : this.mappings) {
+			if (mapping != null) {
+				mapping.force();
 			}
-			IOUtil.closeAll(this.mappings);
+		}
+		if (segment != null) {
+			segment.force();
+		}
+		// close previous mapping
+		try {
+			Closer.closeAll(this.mappings, segment);
+		} finally {
 			this.mappings = null;
+			this.segment = null;
+		}
 
-			// resize the file to the new size
-			channel.truncate(sizeBytes);
+		// resize the file to the new size
+		channel.truncate(sizeBytes);
 
-			for (int block = 0; block < blocks; block++) {
-				long sizeMapping;
-				if (block + 1 == blocks && sizeBytes % MAPPING_SIZE != 0) {
-					sizeMapping = Math.min(MAPPING_SIZE, sizeBytes % MAPPING_SIZE);
-				} else {
-					sizeMapping = MAPPING_SIZE;
-				}
-				mappings[block] = IOUtil.mapChannel(location.toAbsolutePath().toString(), channel,
-						FileChannel.MapMode.READ_WRITE, startByte + block * MAPPING_SIZE, sizeMapping);
-			}
+		mapFile();
 
-			// close previous mapping
-			this.mappings = mappings;
-
-			set0(oldSize, newSize);
-		} catch (Throwable e) {
-			try {
-				throw e;
-			} finally {
-				IOUtil.closeAll(mappings);
-			}
-		}
+		set0(oldSize, newSize);
 	}
 
 	@Override
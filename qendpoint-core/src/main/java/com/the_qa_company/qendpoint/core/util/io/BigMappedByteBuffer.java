@@ -5,15 +5,17 @@ import java.nio.*;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
-public class BigMappedByteBuffer {
+public class BigMappedByteBuffer implements MappedWarmable {
 	static long maxBufferSize = Integer.MAX_VALUE;
 
 	/**
 	 * create a BigMappedByteBuffer of multiple
-	 * {@link FileChannel#map(FileChannel.MapMode, long, long)} call
+	 * {@link FileChannel#map(FileChannel.MapMode, long, long)} call, or of a
+	 * single {@link MappedSegment} if they are supported
 	 *
 	 * @param filename name to track the filename
 	 * @param ch       the File channel
@@ -27,6 +29,10 @@ public class BigMappedByteBuffer {
 	 */
 	public static BigMappedByteBuffer ofFileChannel(String filename, FileChannel ch, FileChannel.MapMode mode,
 			long position, long size) throws IOException {
+		if (MappedSegment.isSupported()) {
+			return new BigMappedByteBuffer(null,
+					IOUtil.mapSegment(filename, ch, mode, position, size, ByteOrder.BIG_ENDIAN));
+		}
 		int bufferCount = (int) ((size - 1) / maxBufferSize) + 1;
 		BigMappedByteBuffer buffer = new BigMappedByteBuffer(null, new ArrayList<>());
 		for (int i = 0; i < bufferCount; i++) {
@@ -44,6 +50,9 @@ public class BigMappedByteBuffer {
 
 	private final BigMappedByteBuffer parent;
 	private final List<CloseMappedByteBuffer> buffers;
+	// single segment backend, the buffers are empty
+	private final MappedSegment segment;
+	private long segmentPosition;
 
 	/**
 	 * cat multiple buffers
@@ -54,6 +63,20 @@ public class BigMappedByteBuffer {
 	private BigMappedByteBuffer(BigMappedByteBuffer parent, List<CloseMappedByteBuffer> buffers) {
 		this.buffers = buffers;
 		this.parent = parent;
+		this.segment = null;
+	}
+
+	/**
+	 * buffer over a segment
+	 *
+	 * @param parent  the parent buffer, the owner of the segment, null for the
+	 *                owner
+	 * @param segment the segment
+	 */
+	private BigMappedByteBuffer(BigMappedByteBuffer parent, MappedSegment segment) {
+		this.buffers = List.of();
+		this.parent = parent;
+		this.segment = segment;
 	}
 
 	private BigMappedByteBuffer(BigMappedByteBuffer other, Function<CloseMappedByteBuffer, CloseMappedByteBuffer> map) {
@@ -77,6 +100,9 @@ public class BigMappedByteBuffer {
 	 * @return the capacity of the big buffer
 	 */
 	public long capacity() {
+		if (segment != null) {
+			return segment.size();
+		}
 		return buffers.stream().mapToLong(CloseMappedByteBuffer::capacity).sum();
 	}
 
@@ -95,6 +121,9 @@ public class BigMappedByteBuffer {
 	 * @return byte
 	 */
 	public byte get(long index) {
+		if (segment != null) {
+			return segment.get(index);
+		}
 		int buffer = getBufferIndex(index);
 		int inBufferIndex = getBufferOffset(index);
 
@@ -110,6 +139,10 @@ public class BigMappedByteBuffer {
 	 * @param position the position
 	 */
 	public void position(long position) {
+		if (segment != null) {
+			segmentPosition = position;
+			return;
+		}
 		int mid = getBufferIndex(position);
 		for (int i = 0; i < mid; i++) {
 			buffers.get(i).position((int) maxBufferSize);
@@ -124,6 +157,9 @@ public class BigMappedByteBuffer {
 	 * @return the position
 	 */
 	public long position() {
+		if (segment != null) {
+			return segmentPosition;
+		}
 		long pos = 0;
 		for (CloseMappedByteBuffer b : buffers) {
 			pos += b.position();
@@ -142,6 +178,8 @@ public class BigMappedByteBuffer {
 	public void force() {
 		if (parent != null) {
 			parent.force();
+		} else if (segment != null) {
+			segment.force();
 		}
 		for (CloseMappedByteBuffer b : buffers) {
 			// maybe we are in a duplicated buffer
@@ -155,6 +193,11 @@ public class BigMappedByteBuffer {
 	 * @return duplicate the buffer
 	 */
 	public BigMappedByteBuffer duplicate() {
+		if (segment != null) {
+			BigMappedByteBuffer dup = new BigMappedByteBuffer(this, segment);
+			dup.segmentPosition = segmentPosition;
+			return dup;
+		}
 		return new BigMappedByteBuffer(this, b -> new CloseMappedByteBuffer(null, b.duplicate(), true));
 	}
 
@@ -169,6 +212,9 @@ public class BigMappedByteBuffer {
 	 * @return a byte, update the position
 	 */
 	public byte get() {
+		if (segment != null) {
+			return segment.get(segmentPosition++);
+		}
 		return buffers.get(getBufferIndex(position())).get();
 	}
 
@@ -176,6 +222,7 @@ public class BigMappedByteBuffer {
 	 * rewind the buffer
 	 */
 	public void rewind() {
+		segmentPosition = 0;
 		buffers.forEach(CloseMappedByteBuffer::rewind);
 	}
 
@@ -187,6 +234,11 @@ public class BigMappedByteBuffer {
 	 * @param length the length to read
 	 */
 	public void get(byte[] dst, int offset, int length) {
+		if (segment != null) {
+			segment.get(segmentPosition, dst, offset, length);
+			segmentPosition += length;
+			return;
+		}
 		final long position = position();
 		int buffer1 = getBufferIndex(position);
 		int buffer2 = getBufferIndex(position + length - 1);
@@ -207,10 +259,23 @@ public class BigMappedByteBuffer {
 		}
 	}
 
+	@Override
+	public void collectRegions(String component, BiConsumer<String, Region> consumer) {
+		if (segment != null) {
+			consumer.accept(component, Region.of(segment));
+		}
+		for (CloseMappedByteBuffer buffer : buffers) {
+			consumer.accept(component, Region.of(buffer));
+		}
+	}
+
 	/**
 	 * clean the buffer
 	 */
 	public void clean() throws IOException {
+		if (segment != null && parent == null) {
+			segment.close();
+		}
 		IOUtil.closeAll(getBuffers());
 	}
 }
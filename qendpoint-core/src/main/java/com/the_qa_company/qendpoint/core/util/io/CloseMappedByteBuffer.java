@@ -61,6 +61,16 @@ public class CloseMappedByteBuffer implements Closeable {
 		return ((MappedByteBuffer) buffer).load();
 	}
 
+	/**
+	 * load a region of the buffer in physical memory
+	 *
+	 * @param index  start of the region
+	 * @param length length of the region
+	 */
+	public void load(int index, int length) {
+		((MappedByteBuffer) buffer).slice(index, length).load();
+	}
+
 	public MappedByteBuffer force() {
 		assert buffer instanceof MappedByteBuffer;
 		return ((MappedByteBuffer) buffer).force();
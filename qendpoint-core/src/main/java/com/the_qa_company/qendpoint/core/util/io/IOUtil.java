@@ -46,6 +46,7 @@ import java.io.OutputStream;
 import java.net.URL;
 import java.net.URLConnection;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.channels.FileChannel;
 import java.nio.file.FileVisitResult;
 import java.nio.file.FileVisitor;
@@ -188,6 +189,28 @@ public class IOUtil {
 		return new CloseMappedByteBuffer(filename, ch.map(mode, position, size), false);
 	}
 
+	/**
+	 * map a FileChannel region in a single memory segment,
+	 * {@link MappedSegment#isSupported()} should be true
+	 *
+	 * @param filename name to track the filename
+	 * @param ch       channel to map
+	 * @param mode     mode of the map
+	 * @param position position to map
+	 * @param size     size to map
+	 * @param order    order of the long values
+	 * @return segment
+	 * @throws IOException io exception
+	 */
+	public static MappedSegment mapSegment(String filename, FileChannel ch, FileChannel.MapMode mode, long position,
+			long size, ByteOrder order) throws IOException {
+		try {
+			return MappedSegment.map(ch, mode, position, size, order);
+		} catch (IOException e) {
+			throw new IOException("Can't map " + filename, e);
+		}
+	}
+
 	/**
 	 * create a large array filled with 0
 	 *
@@ -0,0 +1,349 @@
+package com.the_qa_company.qendpoint.core.util.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Mapping of a file region in a single 64 bits memory segment with the foreign
+ * memory API, unlike the {@link CloseMappedByteBuffer} arrays, the reads aren't
+ * selecting a chunk and the region is unmapped by closing the segment, without
+ * the unsafe buffer cleaner.
+ * <p>
+ * The API is final since Java 22, it is accessed with method handles to keep
+ * the Java 17 compatibility, {@link #isSupported()} should be checked before
+ * mapping a segment. The segments can be disabled with the system property
+ * {@value #DISABLE_PROPERTY}.
+ *
+ * @see IOUtil#mapSegment(String, FileChannel, FileChannel.MapMode, long, long,
+ *      ByteOrder)
+ */
+public final class MappedSegment implements Closeable {
+	/**
+	 * system property to disable the segments, the mapped structures are using
+	 * the {@link CloseMappedByteBuffer} chunks
+	 */
+	public static final String DISABLE_PROPERTY = "qendpoint.mappedsegment.disable";
+	private static final int MIN_JAVA_VERSION = 22;
+
+	private static final boolean SUPPORTED;
+	private static final MethodHandle OF_SHARED;
+	private static final MethodHandle ARENA_CLOSE;
+	private static final MethodHandle MAP;
+	private static final MethodHandle GET_BYTE;
+	private static final MethodHandle GET_LONG_BE;
+	private static final MethodHandle GET_LONG_LE;
+	private static final MethodHandle SET_LONG_BE;
+	private static final MethodHandle SET_LONG_LE;
+	private static final MethodHandle COPY_BYTES;
+	private static final MethodHandle AS_SLICE;
+	private static final MethodHandle FILL;
+	private static final MethodHandle FORCE;
+	private static final MethodHandle LOAD;
+
+	static {
+		MethodHandle ofShared = null;
+		MethodHandle arenaClose = null;
+		MethodHandle map = null;
+		MethodHandle getByte = null;
+		MethodHandle getLongBE = null;
+		MethodHandle getLongLE = null;
+		MethodHandle setLongBE = null;
+		MethodHandle setLongLE = null;
+		MethodHandle copyBytes = null;
+		MethodHandle asSlice = null;
+		MethodHandle fill = null;
+		MethodHandle force = null;
+		MethodHandle load = null;
+		boolean supported = false;
+
+		if (!Boolean.getBoolean(DISABLE_PROPERTY) && Runtime.version().feature() >= MIN_JAVA_VERSION) {
+			try {
+				Class<?> arenaClass = Class.forName("java.lang.foreign.Arena");
+				Class<?> segmentClass = Class.forName("java.lang.foreign.MemorySegment");
+				Class<?> valueLayoutClass = Class.forName("java.lang.foreign.ValueLayout");
+				Class<?> ofByteClass = Class.forName("java.lang.foreign.ValueLayout$OfByte");
+				Class<?> ofLongClass = Class.forName("java.lang.foreign.ValueLayout$OfLong");
+				MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+
+				Object byteLayout = valueLayoutClass.getField("JAVA_BYTE").get(null);
+				Object longLayout = valueLayoutClass.getField("JAVA_LONG_UNALIGNED").get(null);
+				Object longLayoutBE = ofLongClass.getMethod("withOrder", ByteOrder.class).invoke(longLayout,
+						ByteOrder.BIG_ENDIAN);
+				Object longLayoutLE = ofLongClass.getMethod("withOrder", ByteOrder.class).invoke(longLayout,
+						ByteOrder.LITTLE_ENDIAN);
+
+				ofShared = lookup.findStatic(arenaClass, "ofShared", MethodType.methodType(arenaClass))
+						.asType(MethodType.methodType(Object.class));
+				arenaClose = lookup.findVirtual(arenaClass, "close", MethodType.methodType(void.class))
+						.asType(MethodType.methodType(void.class, Object.class));
+				map = lookup
+						.findVirtual(FileChannel.class, "map",
+								MethodType.methodType(segmentClass, FileChannel.MapMode.class, long.class, long.class,
+										arenaClass))
+						.asType(MethodType.methodType(Object.class, FileChannel.class, FileChannel.MapMode.class,
+								long.class, long.class, Object.class));
+
+				MethodHandle getByteLayout = lookup.findVirtual(segmentClass, "get",
+						MethodType.methodType(byte.class, ofByteClass, long.class));
+				getByte = MethodHandles.insertArguments(getByteLayout, 1, byteLayout)
+						.asType(MethodType.methodType(byte.class, Object.class, long.class));
+
+				MethodHandle getLong = lookup.findVirtual(segmentClass, "get",
+						MethodType.methodType(long.class, ofLongClass, long.class));
+				MethodType getLongType = MethodType.methodType(long.class, Object.class, long.class);
+				getLongBE = MethodHandles.insertArguments(getLong, 1, longLayoutBE).asType(getLongType);
+				getLongLE = MethodHandles.insertArguments(getLong, 1, longLayoutLE).asType(getLongType);
+
+				MethodHandle setLong = lookup.findVirtual(segmentClass, "set",
+						MethodType.methodType(void.class, ofLongClass, long.class, long.class));
+				MethodType setLongType = MethodType.methodType(void.class, Object.class, long.class, long.class);
+				setLongBE = MethodHandles.insertArguments(setLong, 1, longLayoutBE).asType(setLongType);
+				setLongLE = MethodHandles.insertArguments(setLong, 1, longLayoutLE).asType(setLongType);
+
+				MethodHandle copy = lookup.findStatic(segmentClass, "copy", MethodType.methodType(void.class,
+						segmentClass, valueLayoutClass, long.class, Object.class, int.class, int.class));
+				copyBytes = MethodHandles.insertArguments(copy, 1, byteLayout).asType(MethodType.methodType(void.class,
+						Object.class, long.class, byte[].class, int.class, int.class));
+
+				asSlice = lookup
+						.findVirtual(segmentClass, "asSlice",
+								MethodType.methodType(segmentClass, long.class, long.class))
+						.asType(MethodType.methodType(Object.class, Object.class, long.class, long.class));
+				fill = lookup.findVirtual(segmentClass, "fill", MethodType.methodType(segmentClass, byte.class))
+						.asType(MethodType.methodType(Object.class, Object.class, byte.class));
+				force = lookup.findVirtual(segmentClass, "force", MethodType.methodType(void.class))
+						.asType(MethodType.methodType(void.class, Object.class));
+				load = lookup.findVirtual(segmentClass, "load", MethodType.methodType(void.class))
+						.asType(MethodType.methodType(void.class, Object.class));
+				supported = true;
+			} catch (ReflectiveOperationException | RuntimeException e) {
+				// the foreign memory API isn't available, use the buffers
+				supported = false;
+			}
+		}
+
+		SUPPORTED = supported;
+		OF_SHARED = ofShared;
+		ARENA_CLOSE = arenaClose;
+		MAP = map;
+		GET_BYTE = getByte;
+		GET_LONG_BE = getLongBE;
+		GET_LONG_LE = getLongLE;
+		SET_LONG_BE = setLongBE;
+		SET_LONG_LE = setLongLE;
+		COPY_BYTES = copyBytes;
+		AS_SLICE = asSlice;
+		FILL = fill;
+		FORCE = force;
+		LOAD = load;
+	}
+
+	/**
+	 * @return if the memory segments can be used with this runtime
+	 */
+	public static boolean isSupported() {
+		return SUPPORTED;
+	}
+
+	/**
+	 * map a file region, {@link #isSupported()} should be true
+	 *
+	 * @param ch       channel to map
+	 * @param mode     mode of the map
+	 * @param position position to map
+	 * @param size     size to map
+	 * @param order    order of the long values
+	 * @return segment
+	 * @throws IOException map exception
+	 */
+	static MappedSegment map(FileChannel ch, FileChannel.MapMode mode, long position, long size, ByteOrder order)
+			throws IOException {
+		if (!SUPPORTED) {
+			throw new UnsupportedOperationException("The memory segments aren't supported by this runtime");
+		}
+		Object arena;
+		try {
+			arena = (Object) OF_SHARED.invokeExact();
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+		try {
+			Object segment = (Object) MAP.invokeExact(ch, mode, position, size, arena);
+			return new MappedSegment(arena, segment, size, order == ByteOrder.BIG_ENDIAN);
+		} catch (IOException | RuntimeException | Error e) {
+			closeArena(arena, e);
+			throw e;
+		} catch (Throwable t) {
+			closeArena(arena, t);
+			throw asUnchecked(t);
+		}
+	}
+
+	private static void closeArena(Object arena, Throwable parent) {
+		try {
+			ARENA_CLOSE.invokeExact(arena);
+		} catch (Throwable t) {
+			parent.addSuppressed(t);
+		}
+	}
+
+	private static RuntimeException asUnchecked(Throwable t) {
+		if (t instanceof RuntimeException re) {
+			return re;
+		}
+		if (t instanceof Error err) {
+			throw err;
+		}
+		return new IllegalStateException(t);
+	}
+
+	private final Object arena;
+	private final Object segment;
+	private final long size;
+	private final boolean bigEndian;
+	private boolean closed;
+
+	private MappedSegment(Object arena, Object segment, long size, boolean bigEndian) {
+		this.arena = arena;
+		this.segment = segment;
+		this.size = size;
+		this.bigEndian = bigEndian;
+	}
+
+	/**
+	 * @return the size of the segment in bytes
+	 */
+	public long size() {
+		return size;
+	}
+
+	/**
+	 * get a byte
+	 *
+	 * @param offset offset in the segment
+	 * @return byte
+	 */
+	public byte get(long offset) {
+		try {
+			return (byte) GET_BYTE.invokeExact(segment, offset);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * read bytes
+	 *
+	 * @param offset offset in the segment
+	 * @param dst    destination array
+	 * @param index  index in the destination array
+	 * @param length number of bytes to read
+	 */
+	public void get(long offset, byte[] dst, int index, int length) {
+		try {
+			COPY_BYTES.invokeExact(segment, offset, dst, index, length);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * get a long, with the order of the segment
+	 *
+	 * @param offset offset in the segment
+	 * @return long
+	 */
+	public long getLong(long offset) {
+		try {
+			if (bigEndian) {
+				return (long) GET_LONG_BE.invokeExact(segment, offset);
+			}
+			return (long) GET_LONG_LE.invokeExact(segment, offset);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * set a long, with the order of the segment
+	 *
+	 * @param offset offset in the segment
+	 * @param value  value
+	 */
+	public void putLong(long offset, long value) {
+		try {
+			if (bigEndian) {
+				SET_LONG_BE.invokeExact(segment, offset, value);
+			} else {
+				SET_LONG_LE.invokeExact(segment, offset, value);
+			}
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * fill a region of the segment
+	 *
+	 * @param offset offset in the segment
+	 * @param length length of the region
+	 * @param value  value to write
+	 */
+	public void fill(long offset, long length, byte value) {
+		try {
+			Object slice = (Object) AS_SLICE.invokeExact(segment, offset, length);
+			Object ignore = (Object) FILL.invokeExact(slice, value);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * Forces any changes made to this segment to be written to the storage
+	 * device containing the mapped file.
+	 */
+	public void force() {
+		try {
+			FORCE.invokeExact(segment);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * load a region of the segment in physical memory
+	 *
+	 * @param offset offset in the segment
+	 * @param length length of the region
+	 */
+	public void load(long offset, long length) {
+		try {
+			Object slice = (Object) AS_SLICE.invokeExact(segment, offset, length);
+			LOAD.invokeExact(slice);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+
+	/**
+	 * unmap the segment, the next accesses are throwing an
+	 * {@link IllegalStateException}
+	 */
+	@Override
+	public void close() {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		try {
+			ARENA_CLOSE.invokeExact(arena);
+		} catch (Throwable t) {
+			throw asUnchecked(t);
+		}
+	}
+}
@@ -0,0 +1,93 @@
+package com.the_qa_company.qendpoint.core.util.io;
+
+import java.util.function.BiConsumer;
+
+/**
+ * Structure backed by mapped files, the mapped regions can be loaded in memory
+ * before the first accesses to avoid the page faults of the first queries.
+ *
+ * @see com.the_qa_company.qendpoint.core.hdt.HDTWarmup
+ */
+public interface MappedWarmable {
+	/**
+	 * mapped region of a structure
+	 */
+	interface Region {
+		/**
+		 * region of a mapped buffer
+		 *
+		 * @param buffer buffer
+		 * @return region
+		 */
+		static Region of(CloseMappedByteBuffer buffer) {
+			return new Region() {
+				@Override
+				public long size() {
+					return buffer.capacity();
+				}
+
+				@Override
+				public void load(long offset, long length) {
+					buffer.load((int) offset, (int) length);
+				}
+			};
+		}
+
+		/**
+		 * region of a mapped segment
+		 *
+		 * @param segment segment
+		 * @return region
+		 */
+		static Region of(MappedSegment segment) {
+			return new Region() {
+				@Override
+				public long size() {
+					return segment.size();
+				}
+
+				@Override
+				public void load(long offset, long length) {
+					segment.load(offset, length);
+				}
+			};
+		}
+
+		/**
+		 * @return the size of the region in bytes
+		 */
+		long size();
+
+		/**
+		 * load a part of the region in physical memory
+		 *
+		 * @param offset offset in the region
+		 * @param length length to load
+		 */
+		void load(long offset, long length);
+	}
+
+	/**
+	 * collect the mapped regions of a structure if it is a
+	 * {@link MappedWarmable}
+	 *
+	 * @param structure structure, can be null
+	 * @param component name of the component of the structure
+	 * @param consumer  consumer of the regions with their component name
+	 */
+	static void collectRegions(Object structure, String component, BiConsumer<String, Region> consumer) {
+		if (structure instanceof MappedWarmable warmable) {
+			warmable.collectRegions(component, consumer);
+		}
+	}
+
+	/**
+	 * collect the mapped regions of this structure
+	 *
+	 * @param component name of the component of this structure, the structures
+	 *                  made of multiple components are adding suffixes to this
+	 *                  name
+	 * @param consumer  consumer of the regions with their component name
+	 */
+	void collectRegions(String component, BiConsumer<String, Region> consumer);
+}
@@ -0,0 +1,183 @@
+package com.the_qa_company.qendpoint.core.util.io.compress;
+
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorInputStream;
+import org.apache.commons.compress.compressors.lz4.FramedLZ4CompressorOutputStream;
+import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorInputStream;
+import org.apache.commons.compress.compressors.snappy.FramedSnappyCompressorOutputStream;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Block compression of the intermediate chunk files of the disk
+ * implementations, the codec is written in the first byte of each file, so a
+ * chunk can be read without knowing the codec used to write it.
+ */
+public enum ChunkCodec {
+	/**
+	 * no compression
+	 */
+	NONE(0, HDTOptionsKeys.CHUNK_CODEC_VALUE_NONE) {
+		@Override
+		OutputStream wrap(OutputStream stream) {
+			return stream;
+		}
+
+		@Override
+		InputStream wrap(InputStream stream) {
+			return stream;
+		}
+	},
+	/**
+	 * LZ4 frame compression
+	 */
+	LZ4(1, HDTOptionsKeys.CHUNK_CODEC_VALUE_LZ4) {
+		@Override
+		OutputStream wrap(OutputStream stream) throws IOException {
+			// small blocks to limit the memory of the k-way merges, the chunk
+			// writers/readers already have their own checks
+			return new FramedLZ4CompressorOutputStream(stream, new FramedLZ4CompressorOutputStream.Parameters(
+					FramedLZ4CompressorOutputStream.BlockSize.K256, false, false, false));
+		}
+
+		@Override
+		InputStream wrap(InputStream stream) throws IOException {
+			return new FramedLZ4CompressorInputStream(stream);
+		}
+	},
+	/**
+	 * Snappy frame compression
+	 */
+	SNAPPY(2, HDTOptionsKeys.CHUNK_CODEC_VALUE_SNAPPY) {
+		@Override
+		OutputStream wrap(OutputStream stream) throws IOException {
+			return new FramedSnappyCompressorOutputStream(stream);
+		}
+
+		@Override
+		InputStream wrap(InputStream stream) throws IOException {
+			return new FramedSnappyCompressorInputStream(stream);
+		}
+	};
+
+	private static final ChunkCodec[] CODECS = values();
+
+	/**
+	 * get a codec from its name
+	 *
+	 * @param name codec name, null or empty for {@link #NONE}
+	 * @return codec
+	 * @throws IllegalArgumentException if the codec is unknown
+	 */
+	public static ChunkCodec of(String name) {
+		if (name == null || name.isEmpty()) {
+			return NONE;
+		}
+		for (ChunkCodec codec : CODECS) {
+			if (codec.title.equalsIgnoreCase(name)) {
+				return codec;
+			}
+		}
+		throw new IllegalArgumentException("Unknown chunk codec: " + name);
+	}
+
+	/**
+	 * read the codec of an options key
+	 *
+	 * @param spec options
+	 * @param key  key of the codec
+	 * @return codec, {@link #NONE} if not defined
+	 * @throws IllegalArgumentException if the codec is unknown
+	 */
+	public static ChunkCodec of(HDTOptions spec, String key) {
+		return of(spec.get(key, HDTOptionsKeys.CHUNK_CODEC_VALUE_NONE));
+	}
+
+	/**
+	 * open a chunk file written with any codec
+	 *
+	 * @param path       chunk file
+	 * @param bufferSize buffer size
+	 * @return uncompressed stream
+	 * @throws IOException if the file can't be read or if the codec is unknown
+	 */
+	public static InputStream openInputStream(CloseSuppressPath path, int bufferSize) throws IOException {
+		InputStream stream = path.openInputStream(bufferSize);
+		try {
+			int id = stream.read();
+			if (id == -1) {
+				throw new EOFException("Missing chunk codec in " + path);
+			}
+			for (ChunkCodec codec : CODECS) {
+				if (codec.id == id) {
+					if (codec == NONE) {
+						return stream;
+					}
+					// the readers are reading small values, buffer the
+					// uncompressed data
+					return new BufferedInputStream(codec.wrap(stream), bufferSize);
+				}
+			}
+			throw new IOException("Unknown chunk codec id " + id + " in " + path);
+		} catch (Throwable t) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				t.addSuppressed(e);
+			}
+			throw t;
+		}
+	}
+
+	private final int id;
+	private final String title;
+
+	ChunkCodec(int id, String title) {
+		this.id = id;
+		this.title = title;
+	}
+
+	/**
+	 * @return the name of the codec in the options
+	 */
+	public String getTitle() {
+		return title;
+	}
+
+	/**
+	 * open a chunk file with this codec
+	 *
+	 * @param path       chunk file
+	 * @param bufferSize buffer size
+	 * @return stream compressing the data
+	 * @throws IOException if the file can't be written
+	 */
+	public OutputStream openOutputStream(CloseSuppressPath path, int bufferSize) throws IOException {
+		OutputStream stream = path.openOutputStream(bufferSize);
+		try {
+			stream.write(id);
+			if (this == NONE) {
+				return stream;
+			}
+			return new BufferedOutputStream(wrap(stream), bufferSize);
+		} catch (Throwable t) {
+			try {
+				stream.close();
+			} catch (IOException e) {
+				t.addSuppressed(e);
+			}
+			throw t;
+		}
+	}
+
+	abstract OutputStream wrap(OutputStream stream) throws IOException;
+
+	abstract InputStream wrap(InputStream stream) throws IOException;
+}
@@ -10,6 +10,8 @@ import com.the_qa_company.qendpoint.core.hdt.impl.diskimport.TripleCompressionRe
 import com.the_qa_company.qendpoint.core.listener.MultiThreadListener;
 import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.triples.TripleIDComparator;
+import com.the_qa_company.qendpoint.core.triples.impl.TripleOrderConvert;
+import com.the_qa_company.qendpoint.core.util.PackedTripleList;
 import com.the_qa_company.qendpoint.core.util.ParallelSortableArrayList;
 import com.the_qa_company.qendpoint.core.iterator.utils.AsyncIteratorFetcher;
 import com.the_qa_company.qendpoint.core.iterator.utils.ExceptionIterator;
@@ -43,10 +45,54 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 	private final int k;
 	private final AtomicLong triplesCount = new AtomicLong();
 	private final long chunkSize;
+	private final boolean radixSort;
+	private final ChunkCodec codec;
 
 	public MapCompressTripleMerger(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleID> source,
 			CompressTripleMapper mapper, MultiThreadListener listener, TripleComponentOrder order, int bufferSize,
 			long chunkSize, int k) {
+		this(baseFileName, source, mapper, listener, order, bufferSize, chunkSize, k, false);
+	}
+
+	/**
+	 * create the merger
+	 *
+	 * @param baseFileName base directory of the chunks
+	 * @param source       source of the triples to map
+	 * @param mapper       mapper of the ids
+	 * @param listener     listener
+	 * @param order        order of the triples
+	 * @param bufferSize   size of the file buffers
+	 * @param chunkSize    max size of a chunk
+	 * @param k            number of chunks merged at once
+	 * @param radixSort    sort the chunks with a {@link PackedTripleList}
+	 *                     instead of a comparison sort of {@link TripleID}
+	 */
+	public MapCompressTripleMerger(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleID> source,
+			CompressTripleMapper mapper, MultiThreadListener listener, TripleComponentOrder order, int bufferSize,
+			long chunkSize, int k, boolean radixSort) {
+		this(baseFileName, source, mapper, listener, order, bufferSize, chunkSize, k, radixSort, ChunkCodec.NONE);
+	}
+
+	/**
+	 * create the merger
+	 *
+	 * @param baseFileName base directory of the chunks
+	 * @param source       source of the triples to map
+	 * @param mapper       mapper of the ids
+	 * @param listener     listener
+	 * @param order        order of the triples
+	 * @param bufferSize   size of the file buffers
+	 * @param chunkSize    max size of a chunk
+	 * @param k            number of chunks merged at once
+	 * @param radixSort    sort the chunks with a {@link PackedTripleList}
+	 *                     instead of a comparison sort of {@link TripleID}
+	 * @param codec        codec to compress the chunks
+	 */
+	public MapCompressTripleMerger(CloseSuppressPath baseFileName, AsyncIteratorFetcher<TripleID> source,
+			CompressTripleMapper mapper, MultiThreadListener listener, TripleComponentOrder order, int bufferSize,
+			long chunkSize, int k, boolean radixSort, ChunkCodec codec) {
+		this.codec = codec;
 		this.baseFileName = baseFileName;
 		this.source = source;
 		this.mapper = mapper;
@@ -55,6 +101,8 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 		this.bufferSize = bufferSize;
 		this.chunkSize = chunkSize;
 		this.k = k;
+		// the packed triples are sorted with the order of their components
+		this.radixSort = radixSort && order != TripleComponentOrder.Unknown;
 	}
 
 	/**
@@ -150,6 +198,10 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 	@Override
 	public void createChunk(SizeFetcher<TripleID> flux, CloseSuppressPath output)
 			throws KWayMerger.KWayMergerException {
+		if (radixSort) {
+			createChunkRadix(flux, output);
+			return;
+		}
 		BufferedTriples buffer = new BufferedTriples();
 		ParallelSortableArrayList<TripleID> tripleIDS = buffer.triples;
 		listener.notifyProgress(10, "reading triples part2  " + triplesCount);
@@ -174,7 +226,7 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 			IntermediateListener il = new IntermediateListener(listener);
 			il.setRange(70, 100);
 			il.setPrefix("writing triples " + output.getFileName() + " ");
-			try (CompressTripleWriter w = new CompressTripleWriter(output.openOutputStream(bufferSize))) {
+			try (CompressTripleWriter w = new CompressTripleWriter(codec.openOutputStream(output, bufferSize))) {
 				il.notifyProgress(0, "creating file");
 				TripleID prev = new TripleID(-1, -1, -1);
 				for (TripleID triple : tripleIDS) {
@@ -195,6 +247,58 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 		}
 	}
 
+	private void createChunkRadix(SizeFetcher<TripleID> flux, CloseSuppressPath output)
+			throws KWayMerger.KWayMergerException {
+		PackedTripleList triples = new PackedTripleList();
+		TripleID triple = new TripleID();
+		listener.notifyProgress(10, "reading triples part2  " + triplesCount);
+		TripleID next;
+		while ((next = flux.get()) != null) {
+			triple.setAll(mapper.extractSubject(next.getSubject()), mapper.extractPredicate(next.getPredicate()),
+					mapper.extractObjects(next.getObject()));
+			assert triple.isValid();
+			// pack the components in the order of the triples
+			TripleOrderConvert.swapComponentOrder(triple, TripleComponentOrder.SPO, order);
+			triples.add(triple.getSubject(), triple.getPredicate(), triple.getObject());
+			long count = triplesCount.incrementAndGet();
+			if (count % 100_000 == 0) {
+				listener.notifyProgress(10, "reading triples part2 " + triplesCount);
+			}
+			if (triples.isFull()) {
+				break;
+			}
+		}
+		try {
+			// the chunks are already sorted by multiple workers
+			triples.sort();
+			int size = triples.size();
+			int block = size < 10 ? 1 : size / 10;
+			IntermediateListener il = new IntermediateListener(listener);
+			il.setRange(70, 100);
+			il.setPrefix("writing triples " + output.getFileName() + " ");
+			try (CompressTripleWriter w = new CompressTripleWriter(codec.openOutputStream(output, bufferSize))) {
+				il.notifyProgress(0, "creating file");
+				for (int i = 0; i < size; i++) {
+					if ((i + 1) % block == 0) {
+						il.notifyProgress((i + 1) / (block / 10f), "writing triples " + (i + 1) + "/" + size);
+					}
+					long x = triples.getX(i);
+					long y = triples.getY(i);
+					long z = triples.getZ(i);
+					if (i > 0 && triples.getX(i - 1) == x && triples.getY(i - 1) == y && triples.getZ(i - 1) == z) {
+						continue; // duplicated triple
+					}
+					triple.setAll(x, y, z);
+					TripleOrderConvert.swapComponentOrder(triple, order, TripleComponentOrder.SPO);
+					w.appendTriple(triple);
+				}
+				listener.notifyProgress(100, "writing completed " + triplesCount + " " + output.getFileName());
+			}
+		} catch (IOException e) {
+			throw new KWayMerger.KWayMergerException(e);
+		}
+	}
+
 	@Override
 	public void mergeChunks(List<CloseSuppressPath> inputs, CloseSuppressPath output)
 			throws KWayMerger.KWayMergerException {
@@ -203,10 +307,10 @@ public class MapCompressTripleMerger implements KWayMerger.KWayMergerImpl<Triple
 			CompressTripleReader[] readers = new CompressTripleReader[inputs.size()];
 			try {
 				for (int i = 0; i < inputs.size(); i++) {
-					readers[i] = new CompressTripleReader(inputs.get(i).openInputStream(bufferSize));
+					readers[i] = new CompressTripleReader(ChunkCodec.openInputStream(inputs.get(i), bufferSize));
 				}
 
-				try (CompressTripleWriter w = new CompressTripleWriter(output.openOutputStream(bufferSize))) {
+				try (CompressTripleWriter w = new CompressTripleWriter(codec.openOutputStream(output, bufferSize))) {
 					ExceptionIterator<TripleID, IOException> it = CompressTripleMergeIterator.buildOfTree(readers,
 							order);
 					while (it.hasNext()) {
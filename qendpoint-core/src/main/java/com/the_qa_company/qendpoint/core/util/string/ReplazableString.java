@@ -248,6 +248,32 @@ public final class ReplazableString implements CharSequence, ByteString {
 		throw new IllegalArgumentException("Was reading a string but stream ended before finding the null terminator");
 	}
 
+	/**
+	 * replace the end of this string with the null terminated string at an
+	 * offset of a buffer, the position of the buffer isn't used or updated
+	 *
+	 * @param in     buffer
+	 * @param offset offset of the string in the buffer
+	 * @param pos    position in this string
+	 * @param end    end of the readable bytes in the buffer
+	 * @return offset after the null terminator
+	 */
+	public long replace(BigMappedByteBuffer in, long offset, int pos, long end) {
+		used = pos;
+
+		while (offset < end) {
+			byte value = in.get(offset++);
+			if (value == 0) {
+				return offset;
+			}
+			if (used >= buffer.length) {
+				buffer = Arrays.copyOf(buffer, buffer.length * 2);
+			}
+			buffer[used++] = value;
+		}
+		throw new IllegalArgumentException("Was reading a string but stream ended before finding the null terminator");
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * @see java.lang.CharSequence#charAt(int)
@@ -292,12 +318,12 @@ public final class ReplazableString implements CharSequence, ByteString {
 		}
 		if (o instanceof CompactString) {
 			CompactString cmp = (CompactString) o;
-			if (buffer.length != cmp.data.length) {
+			if (used != cmp.data.length) {
 				return false;
 			}
 
 			// Byte by byte comparison
-			int i = buffer.length;
+			int i = used;
 			while (i-- != 0) {
 				if (buffer[i] != cmp.data[i]) {
 					return false;
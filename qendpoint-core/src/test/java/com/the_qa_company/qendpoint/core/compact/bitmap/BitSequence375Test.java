@@ -230,6 +230,45 @@ public class BitSequence375Test {
 		}
 	}
 
+	@Test
+	public void testSelectSamples() throws IOException {
+		assertSameSelectWithSamples(bitseq);
+
+		// long runs of zeros and ones, the super blocks are sharing their
+		// counts
+		try (Bitmap375Big runs = Bitmap375Big.memory(num)) {
+			for (int i = 0; i < num; i++) {
+				runs.set(i, (i / 1500) % 2 == 1 || i % 2000 == 0);
+			}
+			assertSameSelectWithSamples(runs);
+		}
+	}
+
+	private static void assertSameSelectWithSamples(Bitmap375Big bitmap) {
+		long ones = bitmap.countOnes();
+		long zeros = bitmap.countZeros();
+		long[] select1 = new long[(int) ones + 2];
+		long[] select0 = new long[(int) zeros + 2];
+		bitmap.setSelectSampleRate(0);
+		for (int i = 0; i < select1.length; i++) {
+			select1[i] = bitmap.select1(i);
+		}
+		for (int i = 0; i < select0.length; i++) {
+			select0[i] = bitmap.select0(i);
+		}
+
+		for (int rate : new int[] { 1, 7, 64, 1000 }) {
+			bitmap.setSelectSampleRate(rate);
+			for (int i = 0; i < select1.length; i++) {
+				assertEquals("select1 " + i + " rate " + rate, select1[i], bitmap.select1(i));
+			}
+			for (int i = 0; i < select0.length; i++) {
+				assertEquals("select0 " + i + " rate " + rate, select0[i], bitmap.select0(i));
+			}
+		}
+		bitmap.setSelectSampleRate(0);
+	}
+
 	@Test
 	public void testCountOnes() {
 		int count = 0;
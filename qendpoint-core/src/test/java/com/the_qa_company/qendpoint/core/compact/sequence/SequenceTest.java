@@ -1,5 +1,6 @@
 package com.the_qa_company.qendpoint.core.compact.sequence;
 
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
 import org.junit.Assert;
 import org.junit.Rule;
 import org.junit.Test;
@@ -8,6 +9,8 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Parameterized;
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collection;
@@ -98,6 +101,55 @@ public class SequenceTest {
 		sequenceTest(32, 10_000L, true);
 	}
 
+	@Test
+	public void rangeTest() throws IOException {
+		Random rnd = new Random(42);
+		for (int bits = 1; bits <= 64; bits++) {
+			// the sequences are only storing positive values
+			long maxMask = (~0L) >>> (Long.SIZE - Math.min(bits, Long.SIZE - 1));
+			long elements = 1000;
+			Path p = tempDir.newFolder().toPath();
+			try (DynamicSequence actual = sequenceGenerator.bld.generate(p.resolve("test.seq").toString(), bits,
+					elements)) {
+				for (long i = 0; i < elements; i++) {
+					actual.append(rnd.nextLong() & maxMask);
+				}
+				assertRange(actual, elements, rnd);
+
+				Path mapped = p.resolve("test.map");
+				try (OutputStream os = Files.newOutputStream(mapped)) {
+					actual.save(os, ProgressListener.ignore());
+				}
+				try (SequenceLog64Map map = new SequenceLog64Map(mapped.toFile())) {
+					for (long i = 0; i < elements; i++) {
+						Assert.assertEquals(actual.get(i), map.get(i));
+					}
+					assertRange(map, elements, rnd);
+				}
+			}
+		}
+	}
+
+	private static void assertRange(Sequence seq, long elements, Random rnd) {
+		long[] buffer = new long[200];
+		for (int test = 0; test < 100; test++) {
+			int offset = rnd.nextInt(10);
+			int length = rnd.nextInt(buffer.length - offset);
+			long start = rnd.nextInt((int) elements - length + 1);
+			seq.getRange(start, buffer, offset, length);
+			for (int i = 0; i < length; i++) {
+				Assert.assertEquals("bits: " + seq.sizeOf() + " start: " + start + " i: " + i, seq.get(start + i),
+						buffer[offset + i]);
+			}
+		}
+		// full range
+		long[] all = new long[(int) elements];
+		seq.getRange(0, all, 0, all.length);
+		for (int i = 0; i < all.length; i++) {
+			Assert.assertEquals(seq.get(i), all[i]);
+		}
+	}
+
 	private static class SequenceGenerator {
 		final String name;
 		final SequenceGeneratorBuilder bld;
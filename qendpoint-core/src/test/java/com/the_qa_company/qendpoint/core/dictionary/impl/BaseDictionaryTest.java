@@ -0,0 +1,184 @@
+package com.the_qa_company.qendpoint.core.dictionary.impl;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.dictionary.impl.section.PFCDictionarySectionMap;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.options.HDTSpecification;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.lang.ref.WeakReference;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class BaseDictionaryTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	@Test
+	public void stringToIdsTest() throws IOException, ParserException {
+		Path root = tempDir.getRoot().toPath();
+		Path hdtPath = root.resolve("test.hdt");
+
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5000, 42)
+				.withMaxElementSplit(50).withMaxLiteralSize(20);
+
+		supplier.createAndSaveFakeHDT(new HDTSpecification(), hdtPath);
+
+		try (HDT hdt = HDTManager.mapHDT(hdtPath)) {
+			assertStringToIds(hdt.getDictionary());
+		}
+		try (HDT hdt = HDTManager.loadHDT(hdtPath)) {
+			assertStringToIds(hdt.getDictionary());
+		}
+	}
+
+	@Test
+	public void idToStringBufferTest() throws IOException, ParserException {
+		Path hdtPath = tempDir.getRoot().toPath().resolve("test.hdt");
+
+		LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5000, 64).withMaxElementSplit(50)
+				.createAndSaveFakeHDT(new HDTSpecification(), hdtPath);
+
+		try (HDT hdt = HDTManager.mapHDT(hdtPath)) {
+			Dictionary dict = hdt.getDictionary();
+			ReplazableString buffer = new ReplazableString();
+			for (TripleComponentRole role : TripleComponentRole.values()) {
+				long count = switch (role) {
+				case SUBJECT -> dict.getNsubjects();
+				case PREDICATE -> dict.getNpredicates();
+				case OBJECT -> dict.getNobjects();
+				};
+				for (long id = 1; id <= count; id++) {
+					assertEquals(dict.idToString(id, role).toString(), dict.idToString(id, role, buffer).toString());
+				}
+			}
+		}
+	}
+
+	@Test
+	public void closedSectionReleasedTest() throws Exception {
+		Path hdtPath = tempDir.getRoot().toPath().resolve("test.hdt");
+
+		LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5000, 64).withMaxElementSplit(50)
+				.createAndSaveFakeHDT(new HDTSpecification(), hdtPath);
+
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			WeakReference<DictionarySection> section = mapAndExtract(hdtPath, executor);
+			// the thread which read the section is still alive, its reader
+			// shouldn't keep the closed section
+			for (int i = 0; i < 100 && section.get() != null; i++) {
+				System.gc();
+				Thread.sleep(10);
+			}
+			assertNull(section.get());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	private static WeakReference<DictionarySection> mapAndExtract(Path hdtPath, ExecutorService executor)
+			throws Exception {
+		try (HDT hdt = HDTManager.mapHDT(hdtPath)) {
+			DictionarySection subjects = ((BaseDictionary) hdt.getDictionary()).getSubjects();
+			assertTrue(subjects instanceof PFCDictionarySectionMap);
+			CharSequence expected = subjects.extract(1).toString();
+			assertEquals(expected, executor.submit(() -> subjects.extract(1).toString()).get());
+			return new WeakReference<>(subjects);
+		}
+	}
+
+	private void assertStringToIds(Dictionary dict) {
+		Set<ByteString> subjects = new TreeSet<>();
+		Set<ByteString> predicates = new TreeSet<>();
+		Set<ByteString> objects = new TreeSet<>();
+
+		Iterator<? extends CharSequence> it;
+		for (it = dict.stringIterator(TripleComponentRole.SUBJECT, true); it.hasNext();) {
+			subjects.add(ByteString.copy(it.next()));
+		}
+		for (it = dict.stringIterator(TripleComponentRole.PREDICATE, true); it.hasNext();) {
+			predicates.add(ByteString.copy(it.next()));
+		}
+		for (it = dict.stringIterator(TripleComponentRole.OBJECT, true); it.hasNext();) {
+			objects.add(ByteString.copy(it.next()));
+		}
+
+		// the terms of the other roles and some missing terms
+		Set<ByteString> all = new TreeSet<>();
+		all.addAll(subjects);
+		all.addAll(predicates);
+		all.addAll(objects);
+		all.add(ByteString.of("http://missing/0"));
+		all.add(ByteString.of("\"missing\""));
+		all.add(ByteString.of("zzz"));
+		all.add(ByteString.of("!"));
+
+		for (TripleComponentRole role : TripleComponentRole.values()) {
+			List<ByteString> sorted = new ArrayList<>(all);
+			assertIds(dict, sorted, role);
+
+			// the order is only an optimization
+			Collections.shuffle(sorted);
+			assertIds(dict, sorted, role);
+		}
+	}
+
+	private void assertIds(Dictionary dict, List<ByteString> strings, TripleComponentRole role) {
+		long[] ids = new long[strings.size()];
+		dict.stringToIds(strings, role, ids);
+		for (int i = 0; i < strings.size(); i++) {
+			long excepted = dict.stringToId(strings.get(i), role);
+			assertEquals("bad id for " + strings.get(i) + " in " + role, excepted > 0 ? excepted : -1, ids[i]);
+		}
+	}
+
+	@Test
+	public void stringToIdsPSFCTest() throws IOException, ParserException {
+		Path hdtPath = tempDir.getRoot().toPath().resolve("test.hdt");
+
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1000, 34);
+
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_PSFC_SECTION, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY,
+				HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_HASH_PSFC);
+		supplier.createAndSaveFakeHDT(spec, hdtPath);
+
+		try (HDT hdt = HDTManager.mapHDT(hdtPath)) {
+			List<String> strings = new ArrayList<>();
+			supplier.reset();
+			for (Iterator<TripleString> it = supplier.createTripleStringStream(); it.hasNext();) {
+				strings.add(it.next().getObject().toString());
+			}
+			long[] ids = new long[strings.size()];
+			hdt.getDictionary().stringToIds(strings, TripleComponentRole.OBJECT, ids);
+			for (int i = 0; i < strings.size(); i++) {
+				assertEquals(hdt.getDictionary().stringToId(strings.get(i), TripleComponentRole.OBJECT), ids[i]);
+			}
+		}
+	}
+}
@@ -15,10 +15,20 @@ import java.io.IOException;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class CompressFourSectionDictionaryTest {
 	@Test
 	public void compressDictTest() throws Exception {
+		compressDictTest(false);
+	}
+
+	@Test
+	public void compressDictParallelTest() throws Exception {
+		compressDictTest(true);
+	}
+
+	private void compressDictTest(boolean parallel) throws Exception {
 		TestCompressionResult result = new TestCompressionResult(
 				new CharSequence[] { "2222", "4444", "5555", "7777", "9999", "9999" },
 				new CharSequence[] { "1111", "1111", "2222", "3333", "3333", "4444" },
@@ -27,8 +37,9 @@ public class CompressFourSectionDictionaryTest {
 		List<CharSequence> exceptedPredicates = Arrays.asList("1111", "2222", "3333", "4444");
 		List<CharSequence> exceptedObjects = Arrays.asList("1111", "3333", "6666", "8888");
 		List<CharSequence> exceptedShared = Arrays.asList("4444", "7777");
-		CompressFourSectionDictionary dictionary = new CompressFourSectionDictionary(result, new FakeNodeConsumer(),
-				(p, m) -> {}, true);
+		CountNodeConsumer consumer = new CountNodeConsumer();
+		CompressFourSectionDictionary dictionary = new CompressFourSectionDictionary(result, consumer, (p, m) -> {},
+				true, parallel);
 		Iterator<? extends CharSequence> su = dictionary.getSubjects().getSortedEntries();
 		Iterator<? extends CharSequence> pr = dictionary.getPredicates().getSortedEntries();
 		Iterator<? extends CharSequence> ob = dictionary.getObjects().getSortedEntries();
@@ -67,6 +78,12 @@ public class CompressFourSectionDictionaryTest {
 		}, "compressDictTestSh");
 
 		sharedReader.attach(predicateReader, objectReader, subjectReader).startAll().joinAndCrashIfRequired();
+		dictionary.close();
+
+		// all the nodes should be mapped after the close
+		Assert.assertEquals(result.subjects.length, consumer.subjects.get());
+		Assert.assertEquals(result.predicates.length, consumer.predicates.get());
+		Assert.assertEquals(result.objects.length, consumer.objects.get());
 	}
 
 	static class TestCompressionResult implements CompressionResult {
@@ -148,17 +165,24 @@ public class CompressFourSectionDictionaryTest {
 		}
 	}
 
-	static class FakeNodeConsumer implements CompressFourSectionDictionary.NodeConsumer {
+	static class CountNodeConsumer implements CompressFourSectionDictionary.NodeConsumer {
+		final AtomicLong subjects = new AtomicLong();
+		final AtomicLong predicates = new AtomicLong();
+		final AtomicLong objects = new AtomicLong();
+
 		@Override
 		public void onSubject(long preMapId, long newMapId) {
+			subjects.incrementAndGet();
 		}
 
 		@Override
 		public void onPredicate(long preMapId, long newMapId) {
+			predicates.incrementAndGet();
 		}
 
 		@Override
 		public void onObject(long preMapId, long newMapId) {
+			objects.incrementAndGet();
 		}
 	}
 }
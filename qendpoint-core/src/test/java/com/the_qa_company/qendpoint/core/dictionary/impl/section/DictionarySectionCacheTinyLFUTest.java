@@ -0,0 +1,143 @@
+package com.the_qa_company.qendpoint.core.dictionary.impl.section;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.options.HDTSpecification;
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleString;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class DictionarySectionCacheTinyLFUTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	@Test
+	public void mapCacheTest() throws IOException, ParserException, InterruptedException {
+		Path hdtPath = tempDir.getRoot().toPath().resolve("test.hdt");
+
+		LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5000, 42).withMaxElementSplit(50)
+				.createAndSaveFakeHDT(new HDTSpecification(), hdtPath);
+
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_CACHE_KEY,
+				HDTOptionsKeys.DICTIONARY_CACHE_VALUE_TINY_LFU, HDTOptionsKeys.DICTIONARY_CACHE_SIZE_KEY, 64 * 1024);
+
+		try (HDT hdt = HDTManager.mapHDT(hdtPath);
+				HDT cached = HDTManager.mapHDT(hdtPath, ProgressListener.ignore(), spec)) {
+			Dictionary dict = hdt.getDictionary();
+			Dictionary cachedDict = cached.getDictionary();
+
+			assertTrue(cachedDict.getPredicates() instanceof DictionarySectionCacheTinyLFU);
+
+			AtomicReference<Throwable> error = new AtomicReference<>();
+			List<Thread> threads = new ArrayList<>();
+			for (int t = 0; t < 4; t++) {
+				Thread thread = new Thread(() -> {
+					try {
+						for (int round = 0; round < 3; round++) {
+							assertSameDictionary(dict, cachedDict);
+						}
+					} catch (Throwable e) {
+						error.set(e);
+					}
+				});
+				threads.add(thread);
+				thread.start();
+			}
+			for (Thread thread : threads) {
+				thread.join();
+			}
+			if (error.get() != null) {
+				throw new AssertionError(error.get());
+			}
+
+			DictionarySectionCacheTinyLFU predicates = (DictionarySectionCacheTinyLFU) cachedDict.getPredicates();
+			assertTrue(predicates.getLocateCache().getHitCount() > 0);
+			assertTrue(predicates.getExtractCache().getHitCount() > 0);
+		}
+	}
+
+	private static void assertSameDictionary(Dictionary dict, Dictionary cachedDict) {
+		for (TripleComponentRole role : TripleComponentRole.values()) {
+			Iterator<? extends CharSequence> it = dict.stringIterator(role, true);
+			while (it.hasNext()) {
+				String str = it.next().toString();
+				long id = dict.stringToId(str, role);
+				assertEquals(str, id, cachedDict.stringToId(str, role));
+				assertEquals(str, cachedDict.idToString(id, role).toString());
+				ReplazableString buffer = new ReplazableString();
+				buffer.append(str);
+				assertEquals(str, id, cachedDict.stringToId(buffer, role));
+				assertEquals(str, cachedDict.idToString(id, role, buffer).toString());
+			}
+			assertEquals(-1, cachedDict.stringToId("http://missing/" + role, role));
+		}
+	}
+
+	@Test
+	public void mapSearchTest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		List<String> dictTypes = List.of(HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG);
+		for (int i = 0; i < dictTypes.size(); i++) {
+			String dictType = dictTypes.get(i);
+			Path hdtPath = root.resolve("test" + i + ".hdt");
+			LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(2000, 42).withMaxElementSplit(50)
+					.createAndSaveFakeHDT(HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictType,
+							HDTOptionsKeys.LOADER_TYPE_KEY, HDTOptionsKeys.LOADER_TYPE_VALUE_DISK,
+							HDTOptionsKeys.LOADER_DISK_LOCATION_KEY, root.resolve("gen")), hdtPath);
+
+			Set<String> expected = new HashSet<>();
+			try (HDT hdt = HDTManager.mapHDT(hdtPath)) {
+				IteratorTripleString it = hdt.search("", "", "");
+				while (it.hasNext()) {
+					expected.add(it.next().toString());
+				}
+			}
+			assertEquals(2000, expected.size());
+
+			for (String cache : List.of(HDTOptionsKeys.DICTIONARY_CACHE_VALUE_PER_THREAD,
+					HDTOptionsKeys.DICTIONARY_CACHE_VALUE_TINY_LFU)) {
+				HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_CACHE_KEY, cache);
+				try (HDT hdt = HDTManager.mapHDT(hdtPath, ProgressListener.ignore(), spec)) {
+					Set<String> actual = new HashSet<>();
+					IteratorTripleString it = hdt.search("", "", "");
+					while (it.hasNext()) {
+						actual.add(it.next().toString());
+					}
+					assertEquals(dictType + "/" + cache, expected, actual);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void noCacheTest() {
+		PFCDictionarySection section = new PFCDictionarySection(HDTOptions.empty());
+
+		assertEquals(section, DictionarySectionFactory.withCache(section, HDTOptions.empty()));
+		assertTrue(DictionarySectionFactory.withCache(section, HDTOptions.of(HDTOptionsKeys.DICTIONARY_CACHE_KEY,
+				HDTOptionsKeys.DICTIONARY_CACHE_VALUE_PER_THREAD)) instanceof DictionarySectionCachePerThread);
+	}
+}
@@ -0,0 +1,96 @@
+package com.the_qa_company.qendpoint.core.hdt;
+
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.impl.HDTImpl;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class HDTWarmupTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	private Path createHDT() throws IOException, ParserException {
+		Path path = tempDir.newFolder().toPath().resolve("test.hdt");
+		LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10_000, 34).withMaxElementSplit(50)
+				.createAndSaveFakeHDT(HDTOptions.of(), path);
+		return path;
+	}
+
+	@Test
+	public void parseTest() {
+		assertTrue(HDTWarmup.parseComponents(null).isEmpty());
+		assertTrue(HDTWarmup.parseComponents("none").isEmpty());
+		assertEquals(HDTWarmup.DEFAULT_COMPONENTS, HDTWarmup.parseComponents("default"));
+		assertEquals(Set.of("dictionary", "triples"), HDTWarmup.parseComponents("all"));
+		assertEquals(Set.of(HDTWarmup.TRIPLES_SEQ_Z, HDTWarmup.DICTIONARY_DATA),
+				HDTWarmup.parseComponents(" triples.seqZ ,, dictionary.data"));
+
+		List<String> components = List.of("triples", HDTWarmup.DICTIONARY_BLOCKS);
+		assertTrue(HDTWarmup.isSelected(components, HDTWarmup.TRIPLES_SEQ_Z));
+		assertTrue(HDTWarmup.isSelected(components, HDTWarmup.TRIPLES_INDEX + ".OPS"));
+		assertTrue(HDTWarmup.isSelected(components, HDTWarmup.DICTIONARY_BLOCKS));
+		assertFalse(HDTWarmup.isSelected(components, HDTWarmup.DICTIONARY_DATA));
+		assertFalse(HDTWarmup.isSelected(List.of("triples.seq"), HDTWarmup.TRIPLES_SEQ_Y));
+	}
+
+	@Test
+	public void warmupTest() throws IOException, ParserException {
+		Path path = createHDT();
+
+		try (HDT hdt = HDTManager.mapIndexedHDT(path)) {
+			HDTWarmup all = HDTWarmup.of(hdt, HDTWarmup.parseComponents("all"));
+			HDTWarmup def = HDTWarmup.of(hdt, HDTWarmup.parseComponents("default"));
+			HDTWarmup none = HDTWarmup.of(hdt, HDTWarmup.parseComponents("none"));
+
+			assertTrue(all.getSize() > 0);
+			assertTrue(def.getSize() > 0);
+			assertTrue(def.getSize() < all.getSize());
+			assertEquals(0, none.getSize());
+
+			assertEquals(all.getSize(), all.run(null));
+			assertEquals(all.getSize(), all.getLoaded());
+			assertEquals(0, none.run(null));
+		}
+	}
+
+	@Test
+	public void mapWarmupTest() throws IOException, ParserException {
+		Path path = createHDT();
+
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.WARMUP_COMPONENTS_KEY, "all", HDTOptionsKeys.WARMUP_ASYNC_KEY,
+				false);
+		try (HDT hdt = HDTManager.mapIndexedHDT(path, spec, null)) {
+			HDTWarmup warmup = ((HDTImpl) hdt).getWarmup();
+			assertNotNull(warmup);
+			assertEquals(warmup.getSize(), warmup.getLoaded());
+		}
+
+		try (HDT hdt = HDTManager.mapHDT(path.toAbsolutePath().toString())) {
+			assertNull(((HDTImpl) hdt).getWarmup());
+		}
+
+		// close the HDT during the warmup
+		for (int i = 0; i < 10; i++) {
+			HDT hdt = HDTManager.mapIndexedHDT(path, HDTOptions.of(HDTOptionsKeys.WARMUP_COMPONENTS_KEY, "all"), null);
+			HDTWarmup warmup = ((HDTImpl) hdt).getWarmup();
+			assertNotNull(warmup);
+			hdt.close();
+			assertTrue(warmup.getLoaded() <= warmup.getSize());
+		}
+	}
+}
@@ -0,0 +1,277 @@
+package com.the_qa_company.qendpoint.core.hdt.impl.diskimport;
+
+import com.the_qa_company.qendpoint.core.enums.RDFNotation;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.hdt.HDTManagerTest;
+import com.the_qa_company.qendpoint.core.hdt.HDTSupplier;
+import com.the_qa_company.qendpoint.core.listener.ProgressListener;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.rdf.RDFFluxStop;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Iterator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class GenerationCheckpointTest {
+	private static final long SEED = 684;
+	// base URI of LargeFakeDataSetStreamSupplier#createFakeHDT
+	private static final String BASE_URI = "http://w";
+	private static final String INPUT = "seed=" + SEED;
+
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	private static class CrashException extends RuntimeException {
+		public CrashException(String message) {
+			super(message);
+		}
+	}
+
+	/**
+	 * iterator crashing after a number of triples
+	 */
+	private static Iterator<TripleString> crashAfter(Iterator<TripleString> it, long count) {
+		return new Iterator<>() {
+			long read;
+
+			@Override
+			public boolean hasNext() {
+				return it.hasNext();
+			}
+
+			@Override
+			public TripleString next() {
+				if (read++ == count) {
+					throw new CrashException("crash after " + count + " triples");
+				}
+				return it.next();
+			}
+		};
+	}
+
+	/**
+	 * listener crashing on a progress message
+	 */
+	private static ProgressListener crashOn(String message) {
+		return (level, msg) -> {
+			if (msg.contains(message)) {
+				throw new CrashException("crash on " + message);
+			}
+		};
+	}
+
+	@Test
+	public void checkpointTest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+
+		GenerationCheckpoint cp = GenerationCheckpoint.of(root, "cfg");
+		assertFalse(cp.isStarted());
+		cp.set("key", 42);
+		cp.complete("step1");
+
+		GenerationCheckpoint cp2 = GenerationCheckpoint.of(root, "cfg");
+		assertTrue(cp2.isStarted());
+		assertTrue(cp2.isCompleted("step1"));
+		assertFalse(cp2.isCompleted("step2"));
+		assertEquals(42, cp2.getLong("key", 0));
+		assertEquals(12, cp2.getLong("key2", 12));
+
+		// another config can't use the checkpoint
+		assertFalse(GenerationCheckpoint.of(root, "cfg2").isStarted());
+
+		cp2.clear();
+		assertFalse(Files.exists(cp2.getFile()));
+		assertFalse(GenerationCheckpoint.of(root, "cfg").isStarted());
+	}
+
+	@Test
+	public void diskCheckpointRequiresLocationTest() {
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.LOADER_DISK_CHECKPOINT_KEY, true);
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10, SEED);
+		assertThrows(IllegalArgumentException.class,
+				() -> HDTManager.generateHDTDisk(supplier.createTripleStringStream(), BASE_URI, spec, null).close());
+	}
+
+	private static HDTOptions diskSpec(Path root) {
+		return HDTOptions.of(HDTOptionsKeys.LOADER_DISK_CHECKPOINT_KEY, true, HDTOptionsKeys.LOADER_DISK_LOCATION_KEY,
+				root.resolve("work"), HDTOptionsKeys.LOADER_DISK_CHUNK_SIZE_KEY, 50_000,
+				HDTOptionsKeys.LOADER_DISK_COMPRESSION_WORKER_KEY, 2);
+	}
+
+	private static HDTOptions catTreeSpec(Path root, int kcat) {
+		return HDTOptions.of(HDTOptionsKeys.LOADER_CATTREE_CHECKPOINT_KEY, true,
+				HDTOptionsKeys.LOADER_CATTREE_LOCATION_KEY, root.resolve("cattree"), HDTOptionsKeys.LOADER_CATTREE_KCAT,
+				kcat, HDTOptionsKeys.LOADER_DISK_LOCATION_KEY, root.resolve("disk"));
+	}
+
+	@Test
+	public void checkpointRequiresInputTest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10, SEED);
+		assertThrows(IllegalArgumentException.class, () -> HDTManager
+				.generateHDTDisk(supplier.createTripleStringStream(), BASE_URI, diskSpec(root), null).close());
+		assertThrows(IllegalArgumentException.class,
+				() -> HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(),
+						supplier.createTripleStringStream(), BASE_URI, catTreeSpec(root, 1), null).close());
+	}
+
+	/**
+	 * rewrite a dataset file with another dataset and another modification time
+	 */
+	private static void replaceFile(Path file, LargeFakeDataSetStreamSupplier supplier) throws Exception {
+		FileTime time = Files.getLastModifiedTime(file);
+		supplier.createNTFile(file);
+		Files.setLastModifiedTime(file, FileTime.fromMillis(time.toMillis() + 10_000));
+	}
+
+	@Test
+	public void diskOtherInputTest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000,
+				SEED);
+		Path file = root.resolve("input.nt");
+		supplier.createNTFile(file);
+		HDTOptions spec = diskSpec(root);
+
+		assertThrows(CrashException.class, () -> HDTManager
+				.generateHDTDisk(file.toString(), BASE_URI, RDFNotation.NTRIPLES, spec, crashOn("create triples"))
+				.close());
+
+		// same location, another file content
+		LargeFakeDataSetStreamSupplier other = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000,
+				SEED + 1);
+		replaceFile(file, other);
+		other.reset();
+		try (HDT expected = other.createFakeHDT(HDTOptions.of());
+				HDT actual = HDTManager.generateHDTDisk(file.toString(), BASE_URI, RDFNotation.NTRIPLES, spec, null)) {
+			HDTManagerTest.HDTManagerTestBase.assertEqualsHDT(expected, actual);
+		}
+	}
+
+	@Test
+	public void diskOtherBaseURITest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000,
+				SEED);
+		HDTOptions spec = diskSpec(root);
+		spec.set(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY, INPUT);
+
+		assertThrows(CrashException.class, () -> HDTManager.generateHDTDisk(supplier.createTripleStringStream(),
+				BASE_URI + "/other", spec, crashOn("create triples")).close());
+
+		// the checkpoint of the other base URI isn't resumed, the stream is
+		// read
+		supplier.reset();
+		assertThrows(CrashException.class, () -> HDTManager
+				.generateHDTDisk(crashAfter(supplier.createTripleStringStream(), 0), BASE_URI, spec, null).close());
+	}
+
+	private void diskResumeTest(String crashMessage) throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000,
+				SEED);
+		HDTOptions spec = diskSpec(root);
+		spec.set(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY, INPUT);
+
+		assertThrows(CrashException.class, () -> HDTManager
+				.generateHDTDisk(supplier.createTripleStringStream(), BASE_URI, spec, crashOn(crashMessage)).close());
+
+		assertTrue(Files.exists(root.resolve("work").resolve(GenerationCheckpoint.FILE_NAME)));
+
+		supplier.reset();
+		try (HDT expected = supplier.createFakeHDT(HDTOptions.of());
+				// the stream shouldn't be read, the sections are in the
+				// checkpoint
+				HDT actual = HDTManager.generateHDTDisk(crashAfter(supplier.createTripleStringStream(), 0), BASE_URI,
+						spec, null)) {
+			HDTManagerTest.HDTManagerTestBase.assertEqualsHDT(expected, actual);
+		}
+		assertFalse(Files.exists(root.resolve("work")));
+	}
+
+	@Test
+	public void diskResumeSectionsTest() throws Exception {
+		diskResumeTest("Create sections and triple mapping");
+	}
+
+	@Test
+	public void diskResumeTriplesTest() throws Exception {
+		diskResumeTest("create triples");
+	}
+
+	private void catTreeResumeTest(int kcat) throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10_000,
+				SEED);
+		HDTOptions spec = catTreeSpec(root, kcat);
+		spec.set(HDTOptionsKeys.LOADER_CHECKPOINT_INPUT_KEY, INPUT);
+
+		// crash during the 7th generation
+		assertThrows(CrashException.class, () -> HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(),
+				crashAfter(supplier.createTripleStringStream(), 6_500), BASE_URI, spec, null).close());
+
+		GenerationCheckpoint cp = GenerationCheckpoint.of(root.resolve("cattree"), "kcat=" + kcat + ",flux="
+				+ RDFFluxStop.countLimit(1_000).asConfig() + "," + GenerationCheckpoint.inputConfig(spec, BASE_URI));
+		assertTrue(cp.isStarted());
+		assertEquals(6, cp.getLong("gen", 0));
+
+		supplier.reset();
+		try (HDT actual = HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.disk(),
+				supplier.createTripleStringStream(), BASE_URI, spec, null)) {
+			supplier.reset();
+			try (HDT expected = supplier.createFakeHDT(HDTOptions.of())) {
+				HDTManagerTest.HDTManagerTestBase.assertEqualsHDT(expected, actual);
+			}
+		}
+		assertFalse(Files.exists(cp.getFile()));
+	}
+
+	@Test
+	public void catTreeResumeTest() throws Exception {
+		catTreeResumeTest(1);
+	}
+
+	@Test
+	public void catTreeResumeKCatTest() throws Exception {
+		catTreeResumeTest(4);
+	}
+
+	@Test
+	public void catTreeOtherInputTest() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10_000,
+				SEED);
+		Path file = root.resolve("input.nt");
+		supplier.createNTFile(file);
+		HDTOptions spec = catTreeSpec(root, 1);
+
+		// crash during the 7th generation
+		assertThrows(CrashException.class, () -> HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(),
+				file.toString(), BASE_URI, RDFNotation.NTRIPLES, spec, crashOn("gen#7")).close());
+
+		// same location, another file content, the first triples of the new
+		// file shouldn't be skipped
+		LargeFakeDataSetStreamSupplier other = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10_000,
+				SEED + 1);
+		replaceFile(file, other);
+		other.reset();
+		try (HDT expected = other.createFakeHDT(HDTOptions.of());
+				HDT actual = HDTManager.catTree(RDFFluxStop.countLimit(1_000), HDTSupplier.memory(), file.toString(),
+						BASE_URI, RDFNotation.NTRIPLES, spec, null)) {
+			HDTManagerTest.HDTManagerTestBase.assertEqualsHDT(expected, actual);
+		}
+	}
+}
@@ -0,0 +1,83 @@
+package com.the_qa_company.qendpoint.core.iterator.utils;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+public class AsyncPrefetchExceptionIteratorTest {
+	@Test
+	public void readTest() throws IOException {
+		List<Integer> values = IntStream.range(0, 10_000).boxed().toList();
+		for (int batchSize : new int[] { 1, 7, 1000, 10_000, 20_000 }) {
+			try (AsyncPrefetchExceptionIterator<int[], IOException> it = new AsyncPrefetchExceptionIterator<>(
+					reuseIterator(values), int[]::clone, batchSize, 2, "AsyncPrefetchTest")) {
+				List<Integer> read = new ArrayList<>();
+				while (it.hasNext()) {
+					read.add(it.next()[0]);
+				}
+				assertEquals(values, read);
+				assertFalse(it.hasNext());
+			}
+		}
+	}
+
+	@Test
+	public void exceptionTest() {
+		ExceptionIterator<Integer, IOException> failing = new ExceptionIterator<>() {
+			int count;
+
+			@Override
+			public boolean hasNext() throws IOException {
+				if (count == 100) {
+					throw new IOException("fail");
+				}
+				return true;
+			}
+
+			@Override
+			public Integer next() {
+				return count++;
+			}
+		};
+		try (AsyncPrefetchExceptionIterator<Integer, IOException> it = new AsyncPrefetchExceptionIterator<>(failing,
+				i -> i, 16, 2, "AsyncPrefetchTest")) {
+			IOException e = assertThrows(IOException.class, () -> {
+				for (int i = 0;; i++) {
+					assertTrue(it.hasNext());
+					assertEquals(i, (int) it.next());
+				}
+			});
+			assertEquals("fail", e.getMessage());
+		}
+	}
+
+	@Test
+	public void closeTest() throws IOException {
+		// infinite iterator, the close should stop the reader
+		ExceptionIterator<Integer, IOException> infinite = ExceptionIterator
+				.of(IntStream.iterate(0, i -> i + 1).iterator());
+		AsyncPrefetchExceptionIterator<Integer, IOException> it = new AsyncPrefetchExceptionIterator<>(infinite, i -> i,
+				16, 2, "AsyncPrefetchTest");
+		for (int i = 0; i < 100; i++) {
+			assertTrue(it.hasNext());
+			assertEquals(i, (int) it.next());
+		}
+		it.close();
+	}
+
+	private static ExceptionIterator<int[], IOException> reuseIterator(List<Integer> values) {
+		int[] node = new int[1];
+		return ExceptionIterator.of(new MapIterator<>(values.iterator(), v -> {
+			node[0] = v;
+			return node;
+		}));
+	}
+}
@@ -2,6 +2,8 @@ package com.the_qa_company.qendpoint.core.rdf.parsers;
 
 import com.the_qa_company.qendpoint.core.enums.RDFNotation;
 import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.rdf.RDFParserCallback;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
 import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
@@ -19,7 +21,8 @@ import java.util.Iterator;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ RDFParserSimpleTest.NTriplesTest.class, RDFParserSimpleTest.NQuadTest.class,
-		RDFParserSimpleTest.NQuadNoGraphTest.class })
+		RDFParserSimpleTest.NQuadNoGraphTest.class, RDFParserSimpleTest.NTriplesParallelTest.class,
+		RDFParserSimpleTest.NQuadParallelTest.class, RDFParserSimpleTest.NQuadNoGraphParallelTest.class })
 public class RDFParserSimpleTest {
 	public static abstract class AbstractRDFParserSimpleTest extends AbstractNTriplesParserTest {
 		protected final RDFNotation notation;
@@ -86,6 +89,19 @@ public class RDFParserSimpleTest {
 		}
 	}
 
+	public static abstract class AbstractRDFParserSimpleParallelTest extends AbstractRDFParserSimpleTest {
+		protected AbstractRDFParserSimpleParallelTest(RDFNotation notation) {
+			super(notation);
+		}
+
+		@Override
+		protected RDFParserCallback createParser() {
+			// small chunks to test the split of the lines
+			return new RDFParserSimple(HDTOptions.of(HDTOptionsKeys.NT_SIMPLE_PARSER_THREADS_KEY, 4,
+					HDTOptionsKeys.NT_SIMPLE_PARSER_CHUNK_SIZE_KEY, 1 << 12));
+		}
+	}
+
 	public static class NTriplesTest extends AbstractRDFParserSimpleTest {
 		public NTriplesTest() {
 			super(RDFNotation.NTRIPLES);
@@ -120,4 +136,37 @@ public class RDFParserSimpleTest {
 		}
 	}
 
+	public static class NTriplesParallelTest extends AbstractRDFParserSimpleParallelTest {
+		public NTriplesParallelTest() {
+			super(RDFNotation.NTRIPLES);
+		}
+
+		@Override
+		protected LargeFakeDataSetStreamSupplier createSupplier() {
+			return LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1_000_001, 42).withQuads(true)
+					.withMaxGraph(0);
+		}
+	}
+
+	public static class NQuadParallelTest extends AbstractRDFParserSimpleParallelTest {
+		public NQuadParallelTest() {
+			super(RDFNotation.NQUAD);
+		}
+
+		@Override
+		protected LargeFakeDataSetStreamSupplier createSupplier() {
+			return LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1_000_001, 42).withQuads(true);
+		}
+	}
+
+	public static class NQuadNoGraphParallelTest extends AbstractRDFParserSimpleParallelTest {
+		public NQuadNoGraphParallelTest() {
+			super(RDFNotation.NQUAD);
+		}
+
+		@Override
+		protected LargeFakeDataSetStreamSupplier createSupplier() {
+			return LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(1_000_001, 42);
+		}
+	}
 }
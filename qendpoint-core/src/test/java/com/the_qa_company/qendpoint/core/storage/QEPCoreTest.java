@@ -412,6 +412,63 @@ public class QEPCoreTest {
 
 		@Test
 		public void generationTest() throws IOException, ParserException {
+			generationTest(HDTOptions.empty());
+		}
+
+		@Test
+		public void parallelGenerationTest() throws IOException, ParserException {
+			generationTest(HDTOptions.of(QEPCoreOptions.QEPC_SEARCH_THREADS, 4, QEPCoreOptions.QEPC_SEARCH_BUFFER, 16));
+		}
+
+		@Test(timeout = 60_000)
+		public void parallelNestedSearchTest() throws IOException, ParserException {
+			Path root = tempDir.newFolder("nested").toPath();
+			Iterator<TripleString> it = LargeFakeDataSetStreamSupplier.createInfinite(56).createTripleStringStream();
+			HDTOptions options = HDTOptions.of(QEPCoreOptions.QEPC_SEARCH_THREADS, 2, QEPCoreOptions.QEPC_SEARCH_BUFFER,
+					1);
+
+			long searchThreads = countSearchThreads();
+			try {
+				try (QEPCore core = new QEPCore(root, options, true)) {
+					for (int node = 0; node < 10; node++) {
+						List<TripleString> nodeElements = new ArrayList<>();
+						for (int i = 0; i < 100; i++) {
+							nodeElements.add(it.next().tripleToString());
+						}
+						core.insertTriples(nodeElements.iterator(), "http://example.org/#", false,
+								ProgressListener.ignore());
+					}
+
+					// the readers of the outer search are waiting for the
+					// consumer while the inner searches are running
+					int count = 0;
+					try (CloseableIterator<? extends QEPComponentTriple, QEPCoreException> outer = core.search()) {
+						while (outer.hasNext() && count < 20) {
+							QEPComponentTriple triple = outer.next();
+							try (CloseableIterator<? extends QEPComponentTriple, QEPCoreException> inner = core
+									.search(triple.getSubject(), null, null)) {
+								assertTrue(inner.hasNext());
+							}
+							assertTrue(core.cardinality(triple.getSubject(), null, null) > 0);
+							// the datasets without thread are read by this
+							// thread
+							assertTrue(countSearchThreads() <= searchThreads + 2);
+							count++;
+						}
+					}
+					assertEquals(20, count);
+				}
+			} finally {
+				PathUtils.deleteDirectory(root);
+			}
+		}
+
+		private static long countSearchThreads() {
+			return Thread.getAllStackTraces().keySet().stream().filter(t -> t.getName().equals("QEPCoreSearch"))
+					.count();
+		}
+
+		private void generationTest(HDTOptions options) throws IOException, ParserException {
 			Path root = tempDir.newFolder("generation").toPath();
 
 			Iterator<TripleString> it = LargeFakeDataSetStreamSupplier.createInfinite(56).createTripleStringStream();
@@ -439,7 +496,7 @@ public class QEPCoreTest {
 			}
 
 			try {
-				try (QEPCore core = new QEPCore(root)) {
+				try (QEPCore core = new QEPCore(root, options, true)) {
 					QEPComponent plant2 = core.createComponentByString("http://the-qa-company.com/plant2");
 					assertEquals("http://the-qa-company.com/plant2", plant2.toString());
 
@@ -448,6 +505,7 @@ public class QEPCoreTest {
 					}
 
 					assertEquals("size isn't matching", ts.size(), core.triplesCount());
+					assertEquals("cardinality isn't matching", ts.size(), core.cardinality(null, null, null));
 
 					for (TripleString t : ts) {
 						try (CloseableIterator<? extends QEPComponentTriple, QEPCoreException> s = core.search(t)) {
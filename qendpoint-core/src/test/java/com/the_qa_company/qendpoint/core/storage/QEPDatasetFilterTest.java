@@ -0,0 +1,144 @@
+package com.the_qa_company.qendpoint.core.storage;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.exceptions.ParserException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class QEPDatasetFilterTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	private static HDT createHDT(long triples, long seed) throws IOException, ParserException {
+		return createHDT(triples, seed, HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG);
+	}
+
+	private static HDT createHDT(long triples, long seed, String dictionaryType) throws IOException, ParserException {
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictionaryType);
+		return LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(triples, seed).withMaxElementSplit(50)
+				.withMaxLiteralSize(20).createFakeHDT(spec);
+	}
+
+	private static void assertNoFalseNegative(Dictionary dict, QEPDatasetFilter filter) {
+		for (TripleComponentRole role : TripleComponentRole.values()) {
+			long count = dict.getNSection(role, role != TripleComponentRole.PREDICATE);
+			for (long id = 1; id <= count; id++) {
+				String str = dict.idToString(id, role).toString();
+				assertTrue(role + ":" + str, filter.mightContain(role, str));
+			}
+		}
+	}
+
+	@Test
+	public void buildTest() throws IOException, ParserException {
+		for (String type : new String[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG }) {
+			buildTest(type);
+		}
+	}
+
+	private void buildTest(String dictionaryType) throws IOException, ParserException {
+		try (HDT hdt = createHDT(5000, 42, dictionaryType)) {
+			Dictionary dict = hdt.getDictionary();
+			QEPDatasetFilter filter = QEPDatasetFilter.build(dict, QEPDatasetFilter.DEFAULT_BITS_PER_ELEMENT);
+
+			assertNoFalseNegative(dict, filter);
+
+			// about 1% of false positives with 10 bits/element
+			int falsePositives = 0;
+			int tests = 10_000;
+			for (int i = 0; i < tests; i++) {
+				if (filter.mightContain(TripleComponentRole.SUBJECT, "http://missing.example.org/#" + i)) {
+					falsePositives++;
+				}
+			}
+			assertTrue("too many false positives: " + falsePositives, falsePositives < tests / 20);
+		}
+	}
+
+	@Test
+	public void saveLoadTest() throws IOException, ParserException {
+		Path root = tempDir.newFolder().toPath();
+		Path filterPath = QEPDatasetFilter.getFilterPath(root.resolve("index_test.hdt"));
+		assertEquals("index_test.hdt.filter", filterPath.getFileName().toString());
+
+		try (HDT hdt = createHDT(5000, 42); HDT other = createHDT(2000, 34)) {
+			assertNull(QEPDatasetFilter.load(filterPath, hdt.getDictionary()));
+
+			QEPDatasetFilter filter = QEPDatasetFilter.build(hdt.getDictionary(), 8);
+			filter.save(filterPath);
+
+			QEPDatasetFilter loaded = QEPDatasetFilter.load(filterPath, hdt.getDictionary());
+			assertNotNull(loaded);
+			assertEquals(filter.getSizeBytes(), loaded.getSizeBytes());
+			assertNoFalseNegative(hdt.getDictionary(), loaded);
+
+			// built for another dataset
+			assertNull(QEPDatasetFilter.load(filterPath, other.getDictionary()));
+		}
+	}
+
+	@Test
+	public void sameCountsTest() throws IOException, ParserException {
+		Path root = tempDir.newFolder().toPath();
+		Path filterPath = QEPDatasetFilter.getFilterPath(root.resolve("index_test.hdt"));
+
+		// same section counts, other strings
+		try (HDT hdt = HDTManager.generateHDT(
+				List.of(new TripleString("http://ex.org/s1", "http://ex.org/p", "\"a\"")).iterator(), "http://ex.org/",
+				HDTOptions.of(), null);
+				HDT other = HDTManager.generateHDT(
+						List.of(new TripleString("http://ex.org/s2", "http://ex.org/p", "\"b\"")).iterator(),
+						"http://ex.org/", HDTOptions.of(), null)) {
+			QEPDatasetFilter.build(hdt.getDictionary(), 8).save(filterPath);
+			assertNotNull(QEPDatasetFilter.load(filterPath, hdt.getDictionary()));
+			assertNull(QEPDatasetFilter.load(filterPath, other.getDictionary()));
+		}
+	}
+
+	@Test
+	public void deleteIfOrphanTest() throws IOException, ParserException {
+		Path root = tempDir.newFolder().toPath();
+		Path datasetPath = root.resolve("index_test.hdt");
+		Path filterPath = QEPDatasetFilter.getFilterPath(datasetPath);
+
+		try (HDT hdt = createHDT(100, 42)) {
+			hdt.saveToHDT(datasetPath);
+			QEPDatasetFilter.build(hdt.getDictionary(), 8).save(filterPath);
+		}
+		assertFalse(QEPDatasetFilter.deleteIfOrphan(datasetPath));
+		assertFalse(QEPDatasetFilter.deleteIfOrphan(filterPath));
+		assertTrue(Files.exists(filterPath));
+
+		Files.delete(datasetPath);
+		assertTrue(QEPDatasetFilter.deleteIfOrphan(filterPath));
+		assertFalse(Files.exists(filterPath));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void badBitsTest() throws IOException, ParserException {
+		try (HDT hdt = createHDT(100, 42)) {
+			assertFalse(QEPDatasetFilter.build(hdt.getDictionary(), 0).getSizeBytes() > 0);
+		}
+	}
+}
@@ -0,0 +1,178 @@
+package com.the_qa_company.qendpoint.core.triples;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.util.LargeFakeDataSetStreamSupplier;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class TriplesStatisticsTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	private static HDT createHDT() throws Exception {
+		return HDTManager.generateHDT(List.of(
+				// set {name, age}
+				new TripleString("http://ex.org/a", "http://ex.org/name", "\"a\""),
+				new TripleString("http://ex.org/a", "http://ex.org/age", "\"1\""),
+				new TripleString("http://ex.org/b", "http://ex.org/name", "\"b\""),
+				new TripleString("http://ex.org/b", "http://ex.org/name", "\"bb\""),
+				new TripleString("http://ex.org/b", "http://ex.org/age", "\"1\""),
+				// set {name, knows}
+				new TripleString("http://ex.org/c", "http://ex.org/name", "\"c\""),
+				new TripleString("http://ex.org/c", "http://ex.org/knows", "http://ex.org/a"),
+				// set {knows}
+				new TripleString("http://ex.org/d", "http://ex.org/knows", "http://ex.org/a"),
+				new TripleString("http://ex.org/d", "http://ex.org/knows", "http://ex.org/b")).iterator(),
+				"http://ex.org/", HDTOptions.of(), null);
+	}
+
+	private static long pid(HDT hdt, String predicate) {
+		return hdt.getDictionary().stringToId(predicate, TripleComponentRole.PREDICATE);
+	}
+
+	@Test
+	public void statisticsTest() throws Exception {
+		try (HDT hdt = createHDT()) {
+			TriplesStatistics stats = TriplesStatistics.build(hdt, TriplesStatistics.DEFAULT_MAX_CHARACTERISTIC_SETS,
+					null);
+			long name = pid(hdt, "http://ex.org/name");
+			long age = pid(hdt, "http://ex.org/age");
+			long knows = pid(hdt, "http://ex.org/knows");
+
+			assertEquals(9, stats.getNumberOfTriples());
+			assertEquals(4, stats.getNumberOfSubjects());
+			assertEquals(3, stats.getNumberOfCharacteristicSets());
+			assertFalse(stats.isTruncated());
+
+			assertEquals(4, stats.getPredicateTriples(name));
+			assertEquals(3, stats.getPredicateSubjects(name));
+			assertEquals(4, stats.getPredicateObjects(name));
+			assertEquals(2, stats.getPredicateTriples(age));
+			assertEquals(2, stats.getPredicateSubjects(age));
+			assertEquals(1, stats.getPredicateObjects(age));
+			assertEquals(3, stats.getPredicateTriples(knows));
+			assertEquals(2, stats.getPredicateSubjects(knows));
+			assertEquals(2, stats.getPredicateObjects(knows));
+
+			assertEquals(2, stats.getPairSubjects(name, age));
+			assertEquals(2, stats.getPairSubjects(age, name));
+			assertEquals(1, stats.getPairSubjects(name, knows));
+			assertEquals(0, stats.getPairSubjects(age, knows));
+
+			// ?s name ?n . ?s age ?a -> a: 1 * 1, b: 2 * 1
+			assertEquals(2, stats.estimateStarSubjects(name, age), 0.0001);
+			assertEquals(3, stats.estimateStar(name, age), 0.0001);
+			assertEquals(0, stats.estimateStar(age, knows), 0.0001);
+			assertEquals(4, stats.estimateStar(name), 0.0001);
+
+			Path file = tempDir.newFile().toPath();
+			stats.save(file);
+			TriplesStatistics loaded = TriplesStatistics.load(file);
+			assertTrue(loaded.isComputedFor(hdt));
+			assertEquals(stats.getNumberOfCharacteristicSets(), loaded.getNumberOfCharacteristicSets());
+			assertEquals(2, loaded.getPairSubjects(name, age));
+			assertEquals(4, loaded.getPredicateObjects(name));
+			assertEquals(3, loaded.estimateStar(name, age), 0.0001);
+		}
+	}
+
+	@Test
+	public void signatureTest() throws Exception {
+		// same dictionary and number of triples, but different triples
+		try (HDT hdt = HDTManager.generateHDT(
+				List.of(new TripleString("http://ex.org/a", "http://ex.org/p", "\"x\""),
+						new TripleString("http://ex.org/b", "http://ex.org/p", "\"y\"")).iterator(),
+				"http://ex.org/", HDTOptions.of(), null);
+				HDT hdt2 = HDTManager.generateHDT(
+						List.of(new TripleString("http://ex.org/a", "http://ex.org/p", "\"y\""),
+								new TripleString("http://ex.org/b", "http://ex.org/p", "\"x\"")).iterator(),
+						"http://ex.org/", HDTOptions.of(), null)) {
+			Path file = tempDir.newFile().toPath();
+			TriplesStatistics.build(hdt, TriplesStatistics.DEFAULT_MAX_CHARACTERISTIC_SETS, null).save(file);
+
+			// mapped from the saved HDT
+			Path hdtFile = tempDir.newFile().toPath();
+			hdt.saveToHDT(hdtFile.toAbsolutePath().toString(), null);
+			try (HDT mapped = HDTManager.mapHDT(hdtFile.toAbsolutePath().toString())) {
+				assertTrue(TriplesStatistics.load(file).isComputedFor(mapped));
+			}
+			assertTrue(TriplesStatistics.load(file).isComputedFor(hdt));
+			assertFalse(TriplesStatistics.load(file).isComputedFor(hdt2));
+		}
+	}
+
+	@Test
+	public void truncatedTest() throws Exception {
+		try (HDT hdt = createHDT()) {
+			TriplesStatistics stats = TriplesStatistics.build(hdt, 1, null);
+			long name = pid(hdt, "http://ex.org/name");
+			long knows = pid(hdt, "http://ex.org/knows");
+
+			assertTrue(stats.isTruncated());
+			assertEquals(1, stats.getNumberOfCharacteristicSets());
+			// the pairs are exact
+			assertEquals(1, stats.getPairSubjects(name, knows));
+			// the star {name, knows} was removed, the pairs are used
+			assertEquals(1, stats.estimateStarSubjects(name, knows), 0.0001);
+		}
+	}
+
+	@Test
+	public void fakeDatasetTest() throws Exception {
+		LargeFakeDataSetStreamSupplier supplier = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000, 34)
+				.withMaxElementSplit(20);
+		try (HDT hdt = supplier.createFakeHDT(HDTOptions.of())) {
+			TriplesStatistics stats = TriplesStatistics.build(hdt, TriplesStatistics.DEFAULT_MAX_CHARACTERISTIC_SETS,
+					null);
+
+			Map<Long, Set<Long>> predicates = new HashMap<>();
+			Map<Long, Set<Long>> subjects = new HashMap<>();
+			Map<Long, Set<Long>> objects = new HashMap<>();
+			IteratorTripleID it = hdt.getTriples().searchAll();
+			while (it.hasNext()) {
+				TripleID t = it.next();
+				predicates.computeIfAbsent(t.getSubject(), k -> new TreeSet<>()).add(t.getPredicate());
+				subjects.computeIfAbsent(t.getPredicate(), k -> new HashSet<>()).add(t.getSubject());
+				objects.computeIfAbsent(t.getPredicate(), k -> new HashSet<>()).add(t.getObject());
+			}
+
+			Map<String, Long> pairs = new HashMap<>();
+			for (Set<Long> set : predicates.values()) {
+				for (long p1 : set) {
+					for (long p2 : set) {
+						if (p1 < p2) {
+							pairs.merge(p1 + "/" + p2, 1L, Long::sum);
+						}
+					}
+				}
+			}
+
+			assertEquals(predicates.size(), stats.getNumberOfSubjects());
+			for (long p = 1; p <= hdt.getDictionary().getNpredicates(); p++) {
+				assertEquals(subjects.getOrDefault(p, Set.of()).size(), stats.getPredicateSubjects(p));
+				assertEquals(objects.getOrDefault(p, Set.of()).size(), stats.getPredicateObjects(p));
+				for (long p2 = p + 1; p2 <= hdt.getDictionary().getNpredicates(); p2++) {
+					long expected = pairs.getOrDefault(p + "/" + p2, 0L);
+					assertEquals(expected, stats.getPairSubjects(p, p2));
+					assertEquals(expected, stats.estimateStarSubjects(p, p2), 0.0001);
+				}
+			}
+		}
+	}
+}
@@ -1,13 +1,18 @@
 package com.the_qa_company.qendpoint.core.triples.impl;
 
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
 import com.the_qa_company.qendpoint.core.exceptions.ParserException;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
 import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.hdt.HDTVersion;
+import com.the_qa_company.qendpoint.core.iterator.SuppliableIteratorTripleID;
 import com.the_qa_company.qendpoint.core.listener.ProgressListener;
 import com.the_qa_company.qendpoint.core.options.ControlInformation;
 import com.the_qa_company.qendpoint.core.options.HDTOptions;
 import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
 import com.the_qa_company.qendpoint.core.options.HDTSpecification;
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.triples.Triples;
 import org.apache.commons.io.file.PathUtils;
 import org.junit.Ignore;
@@ -26,8 +31,12 @@ import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.Assert.*;
 
@@ -284,6 +293,251 @@ public class BitmapTriplesTest {
 		public void memBitmapLoadIndexedTest() throws IOException, ParserException {
 			diskBitmapIndexTest(false, false);
 		}
+
+		@Test
+		public void goToSubjectTest() throws IOException, ParserException {
+			Path root = tempDir.newFolder().toPath();
+			Path hdtPath = root.resolve("hdt.hdt");
+
+			try {
+				try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(10_000L, 42)
+						.createFakeHDT(new HDTSpecification())) {
+					hdt.saveToHDT(hdtPath.toAbsolutePath().toString(), null);
+				}
+
+				HDTOptions opt = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, indexMethod);
+				try (HDT hdt = loadOrMapIndexed(hdtPath, opt, false)) {
+					Triples triples = hdt.getTriples();
+					long subjects = hdt.getDictionary().getNsubjects();
+
+					for (long predicate = 0; predicate <= hdt.getDictionary().getNpredicates(); predicate++) {
+						TripleID pattern = new TripleID(0, predicate, 0);
+						List<TripleID> expected = new ArrayList<>();
+						List<Long> expectedPositions = new ArrayList<>();
+						IteratorTripleID all = triples.search(pattern);
+						while (all.hasNext()) {
+							expected.add(all.next().clone());
+							expectedPositions.add(all.getLastTriplePosition());
+						}
+
+						for (long step : new long[] { 1, 3, 50 }) {
+							IteratorTripleID it = triples.search(pattern);
+							assertTrue(it.canGoToSubject());
+
+							int index = 0;
+							for (long subject = 1; subject <= subjects + 1; subject += step) {
+								it.goToSubject(subject);
+								while (index < expected.size() && expected.get(index).getSubject() < subject) {
+									index++;
+								}
+								if (index == expected.size()) {
+									assertFalse(it.hasNext());
+									break;
+								}
+								assertTrue(it.hasNext());
+								assertEquals(expected.get(index), it.next());
+								assertEquals((long) expectedPositions.get(index), it.getLastTriplePosition());
+								index++;
+							}
+						}
+					}
+				}
+			} finally {
+				PathUtils.deleteDirectory(root);
+			}
+		}
+
+		@Test
+		public void goToObjectTest() throws IOException, ParserException {
+			try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000L, 42)
+					.withMaxElementSplit(50).createFakeHDT(new HDTSpecification())) {
+				Triples triples = hdt.getTriples();
+				long objects = hdt.getDictionary().getNobjects();
+
+				IteratorTripleID sp = triples.searchAll();
+				int tested = 0;
+				while (sp.hasNext() && tested < 200) {
+					TripleID t = sp.next();
+					TripleID pattern = new TripleID(t.getSubject(), t.getPredicate(), 0);
+					List<TripleID> expected = new ArrayList<>();
+					IteratorTripleID all = triples.search(pattern);
+					while (all.hasNext()) {
+						expected.add(all.next().clone());
+					}
+
+					IteratorTripleID it = triples.search(pattern);
+					assertTrue(it.canGoToObject());
+
+					int index = 0;
+					for (long object = 1; object <= objects + 1; object += 7) {
+						it.goToObject(object);
+						while (index < expected.size() && expected.get(index).getObject() < object) {
+							index++;
+						}
+						if (index == expected.size()) {
+							assertFalse(it.hasNext());
+							break;
+						}
+						assertTrue(it.hasNext());
+						assertEquals(expected.get(index), it.next());
+						index++;
+					}
+					assertFalse(triples.search(new TripleID(0, t.getPredicate(), 0)).canGoToObject());
+					tested++;
+				}
+			}
+		}
+
+		private static Map<TripleID, Long> searchAll(Triples triples, TripleID pattern) {
+			Map<TripleID, Long> result = new HashMap<>();
+			IteratorTripleID it = triples.search(pattern);
+			while (it.hasNext()) {
+				TripleID triple = it.next().clone();
+				assertNull(result.put(triple, it.getLastTriplePosition()));
+			}
+			return result;
+		}
+
+		@Test
+		public void permutationIndexTest() throws IOException, ParserException {
+			Path root = tempDir.newFolder().toPath();
+			Path hdtPath = root.resolve("hdt.hdt");
+
+			try {
+				try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000L, 34)
+						.createFakeHDT(new HDTSpecification())) {
+					hdt.saveToHDT(hdtPath.toAbsolutePath().toString(), null);
+				}
+
+				HDTOptions opt = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, indexMethod);
+				HDTOptions optPerm = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, indexMethod,
+						HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS, "pos, OSP,SPO");
+
+				try (HDT hdtExpected = loadOrMapIndexed(hdtPath, opt, false)) {
+					Triples expected = hdtExpected.getTriples();
+					// generate then read the permutations
+					for (boolean map : new boolean[] { false, true }) {
+						try (HDT hdt = loadOrMapIndexed(hdtPath, optPerm, map)) {
+							BitmapTriples triples = (BitmapTriples) hdt.getTriples();
+							assertEquals(Set.of(TripleComponentOrder.POS, TripleComponentOrder.OSP),
+									triples.getPermutations().keySet());
+							for (TripleComponentOrder order : triples.getPermutations().keySet()) {
+								assertTrue(Files.exists(BitmapTriples
+										.getPermutationIndexFile(hdtPath.toAbsolutePath().toString(), order)));
+							}
+
+							// the subjects are sorted with OSP
+							IteratorTripleID objectIt = triples.search(new TripleID(0, 0, 1));
+							assertTrue(objectIt instanceof BitmapTriplesIteratorPermutation);
+							assertTrue(objectIt.canGoToSubject());
+
+							// ?P? is searched with POS, sorted by object, the
+							// subject sorted search doesn't use it
+							for (long p = 1; p <= hdt.getDictionary().getNpredicates(); p++) {
+								TripleID pattern = new TripleID(0, p, 0);
+								assertEquals(TripleComponentOrder.POS, triples.search(pattern).getOrder());
+								IteratorTripleID sorted = triples.searchSubjectSorted(pattern);
+								assertTrue(sorted.canGoToSubject());
+								Map<TripleID, Long> sortedTriples = new HashMap<>();
+								long lastSubject = 0;
+								while (sorted.hasNext()) {
+									TripleID triple = sorted.next().clone();
+									assertTrue(triple.getSubject() >= lastSubject);
+									lastSubject = triple.getSubject();
+									assertNull(sortedTriples.put(triple, sorted.getLastTriplePosition()));
+									assertEquals(sorted.getLastTriplePosition(), ((SuppliableIteratorTripleID) sorted)
+											.getLastTriplePositionSupplier().compute());
+								}
+								assertEquals(searchAll(expected, pattern), sortedTriples);
+							}
+
+							IteratorTripleID it = expected.searchAll();
+							long index = 0;
+							while (it.hasNext()) {
+								TripleID triple = it.next();
+								if (index++ % 97 != 0) {
+									continue;
+								}
+								for (int mask = 0; mask < 8; mask++) {
+									TripleID pattern = new TripleID((mask & 1) != 0 ? triple.getSubject() : 0,
+											(mask & 2) != 0 ? triple.getPredicate() : 0,
+											(mask & 4) != 0 ? triple.getObject() : 0);
+									if (mask == 0 && index != 1) {
+										continue;
+									}
+									assertEquals(pattern.toString(), searchAll(expected, pattern),
+											searchAll(triples, pattern));
+								}
+							}
+						}
+					}
+				}
+			} finally {
+				PathUtils.deleteDirectory(root);
+			}
+		}
+
+		@Test
+		public void permutationSignatureTest() throws IOException, ParserException {
+			Path root = tempDir.newFolder().toPath();
+			Path hdtPath = root.resolve("hdt.hdt");
+			String hdtFile = hdtPath.toAbsolutePath().toString();
+
+			try {
+				HDTOptions opt = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, indexMethod);
+				HDTOptions optPerm = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_METHOD_KEY, indexMethod,
+						HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS, "POS");
+				long numTriples;
+				long signature;
+				try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000L, 34)
+						.createFakeHDT(new HDTSpecification())) {
+					numTriples = hdt.getTriples().getNumberOfElements();
+					signature = ((BitmapTriples) hdt.getTriples()).getSignature();
+					hdt.saveToHDT(hdtFile, null);
+				}
+				// same signature with the loaded and mapped triples
+				for (boolean map : new boolean[] { false, true }) {
+					try (HDT hdt = loadOrMapIndexed(hdtPath, optPerm, map)) {
+						assertEquals(signature, ((BitmapTriples) hdt.getTriples()).getSignature());
+					}
+				}
+				Path posFile = BitmapTriples.getPermutationIndexFile(hdtFile, TripleComponentOrder.POS);
+				assertTrue(Files.exists(posFile));
+
+				// replace the HDT with another one with the same number of
+				// triples, the old permutation shouldn't be used
+				try (HDT hdt = LargeFakeDataSetStreamSupplier.createSupplierWithMaxTriples(5_000L, 35)
+						.createFakeHDT(new HDTSpecification())) {
+					assertEquals(numTriples, hdt.getTriples().getNumberOfElements());
+					assertNotEquals(signature, ((BitmapTriples) hdt.getTriples()).getSignature());
+					hdt.saveToHDT(hdtFile, null);
+				}
+				// the OPS index isn't checked
+				Files.delete(Path.of(hdtFile + HDTVersion.get_index_suffix("-")));
+
+				for (boolean map : new boolean[] { true, false }) {
+					try (HDT hdtExpected = loadOrMapIndexed(hdtPath, opt, false);
+							HDT hdt = loadOrMapIndexed(hdtPath, optPerm, map)) {
+						Triples expected = hdtExpected.getTriples();
+						BitmapTriples triples = (BitmapTriples) hdt.getTriples();
+						IteratorTripleID it = expected.searchAll();
+						long index = 0;
+						while (it.hasNext()) {
+							TripleID triple = it.next();
+							if (index++ % 97 != 0) {
+								continue;
+							}
+							TripleID pattern = new TripleID(0, triple.getPredicate(), triple.getObject());
+							IteratorTripleID posIt = triples.search(pattern);
+							assertTrue(posIt instanceof BitmapTriplesIteratorPermutation);
+							assertEquals(pattern.toString(), searchAll(expected, pattern), searchAll(triples, pattern));
+						}
+					}
+				}
+			} finally {
+				PathUtils.deleteDirectory(root);
+			}
+		}
 	}
 
 	@Ignore("Hand tests")
@@ -0,0 +1,95 @@
+package com.the_qa_company.qendpoint.core.util;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleIDComparator;
+import com.the_qa_company.qendpoint.core.triples.impl.TripleOrderConvert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+public class PackedTripleListTest {
+	private static void assertSorted(long seed, int size, long maxX, long maxY, long maxZ, boolean parallel) {
+		Random rnd = new Random(seed);
+		PackedTripleList list = new PackedTripleList();
+		List<long[]> expected = new ArrayList<>();
+		for (int i = 0; i < size; i++) {
+			long x = maxX == 0 ? 0 : Math.floorMod(rnd.nextLong(), maxX);
+			long y = maxY == 0 ? 0 : Math.floorMod(rnd.nextLong(), maxY);
+			long z = maxZ == 0 ? 0 : Math.floorMod(rnd.nextLong(), maxZ);
+			list.add(x, y, z);
+			expected.add(new long[] { x, y, z });
+		}
+		expected.sort(
+				Comparator.<long[]>comparingLong(t -> t[0]).thenComparingLong(t -> t[1]).thenComparingLong(t -> t[2]));
+
+		list.sort(parallel);
+
+		assertEquals(size, list.size());
+		for (int i = 0; i < size; i++) {
+			long[] triple = expected.get(i);
+			assertEquals("x#" + i, triple[0], list.getX(i));
+			assertEquals("y#" + i, triple[1], list.getY(i));
+			assertEquals("z#" + i, triple[2], list.getZ(i));
+		}
+	}
+
+	@Test
+	public void sortTest() {
+		assertSorted(42, 0, 10, 10, 10, false);
+		assertSorted(42, 1, 10, 10, 10, false);
+		assertSorted(42, 40, 10, 10, 10, false);
+		assertSorted(42, 10_000, 100, 10, 1000, false);
+		assertSorted(43, 10_000, 1L << 40, 3, Long.MAX_VALUE, false);
+		assertSorted(44, 10_000, 1, 1, 1, false);
+		assertSorted(45, 10_000, 0, 5000, 0, false);
+		assertSorted(46, 100_000, 1L << 20, 1L << 9, 1L << 20, false);
+	}
+
+	@Test
+	public void parallelSortTest() {
+		assertSorted(42, 300_000, 3, 1L << 20, 1L << 12, true);
+		assertSorted(43, 300_000, 1L << 30, 1L << 30, 1L << 30, true);
+	}
+
+	@Test
+	public void tripleOrderTest() {
+		// pack the triples in the order of the comparator
+		for (TripleComponentOrder order : TripleComponentOrder.values()) {
+			if (order == TripleComponentOrder.Unknown) {
+				continue;
+			}
+			Random rnd = new Random(order.ordinal());
+			PackedTripleList list = new PackedTripleList();
+			List<TripleID> expected = new ArrayList<>();
+			for (int i = 0; i < 1000; i++) {
+				TripleID triple = new TripleID(rnd.nextInt(20) + 1, rnd.nextInt(20) + 1, rnd.nextInt(20) + 1);
+				expected.add(triple.clone());
+				TripleOrderConvert.swapComponentOrder(triple, TripleComponentOrder.SPO, order);
+				list.add(triple.getSubject(), triple.getPredicate(), triple.getObject());
+			}
+			expected.sort(TripleIDComparator.getComparator(order));
+			list.sort();
+
+			TripleID triple = new TripleID();
+			for (int i = 0; i < expected.size(); i++) {
+				triple.setAll(list.getX(i), list.getY(i), list.getZ(i));
+				TripleOrderConvert.swapComponentOrder(triple, order, TripleComponentOrder.SPO);
+				assertEquals(order + "#" + i, expected.get(i), triple);
+			}
+		}
+	}
+
+	@Test
+	public void negativeTest() {
+		PackedTripleList list = new PackedTripleList();
+		assertThrows(IllegalArgumentException.class, () -> list.add(1, -1, 1));
+		assertEquals(0, list.size());
+	}
+}
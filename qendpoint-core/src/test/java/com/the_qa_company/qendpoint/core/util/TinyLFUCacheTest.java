@@ -0,0 +1,109 @@
+package com.the_qa_company.qendpoint.core.util;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class TinyLFUCacheTest {
+	@Test
+	public void getPutTest() {
+		TinyLFUCache<Long, String> cache = new TinyLFUCache<>(1000, 10, 1, (k, v) -> 10);
+
+		assertNull(cache.get(1L));
+		assertTrue(cache.put(1L, "1"));
+		assertEquals("1", cache.get(1L));
+		assertEquals("2", cache.get(2L, Object::toString));
+		assertEquals("2", cache.get(2L));
+
+		assertEquals(2, cache.size());
+		assertEquals(20, cache.weight());
+		assertEquals(2, cache.getHitCount());
+		assertEquals(2, cache.getMissCount());
+
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.weight());
+		assertNull(cache.get(1L));
+	}
+
+	@Test
+	public void budgetTest() {
+		TinyLFUCache<Long, String> cache = new TinyLFUCache<>(1000, 10, 4, (k, v) -> 4 + v.length());
+
+		// bigger than a segment
+		assertFalse(cache.put(-1L, "x".repeat(300)));
+		cache.clear();
+
+		for (long i = 0; i < 10_000; i++) {
+			// access twice to pass the admission
+			cache.get(i);
+			cache.get(i, Object::toString);
+		}
+
+		assertTrue(cache.weight() <= 1000);
+		assertTrue(cache.getEvictionCount() > 0);
+	}
+
+	@Test
+	public void admissionTest() {
+		TinyLFUCache<Long, String> cache = new TinyLFUCache<>(100 * 16, 16, 1, (k, v) -> 16);
+
+		// hot entries
+		for (int round = 0; round < 5; round++) {
+			for (long i = 0; i < 50; i++) {
+				cache.get(i, Object::toString);
+			}
+		}
+
+		// scan of cold entries seen only once, mixed with the hot entries
+		for (long i = 1000; i < 100_000; i++) {
+			cache.get(i, Object::toString);
+			cache.get(i % 50, Object::toString);
+		}
+
+		assertTrue(cache.getRejectionCount() > 0);
+		for (long i = 0; i < 50; i++) {
+			assertNotNull("hot entry " + i + " evicted", cache.get(i));
+		}
+	}
+
+	@Test
+	public void concurrentTest() throws InterruptedException {
+		TinyLFUCache<Long, String> cache = new TinyLFUCache<>(10_000, 16, 8, (k, v) -> 16 + v.length());
+
+		AtomicReference<Throwable> error = new AtomicReference<>();
+		List<Thread> threads = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			int seed = t;
+			Thread thread = new Thread(() -> {
+				try {
+					for (long i = 0; i < 50_000; i++) {
+						long key = (i * (seed + 1)) % 2_000;
+						assertEquals(Long.toString(key), cache.get(key, Object::toString));
+					}
+				} catch (Throwable e) {
+					error.set(e);
+				}
+			});
+			threads.add(thread);
+			thread.start();
+		}
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		if (error.get() != null) {
+			throw new AssertionError(error.get());
+		}
+
+		assertEquals(8 * 50_000, cache.getHitCount() + cache.getMissCount());
+		assertTrue(cache.weight() <= 10_000);
+	}
+}
@@ -0,0 +1,68 @@
+package com.the_qa_company.qendpoint.core.util.io;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assume.assumeTrue;
+
+public class MappedSegmentTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	@Test
+	public void capabilityTest() {
+		if (Runtime.version().feature() < 22) {
+			assertFalse(MappedSegment.isSupported());
+		}
+	}
+
+	@Test
+	public void readWriteTest() throws IOException {
+		assumeTrue("memory segments not supported", MappedSegment.isSupported());
+
+		Path file = tempDir.newFile().toPath();
+		byte[] data = new byte[1024];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		Files.write(file, data);
+
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+			try (MappedSegment le = IOUtil.mapSegment(file.toString(), ch, FileChannel.MapMode.READ_WRITE, 8, 512,
+					ByteOrder.LITTLE_ENDIAN);
+					MappedSegment be = IOUtil.mapSegment(file.toString(), ch, FileChannel.MapMode.READ_ONLY, 8, 512,
+							ByteOrder.BIG_ENDIAN)) {
+				assertEquals(512, le.size());
+				assertEquals(data[9], le.get(1));
+				assertEquals(ByteBuffer.wrap(data, 16, 8).order(ByteOrder.LITTLE_ENDIAN).getLong(), le.getLong(8));
+				assertEquals(ByteBuffer.wrap(data, 16, 8).order(ByteOrder.BIG_ENDIAN).getLong(), be.getLong(8));
+
+				le.putLong(0, 0x0102030405060708L);
+				assertEquals(0x0807060504030201L, be.getLong(0));
+
+				byte[] read = new byte[16];
+				be.get(32, read, 0, read.length);
+				byte[] expected = new byte[16];
+				System.arraycopy(data, 40, expected, 0, expected.length);
+				assertArrayEquals(expected, read);
+
+				le.fill(32, 16, (byte) 0);
+				be.get(32, read, 0, read.length);
+				assertArrayEquals(new byte[16], read);
+				le.force();
+			}
+		}
+	}
+}
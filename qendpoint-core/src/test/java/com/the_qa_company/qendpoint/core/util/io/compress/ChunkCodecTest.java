@@ -0,0 +1,60 @@
+package com.the_qa_company.qendpoint.core.util.io.compress;
+
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.core.util.io.CloseSuppressPath;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ChunkCodecTest {
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<ChunkCodec> params() {
+		return Arrays.asList(ChunkCodec.values());
+	}
+
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	@Parameterized.Parameter
+	public ChunkCodec codec;
+
+	@Test
+	public void titleTest() {
+		assertSame(codec, ChunkCodec.of(codec.getTitle()));
+		assertSame(codec, ChunkCodec.of(codec.getTitle().toUpperCase()));
+	}
+
+	@Test
+	public void writeReadTest() throws IOException {
+		try (CloseSuppressPath path = CloseSuppressPath.of(tempDir.newFile().toPath())) {
+			int count = 100_000;
+			try (CompressTripleWriter w = new CompressTripleWriter(codec.openOutputStream(path, 1024))) {
+				for (int i = 1; i <= count; i++) {
+					w.appendTriple(new TripleID(i, i % 17 + 1, i * 3L));
+				}
+				w.writeCRC();
+			}
+
+			// the codec is read from the file
+			try (CompressTripleReader r = new CompressTripleReader(ChunkCodec.openInputStream(path, 1024))) {
+				for (int i = 1; i <= count; i++) {
+					assertTrue(r.hasNext());
+					assertEquals(new TripleID(i, i % 17 + 1, i * 3L), r.next());
+				}
+				assertFalse(r.hasNext());
+			}
+		}
+	}
+}
@@ -39,6 +39,7 @@ public class CompiledSailOptions {
 	private String hdtSpec;
 	private int timeoutUpdate;
 	private int timeoutQuery;
+	private int queryCacheSize;
 	private Map<String, String> hdtOptions;
 
 	public CompiledSailOptions() {
@@ -58,6 +59,7 @@ public class CompiledSailOptions {
 			hdtSpec = debugOptions.hdtSpec;
 			timeoutUpdate = debugOptions.timeoutUpdate;
 			timeoutQuery = debugOptions.timeoutQuery;
+			queryCacheSize = debugOptions.queryCacheSize;
 			hdtOptions = debugOptions.hdtOptions;
 			dumpLocation = debugOptions.dumpLocation;
 			return;
@@ -77,6 +79,7 @@ public class CompiledSailOptions {
 		hdtSpec = "";
 		timeoutUpdate = SailCompilerSchema.TIMEOUT_UPDATE.getHandler().defaultValue();
 		timeoutQuery = SailCompilerSchema.TIMEOUT_QUERY.getHandler().defaultValue();
+		queryCacheSize = SailCompilerSchema.QUERY_CACHE_SIZE.getHandler().defaultValue();
 		hdtOptions = Map.of();
 		dumpLocation = Path.of("dump");
 	}
@@ -99,6 +102,7 @@ public class CompiledSailOptions {
 		hdtSpec = reader.searchPropertyValue(SailCompilerSchema.MAIN, SailCompilerSchema.HDT_SPEC_PROPERTY);
 		timeoutUpdate = reader.searchPropertyValue(SailCompilerSchema.MAIN, SailCompilerSchema.TIMEOUT_UPDATE);
 		timeoutQuery = reader.searchPropertyValue(SailCompilerSchema.MAIN, SailCompilerSchema.TIMEOUT_QUERY);
+		queryCacheSize = reader.searchPropertyValue(SailCompilerSchema.MAIN, SailCompilerSchema.QUERY_CACHE_SIZE);
 		hdtOptions = reader.search(SailCompilerSchema.MAIN, SailCompilerSchema.GEN_HDT_OPTION_PARAM).stream()
 				.map(SailCompiler::asResource).collect(
 						Collectors.toMap(
@@ -297,6 +301,14 @@ public class CompiledSailOptions {
 		this.timeoutQuery = timeoutQuery;
 	}
 
+	public int getQueryCacheSize() {
+		return queryCacheSize;
+	}
+
+	public void setQueryCacheSize(int queryCacheSize) {
+		this.queryCacheSize = queryCacheSize;
+	}
+
 	public Map<String, String> getHdtOptions() {
 		return hdtOptions;
 	}
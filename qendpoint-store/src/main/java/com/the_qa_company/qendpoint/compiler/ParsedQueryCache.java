@@ -0,0 +1,100 @@
+package com.the_qa_company.qendpoint.compiler;
+
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.parser.ParsedBooleanQuery;
+import org.eclipse.rdf4j.query.parser.ParsedDescribeQuery;
+import org.eclipse.rdf4j.query.parser.ParsedGraphQuery;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.ParsedTupleQuery;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.function.Function;
+
+/**
+ * LRU cache of the parsed queries, the sails are modifying the query models
+ * during the evaluation, so only copies of the cached queries are returned.
+ */
+public class ParsedQueryCache {
+	/**
+	 * copy a parsed query, the tuple expression is cloned
+	 *
+	 * @param query the query
+	 * @return copy
+	 * @throws IllegalArgumentException if the query type isn't supported
+	 */
+	public static ParsedQuery copy(ParsedQuery query) {
+		String source = query.getSourceString();
+		TupleExpr expr = query.getTupleExpr().clone();
+		ParsedQuery copy;
+		if (query instanceof ParsedTupleQuery) {
+			copy = new ParsedTupleQuery(source, expr);
+		} else if (query instanceof ParsedBooleanQuery) {
+			copy = new ParsedBooleanQuery(source, expr);
+		} else if (query instanceof ParsedDescribeQuery describe) {
+			copy = new ParsedDescribeQuery(source, expr, describe.getQueryNamespaces());
+		} else if (query instanceof ParsedGraphQuery graph) {
+			copy = new ParsedGraphQuery(source, expr, graph.getQueryNamespaces());
+		} else {
+			throw new IllegalArgumentException("Unsupported query type: " + query.getClass());
+		}
+		copy.setDataset(query.getDataset());
+		return copy;
+	}
+
+	private final LinkedHashMap<String, ParsedQuery> queries = new LinkedHashMap<>(16, 0.75f, true);
+	private long generation;
+
+	/**
+	 * get a parsed query from the cache or parse it
+	 *
+	 * @param query   the query text, used as key
+	 * @param maxSize the max number of queries in the cache, 0 to disable it
+	 * @param parser  the parser to use if the query isn't in the cache
+	 * @return copy of the parsed query
+	 */
+	public ParsedQuery get(String query, int maxSize, Function<String, ParsedQuery> parser) {
+		if (maxSize <= 0) {
+			return parser.apply(query);
+		}
+		ParsedQuery template;
+		long parseGeneration;
+		synchronized (this) {
+			template = queries.get(query);
+			parseGeneration = generation;
+		}
+		if (template == null) {
+			// parse outside the lock, 2 threads can parse the same query, but
+			// they'll create the same template
+			template = parser.apply(query);
+			synchronized (this) {
+				if (parseGeneration != generation) {
+					// cleared during the parsing, the template can be outdated
+					return template;
+				}
+				queries.put(query, template);
+				Iterator<ParsedQuery> it = queries.values().iterator();
+				while (queries.size() > maxSize) {
+					it.next();
+					it.remove();
+				}
+			}
+		}
+		return copy(template);
+	}
+
+	/**
+	 * @return the number of queries in the cache
+	 */
+	public synchronized int size() {
+		return queries.size();
+	}
+
+	/**
+	 * remove all the queries of the cache
+	 */
+	public synchronized void clear() {
+		queries.clear();
+		generation++;
+	}
+}
@@ -252,6 +252,11 @@ public class SailCompilerSchema {
 	 */
 	public static final Property<Integer, NumberTypeValueHandler> TIMEOUT_QUERY = propertyInt("timeoutQuery",
 			"the maximum time for non-update query, in second", 300, 0);
+	/**
+	 * mdlc:queryCacheSize
+	 */
+	public static final Property<Integer, NumberTypeValueHandler> QUERY_CACHE_SIZE = propertyInt("queryCacheSize",
+			"the number of parsed queries kept by the endpoint, 0 to disable the cache", 500, 0);
 
 	/**
 	 * mdlc:hdtPassMode property
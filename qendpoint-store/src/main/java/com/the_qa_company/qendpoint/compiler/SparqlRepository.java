@@ -8,6 +8,8 @@ import com.the_qa_company.qendpoint.store.exception.EndpointStoreInputException;
 import com.the_qa_company.qendpoint.utils.FormatUtils;
 import com.the_qa_company.qendpoint.utils.RDFStreamUtils;
 import com.the_qa_company.qendpoint.utils.rdf.*;
+import com.the_qa_company.qendpoint.utils.rdf.writer.HDTResultWriters;
+import com.the_qa_company.qendpoint.utils.rdf.writer.HDTSPARQLResultsJSONWriter;
 import com.the_qa_company.qendpoint.utils.sail.SourceSailConnectionWrapper;
 import jakarta.json.Json;
 import jakarta.json.stream.JsonGenerator;
@@ -28,8 +30,11 @@ import org.eclipse.rdf4j.query.parser.sparql.SPARQLQueries;
 import org.eclipse.rdf4j.query.resultio.*;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
+import org.eclipse.rdf4j.repository.sail.SailBooleanQuery;
+import org.eclipse.rdf4j.repository.sail.SailGraphQuery;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
 import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.repository.sail.SailTupleQuery;
 import org.eclipse.rdf4j.rio.*;
 import org.eclipse.rdf4j.rio.helpers.AbstractRDFHandler;
 import org.eclipse.rdf4j.rio.helpers.BasicParserSettings;
@@ -59,6 +64,7 @@ public class SparqlRepository {
 	private final CompiledSail compiledSail;
 	private final SailRepository repository;
 	private final Map<String, Namespace> defaultPrefixes = new TreeMap<>();
+	private final ParsedQueryCache queryCache = new ParsedQueryCache();
 
 	public SparqlRepository(CompiledSail compiledSail) {
 		this.compiledSail = Objects.requireNonNull(compiledSail, "compiledSail can't be null!");
@@ -411,7 +417,7 @@ public class SparqlRepository {
 				}
 			}
 		}
-		return (ClosableResult<GraphQueryResult>) res.getResult();
+		return (ClosableResult<GraphQueryResult>) res;
 	}
 
 	private static EndpointStoreConnection getTimeoutEndpointConnection(RepositoryConnection start) {
@@ -589,19 +595,23 @@ public class SparqlRepository {
 					sparqlQuery = sparqlQuery.substring(start);
 				}
 			}
-			sparqlQuery = applyPrefixes(sparqlQuery);
-			sparqlQuery = sparqlQuery.replaceAll("MINUS \\{(.*\\n)+.+}\\n\\s+}", "");
+			// the parsed query is reused by the queries with the same text
+			ParsedQuery parsedQuery = queryCache.get(sparqlQuery, getOptions().getQueryCacheSize(), this::parseQuery);
+			sparqlQuery = parsedQuery.getSourceString();
 
 			logger.info("Running given sparql query: {}", sparqlQuery);
 
-			ParsedQuery parsedQuery = QueryParserUtil.parseQuery(QueryLanguage.SPARQL, sparqlQuery, null);
-
 			if (compiledSail.getOptions().isDebugShowPlans()) {
 				System.out.println(parsedQuery);
 			}
 
-			if (parsedQuery instanceof ParsedTupleQuery) {
-				TupleQuery query = connection.prepareTupleQuery(sparqlQuery);
+			if (parsedQuery instanceof ParsedTupleQuery tupleQuery) {
+				TupleQuery query;
+				if (connection instanceof SailRepositoryConnection sailRepoConn) {
+					query = new SailTupleQuery(tupleQuery, sailRepoConn);
+				} else {
+					query = connection.prepareTupleQuery(sparqlQuery);
+				}
 				if (epCo != null) {
 					epCo.setConnectionTimeout(rTimeout * 1_000L);
 				} else {
@@ -613,15 +623,15 @@ public class SparqlRepository {
 						QueryResultFormat format = FormatUtils.getResultWriterFormat(acceptHeader).orElseThrow(
 								() -> new EndpointStoreInputException("accept formats not supported: " + acceptHeader));
 						mimeSetter.accept(format.getDefaultMIMEType());
-						TupleQueryResultHandler writer;
-						if (TupleQueryResultFormat.JSON.equals(format)) {
-							writer = new QEPSPARQLResultsJSONWriter(out);
-						} else {
+						// write the HDT values from their dictionary bytes if
+						// the format is supported
+						TupleQueryResultHandler writer = HDTResultWriters.createTupleWriter(format, out);
+						if (writer == null) {
 							writer = TupleQueryResultWriterRegistry.getInstance().get(format).orElseThrow()
 									.getWriter(out);
 						}
 
-						if (writer instanceof QEPSPARQLResultsJSONWriter json
+						if (writer instanceof HDTSPARQLResultsJSONWriter json
 								&& epConn.hasConfig(EndpointStore.QUERY_CONFIG_FETCH_QUERY_PLAN)) {
 							if (hasLuceneSail()) {
 								json.setHeaderWriter(jg -> writeExplanationError(jg,
@@ -658,8 +668,13 @@ public class SparqlRepository {
 						System.out.println(query.explain(Explanation.Level.Timed));
 					}
 				}
-			} else if (parsedQuery instanceof ParsedBooleanQuery) {
-				BooleanQuery query = connection.prepareBooleanQuery(sparqlQuery);
+			} else if (parsedQuery instanceof ParsedBooleanQuery booleanQuery) {
+				BooleanQuery query;
+				if (connection instanceof SailRepositoryConnection sailRepoConn) {
+					query = new ParsedSailBooleanQuery(booleanQuery, sailRepoConn);
+				} else {
+					query = connection.prepareBooleanQuery(sparqlQuery);
+				}
 				try {
 					if (epCo != null) {
 						epCo.setConnectionTimeout(rTimeout * 1_000L);
@@ -703,8 +718,13 @@ public class SparqlRepository {
 					q.printStackTrace();
 					throw new RuntimeException(q);
 				}
-			} else if (parsedQuery instanceof ParsedGraphQuery) {
-				GraphQuery query = connection.prepareGraphQuery(sparqlQuery);
+			} else if (parsedQuery instanceof ParsedGraphQuery graphQuery) {
+				GraphQuery query;
+				if (connection instanceof SailRepositoryConnection sailRepoConn) {
+					query = new ParsedSailGraphQuery(graphQuery, sailRepoConn);
+				} else {
+					query = connection.prepareGraphQuery(sparqlQuery);
+				}
 				if (epCo != null) {
 					epCo.setConnectionTimeout(rTimeout * 1_000L);
 				} else {
@@ -715,7 +735,10 @@ public class SparqlRepository {
 						RDFFormat format = FormatUtils.getRDFWriterFormat(acceptHeader).orElseThrow(
 								() -> new EndpointStoreInputException("accept formats not supported: " + acceptHeader));
 						mimeSetter.accept(format.getDefaultMIMEType());
-						RDFHandler handler = Rio.createWriter(format, out);
+						RDFHandler handler = HDTResultWriters.createRDFWriter(format, out);
+						if (handler == null) {
+							handler = Rio.createWriter(format, out);
+						}
 						if (compiledSail.getOptions().isDebugShowCount()) {
 							handler = new RDFHandlerCounter(handler);
 						}
@@ -898,6 +921,8 @@ public class SparqlRepository {
 	 */
 	public void clearDefaultPrefixes() {
 		defaultPrefixes.clear();
+		// the cached queries are using the previous prefixes
+		queryCache.clear();
 	}
 
 	/**
@@ -909,6 +934,14 @@ public class SparqlRepository {
 
 	private void syncPrefix() {
 		// sync prefixes, will be important when the prefix PR will be available
+		queryCache.clear();
+	}
+
+	/**
+	 * @return the cache of the parsed queries
+	 */
+	public ParsedQueryCache getQueryCache() {
+		return queryCache;
 	}
 
 	/**
@@ -954,6 +987,12 @@ public class SparqlRepository {
 						"", SPARQLQueries.getPrefixClauses(defaultPrefixes.values())));
 	}
 
+	private ParsedQuery parseQuery(String sparqlQuery) {
+		sparqlQuery = applyPrefixes(sparqlQuery);
+		sparqlQuery = sparqlQuery.replaceAll("MINUS \\{(.*\\n)+.+}\\n\\s+}", "");
+		return QueryParserUtil.parseQuery(QueryLanguage.SPARQL, sparqlQuery, null);
+	}
+
 	private String applyPrefixes(String sparqlQuery) {
 		// temp fix
 		// https://github.com/eclipse/rdf4j/discussions/3980#discussioncomment-3001772
@@ -976,4 +1015,22 @@ public class SparqlRepository {
 
 		return sparqlQuery;
 	}
+
+	/**
+	 * boolean query using an already parsed query
+	 */
+	private static class ParsedSailBooleanQuery extends SailBooleanQuery {
+		ParsedSailBooleanQuery(ParsedBooleanQuery query, SailRepositoryConnection connection) {
+			super(query, connection);
+		}
+	}
+
+	/**
+	 * graph query using an already parsed query
+	 */
+	private static class ParsedSailGraphQuery extends SailGraphQuery {
+		ParsedSailGraphQuery(ParsedGraphQuery query, SailRepositoryConnection connection) {
+			super(query, connection);
+		}
+	}
 }
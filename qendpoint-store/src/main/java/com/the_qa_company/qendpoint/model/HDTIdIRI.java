@@ -0,0 +1,154 @@
+package com.the_qa_company.qendpoint.model;
+
+import com.the_qa_company.qendpoint.store.HDTConverter;
+import org.eclipse.rdf4j.model.base.AbstractIRI;
+
+import java.io.Serial;
+
+/**
+ * IRI describing an HDT id inside the delta stores, of the form
+ * {@code http://hdt.org/SO123}. The id and the position are kept to avoid
+ * parsing the IRI when reading it back.
+ *
+ * @see HDTConverter#subjectIdToIRI(long)
+ * @see HDTConverter#predicateIdToIRI(long)
+ * @see HDTConverter#objectIdToIRI(long)
+ */
+public class HDTIdIRI extends AbstractIRI {
+	@Serial
+	private static final long serialVersionUID = 5128394750321789514L;
+
+	/**
+	 * get the prefix of a position after the {@link HDTConverter#HDT_URI}
+	 *
+	 * @param position position, one of the {@link SimpleIRIHDT} positions
+	 * @return prefix
+	 */
+	public static String getPositionPrefix(int position) {
+		return switch (position) {
+		case SimpleIRIHDT.SHARED_POS -> "SO";
+		case SimpleIRIHDT.SUBJECT_POS -> "S";
+		case SimpleIRIHDT.PREDICATE_POS -> "P";
+		case SimpleIRIHDT.OBJECT_POS -> "O";
+		default -> throw new IllegalArgumentException("bad position: " + position);
+		};
+	}
+
+	/**
+	 * parse an HDT id IRI
+	 *
+	 * @param iri iri string
+	 * @return the IRI, null if the string isn't an HDT id IRI
+	 */
+	public static HDTIdIRI parse(String iri) {
+		if (!iri.startsWith(HDTConverter.HDT_URI)) {
+			return null;
+		}
+		int start = HDTConverter.HDT_URI.length();
+		int position;
+		if (iri.startsWith("SO", start)) {
+			position = SimpleIRIHDT.SHARED_POS;
+			start += 2;
+		} else if (iri.startsWith("S", start)) {
+			position = SimpleIRIHDT.SUBJECT_POS;
+			start++;
+		} else if (iri.startsWith("P", start)) {
+			position = SimpleIRIHDT.PREDICATE_POS;
+			start++;
+		} else if (iri.startsWith("O", start)) {
+			position = SimpleIRIHDT.OBJECT_POS;
+			start++;
+		} else {
+			return null;
+		}
+		if (start == iri.length()) {
+			return null;
+		}
+		long id = 0;
+		for (int i = start; i < iri.length(); i++) {
+			char c = iri.charAt(i);
+			if (c < '0' || c > '9' || id > (Long.MAX_VALUE - 9) / 10) {
+				return null;
+			}
+			id = id * 10 + (c - '0');
+		}
+		if (id <= 0) {
+			return null;
+		}
+		return new HDTIdIRI(position, id, iri);
+	}
+
+	private final int position;
+	private final long id;
+	private String iriString;
+
+	/**
+	 * create an HDT id IRI
+	 *
+	 * @param position position of the id, one of the {@link SimpleIRIHDT}
+	 *                 positions
+	 * @param id       HDT id
+	 */
+	public HDTIdIRI(int position, long id) {
+		this(position, id, null);
+	}
+
+	private HDTIdIRI(int position, long id, String iriString) {
+		if (id <= 0) {
+			throw new IllegalArgumentException("Bad id: " + id);
+		}
+		// check the position
+		getPositionPrefix(position);
+		this.position = position;
+		this.id = id;
+		this.iriString = iriString;
+	}
+
+	/**
+	 * @return the HDT id
+	 */
+	public long getId() {
+		return id;
+	}
+
+	/**
+	 * @return the position of the id, one of the {@link SimpleIRIHDT} positions
+	 */
+	public int getPosition() {
+		return position;
+	}
+
+	@Override
+	public String stringValue() {
+		if (iriString == null) {
+			iriString = HDTConverter.HDT_URI + getLocalName();
+		}
+		return iriString;
+	}
+
+	@Override
+	public String getNamespace() {
+		return HDTConverter.HDT_URI;
+	}
+
+	@Override
+	public String getLocalName() {
+		return getPositionPrefix(position) + id;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (o instanceof HDTIdIRI other) {
+			return id == other.id && position == other.position;
+		}
+		return super.equals(o);
+	}
+
+	@Override
+	public int hashCode() {
+		return stringValue().hashCode();
+	}
+}
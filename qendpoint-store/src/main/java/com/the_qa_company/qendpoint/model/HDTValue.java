@@ -1,5 +1,7 @@
 package com.the_qa_company.qendpoint.model;
 
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+
 /**
  * Class to describe HDT value
  *
@@ -19,4 +21,15 @@ public interface HDTValue {
 	 * @param delegate boolean
 	 */
 	void setDelegate(boolean delegate);
+
+	/**
+	 * decode the string of this value in the HDT dictionary, the returned
+	 * sequence can be the buffer, so it is only valid until the next usage of
+	 * the buffer
+	 *
+	 * @param buffer buffer to decode the string
+	 * @return the dictionary string, null if this value isn't described by a
+	 *         dictionary id
+	 */
+	CharSequence getDictionaryString(ReplazableString buffer);
 }
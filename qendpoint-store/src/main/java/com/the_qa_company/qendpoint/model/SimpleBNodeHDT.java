@@ -1,9 +1,11 @@
 package com.the_qa_company.qendpoint.model;
 
+import com.the_qa_company.qendpoint.store.HDTConverter;
 import org.eclipse.rdf4j.model.BNode;
 import org.eclipse.rdf4j.model.base.AbstractBNode;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 public class SimpleBNodeHDT extends AbstractBNode implements HDTValue {
 	private final HDT hdt;
@@ -24,22 +26,25 @@ public class SimpleBNodeHDT extends AbstractBNode implements HDTValue {
 	@Override
 	public String getID() {
 		if (idValue == null) {
-			if (this.position == SimpleIRIHDT.SHARED_POS) {
-				idValue = hdt.getDictionary().idToString(this.id, TripleComponentRole.SUBJECT).toString();
-			} else if (this.position == SimpleIRIHDT.SUBJECT_POS) {
-				idValue = hdt.getDictionary().idToString(this.id, TripleComponentRole.SUBJECT).toString();
-			} else if (this.position == SimpleIRIHDT.OBJECT_POS) {
-				idValue = hdt.getDictionary().idToString(this.id, TripleComponentRole.OBJECT).toString();
-			} else if (this.position == SimpleIRIHDT.PREDICATE_POS) {
-				idValue = hdt.getDictionary().idToString(this.id, TripleComponentRole.PREDICATE).toString();
-			} else {
-				throw new HDTLoadException("bad position: " + position);
-			}
-			idValue = idValue.substring(2);
+			// copied out of the decode buffer of the thread
+			idValue = getDictionaryString(HDTConverter.getDecodeBuffer()).toString().substring(2);
 		}
 		return idValue;
 	}
 
+	@Override
+	public CharSequence getDictionaryString(ReplazableString buffer) {
+		if (this.position == SimpleIRIHDT.SHARED_POS || this.position == SimpleIRIHDT.SUBJECT_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.SUBJECT, buffer);
+		} else if (this.position == SimpleIRIHDT.OBJECT_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.OBJECT, buffer);
+		} else if (this.position == SimpleIRIHDT.PREDICATE_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.PREDICATE, buffer);
+		} else {
+			throw new HDTLoadException("bad position: " + position);
+		}
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (o == null)
@@ -1,11 +1,13 @@
 package com.the_qa_company.qendpoint.model;
 
+import com.the_qa_company.qendpoint.store.HDTConverter;
 import com.the_qa_company.qendpoint.core.enums.DictionarySectionRole;
 import com.the_qa_company.qendpoint.store.exception.EndpointStoreException;
 import org.eclipse.rdf4j.model.base.AbstractIRI;
 import org.eclipse.rdf4j.model.util.URIUtil;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 import java.io.Serial;
 
@@ -75,16 +77,8 @@ public class SimpleIRIHDT extends AbstractIRI implements HDTValue {
 		if (this.iriString != null) {
 			return this.iriString;
 		} else {
-			CharSequence charSequence;
-			if (this.postion == SHARED_POS || this.postion == SUBJECT_POS) {
-				charSequence = hdt.getDictionary().idToString(this.id, TripleComponentRole.SUBJECT);
-			} else if (this.postion == OBJECT_POS) {
-				charSequence = hdt.getDictionary().idToString(this.id, TripleComponentRole.OBJECT);
-			} else if (this.postion == PREDICATE_POS) {
-				charSequence = hdt.getDictionary().idToString(this.id, TripleComponentRole.PREDICATE);
-			} else {
-				throw new EndpointStoreException("bad postion value: " + postion);
-			}
+			// copied out of the decode buffer of the thread
+			CharSequence charSequence = getDictionaryString(HDTConverter.getDecodeBuffer());
 
 			if (charSequence == null) {
 				throw new EndpointStoreException("Can't find HDT ID: " + id);
@@ -94,6 +88,22 @@ public class SimpleIRIHDT extends AbstractIRI implements HDTValue {
 		}
 	}
 
+	@Override
+	public CharSequence getDictionaryString(ReplazableString buffer) {
+		if (this.id == -1) {
+			return null;
+		}
+		if (this.postion == SHARED_POS || this.postion == SUBJECT_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.SUBJECT, buffer);
+		} else if (this.postion == OBJECT_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.OBJECT, buffer);
+		} else if (this.postion == PREDICATE_POS) {
+			return hdt.getDictionary().idToString(this.id, TripleComponentRole.PREDICATE, buffer);
+		} else {
+			throw new EndpointStoreException("bad postion value: " + postion);
+		}
+	}
+
 	public String getNamespace() {
 		if (iriString == null) {
 			iriString = stringValue();
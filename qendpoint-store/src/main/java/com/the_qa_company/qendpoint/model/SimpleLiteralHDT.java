@@ -9,7 +9,9 @@
  */
 package com.the_qa_company.qendpoint.model;
 
+import com.the_qa_company.qendpoint.store.HDTConverter;
 import com.the_qa_company.qendpoint.core.util.LiteralsUtils;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Literal;
 import org.eclipse.rdf4j.model.ValueFactory;
@@ -167,7 +169,8 @@ public class SimpleLiteralHDT implements Literal, HDTValue {
 	protected void parseLiteral() {
 		if (label == null) {
 			try {
-				CharSequence literal = hdt.getDictionary().idToString(hdtID, TripleComponentRole.OBJECT);
+				CharSequence literal = hdt.getDictionary().idToString(hdtID, TripleComponentRole.OBJECT,
+						HDTConverter.getDecodeBuffer());
 				if (literal.length() > 0 && literal.charAt(0) == '"') {
 					int endLabelIdx = lastIndexOfQuote(literal);
 					if (endLabelIdx != -1) {
@@ -285,6 +288,15 @@ public class SimpleLiteralHDT implements Literal, HDTValue {
 		return hdtID;
 	}
 
+	public HDT getHdt() {
+		return hdt;
+	}
+
+	@Override
+	public CharSequence getDictionaryString(ReplazableString buffer) {
+		return hdt.getDictionary().idToString(hdtID, TripleComponentRole.OBJECT, buffer);
+	}
+
 	@Override
 	public String stringValue() {
 		return getLabel();
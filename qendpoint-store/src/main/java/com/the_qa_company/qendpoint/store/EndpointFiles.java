@@ -1,7 +1,9 @@
 package com.the_qa_company.qendpoint.store;
 
 import com.the_qa_company.qendpoint.compiler.ParsedStringValue;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
 import com.the_qa_company.qendpoint.core.hdt.HDTVersion;
+import com.the_qa_company.qendpoint.core.triples.impl.BitmapTriples;
 
 import java.io.File;
 import java.nio.file.Path;
@@ -198,6 +200,22 @@ public class EndpointFiles {
 		return Path.of(getHDTIndexV11());
 	}
 
+	/**
+	 * @return the join statistics file of the HDT
+	 */
+	@ParsedStringValue("hdt.statistics")
+	public String getHDTStatistics() {
+		return locationHdt + hdtIndexName + ".stats";
+	}
+
+	/**
+	 * @return the numeric value index file of the HDT
+	 */
+	@ParsedStringValue("hdt.values")
+	public String getHDTValueIndex() {
+		return locationHdt + hdtIndexName + ".values";
+	}
+
 	/**
 	 * @return the new HDT file
 	 */
@@ -206,6 +224,22 @@ public class EndpointFiles {
 		return locationHdt + hdtIndexName + ".new.hdt";
 	}
 
+	/**
+	 * @return the join statistics file of the new HDT
+	 */
+	@ParsedStringValue("hdt.new.statistics")
+	public String getHDTNewStatistics() {
+		return getHDTNewIndex() + ".stats";
+	}
+
+	/**
+	 * @return the numeric value index file of the new HDT
+	 */
+	@ParsedStringValue("hdt.new.values")
+	public String getHDTNewValueIndex() {
+		return getHDTNewIndex() + ".values";
+	}
+
 	/**
 	 * @return the diff HDT file
 	 */
@@ -222,6 +256,22 @@ public class EndpointFiles {
 		return locationHdt + hdtIndexName + ".new.hdt" + HDTVersion.get_index_suffix("-");
 	}
 
+	/**
+	 * @param order the order of the index
+	 * @return the additional order index file of the HDT
+	 */
+	public String getHDTIndexPermutation(TripleComponentOrder order) {
+		return BitmapTriples.getPermutationIndexFile(getHDTIndex(), order).toString();
+	}
+
+	/**
+	 * @param order the order of the index
+	 * @return the additional order index file of the new HDT
+	 */
+	public String getHDTNewIndexPermutation(TripleComponentOrder order) {
+		return BitmapTriples.getPermutationIndexFile(getHDTNewIndex(), order).toString();
+	}
+
 	/**
 	 * @return the delete triple
 	 *         {@link com.the_qa_company.qendpoint.utils.BitArrayDisk} file
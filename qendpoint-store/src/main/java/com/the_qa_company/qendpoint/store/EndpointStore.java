@@ -11,11 +11,14 @@ import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
 import com.the_qa_company.qendpoint.core.triples.IteratorTripleString;
 import com.the_qa_company.qendpoint.core.triples.TripleID;
 import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.core.triples.TriplesStatistics;
 import com.the_qa_company.qendpoint.core.util.StopWatch;
 import com.the_qa_company.qendpoint.core.util.io.Closer;
 import com.the_qa_company.qendpoint.model.EndpointStoreValueFactory;
 import com.the_qa_company.qendpoint.model.SimpleBNodeHDT;
 import com.the_qa_company.qendpoint.model.SimpleIRIHDT;
+import com.the_qa_company.qendpoint.store.delta.HDTDeltaStore;
+import com.the_qa_company.qendpoint.store.join.NumericValueIndex;
 import com.the_qa_company.qendpoint.utils.BitArrayDisk;
 import com.the_qa_company.qendpoint.utils.CloseSafeHDT;
 import com.the_qa_company.qendpoint.utils.OverrideHDTOptions;
@@ -77,6 +80,52 @@ public class EndpointStore extends AbstractNotifyingSail {
 	 * set the user locales
 	 */
 	public static final String QUERY_CONFIG_USER_LOCALES = "user_locales";
+	/**
+	 * disable the evaluation of the basic graph patterns with the HDT ids
+	 */
+	public static final String QUERY_CONFIG_NO_ID_JOIN = "no_id_join";
+	/**
+	 * disable the merge join of the star patterns during the HDT ids evaluation
+	 */
+	public static final String QUERY_CONFIG_NO_MERGE_JOIN = "no_merge_join";
+	/**
+	 * disable the ordering of the basic graph patterns with the join statistics
+	 * of the HDT
+	 */
+	public static final String QUERY_CONFIG_NO_STATISTICS = "no_statistics";
+	/**
+	 * disable the usage of the numeric value index in the filters and in the
+	 * ORDER BY
+	 */
+	public static final String QUERY_CONFIG_NO_VALUE_INDEX = "no_value_index";
+	/**
+	 * disable the evaluation of the datatype and language filters with the
+	 * object id ranges of the dictionary sections
+	 */
+	public static final String QUERY_CONFIG_NO_RANGE_FILTER = "no_range_filter";
+	/**
+	 * option key to set the implementation of the delta stores, the values are
+	 * {@link #DELTA_STORE_NATIVE} (default) or {@link #DELTA_STORE_HDT_ID}
+	 */
+	public static final String OPTION_DELTA_STORE = "qendpoint.store.delta";
+	/**
+	 * delta store using a rdf4j native store
+	 */
+	public static final String DELTA_STORE_NATIVE = "native";
+	/**
+	 * delta store keyed by the HDT ids, see {@link HDTDeltaStore}
+	 */
+	public static final String DELTA_STORE_HDT_ID = "hdtid";
+	/**
+	 * option key to compute the join statistics of the HDT, see
+	 * {@link TriplesStatistics}, true by default
+	 */
+	public static final String OPTION_STATISTICS = "qendpoint.store.statistics";
+	/**
+	 * option key to build the index of the numeric and date values of the HDT,
+	 * see {@link NumericValueIndex}, false by default
+	 */
+	public static final String OPTION_VALUE_INDEX = "qendpoint.store.valueindex";
 	private static final AtomicLong ENDPOINT_DEBUG_ID_GEN = new AtomicLong();
 	private static final Logger logger = LoggerFactory.getLogger(EndpointStore.class);
 	private final long debugId;
@@ -88,6 +137,10 @@ public class EndpointStore extends AbstractNotifyingSail {
 
 	// some cached information about the HDT store
 	private HDTProps hdtProps;
+	// join statistics of the HDT, null if disabled
+	private TriplesStatistics statistics;
+	// numeric value index of the HDT, null if disabled
+	private NumericValueIndex valueIndex;
 
 	// stores to store the delta
 	public AbstractNotifyingSail nativeStoreA;
@@ -247,7 +300,12 @@ public class EndpointStore extends AbstractNotifyingSail {
 	 * @return store
 	 */
 	private AbstractNotifyingSail createStore(File dataDir) {
-		return new NativeStore(dataDir, "spoc,posc,cosp");
+		String type = spec.get(OPTION_DELTA_STORE, DELTA_STORE_NATIVE);
+		return switch (type) {
+		case DELTA_STORE_NATIVE -> new NativeStore(dataDir, "spoc,posc,cosp");
+		case DELTA_STORE_HDT_ID -> new HDTDeltaStore(dataDir);
+		default -> throw new IllegalArgumentException("Unknown delta store type: " + type);
+		};
 	}
 
 	public EndpointStore(Path location) throws IOException {
@@ -319,6 +377,23 @@ public class EndpointStore extends AbstractNotifyingSail {
 	}
 
 	public void resetHDT(HDT hdt, boolean closeOld) throws IOException {
+		resetHDT(hdt, closeOld, loadStatistics(hdt, Path.of(endpointFiles.getHDTStatistics())),
+				loadValueIndex(hdt, Path.of(endpointFiles.getHDTValueIndex())));
+	}
+
+	/**
+	 * replace the HDT of the store
+	 *
+	 * @param hdt        the new HDT
+	 * @param closeOld   close the previous HDT
+	 * @param statistics the join statistics of the new HDT, see
+	 *                   {@link #loadStatistics(HDT, Path)}
+	 * @param valueIndex the numeric value index of the new HDT, see
+	 *                   {@link #loadValueIndex(HDT, Path)}
+	 * @throws IOException if the HDT can't be used
+	 */
+	public void resetHDT(HDT hdt, boolean closeOld, TriplesStatistics statistics, NumericValueIndex valueIndex)
+			throws IOException {
 		if (closeOld && this.hdt != null) {
 			try {
 				this.hdt.close();
@@ -328,6 +403,8 @@ public class EndpointStore extends AbstractNotifyingSail {
 		}
 		this.setHdt(hdt);
 		this.setHdtProps(new HDTProps(hdt));
+		this.statistics = statistics;
+		this.valueIndex = valueIndex;
 		initNativeStoreDictionary();
 		this.setValueFactory(new EndpointStoreValueFactory(hdt));
 		this.hdtConverter = new HDTConverter(this);
@@ -592,6 +669,94 @@ public class EndpointStore extends AbstractNotifyingSail {
 		this.hdtProps = hdtProps;
 	}
 
+	/**
+	 * @return the join statistics of the HDT, null if they are disabled or if
+	 *         they can't be computed
+	 */
+	public TriplesStatistics getStatistics() {
+		return statistics;
+	}
+
+	/**
+	 * load the join statistics of an HDT, the statistics are computed and saved
+	 * if they don't exist or if they were computed for another HDT
+	 *
+	 * @param hdt  the hdt
+	 * @param file the statistics file of the hdt
+	 * @return statistics, null if they are disabled or if they can't be
+	 *         computed
+	 */
+	TriplesStatistics loadStatistics(HDT hdt, Path file) {
+		if (!spec.getBoolean(OPTION_STATISTICS, true)) {
+			return null;
+		}
+		try {
+			if (Files.exists(file)) {
+				try {
+					TriplesStatistics stats = TriplesStatistics.load(file);
+					if (stats.isComputedFor(hdt)) {
+						return stats;
+					}
+				} catch (IOException e) {
+					logger.warn("Can't read the statistics {}, computing them again", file, e);
+				}
+			}
+			StopWatch watch = new StopWatch();
+			TriplesStatistics stats = TriplesStatistics.build(hdt, TriplesStatistics.DEFAULT_MAX_CHARACTERISTIC_SETS,
+					null);
+			stats.save(file);
+			logger.info("Statistics computed in {}, {} characteristic sets", watch.stopAndShow(),
+					stats.getNumberOfCharacteristicSets());
+			return stats;
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Can't compute the statistics of the HDT, the joins will be ordered without them", e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the numeric value index of the HDT, null if it is disabled or if
+	 *         it can't be computed
+	 */
+	public NumericValueIndex getValueIndex() {
+		return valueIndex;
+	}
+
+	/**
+	 * load the numeric value index of an HDT, the index is computed and saved
+	 * if it doesn't exist or if it was computed for another HDT
+	 *
+	 * @param hdt  the hdt
+	 * @param file the value index file of the hdt
+	 * @return index, null if it is disabled or if it can't be computed
+	 */
+	NumericValueIndex loadValueIndex(HDT hdt, Path file) {
+		if (!spec.getBoolean(OPTION_VALUE_INDEX, false)) {
+			return null;
+		}
+		try {
+			if (Files.exists(file)) {
+				try {
+					NumericValueIndex index = NumericValueIndex.load(file);
+					if (index.isComputedFor(hdt)) {
+						return index;
+					}
+				} catch (IOException e) {
+					logger.warn("Can't read the value index {}, computing it again", file, e);
+				}
+			}
+			StopWatch watch = new StopWatch();
+			NumericValueIndex index = NumericValueIndex.build(hdt.getDictionary());
+			index.save(file);
+			logger.info("Value index computed in {}, {} values in {} sections", watch.stopAndShow(),
+					index.getNumberOfValues(), index.getNumberOfSections());
+			return index;
+		} catch (IOException | IllegalArgumentException e) {
+			logger.warn("Can't compute the value index of the HDT, the values will be parsed", e);
+			return null;
+		}
+	}
+
 	public BitArrayDisk getDeleteBitMap() {
 		return deleteBitMap;
 	}
@@ -845,6 +1010,16 @@ public class EndpointStore extends AbstractNotifyingSail {
 		return true;
 	}
 
+	/**
+	 * test if the delta stores are empty, the test is conservative and can
+	 * return false for an empty delta (removed triples, merge)
+	 *
+	 * @return true if no triple can be found in the delta stores
+	 */
+	public boolean isDeltaEmpty() {
+		return triplesCount == 0 && !isMergeTriggered;
+	}
+
 	public void modifyBitmaps(long subject, long predicate, long object) {
 		// mark in HDT the store the subject, predicate, objects that are used
 		// in rdf4j
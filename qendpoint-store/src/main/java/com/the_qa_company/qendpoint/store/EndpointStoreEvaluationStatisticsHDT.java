@@ -1,13 +1,20 @@
 package com.the_qa_company.qendpoint.store;
 
+import com.the_qa_company.qendpoint.core.triples.TriplesStatistics;
+import com.the_qa_company.qendpoint.store.join.HDTIdJoin;
+import com.the_qa_company.qendpoint.store.join.JoinCardinalityEstimator;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.Join;
 import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
 import org.eclipse.rdf4j.query.algebra.Var;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
 import com.the_qa_company.qendpoint.core.triples.TripleID;
 
+import java.util.function.ToDoubleFunction;
+
 public class EndpointStoreEvaluationStatisticsHDT extends EvaluationStatistics {
 	private final EndpointStore endpoint;
 
@@ -20,6 +27,20 @@ public class EndpointStoreEvaluationStatisticsHDT extends EvaluationStatistics {
 		return new HDTCardinalityCalculator();
 	}
 
+	/**
+	 * create an estimator of the joins using the statistics of the HDT
+	 *
+	 * @param patternCardinality cardinality of a single pattern
+	 * @return estimator, null if the store doesn't have statistics
+	 */
+	public JoinCardinalityEstimator createJoinEstimator(ToDoubleFunction<StatementPattern> patternCardinality) {
+		TriplesStatistics statistics = endpoint.getStatistics();
+		if (statistics == null) {
+			return null;
+		}
+		return new JoinCardinalityEstimator(statistics, new HDTConverter(endpoint), patternCardinality);
+	}
+
 	protected class HDTCardinalityCalculator extends CardinalityCalculator {
 
 		@Override
@@ -35,7 +56,9 @@ public class EndpointStoreEvaluationStatisticsHDT extends EvaluationStatistics {
 
 			double cardinality;
 
-			if (subId == 0 && predId == 0 && objId == 0) {
+			if (subId == 0 && predId == 0 && objId == 0 && endpoint.getStatistics() != null) {
+				cardinality = endpoint.getStatistics().getNumberOfTriples();
+			} else if (subId == 0 && predId == 0 && objId == 0) {
 				/*
 				 * apparently we got all variables in the triple so we'll not
 				 * search the whole knowledge base to get the cardinality so put
@@ -50,6 +73,31 @@ public class EndpointStoreEvaluationStatisticsHDT extends EvaluationStatistics {
 			return cardinality;
 		}
 
+		@Override
+		public void meet(Join node) {
+			if (!HDTIdJoin.isIdJoinBGP(node)) {
+				super.meet(node);
+				return;
+			}
+			JoinCardinalityEstimator estimator = createJoinEstimator(this::getCardinality);
+			if (estimator == null) {
+				super.meet(node);
+				return;
+			}
+			// estimate the join in the current order of the patterns
+			addPatterns(estimator, node);
+			cardinality = estimator.getCardinality();
+		}
+
+		private void addPatterns(JoinCardinalityEstimator estimator, TupleExpr expr) {
+			if (expr instanceof Join join) {
+				addPatterns(estimator, join.getLeftArg());
+				addPatterns(estimator, join.getRightArg());
+			} else {
+				estimator.add((StatementPattern) expr);
+			}
+		}
+
 		protected Value getConstantValue(Var var) {
 			if (var != null) {
 				return var.getValue();
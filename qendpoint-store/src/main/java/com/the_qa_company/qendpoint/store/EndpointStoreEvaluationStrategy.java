@@ -0,0 +1,106 @@
+package com.the_qa_company.qendpoint.store;
+
+import com.the_qa_company.qendpoint.store.join.HDTIdJoin;
+import com.the_qa_company.qendpoint.store.join.HDTIdJoinQueryEvaluationStep;
+import com.the_qa_company.qendpoint.store.join.NumericValueComparator;
+import com.the_qa_company.qendpoint.store.join.NumericValueIndex;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.IterationWrapper;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.Order;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.federation.FederatedServiceResolver;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.ExtendedEvaluationStrategy;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.evaluationsteps.OrderQueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.OrderComparator;
+
+/**
+ * Evaluation strategy of the endpoint store, add the evaluation of the HDT
+ * specific query nodes
+ */
+public class EndpointStoreEvaluationStrategy extends ExtendedEvaluationStrategy {
+	private final EndpointStore endpoint;
+	private final EndpointStoreConnection connection;
+	private boolean trackResultSize;
+
+	public EndpointStoreEvaluationStrategy(EndpointTripleSource tripleSource, Dataset dataset,
+			FederatedServiceResolver serviceResolver, EvaluationStatistics evaluationStatistics,
+			EndpointStoreConnection connection) {
+		super(tripleSource, dataset, serviceResolver, 0L, evaluationStatistics);
+		this.endpoint = tripleSource.getEndpointStore();
+		this.connection = connection;
+	}
+
+	@Override
+	public void setTrackResultSize(boolean trackResultSize) {
+		super.setTrackResultSize(trackResultSize);
+		this.trackResultSize = trackResultSize;
+	}
+
+	@Override
+	public boolean isTrackResultSize() {
+		return trackResultSize;
+	}
+
+	@Override
+	public QueryEvaluationStep precompile(TupleExpr expr, QueryEvaluationContext context) {
+		if (expr instanceof HDTIdJoin idJoin) {
+			QueryEvaluationStep fallback = precompile(idJoin.getArg(), context);
+			QueryEvaluationStep step = new HDTIdJoinQueryEvaluationStep(endpoint, connection, idJoin, fallback,
+					context);
+			if (trackResultSize) {
+				return QueryEvaluationStep.wrap(step, iter -> {
+					expr.setResultSizeActual(Math.max(0, expr.getResultSizeActual()));
+					return new ResultSizeCountingIteration(iter, expr);
+				});
+			}
+			return step;
+		}
+		return super.precompile(expr, context);
+	}
+
+	@Override
+	protected QueryEvaluationStep prepare(Order node, QueryEvaluationContext context) throws QueryEvaluationException {
+		NumericValueIndex valueIndex = endpoint.getValueIndex();
+		if (valueIndex == null
+				|| (connection != null && connection.hasConfig(EndpointStore.QUERY_CONFIG_NO_VALUE_INDEX))) {
+			return super.prepare(node, context);
+		}
+		// compare the numeric values of the HDT with the index
+		OrderComparator cmp = new OrderComparator(this, node, new NumericValueComparator(endpoint.getHdt(), valueIndex),
+				context);
+		QueryEvaluationStep preparedArg = precompile(node.getArg(), context);
+		return new OrderQueryEvaluationStep(cmp, getLimit(node), isReducedOrDistinct(node), preparedArg, 0L);
+	}
+
+	@Override
+	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(UnaryTupleOperator expr,
+			BindingSet bindings) throws QueryEvaluationException {
+		if (expr instanceof HDTIdJoin) {
+			// used by the iterations still using the non-precompiled evaluation
+			return precompile(expr).evaluate(bindings);
+		}
+		return super.evaluate(expr, bindings);
+	}
+
+	private static class ResultSizeCountingIteration extends IterationWrapper<BindingSet, QueryEvaluationException> {
+		private final TupleExpr expr;
+
+		ResultSizeCountingIteration(CloseableIteration<BindingSet, QueryEvaluationException> iter, TupleExpr expr) {
+			super(iter);
+			this.expr = expr;
+		}
+
+		@Override
+		public BindingSet next() throws QueryEvaluationException {
+			expr.setResultSizeActual(expr.getResultSizeActual() + 1);
+			return super.next();
+		}
+	}
+}
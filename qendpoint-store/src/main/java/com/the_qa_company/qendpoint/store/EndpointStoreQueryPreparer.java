@@ -2,6 +2,10 @@ package com.the_qa_company.qendpoint.store;
 
 import com.the_qa_company.qendpoint.federation.SPARQLServiceWikibaseLabelResolver;
 import com.the_qa_company.qendpoint.federation.ServiceClauseOptimizer;
+import com.the_qa_company.qendpoint.store.join.HDTIdJoinOptimizer;
+import com.the_qa_company.qendpoint.store.join.NumericValueIndex;
+import com.the_qa_company.qendpoint.store.join.ObjectRangeFilterOptimizer;
+import com.the_qa_company.qendpoint.store.join.StatisticsJoinOptimizer;
 import com.the_qa_company.qendpoint.utils.VariableToIdSubstitution;
 import org.eclipse.rdf4j.common.iteration.CloseableIteration;
 import org.eclipse.rdf4j.query.BindingSet;
@@ -19,7 +23,6 @@ import org.eclipse.rdf4j.query.algebra.UpdateExpr;
 import org.eclipse.rdf4j.query.algebra.evaluation.AbstractQueryPreparer;
 import org.eclipse.rdf4j.query.algebra.evaluation.EvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
-import org.eclipse.rdf4j.query.algebra.evaluation.impl.ExtendedEvaluationStrategy;
 import org.eclipse.rdf4j.query.algebra.evaluation.optimizer.BindingAssignerOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.optimizer.CompareOptimizer;
 import org.eclipse.rdf4j.query.algebra.evaluation.optimizer.ConjunctiveConstraintSplitterOptimizer;
@@ -43,6 +46,7 @@ import java.util.ArrayList;
 public class EndpointStoreQueryPreparer extends AbstractQueryPreparer {
 
 	private final EvaluationStatistics evaluationStatistics;
+	private final EndpointStoreEvaluationStatisticsHDT hdtEvaluationStatistics;
 	private final EndpointTripleSource tripleSource;
 	private final EndpointStore endpoint;
 	private boolean trackResultSize;
@@ -58,7 +62,8 @@ public class EndpointStoreQueryPreparer extends AbstractQueryPreparer {
 		this.conn = conn;
 		cloneTupleExpression = true;
 
-		evaluationStatistics = new EndpointStoreEvaluationStatistics(new EndpointStoreEvaluationStatisticsHDT(endpoint),
+		hdtEvaluationStatistics = new EndpointStoreEvaluationStatisticsHDT(endpoint);
+		evaluationStatistics = new EndpointStoreEvaluationStatistics(hdtEvaluationStatistics,
 				endpoint.getCurrentSaliStore().getEvaluationStatistics());
 	}
 
@@ -105,10 +110,10 @@ public class EndpointStoreQueryPreparer extends AbstractQueryPreparer {
 		if (!(tupleExpr instanceof QueryRoot)) {
 			tupleExpr = new QueryRoot(tupleExpr);
 		}
-		EvaluationStrategy strategy = new ExtendedEvaluationStrategy(getTripleSource(), dataset,
+		EvaluationStrategy strategy = new EndpointStoreEvaluationStrategy(getTripleSource(), dataset,
 				new SPARQLServiceWikibaseLabelResolver(tripleSource,
 						conn.getConfig(EndpointStore.QUERY_CONFIG_USER_LOCALES)),
-				0L, evaluationStatistics);
+				evaluationStatistics, conn);
 
 		if (this.trackResultSize) {
 			strategy.setTrackResultSize(this.trackResultSize);
@@ -129,6 +134,12 @@ public class EndpointStoreQueryPreparer extends AbstractQueryPreparer {
 			new SameTermFilterOptimizer().optimize(tupleExpr, dataset, bindings);
 			new QueryModelNormalizerOptimizer().optimize(tupleExpr, dataset, bindings);
 			new QueryJoinOptimizer(evaluationStatistics).optimize(tupleExpr, dataset, bindings);
+			if (!conn.hasConfig(EndpointStore.QUERY_CONFIG_NO_STATISTICS)) {
+				// reorder the bgps with the correlations between the patterns
+				new StatisticsJoinOptimizer(
+						() -> hdtEvaluationStatistics.createJoinEstimator(evaluationStatistics::getCardinality))
+						.optimize(tupleExpr, dataset, bindings);
+			}
 			new IterativeEvaluationOptimizer().optimize(tupleExpr, dataset, bindings);
 			new FilterOptimizer().optimize(tupleExpr, dataset, bindings);
 			new OrderLimitOptimizer().optimize(tupleExpr, dataset, bindings);
@@ -136,7 +147,19 @@ public class EndpointStoreQueryPreparer extends AbstractQueryPreparer {
 
 		new ServiceClauseOptimizer().optimize(tupleExpr, dataset, bindings);
 
-		return strategy.evaluate(tupleExpr, bindings);
+		if (!conn.hasConfig(EndpointStore.QUERY_CONFIG_NO_ID_JOIN)) {
+			if (!conn.hasConfig(EndpointStore.QUERY_CONFIG_NO_RANGE_FILTER)) {
+				// move the datatype and language filters into the bgps
+				NumericValueIndex valueIndex = conn.hasConfig(EndpointStore.QUERY_CONFIG_NO_VALUE_INDEX) ? null
+						: endpoint.getValueIndex();
+				new ObjectRangeFilterOptimizer(endpoint.getHdt(), valueIndex).optimize(tupleExpr, dataset, bindings);
+			}
+			// evaluate the bgps with the HDT ids, done after the join order
+			// optimization
+			new HDTIdJoinOptimizer().optimize(tupleExpr, dataset, bindings);
+		}
+
+		return strategy.precompile(tupleExpr).evaluate(bindings);
 	}
 
 	// @todo: this looks wrong, apperently if one wraps around the store
@@ -2,6 +2,7 @@ package com.the_qa_company.qendpoint.store;
 
 import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
 import com.the_qa_company.qendpoint.core.enums.RDFNodeType;
+import com.the_qa_company.qendpoint.model.HDTIdIRI;
 import com.the_qa_company.qendpoint.model.HDTValue;
 import com.the_qa_company.qendpoint.model.SimpleBNodeHDT;
 import com.the_qa_company.qendpoint.model.SimpleIRIHDT;
@@ -16,6 +17,7 @@ import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryEvaluationUtil;
 import org.eclipse.rdf4j.sail.memory.model.MemValueFactory;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 // there are 4 types of resources:
 // resources coming from outside,
@@ -26,6 +28,7 @@ import com.the_qa_company.qendpoint.core.hdt.HDT;
 // this class makes the conversion between the different types resources
 public class HDTConverter {
 	public static final String HDT_URI = "http://hdt.org/";
+	private static final ThreadLocal<ReplazableString> DECODE_BUFFER = ThreadLocal.withInitial(ReplazableString::new);
 	private final EndpointStore endpoint;
 	private final HDT hdt;
 	private final ValueFactory valueFactory = new MemValueFactory();
@@ -35,6 +38,21 @@ public class HDTConverter {
 		this.hdt = endpoint.getHdt();
 	}
 
+	/**
+	 * get the buffer of the current thread to decode the dictionary strings
+	 * without allocating them, the decoded strings are only valid until the
+	 * next usage of the buffer. The buffer is shared by all the values of the
+	 * thread, so the decoded strings should be copied before decoding another
+	 * string and never returned, use
+	 * {@link com.the_qa_company.qendpoint.model.HDTValue#getDictionaryString(ReplazableString)}
+	 * with an owned buffer to keep them.
+	 *
+	 * @return buffer
+	 */
+	public static ReplazableString getDecodeBuffer() {
+		return DECODE_BUFFER.get();
+	}
+
 	// method to get the ID of a resource
 	public long subjectToID(Resource subj) {
 		if (subj == null) {
@@ -50,11 +68,11 @@ public class HDTConverter {
 		if (position == SimpleIRIHDT.SHARED_POS || position == SimpleIRIHDT.SUBJECT_POS) {
 			return id;
 		}
-		String translate;
+		CharSequence translate;
 		if (position == SimpleIRIHDT.PREDICATE_POS) {
-			translate = hdt.getDictionary().idToString(id, TripleComponentRole.PREDICATE).toString();
+			translate = hdt.getDictionary().idToString(id, TripleComponentRole.PREDICATE, getDecodeBuffer());
 		} else if (position == SimpleIRIHDT.OBJECT_POS) {
-			translate = hdt.getDictionary().idToString(id, TripleComponentRole.OBJECT).toString();
+			translate = hdt.getDictionary().idToString(id, TripleComponentRole.OBJECT, getDecodeBuffer());
 		} else {
 			translate = "";
 		}
@@ -72,11 +90,11 @@ public class HDTConverter {
 				if (position == SimpleIRIHDT.PREDICATE_POS) {
 					return id;
 				}
-				String translate;
+				CharSequence translate;
 				if (position == SimpleIRIHDT.SHARED_POS || position == SimpleIRIHDT.SUBJECT_POS) {
-					translate = hdt.getDictionary().idToString(id, TripleComponentRole.SUBJECT).toString();
+					translate = hdt.getDictionary().idToString(id, TripleComponentRole.SUBJECT, getDecodeBuffer());
 				} else if (position == SimpleIRIHDT.OBJECT_POS) {
-					translate = hdt.getDictionary().idToString(id, TripleComponentRole.OBJECT).toString();
+					translate = hdt.getDictionary().idToString(id, TripleComponentRole.OBJECT, getDecodeBuffer());
 				} else {
 					translate = "";
 				}
@@ -101,11 +119,11 @@ public class HDTConverter {
 				if (position == SimpleIRIHDT.SHARED_POS || position == SimpleIRIHDT.OBJECT_POS) {
 					return id;
 				}
-				String translate;
+				CharSequence translate;
 				if (position == SimpleIRIHDT.PREDICATE_POS) {
-					translate = hdt.getDictionary().idToString(id, TripleComponentRole.PREDICATE).toString();
+					translate = hdt.getDictionary().idToString(id, TripleComponentRole.PREDICATE, getDecodeBuffer());
 				} else if (position == SimpleIRIHDT.SUBJECT_POS) {
-					translate = hdt.getDictionary().idToString(id, TripleComponentRole.SUBJECT).toString();
+					translate = hdt.getDictionary().idToString(id, TripleComponentRole.SUBJECT, getDecodeBuffer());
 				} else {
 					translate = "";
 				}
@@ -124,23 +142,53 @@ public class HDTConverter {
 		}
 	}
 
+	/**
+	 * convert an HDT id from a role to another role without creating any value,
+	 * the subject and object sections are sharing the ids of the shared
+	 * section, the other cases require a dictionary translation.
+	 *
+	 * @param id   the id in the role from
+	 * @param from the role of the id
+	 * @param to   the wanted role
+	 * @return the id in the role to, -1 if the node doesn't exist with this
+	 *         role
+	 */
+	public long convertId(long id, TripleComponentRole from, TripleComponentRole to) {
+		if (id <= 0) {
+			return -1;
+		}
+		if (from == to) {
+			return id;
+		}
+		if (from != TripleComponentRole.PREDICATE && to != TripleComponentRole.PREDICATE) {
+			// subject <-> object, only the shared section can be used in both
+			// roles
+			return id <= hdt.getDictionary().getNshared() ? id : -1;
+		}
+		CharSequence str = hdt.getDictionary().idToString(id, from, getDecodeBuffer());
+		if (str == null) {
+			return -1;
+		}
+		return hdt.getDictionary().stringToId(str, to);
+	}
+
 	public IRI subjectIdToIRI(long id) {
 		if (id <= this.hdt.getDictionary().getNshared()) {
-			return valueFactory.createIRI(HDT_URI + "SO" + id);
+			return new HDTIdIRI(SimpleIRIHDT.SHARED_POS, id);
 		} else {
-			return valueFactory.createIRI(HDT_URI + "S" + id);
+			return new HDTIdIRI(SimpleIRIHDT.SUBJECT_POS, id);
 		}
 	}
 
 	public IRI predicateIdToIRI(long id) {
-		return valueFactory.createIRI(HDT_URI + "P" + id);
+		return new HDTIdIRI(SimpleIRIHDT.PREDICATE_POS, id);
 	}
 
 	public IRI objectIdToIRI(long id) {
 		if (id <= this.hdt.getDictionary().getNshared()) {
-			return valueFactory.createIRI(HDT_URI + "SO" + id);
+			return new HDTIdIRI(SimpleIRIHDT.SHARED_POS, id);
 		} else {
-			return valueFactory.createIRI(HDT_URI + "O" + id);
+			return new HDTIdIRI(SimpleIRIHDT.OBJECT_POS, id);
 		}
 	}
 
@@ -169,6 +217,14 @@ public class HDTConverter {
 	}
 
 	public long rdf4jSubjectToHdtID(Resource subj) {
+		if (subj instanceof HDTIdIRI hdtIRI) {
+			// no need to parse the IRI
+			int position = hdtIRI.getPosition();
+			if (position == SimpleIRIHDT.SHARED_POS || position == SimpleIRIHDT.SUBJECT_POS) {
+				return hdtIRI.getId();
+			}
+			return -1;
+		}
 		String iriString = subj.stringValue();
 		if (iriString.startsWith((HDT_URI))) {
 			if (iriString.startsWith("SO", HDT_URI.length())) {
@@ -181,6 +237,10 @@ public class HDTConverter {
 	}
 
 	public long rdf4jPredicateToHdtID(IRI pred) {
+		if (pred instanceof HDTIdIRI hdtIRI) {
+			// no need to parse the IRI
+			return hdtIRI.getPosition() == SimpleIRIHDT.PREDICATE_POS ? hdtIRI.getId() : -1;
+		}
 		String iriString = pred.stringValue();
 		if (iriString.startsWith((HDT_URI))) {
 			if (iriString.startsWith("P", HDT_URI.length())) {
@@ -191,6 +251,14 @@ public class HDTConverter {
 	}
 
 	public long rdf4jObjectToHdtID(Value object) {
+		if (object instanceof HDTIdIRI hdtIRI) {
+			// no need to parse the IRI
+			int position = hdtIRI.getPosition();
+			if (position == SimpleIRIHDT.SHARED_POS || position == SimpleIRIHDT.OBJECT_POS) {
+				return hdtIRI.getId();
+			}
+			return -1;
+		}
 		String iriString = object.stringValue();
 		if (iriString.startsWith(HDT_URI)) {
 			if (iriString.startsWith("SO", HDT_URI.length())) {
@@ -202,6 +270,26 @@ public class HDTConverter {
 		return -1;
 	}
 
+	/**
+	 * convert a value of the delta store to its HDT string, the strings of the
+	 * HDT ids are read from the dictionary
+	 *
+	 * @param value value
+	 * @param role  role of the value in the triple
+	 * @return HDT string
+	 */
+	public CharSequence rdf4jToHdtString(Value value, TripleComponentRole role) {
+		long id = switch (role) {
+		case SUBJECT -> rdf4jSubjectToHdtID((Resource) value);
+		case PREDICATE -> rdf4jPredicateToHdtID((IRI) value);
+		case OBJECT -> rdf4jObjectToHdtID(value);
+		};
+		if (id != -1) {
+			return hdt.getDictionary().idToString(id, role);
+		}
+		return value.toString();
+	}
+
 	public Value idToValue(TripleComponentRole role, long id) {
 		Dictionary dict = hdt.getDictionary();
 		if (dict.supportsNodeTypeOfId()) {
@@ -1,7 +1,10 @@
 package com.the_qa_company.qendpoint.store;
 
 import com.github.jsonldjava.shaded.com.google.common.base.Stopwatch;
+import com.the_qa_company.qendpoint.model.HDTIdIRI;
+import com.the_qa_company.qendpoint.model.SimpleIRIHDT;
 import com.the_qa_company.qendpoint.store.exception.EndpointStoreException;
+import com.the_qa_company.qendpoint.store.join.NumericValueIndex;
 import com.the_qa_company.qendpoint.utils.BitArrayDisk;
 import com.the_qa_company.qendpoint.utils.OverrideHDTOptions;
 import org.apache.commons.io.file.PathUtils;
@@ -11,30 +14,36 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryResult;
-import org.eclipse.rdf4j.rio.RDFFormat;
-import org.eclipse.rdf4j.rio.RDFWriter;
-import org.eclipse.rdf4j.rio.Rio;
 import com.the_qa_company.qendpoint.core.compact.bitmap.BitmapFactory;
-import com.the_qa_company.qendpoint.core.enums.RDFNotation;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
 import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.exceptions.ParserException;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
 import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.iterator.utils.MapIterator;
 import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.core.triples.TriplesStatistics;
 import com.the_qa_company.qendpoint.core.util.StopWatch;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.OpenOption;
 import java.nio.file.Path;
 import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public class MergeRunnable {
@@ -614,12 +623,9 @@ public class MergeRunnable {
 		// diff hdt indexes...
 		logger.debug("Dump all triples from the native store to file");
 		try (RepositoryConnection nativeStoreConnection = endpoint.getConnectionToFreezedStore()) {
-			writeTempFile(nativeStoreConnection, endpointFiles.getRDFTempOutput());
+			createHDTDump(nativeStoreConnection, endpointFiles.getHDTTempOutput());
 			nativeStoreConnection.commit();
 		}
-
-		logger.debug("Create HDT index from dumped file");
-		createHDTDump(endpointFiles.getRDFTempOutput(), endpointFiles.getHDTTempOutput());
 		// cat the original index and the temp index
 		logger.debug("HDT Cat/Diff");
 		catDiffIndexes(endpointFiles.getHDTIndex(), endpointFiles.getTripleDeleteCopyArr(),
@@ -636,7 +642,8 @@ public class MergeRunnable {
 
 		// delete the file after the mark if the shutdown occurs during the
 		// deletes
-		delete(endpointFiles.getRDFTempOutput());
+		// file of the previous versions, dumping the store as NTriples
+		deleteIfExists(endpointFiles.getRDFTempOutput());
 		delete(endpointFiles.getHDTTempOutput());
 		delete(endpointFiles.getTripleDeleteCopyArr());
 		delete(endpointFiles.getTripleDeleteArr());
@@ -743,12 +750,18 @@ public class MergeRunnable {
 		// index the new file
 
 		Lock translateLock;
+		TriplesStatistics newStatistics;
+		NumericValueIndex newValueIndex;
 
 		try (HDT newHdt = HDTManager.mapIndexedHDT(endpointFiles.getHDTNewIndex(), endpoint.getHDTSpec(), null)) {
 			if (dumpInfo != null) {
 				dumpInfo.afterIndexing(endpoint, Path.of(endpointFiles.getHDTNewIndexV11()));
 				endpoint.setDumping(endpoint.getDumpRef().get() != null);
 			}
+			// compute the files of the new HDT before locking the store
+			newStatistics = endpoint.loadStatistics(newHdt, Path.of(endpointFiles.getHDTNewStatistics()));
+			newValueIndex = endpoint.loadValueIndex(newHdt, Path.of(endpointFiles.getHDTNewValueIndex()));
+
 			// convert all triples added to the merge store to new IDs of the
 			// new
 			// generated HDT
@@ -789,11 +802,14 @@ public class MergeRunnable {
 		// AFTER_INDEX_RENAME
 		rename(endpointFiles.getHDTNewIndexV11(), endpointFiles.getHDTIndexV11());
 		// AFTER_INDEX_V11_RENAME
+		// the files computed from the HDT are checked when they are loaded,
+		// no need to keep them to restart the step
+		replaceIndexFiles();
 
 		HDT tempHdt = endpoint.loadIndex();
 
 		convertOldToNew(tempHdt);
-		this.endpoint.resetHDT(tempHdt, true);
+		this.endpoint.resetHDT(tempHdt, true, newStatistics, newValueIndex);
 
 		// mark the triples as deleted from the temp file stored while merge
 		this.endpoint.markDeletedTempTriples();
@@ -829,6 +845,34 @@ public class MergeRunnable {
 		}
 	}
 
+	/**
+	 * replace the files computed from the HDT with the files computed from the
+	 * new HDT, the files without a new version are deleted
+	 */
+	private void replaceIndexFiles() {
+		for (TripleComponentOrder order : TripleComponentOrder.values()) {
+			if (order == TripleComponentOrder.Unknown) {
+				continue;
+			}
+			replaceFile(endpointFiles.getHDTNewIndexPermutation(order), endpointFiles.getHDTIndexPermutation(order));
+		}
+		replaceFile(endpointFiles.getHDTNewStatistics(), endpointFiles.getHDTStatistics());
+		replaceFile(endpointFiles.getHDTNewValueIndex(), endpointFiles.getHDTValueIndex());
+	}
+
+	/**
+	 * delete a file and replace it with another file if it exists
+	 *
+	 * @param newFile the new file
+	 * @param file    the file to replace
+	 */
+	private static void replaceFile(String newFile, String file) {
+		deleteIfExists(file);
+		if (exists(newFile)) {
+			rename(newFile, file);
+		}
+	}
+
 	private void catDiffIndexes(String hdtInput1, String bitArray, String hdtInput2, String hdtOutput)
 			throws IOException {
 		File file = new File(hdtOutput);
@@ -859,8 +903,16 @@ public class MergeRunnable {
 		logger.info("HDT saved to file in: " + sw.stopAndShow());
 	}
 
-	private void createHDTDump(String rdfInput, String hdtOutput) throws IOException {
-		String baseURI = EndpointStoreUtils.baseURIFromFilename(rdfInput);
+	/**
+	 * create an HDT from the statements of a delta store, the statements are
+	 * streamed to the HDT generator without writing them to a temp RDF file.
+	 *
+	 * @param connection connection to the delta store
+	 * @param hdtOutput  HDT output
+	 * @throws IOException io error
+	 */
+	private void createHDTDump(RepositoryConnection connection, String hdtOutput) throws IOException {
+		String baseURI = EndpointStoreUtils.baseURIFromFilename(endpointFiles.getRDFTempOutput());
 		StopWatch sw = new StopWatch();
 		Path location = endpointFiles.getLocationHdtPath().resolve("merger");
 
@@ -868,10 +920,18 @@ public class MergeRunnable {
 		oopt.setOverride(HDTOptionsKeys.LOADER_TYPE_KEY, HDTOptionsKeys.LOADER_TYPE_VALUE_DISK);
 		oopt.setOverride(HDTOptionsKeys.LOADER_DISK_LOCATION_KEY, location.resolve("gen"));
 		oopt.setOverride(HDTOptionsKeys.LOADER_DISK_FUTURE_HDT_LOCATION_KEY, location.resolve("wip.hdt"));
-		try {
-			try (HDT hdt = HDTManager.generateHDT(new File(rdfInput).getAbsolutePath(), baseURI, RDFNotation.NTRIPLES,
-					oopt, null)) {
-				logger.info("File converted in: " + sw.stopAndShow());
+		HDTConverter converter = this.endpoint.getHdtConverter();
+		try (RepositoryResult<Statement> statements = connection.getStatements(null, null, null, false)) {
+			Iterator<TripleString> triples = new MapIterator<>(statements.iterator(), stm -> {
+				TripleString triple = new TripleString(
+						converter.rdf4jToHdtString(stm.getSubject(), TripleComponentRole.SUBJECT),
+						converter.rdf4jToHdtString(stm.getPredicate(), TripleComponentRole.PREDICATE),
+						converter.rdf4jToHdtString(stm.getObject(), TripleComponentRole.OBJECT));
+				logger.debug("  {}", triple);
+				return triple;
+			});
+			try (HDT hdt = HDTManager.generateHDT(triples, baseURI, oopt, null)) {
+				logger.info("Delta converted in: " + sw.stopAndShow());
 				hdt.saveToHDT(hdtOutput, null);
 				logger.info("HDT saved to file in: " + sw.stopAndShow());
 			} catch (ParserException e) {
@@ -889,31 +949,99 @@ public class MergeRunnable {
 		}
 	}
 
-	private void writeTempFile(RepositoryConnection connection, String file) throws IOException {
-		try (FileOutputStream out = new FileOutputStream(file)) {
-			RDFWriter writer = Rio.createWriter(RDFFormat.NTRIPLES, out);
-			RepositoryResult<Statement> repositoryResult = connection.getStatements(null, null, null, false);
-			writer.startRDF();
-			logger.debug("Content dumped file");
-			while (repositoryResult.hasNext()) {
-				Statement stm = repositoryResult.next();
-
-				Resource newSubjIRI = this.endpoint.getHdtConverter().rdf4jToHdtIDsubject(stm.getSubject());
-				newSubjIRI = this.endpoint.getHdtConverter().subjectHdtResourceToResource(newSubjIRI);
+	/**
+	 * terms of a role of the changing store, converted from the old HDT to the
+	 * new HDT
+	 */
+	private static class OldToNewTerms {
+		private final TripleComponentRole role;
+		private final Map<String, Integer> termIndex = new HashMap<>();
+		private final List<String> terms = new ArrayList<>();
+		private final List<Value> oldValues = new ArrayList<>();
+		private Value[] newValues;
+
+		private OldToNewTerms(TripleComponentRole role) {
+			this.role = role;
+		}
 
-				IRI newPredIRI = this.endpoint.getHdtConverter().rdf4jToHdtIDpredicate(stm.getPredicate());
-				newPredIRI = this.endpoint.getHdtConverter().predicateHdtResourceToResource(newPredIRI);
+		/**
+		 * add a term of the changing store
+		 *
+		 * @param converter converter of the old HDT
+		 * @param value     term
+		 * @return index of the term
+		 */
+		int add(HDTConverter converter, Value value) {
+			String str = converter.rdf4jToHdtString(value, role).toString();
+			Integer index = termIndex.get(str);
+			if (index != null) {
+				return index;
+			}
+			index = terms.size();
+			termIndex.put(str, index);
+			terms.add(str);
+			// the old HDT will be closed after the merge, the values can't be
+			// linked to it
+			oldValues.add(switch (role) {
+			case SUBJECT -> converter.subjectHdtResourceToResource(converter.rdf4jToHdtIDsubject((Resource) value));
+			case PREDICATE -> converter.predicateHdtResourceToResource(converter.rdf4jToHdtIDpredicate((IRI) value));
+			case OBJECT -> converter.objectHdtResourceToResource(converter.rdf4jToHdtIDobject(value));
+			});
+			return index;
+		}
 
-				Value newObjIRI = this.endpoint.getHdtConverter().rdf4jToHdtIDobject(stm.getObject());
-				newObjIRI = this.endpoint.getHdtConverter().objectHdtResourceToResource(newObjIRI);
+		/**
+		 * convert the terms with the dictionary of the new HDT
+		 *
+		 * @param newHDT new HDT
+		 */
+		void convert(HDT newHDT) {
+			int size = terms.size();
+			Integer[] order = new Integer[size];
+			List<ByteString> sorted = new ArrayList<>(size);
+			for (int i = 0; i < size; i++) {
+				order[i] = i;
+				sorted.add(ByteString.of(terms.get(i)));
+			}
+			Arrays.sort(order, (i1, i2) -> sorted.get(i1).compareTo(sorted.get(i2)));
+			List<ByteString> sortedTerms = new ArrayList<>(size);
+			for (Integer index : order) {
+				sortedTerms.add(sorted.get(index));
+			}
 
-				Statement stmConverted = this.endpoint.getValueFactory().createStatement(newSubjIRI, newPredIRI,
-						newObjIRI);
-				logger.debug("  {} {} {}", stmConverted.getSubject(), stmConverted.getPredicate(),
-						stmConverted.getObject());
-				writer.handleStatement(stmConverted);
+			long[] ids = new long[size];
+			newHDT.getDictionary().stringToIds(sortedTerms, role, ids);
+
+			long nshared = newHDT.getDictionary().getNshared();
+			newValues = new Value[size];
+			for (int i = 0; i < size; i++) {
+				int index = order[i];
+				long id = ids[i];
+				if (id == -1) {
+					// not in the new HDT, we keep the old value
+					newValues[index] = oldValues.get(index);
+				} else {
+					newValues[index] = switch (role) {
+					case SUBJECT ->
+						new HDTIdIRI(id <= nshared ? SimpleIRIHDT.SHARED_POS : SimpleIRIHDT.SUBJECT_POS, id);
+					case PREDICATE -> new HDTIdIRI(SimpleIRIHDT.PREDICATE_POS, id);
+					case OBJECT -> new HDTIdIRI(id <= nshared ? SimpleIRIHDT.SHARED_POS : SimpleIRIHDT.OBJECT_POS, id);
+					};
+				}
 			}
-			writer.endRDF();
+			termIndex.clear();
+			terms.clear();
+			oldValues.clear();
+		}
+
+		/**
+		 * get a converted term, {@link #convert(HDT)} should be called before
+		 *
+		 * @param index index of the term
+		 * @return converted term
+		 */
+		Value get(int index) {
+			return newValues[index];
 		}
 	}
 
@@ -925,60 +1053,51 @@ public class MergeRunnable {
 			try (RepositoryConnection connectionChanging = this.endpoint.getConnectionToChangingStore(); // B
 					RepositoryConnection connectionFreezed = this.endpoint.getConnectionToFreezedStore() // A
 			) {
-				connectionFreezed.begin();
+				HDTConverter iriConverter = new HDTConverter(this.endpoint);
+				OldToNewTerms subjects = new OldToNewTerms(TripleComponentRole.SUBJECT);
+				OldToNewTerms predicates = new OldToNewTerms(TripleComponentRole.PREDICATE);
+				OldToNewTerms objects = new OldToNewTerms(TripleComponentRole.OBJECT);
+
+				// read the changing store once, the terms are only converted
+				// once, even if they are used by multiple statements
+				int[] triples = new int[3 * 1024];
+				int count = 0;
 				try (RepositoryResult<Statement> statements = connectionChanging.getStatements(null, null, null)) {
-					long count = 0;
 					for (Statement s : statements) {
-						count++;
-						// get the string
-						// convert the string using the new dictionary
-
-						// get the old IRIs with old IDs
-						HDTConverter iriConverter = new HDTConverter(this.endpoint);
-						Resource oldSubject = iriConverter.rdf4jToHdtIDsubject(s.getSubject());
-						IRI oldPredicate = iriConverter.rdf4jToHdtIDpredicate(s.getPredicate());
-						Value oldObject = iriConverter.rdf4jToHdtIDobject(s.getObject());
-
-						// if the old string cannot be converted than we can
-						// keep the
-						// same
-						Resource newSubjIRI = oldSubject;
-						long id = newHDT.getDictionary().stringToId(oldSubject.toString(), TripleComponentRole.SUBJECT);
-						if (id != -1) {
-							newSubjIRI = iriConverter.subjectIdToIRI(id);
+						if (count * 3 == triples.length) {
+							triples = Arrays.copyOf(triples, triples.length * 2);
 						}
+						triples[count * 3] = subjects.add(iriConverter, s.getSubject());
+						triples[count * 3 + 1] = predicates.add(iriConverter, s.getPredicate());
+						triples[count * 3 + 2] = objects.add(iriConverter, s.getObject());
+						count++;
+					}
+				}
 
-						IRI newPredIRI = oldPredicate;
-						id = newHDT.getDictionary().stringToId(oldPredicate.toString(), TripleComponentRole.PREDICATE);
+				// search the terms in the new dictionary with a sweep
+				subjects.convert(newHDT);
+				predicates.convert(newHDT);
+				objects.convert(newHDT);
 
-						if (id != -1) {
-							newPredIRI = iriConverter.predicateIdToIRI(id);
-						}
-						Value newObjIRI = oldObject;
-						id = newHDT.getDictionary().stringToId(oldObject.toString(), TripleComponentRole.OBJECT);
-						if (id != -1) {
-							newObjIRI = iriConverter.objectIdToIRI(id);
-						}
-						logger.debug("old:[{} {} {}]", oldSubject, oldPredicate, oldObject);
-						logger.debug("new:[{} {} {}]", newSubjIRI, newPredIRI, newObjIRI);
-						connectionFreezed.add(newSubjIRI, newPredIRI, newObjIRI);
-						// alternative, i.e. make inplace replacements
-						// connectionChanging.remove(s.getSubject(),
-						// s.getPredicate(),
-						// s.getObject());
-						// connectionChanging.add(newSubjIRI, newPredIRI,
-						// newObjIRI);
-
-						if (count % MERGE_OLD_TO_NEW_SPLIT == 0) {
-							logger.debug("Converted {}", count);
-							connectionFreezed.commit();
-							connectionFreezed.begin();
-						}
-					}
-					if (count % MERGE_OLD_TO_NEW_SPLIT != 0) {
+				connectionFreezed.begin();
+				List<Statement> batch = new ArrayList<>(MERGE_OLD_TO_NEW_SPLIT);
+				ValueFactory vf = connectionFreezed.getValueFactory();
+				for (int i = 0; i < count; i++) {
+					Resource newSubj = (Resource) subjects.get(triples[i * 3]);
+					IRI newPred = (IRI) predicates.get(triples[i * 3 + 1]);
+					Value newObj = objects.get(triples[i * 3 + 2]);
+					batch.add(vf.createStatement(newSubj, newPred, newObj));
+
+					if (batch.size() == MERGE_OLD_TO_NEW_SPLIT) {
+						logger.debug("Converted {}", i + 1);
+						connectionFreezed.add(batch);
+						batch.clear();
 						connectionFreezed.commit();
+						connectionFreezed.begin();
 					}
 				}
+				connectionFreezed.add(batch);
+				connectionFreezed.commit();
 			}
 			endpoint.regenChangingStore();
 			// @todo: why?
@@ -0,0 +1,472 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Immutable set of quads {@code (subject, predicate, object, context)} encoded
+ * as longs, sorted in the three orders SPOC, POSC and OSPC.
+ * <p>
+ * Each order is a sorted packed {@code long[]} of 4 longs by quad. To avoid
+ * rewriting the full arrays at each update, the recent changes are stored in a
+ * small overlay (added quads by order and removed quads of the base in SPOC
+ * order), merged into the base arrays when it becomes too large.
+ * <p>
+ * The ids can't be 0, a 0 context is the default graph.
+ */
+final class DeltaQuadIndex {
+	/**
+	 * number of longs by quad
+	 */
+	static final int QUAD_SIZE = 4;
+	/**
+	 * min size of the overlay before merging it into the base
+	 */
+	private static final long MIN_OVERLAY_SIZE = 4096;
+	private static final long[] EMPTY_KEYS = new long[0];
+	/**
+	 * empty index
+	 */
+	static final DeltaQuadIndex EMPTY = new DeltaQuadIndex(new long[][] { EMPTY_KEYS, EMPTY_KEYS, EMPTY_KEYS },
+			new long[][] { EMPTY_KEYS, EMPTY_KEYS, EMPTY_KEYS }, EMPTY_KEYS);
+
+	/**
+	 * sort orders of the index, the context is always the last component
+	 */
+	enum Order {
+		SPOC(0, 1, 2), POSC(1, 2, 0), OSPC(2, 0, 1);
+
+		/**
+		 * index of the SPOC component at each position of the key
+		 */
+		private final int[] components;
+
+		Order(int first, int second, int third) {
+			components = new int[] { first, second, third, 3 };
+		}
+
+		/**
+		 * write the key of a SPOC quad in this order
+		 *
+		 * @param spoc      quad
+		 * @param spocStart start of the quad
+		 * @param key       key array
+		 * @param keyStart  start of the key
+		 */
+		void toKey(long[] spoc, int spocStart, long[] key, int keyStart) {
+			for (int i = 0; i < QUAD_SIZE; i++) {
+				key[keyStart + i] = spoc[spocStart + components[i]];
+			}
+		}
+
+		/**
+		 * write a SPOC quad from a key of this order
+		 *
+		 * @param key       key array
+		 * @param keyStart  start of the key
+		 * @param spoc      quad
+		 * @param spocStart start of the quad
+		 */
+		void toSPOC(long[] key, int keyStart, long[] spoc, int spocStart) {
+			for (int i = 0; i < QUAD_SIZE; i++) {
+				spoc[spocStart + components[i]] = key[keyStart + i];
+			}
+		}
+
+		/**
+		 * convert SPOC keys to sorted keys in this order
+		 *
+		 * @param spocKeys keys
+		 * @return keys in this order
+		 */
+		long[] fromSPOCKeys(long[] spocKeys) {
+			if (this == SPOC) {
+				return spocKeys;
+			}
+			long[] keys = new long[spocKeys.length];
+			for (int i = 0; i < spocKeys.length; i += QUAD_SIZE) {
+				toKey(spocKeys, i, keys, i);
+			}
+			return sortKeys(keys);
+		}
+	}
+
+	private final long[][] base;
+	private final long[][] added;
+	private final long[] removed;
+	private final long size;
+
+	private DeltaQuadIndex(long[][] base, long[][] added, long[] removed) {
+		this.base = base;
+		this.added = added;
+		this.removed = removed;
+		this.size = (base[0].length + added[0].length - removed.length) / QUAD_SIZE;
+	}
+
+	/**
+	 * @return the number of quads in this index
+	 */
+	long size() {
+		return size;
+	}
+
+	/**
+	 * test if a quad is in this index
+	 *
+	 * @param s subject
+	 * @param p predicate
+	 * @param o object
+	 * @param c context
+	 * @return true if the quad is in the index
+	 */
+	boolean contains(long s, long p, long o, long c) {
+		long[] quad = { s, p, o, c };
+		if (find(base[0], quad) >= 0) {
+			return find(removed, quad) < 0;
+		}
+		return find(added[0], quad) >= 0;
+	}
+
+	/**
+	 * create a new index with updates, a quad can't be added and removed at the
+	 * same time
+	 *
+	 * @param adds    added quads, in SPOC order
+	 * @param removes removed quads, in SPOC order
+	 * @return new index
+	 */
+	DeltaQuadIndex update(Collection<long[]> adds, Collection<long[]> removes) {
+		if (adds.isEmpty() && removes.isEmpty()) {
+			return this;
+		}
+		long[] addKeys = sortKeys(flatten(adds));
+		long[] removeKeys = sortKeys(flatten(removes));
+
+		long[] addBase = filter(addKeys, base[0], true);
+		long[] addOverlay = filter(addKeys, base[0], false);
+		long[] removeBase = filter(removeKeys, base[0], true);
+
+		// removed quads of the base
+		long[] newRemoved = minus(union(removed, removeBase), addBase);
+
+		long[][] newAdded = new long[added.length][];
+		Order[] orders = Order.values();
+		for (int i = 0; i < orders.length; i++) {
+			Order order = orders[i];
+			newAdded[i] = minus(union(added[i], order.fromSPOCKeys(addOverlay)), order.fromSPOCKeys(removeKeys));
+		}
+
+		long overlay = (newAdded[0].length + newRemoved.length) / QUAD_SIZE;
+		if (overlay <= Math.max(MIN_OVERLAY_SIZE, base[0].length / QUAD_SIZE / 8)) {
+			return new DeltaQuadIndex(base, newAdded, newRemoved);
+		}
+
+		// merge the overlay into the base
+		long[][] newBase = new long[base.length][];
+		for (int i = 0; i < orders.length; i++) {
+			newBase[i] = union(minus(base[i], orders[i].fromSPOCKeys(newRemoved)), newAdded[i]);
+		}
+		return new DeltaQuadIndex(newBase, new long[][] { EMPTY_KEYS, EMPTY_KEYS, EMPTY_KEYS }, EMPTY_KEYS);
+	}
+
+	/**
+	 * search the quads matching a pattern
+	 *
+	 * @param s        subject, 0 for any
+	 * @param p        predicate, 0 for any
+	 * @param o        object, 0 for any
+	 * @param contexts contexts, null for any context
+	 * @return iterator of SPOC quads, the returned array is reused by the
+	 *         iterator
+	 */
+	Iterator<long[]> search(long s, long p, long o, long[] contexts) {
+		Order order;
+		long[] prefix;
+		if (s != 0) {
+			if (p != 0) {
+				prefix = o != 0 ? new long[] { s, p, o } : new long[] { s, p };
+				order = Order.SPOC;
+			} else if (o != 0) {
+				prefix = new long[] { o, s };
+				order = Order.OSPC;
+			} else {
+				prefix = new long[] { s };
+				order = Order.SPOC;
+			}
+		} else if (p != 0) {
+			prefix = o != 0 ? new long[] { p, o } : new long[] { p };
+			order = Order.POSC;
+		} else if (o != 0) {
+			prefix = new long[] { o };
+			order = Order.OSPC;
+		} else {
+			prefix = EMPTY_KEYS;
+			order = Order.SPOC;
+		}
+		return new QuadIterator(order, prefix, contexts);
+	}
+
+	private class QuadIterator implements Iterator<long[]> {
+		private final Order order;
+		private final long[] prefix;
+		private final long[] contexts;
+		private final long[] quad = new long[QUAD_SIZE];
+		private long[] keys;
+		private boolean inBase = true;
+		private int index;
+		private boolean next;
+
+		QuadIterator(Order order, long[] prefix, long[] contexts) {
+			this.order = order;
+			this.prefix = prefix;
+			this.contexts = contexts;
+			keys = base[order.ordinal()];
+			index = lowerBound(keys, prefix);
+		}
+
+		private boolean matchContext() {
+			if (contexts == null) {
+				return true;
+			}
+			for (long context : contexts) {
+				if (context == quad[3]) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		public boolean hasNext() {
+			if (next) {
+				return true;
+			}
+			while (true) {
+				if (index >= keys.length || !startsWith(keys, index, prefix)) {
+					if (!inBase) {
+						return false;
+					}
+					// read the overlay
+					inBase = false;
+					keys = added[order.ordinal()];
+					index = lowerBound(keys, prefix);
+					continue;
+				}
+				order.toSPOC(keys, index, quad, 0);
+				index += QUAD_SIZE;
+				if (inBase && removed.length != 0 && find(removed, quad) >= 0) {
+					continue;
+				}
+				if (matchContext()) {
+					return next = true;
+				}
+			}
+		}
+
+		@Override
+		public long[] next() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			next = false;
+			return quad;
+		}
+	}
+
+	private static long[] flatten(Collection<long[]> quads) {
+		long[] keys = new long[quads.size() * QUAD_SIZE];
+		int i = 0;
+		for (long[] quad : quads) {
+			System.arraycopy(quad, 0, keys, i, QUAD_SIZE);
+			i += QUAD_SIZE;
+		}
+		return keys;
+	}
+
+	private static int compare(long[] a, int aStart, long[] b, int bStart) {
+		for (int i = 0; i < QUAD_SIZE; i++) {
+			int c = Long.compare(a[aStart + i], b[bStart + i]);
+			if (c != 0) {
+				return c;
+			}
+		}
+		return 0;
+	}
+
+	private static boolean startsWith(long[] keys, int start, long[] prefix) {
+		for (int i = 0; i < prefix.length; i++) {
+			if (keys[start + i] != prefix[i]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * sort packed keys and remove the duplicates
+	 *
+	 * @param keys keys
+	 * @return sorted keys, can be the same array
+	 */
+	static long[] sortKeys(long[] keys) {
+		int count = keys.length / QUAD_SIZE;
+		if (count <= 1) {
+			return keys;
+		}
+		Integer[] indexes = new Integer[count];
+		for (int i = 0; i < count; i++) {
+			indexes[i] = i * QUAD_SIZE;
+		}
+		Arrays.sort(indexes, (a, b) -> compare(keys, a, keys, b));
+		long[] sorted = new long[keys.length];
+		int size = 0;
+		for (int index : indexes) {
+			if (size != 0 && compare(sorted, size - QUAD_SIZE, keys, index) == 0) {
+				continue; // duplicate
+			}
+			System.arraycopy(keys, index, sorted, size, QUAD_SIZE);
+			size += QUAD_SIZE;
+		}
+		return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+	}
+
+	/**
+	 * find a key in sorted keys
+	 *
+	 * @param keys sorted keys
+	 * @param key  key
+	 * @return start of the key in the keys, negative value if not found
+	 */
+	private static int find(long[] keys, long[] key) {
+		int low = 0;
+		int high = keys.length / QUAD_SIZE - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			int c = compare(keys, mid * QUAD_SIZE, key, 0);
+			if (c < 0) {
+				low = mid + 1;
+			} else if (c > 0) {
+				high = mid - 1;
+			} else {
+				return mid * QUAD_SIZE;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * find the first key greater or equal to a prefix
+	 *
+	 * @param keys   sorted keys
+	 * @param prefix prefix
+	 * @return start of the key
+	 */
+	private static int lowerBound(long[] keys, long[] prefix) {
+		int low = 0;
+		int high = keys.length / QUAD_SIZE;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			int start = mid * QUAD_SIZE;
+			int c = 0;
+			for (int i = 0; i < prefix.length && c == 0; i++) {
+				c = Long.compare(keys[start + i], prefix[i]);
+			}
+			if (c < 0) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low * QUAD_SIZE;
+	}
+
+	/**
+	 * filter sorted keys
+	 *
+	 * @param keys   sorted keys
+	 * @param other  other sorted keys
+	 * @param inside keep the keys inside other if true, outside otherwise
+	 * @return filtered keys
+	 */
+	private static long[] filter(long[] keys, long[] other, boolean inside) {
+		long[] result = new long[keys.length];
+		long[] key = new long[QUAD_SIZE];
+		int k = 0;
+		for (int i = 0; i < keys.length; i += QUAD_SIZE) {
+			System.arraycopy(keys, i, key, 0, QUAD_SIZE);
+			if ((find(other, key) >= 0) == inside) {
+				System.arraycopy(keys, i, result, k, QUAD_SIZE);
+				k += QUAD_SIZE;
+			}
+		}
+		return k == result.length ? result : Arrays.copyOf(result, k);
+	}
+
+	/**
+	 * merge two sorted keys arrays
+	 *
+	 * @param a keys
+	 * @param b keys
+	 * @return sorted keys of a and b
+	 */
+	static long[] union(long[] a, long[] b) {
+		if (b.length == 0) {
+			return a;
+		}
+		if (a.length == 0) {
+			return b;
+		}
+		long[] result = new long[a.length + b.length];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length && j < b.length) {
+			int c = compare(a, i, b, j);
+			if (c <= 0) {
+				System.arraycopy(a, i, result, k, QUAD_SIZE);
+				i += QUAD_SIZE;
+				if (c == 0) {
+					j += QUAD_SIZE;
+				}
+			} else {
+				System.arraycopy(b, j, result, k, QUAD_SIZE);
+				j += QUAD_SIZE;
+			}
+			k += QUAD_SIZE;
+		}
+		System.arraycopy(a, i, result, k, a.length - i);
+		k += a.length - i;
+		System.arraycopy(b, j, result, k, b.length - j);
+		k += b.length - j;
+		return k == result.length ? result : Arrays.copyOf(result, k);
+	}
+
+	/**
+	 * remove keys from sorted keys
+	 *
+	 * @param a keys
+	 * @param b keys to remove
+	 * @return sorted keys of a not in b
+	 */
+	static long[] minus(long[] a, long[] b) {
+		if (a.length == 0 || b.length == 0) {
+			return a;
+		}
+		long[] result = new long[a.length];
+		int i = 0, j = 0, k = 0;
+		while (i < a.length) {
+			int c = j < b.length ? compare(a, i, b, j) : -1;
+			if (c < 0) {
+				System.arraycopy(a, i, result, k, QUAD_SIZE);
+				i += QUAD_SIZE;
+				k += QUAD_SIZE;
+			} else if (c > 0) {
+				j += QUAD_SIZE;
+			} else {
+				i += QUAD_SIZE;
+				j += QUAD_SIZE;
+			}
+		}
+		return k == result.length ? a : Arrays.copyOf(result, k);
+	}
+}
@@ -0,0 +1,177 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import com.the_qa_company.qendpoint.model.HDTIdIRI;
+import com.the_qa_company.qendpoint.model.SimpleIRIHDT;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Dictionary of the {@link HDTDeltaStore}, the HDT ids are encoded without any
+ * lookup, only the terms not in the HDT are stored.
+ * <p>
+ * The 4 upper bits of an encoded term are describing the kind of the term, the
+ * other bits are the HDT id or the index of the local term.
+ */
+class DeltaTermDictionary {
+	private static final int KIND_SHIFT = 60;
+	private static final long ID_MASK = (1L << KIND_SHIFT) - 1;
+	private static final long KIND_LOCAL = 0;
+
+	/**
+	 * encode an HDT id
+	 *
+	 * @param position position, one of the {@link SimpleIRIHDT} positions
+	 * @param id       HDT id
+	 * @return encoded term
+	 */
+	static long encodeHDT(int position, long id) {
+		assert position > 0 && position < 16;
+		if (id > ID_MASK) {
+			throw new IllegalArgumentException("HDT id too large: " + id);
+		}
+		return ((long) position << KIND_SHIFT) | id;
+	}
+
+	private final ValueFactory vf;
+	private final Map<Value, Long> localIds = new ConcurrentHashMap<>();
+	private volatile Value[] localValues = new Value[16];
+	private int localCount;
+
+	DeltaTermDictionary(ValueFactory vf) {
+		this.vf = vf;
+	}
+
+	/**
+	 * @return the number of local terms
+	 */
+	int getLocalCount() {
+		return localCount;
+	}
+
+	/**
+	 * get a local term
+	 *
+	 * @param index index of the term (1-based)
+	 * @return term
+	 */
+	Value getLocal(int index) {
+		return localValues[index - 1];
+	}
+
+	/**
+	 * get the local terms after an index
+	 *
+	 * @param start start index (0-based)
+	 * @return terms
+	 */
+	synchronized List<Value> getLocals(int start) {
+		return new ArrayList<>(Arrays.asList(localValues).subList(start, localCount));
+	}
+
+	/**
+	 * encode a term
+	 *
+	 * @param value  term
+	 * @param create create the term if it doesn't exist
+	 * @return encoded term, 0 if the term doesn't exist and create is false
+	 */
+	long encode(Value value, boolean create) {
+		if (value instanceof HDTIdIRI hdtIRI) {
+			return encodeHDT(hdtIRI.getPosition(), hdtIRI.getId());
+		}
+		Value normalized = normalize(value);
+		if (normalized instanceof HDTIdIRI hdtIRI) {
+			return encodeHDT(hdtIRI.getPosition(), hdtIRI.getId());
+		}
+		Long id = localIds.get(normalized);
+		if (id != null) {
+			return id;
+		}
+		if (!create) {
+			return 0;
+		}
+		synchronized (this) {
+			id = localIds.get(normalized);
+			if (id != null) {
+				return id;
+			}
+			return addLocal(normalized);
+		}
+	}
+
+	/**
+	 * add a term read from the disk
+	 *
+	 * @param value term
+	 */
+	synchronized void load(Value value) {
+		Value normalized = normalize(value);
+		if (normalized instanceof HDTIdIRI || localIds.containsKey(normalized)) {
+			throw new IllegalArgumentException("Bad local term: " + value);
+		}
+		addLocal(normalized);
+	}
+
+	private long addLocal(Value value) {
+		Value[] values = localValues;
+		if (localCount == values.length) {
+			values = Arrays.copyOf(values, values.length * 2);
+		}
+		values[localCount++] = value;
+		localValues = values;
+		long id = localCount;
+		localIds.put(value, id);
+		return id;
+	}
+
+	/**
+	 * decode a term
+	 *
+	 * @param id encoded term
+	 * @return term
+	 */
+	Value decode(long id) {
+		long kind = id >>> KIND_SHIFT;
+		if (kind == KIND_LOCAL) {
+			return localValues[(int) id - 1];
+		}
+		return new HDTIdIRI((int) kind, id & ID_MASK);
+	}
+
+	/**
+	 * normalize a value to be stored in the dictionary, the external values are
+	 * converted to simple values to have coherent equals/hashCode.
+	 *
+	 * @param value value
+	 * @return normalized value
+	 */
+	private Value normalize(Value value) {
+		if (value instanceof IRI iri) {
+			String str = iri.stringValue();
+			HDTIdIRI hdtIRI = HDTIdIRI.parse(str);
+			if (hdtIRI != null) {
+				return hdtIRI;
+			}
+			return vf.createIRI(str);
+		}
+		if (value instanceof BNode bnode) {
+			return vf.createBNode(bnode.getID());
+		}
+		if (value instanceof Literal literal) {
+			if (literal.getLanguage().isPresent()) {
+				return vf.createLiteral(literal.getLabel(), literal.getLanguage().get());
+			}
+			return vf.createLiteral(literal.getLabel(), literal.getDatatype());
+		}
+		return value;
+	}
+}
@@ -0,0 +1,590 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.CloseableIteratorIteration;
+import org.eclipse.rdf4j.common.iteration.EmptyIteration;
+import org.eclipse.rdf4j.common.transaction.IsolationLevel;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Namespace;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleNamespace;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.EvaluationStatistics;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.BackingSailSource;
+import org.eclipse.rdf4j.sail.base.Changeset;
+import org.eclipse.rdf4j.sail.base.SailDataset;
+import org.eclipse.rdf4j.sail.base.SailSink;
+import org.eclipse.rdf4j.sail.base.SailSource;
+import org.eclipse.rdf4j.sail.base.SailStore;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * {@link SailStore} of the {@link HDTDeltaStore}, the quads are stored as
+ * encoded terms (see {@link DeltaTermDictionary}) in a {@link DeltaQuadIndex}.
+ * <p>
+ * Files of the store:
+ * <ul>
+ * <li>{@link #TERMS_FILE}: the terms not in the HDT, stored as NTriples
+ * strings</li>
+ * <li>{@link #QUADS_FILE}: journal of the updates, a record is
+ * {@code [byte op][long s][long p][long o][long c]}</li>
+ * <li>{@link #NAMESPACES_FILE}: the namespaces</li>
+ * </ul>
+ * The journal is replayed when the store is loaded and compacted if it contains
+ * too many removed quads.
+ */
+public class HDTDeltaSailStore implements SailStore {
+	private static final Logger logger = LoggerFactory.getLogger(HDTDeltaSailStore.class);
+	/**
+	 * terms file name
+	 */
+	public static final String TERMS_FILE = "terms.dat";
+	/**
+	 * quads journal file name
+	 */
+	public static final String QUADS_FILE = "quads.dat";
+	/**
+	 * namespaces file name
+	 */
+	public static final String NAMESPACES_FILE = "namespaces.properties";
+
+	private static final byte OP_ADD = 1;
+	private static final byte OP_INFERRED = 2;
+	private static final int RECORD_SIZE = 1 + Long.BYTES * DeltaQuadIndex.QUAD_SIZE;
+	private static final int REPLAY_BATCH_SIZE = 1 << 16;
+
+	/**
+	 * encoded quad
+	 */
+	private record Quad(long s, long p, long o, long c) {
+		long[] toArray() {
+			return new long[] { s, p, o, c };
+		}
+	}
+
+	private final Path location;
+	private final ValueFactory vf = SimpleValueFactory.getInstance();
+	private final DeltaTermDictionary dictionary = new DeltaTermDictionary(vf);
+	private final EvaluationStatistics statistics = new EvaluationStatistics();
+	private final ReentrantLock flushLock = new ReentrantLock();
+	private final Map<String, String> namespaces = new ConcurrentSkipListMap<>();
+	private volatile DeltaQuadIndex explicitIndex = DeltaQuadIndex.EMPTY;
+	private volatile DeltaQuadIndex inferredIndex = DeltaQuadIndex.EMPTY;
+	private final DataOutputStream termsOutput;
+	private final DataOutputStream quadsOutput;
+	private int writtenTerms;
+
+	/**
+	 * create or load a store
+	 *
+	 * @param location location of the store
+	 * @throws IOException error while reading the store
+	 */
+	public HDTDeltaSailStore(Path location) throws IOException {
+		this.location = location;
+		Files.createDirectories(location);
+		loadTerms();
+		loadNamespaces();
+		long records = loadQuads();
+		long size = explicitIndex.size() + inferredIndex.size();
+		if (records > Math.max(1024, size * 2)) {
+			compactQuads();
+		}
+		termsOutput = openAppend(location.resolve(TERMS_FILE));
+		quadsOutput = openAppend(location.resolve(QUADS_FILE));
+	}
+
+	private static DataOutputStream openAppend(Path path) throws IOException {
+		return new DataOutputStream(new BufferedOutputStream(
+				Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)));
+	}
+
+	private static void truncate(Path path, long size) throws IOException {
+		try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+			channel.truncate(size);
+		}
+	}
+
+	private void loadTerms() throws IOException {
+		Path path = location.resolve(TERMS_FILE);
+		if (Files.notExists(path)) {
+			return;
+		}
+		long valid = 0;
+		try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			while (true) {
+				int length;
+				try {
+					length = stream.readInt();
+				} catch (EOFException e) {
+					break;
+				}
+				byte[] buffer = new byte[length];
+				try {
+					stream.readFully(buffer);
+				} catch (EOFException e) {
+					break;
+				}
+				dictionary.load(NTriplesUtil.parseValue(new String(buffer, StandardCharsets.UTF_8), vf));
+				valid += Integer.BYTES + length;
+			}
+		}
+		if (valid != Files.size(path)) {
+			logger.warn("Partial term record in {}, truncating it", path);
+			truncate(path, valid);
+		}
+		writtenTerms = dictionary.getLocalCount();
+	}
+
+	private void loadNamespaces() throws IOException {
+		Path path = location.resolve(NAMESPACES_FILE);
+		if (Files.notExists(path)) {
+			return;
+		}
+		Properties properties = new Properties();
+		try (Reader reader = Files.newBufferedReader(path)) {
+			properties.load(reader);
+		}
+		for (String prefix : properties.stringPropertyNames()) {
+			namespaces.put(prefix, properties.getProperty(prefix));
+		}
+	}
+
+	private long loadQuads() throws IOException {
+		Path path = location.resolve(QUADS_FILE);
+		if (Files.notExists(path)) {
+			return 0;
+		}
+		long fileSize = Files.size(path);
+		long records = fileSize / RECORD_SIZE;
+		if (fileSize % RECORD_SIZE != 0) {
+			logger.warn("Partial quad record in {}, truncating it", path);
+			truncate(path, records * RECORD_SIZE);
+		}
+		Map<Quad, Boolean> explicitBatch = new HashMap<>();
+		Map<Quad, Boolean> inferredBatch = new HashMap<>();
+		try (DataInputStream stream = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+			for (long i = 0; i < records; i++) {
+				byte op = stream.readByte();
+				Quad quad = new Quad(stream.readLong(), stream.readLong(), stream.readLong(), stream.readLong());
+				Map<Quad, Boolean> batch = (op & OP_INFERRED) != 0 ? inferredBatch : explicitBatch;
+				batch.put(quad, (op & OP_ADD) != 0);
+				if (batch.size() >= REPLAY_BATCH_SIZE) {
+					applyBatch(batch, (op & OP_INFERRED) != 0);
+				}
+			}
+		}
+		applyBatch(explicitBatch, false);
+		applyBatch(inferredBatch, true);
+		return records;
+	}
+
+	private void applyBatch(Map<Quad, Boolean> batch, boolean inferred) {
+		List<long[]> adds = new ArrayList<>();
+		List<long[]> removes = new ArrayList<>();
+		batch.forEach((quad, add) -> (add ? adds : removes).add(quad.toArray()));
+		batch.clear();
+		if (inferred) {
+			inferredIndex = inferredIndex.update(adds, removes);
+		} else {
+			explicitIndex = explicitIndex.update(adds, removes);
+		}
+	}
+
+	private void compactQuads() throws IOException {
+		Path path = location.resolve(QUADS_FILE);
+		Path tmp = location.resolve(QUADS_FILE + ".tmp");
+		try (DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+			writeIndex(stream, explicitIndex, OP_ADD);
+			writeIndex(stream, inferredIndex, (byte) (OP_ADD | OP_INFERRED));
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	private static void writeIndex(DataOutputStream stream, DeltaQuadIndex index, byte op) throws IOException {
+		Iterator<long[]> it = index.search(0, 0, 0, null);
+		while (it.hasNext()) {
+			writeQuad(stream, op, it.next());
+		}
+	}
+
+	private static void writeQuad(DataOutputStream stream, byte op, long[] quad) throws IOException {
+		stream.writeByte(op);
+		for (long component : quad) {
+			stream.writeLong(component);
+		}
+	}
+
+	private void writeNamespaces() throws IOException {
+		Properties properties = new Properties();
+		properties.putAll(namespaces);
+		Path path = location.resolve(NAMESPACES_FILE);
+		Path tmp = location.resolve(NAMESPACES_FILE + ".tmp");
+		try (Writer writer = Files.newBufferedWriter(tmp)) {
+			properties.store(writer, null);
+		}
+		Files.move(tmp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+	/**
+	 * @return the location of the store
+	 */
+	public Path getLocation() {
+		return location;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return vf;
+	}
+
+	@Override
+	public EvaluationStatistics getEvaluationStatistics() {
+		return statistics;
+	}
+
+	@Override
+	public SailSource getExplicitSailSource() {
+		return new DeltaSailSource(false);
+	}
+
+	@Override
+	public SailSource getInferredSailSource() {
+		return new DeltaSailSource(true);
+	}
+
+	@Override
+	public void close() throws SailException {
+		flushLock.lock();
+		try {
+			try (termsOutput; quadsOutput) {
+				termsOutput.flush();
+				quadsOutput.flush();
+			}
+		} catch (IOException e) {
+			throw new SailException(e);
+		} finally {
+			flushLock.unlock();
+		}
+	}
+
+	private DeltaQuadIndex getIndex(boolean inferred) {
+		return inferred ? inferredIndex : explicitIndex;
+	}
+
+	/**
+	 * encode a pattern value
+	 *
+	 * @param value value, null for any
+	 * @return encoded value, 0 for any, -1 if the value isn't in the store
+	 */
+	private long encodePattern(Value value) {
+		if (value == null) {
+			return 0;
+		}
+		long id = dictionary.encode(value, false);
+		return id == 0 ? -1 : id;
+	}
+
+	/**
+	 * encode the contexts of a pattern
+	 *
+	 * @param contexts contexts, empty for any context
+	 * @return encoded contexts, null for any context, empty if none of the
+	 *         contexts are in the store
+	 */
+	private long[] encodeContexts(Resource... contexts) {
+		if (contexts == null || contexts.length == 0) {
+			return null;
+		}
+		long[] ids = new long[contexts.length];
+		int count = 0;
+		for (Resource context : contexts) {
+			long id = context == null ? 0 : dictionary.encode(context, false);
+			if (context == null || id != 0) {
+				ids[count++] = id;
+			}
+		}
+		return count == ids.length ? ids : Arrays.copyOf(ids, count);
+	}
+
+	private Statement decodeStatement(long[] quad) {
+		Resource s = (Resource) dictionary.decode(quad[0]);
+		IRI p = (IRI) dictionary.decode(quad[1]);
+		Value o = dictionary.decode(quad[2]);
+		if (quad[3] == 0) {
+			return vf.createStatement(s, p, o);
+		}
+		return vf.createStatement(s, p, o, (Resource) dictionary.decode(quad[3]));
+	}
+
+	private class DeltaSailSource extends BackingSailSource {
+		private final boolean inferred;
+
+		DeltaSailSource(boolean inferred) {
+			this.inferred = inferred;
+		}
+
+		@Override
+		public SailSink sink(IsolationLevel level) throws SailException {
+			return new DeltaSailSink(inferred);
+		}
+
+		@Override
+		public SailDataset dataset(IsolationLevel level) throws SailException {
+			return new DeltaSailDataset(inferred);
+		}
+	}
+
+	private class DeltaSailSink implements SailSink {
+		private final boolean inferred;
+		private final Map<Quad, Boolean> changes = new LinkedHashMap<>();
+		private final Map<String, String> namespaceChanges = new LinkedHashMap<>();
+		private boolean clearNamespaces;
+
+		DeltaSailSink(boolean inferred) {
+			this.inferred = inferred;
+		}
+
+		@Override
+		public void prepare() throws SailException {
+			// serializable is handled by the snapshot store
+		}
+
+		@Override
+		public void flush() throws SailException {
+			if (changes.isEmpty() && namespaceChanges.isEmpty() && !clearNamespaces) {
+				return;
+			}
+			flushLock.lock();
+			try {
+				List<long[]> adds = new ArrayList<>();
+				List<long[]> removes = new ArrayList<>();
+				for (Map.Entry<Quad, Boolean> e : changes.entrySet()) {
+					(e.getValue() ? adds : removes).add(e.getKey().toArray());
+				}
+
+				// write the terms before the quads using them
+				List<Value> terms = dictionary.getLocals(writtenTerms);
+				for (Value term : terms) {
+					byte[] buffer = NTriplesUtil.toNTriplesString(term).getBytes(StandardCharsets.UTF_8);
+					termsOutput.writeInt(buffer.length);
+					termsOutput.write(buffer);
+				}
+				termsOutput.flush();
+				writtenTerms += terms.size();
+
+				byte inferredFlag = inferred ? OP_INFERRED : 0;
+				for (long[] quad : adds) {
+					writeQuad(quadsOutput, (byte) (OP_ADD | inferredFlag), quad);
+				}
+				for (long[] quad : removes) {
+					writeQuad(quadsOutput, inferredFlag, quad);
+				}
+				quadsOutput.flush();
+
+				if (inferred) {
+					inferredIndex = inferredIndex.update(adds, removes);
+				} else {
+					explicitIndex = explicitIndex.update(adds, removes);
+				}
+				changes.clear();
+
+				if (clearNamespaces || !namespaceChanges.isEmpty()) {
+					if (clearNamespaces) {
+						namespaces.clear();
+					}
+					namespaceChanges.forEach((prefix, name) -> {
+						if (name == null) {
+							namespaces.remove(prefix);
+						} else {
+							namespaces.put(prefix, name);
+						}
+					});
+					namespaceChanges.clear();
+					clearNamespaces = false;
+					writeNamespaces();
+				}
+			} catch (IOException e) {
+				throw new SailException(e);
+			} finally {
+				flushLock.unlock();
+			}
+		}
+
+		@Override
+		public void setNamespace(String prefix, String name) throws SailException {
+			namespaceChanges.put(prefix, name);
+		}
+
+		@Override
+		public void removeNamespace(String prefix) throws SailException {
+			namespaceChanges.put(prefix, null);
+		}
+
+		@Override
+		public void clearNamespaces() throws SailException {
+			namespaceChanges.clear();
+			clearNamespaces = true;
+		}
+
+		@Override
+		public void clear(Resource... contexts) throws SailException {
+			long[] ids = encodeContexts(contexts);
+			// remove the pending additions
+			changes.replaceAll((quad, add) -> {
+				if (!add || ids == null) {
+					return false;
+				}
+				for (long id : ids) {
+					if (id == quad.c()) {
+						return false;
+					}
+				}
+				return true;
+			});
+			if (ids != null && ids.length == 0) {
+				return;
+			}
+			Iterator<long[]> it = getIndex(inferred).search(0, 0, 0, ids);
+			while (it.hasNext()) {
+				long[] quad = it.next();
+				changes.put(new Quad(quad[0], quad[1], quad[2], quad[3]), false);
+			}
+		}
+
+		@Override
+		public void observe(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+			// serializable is handled by the snapshot store
+		}
+
+		@Override
+		public void observeAll(Set<Changeset.SimpleStatementPattern> observed) {
+			// serializable is handled by the snapshot store
+		}
+
+		@Override
+		public void approve(Resource subj, IRI pred, Value obj, Resource ctx) throws SailException {
+			changes.put(new Quad(dictionary.encode(subj, true), dictionary.encode(pred, true),
+					dictionary.encode(obj, true), ctx == null ? 0 : dictionary.encode(ctx, true)), true);
+		}
+
+		@Override
+		public void deprecate(Statement statement) throws SailException {
+			long s = dictionary.encode(statement.getSubject(), false);
+			long p = dictionary.encode(statement.getPredicate(), false);
+			long o = dictionary.encode(statement.getObject(), false);
+			Resource ctx = statement.getContext();
+			long c = ctx == null ? 0 : dictionary.encode(ctx, false);
+			if (s == 0 || p == 0 || o == 0 || (ctx != null && c == 0)) {
+				return; // can't be in the store
+			}
+			changes.put(new Quad(s, p, o, c), false);
+		}
+
+		@Override
+		public void close() throws SailException {
+			changes.clear();
+			namespaceChanges.clear();
+		}
+	}
+
+	/**
+	 * dataset reading the last flushed state, the isolation is handled by the
+	 * snapshot store
+	 */
+	private class DeltaSailDataset implements SailDataset {
+		private final boolean inferred;
+
+		DeltaSailDataset(boolean inferred) {
+			this.inferred = inferred;
+		}
+
+		@Override
+		public void close() throws SailException {
+			// no-op
+		}
+
+		@Override
+		public CloseableIteration<? extends Namespace, SailException> getNamespaces() throws SailException {
+			return new CloseableIteratorIteration<>(namespaces.entrySet().stream()
+					.<Namespace>map(e -> new SimpleNamespace(e.getKey(), e.getValue())).iterator());
+		}
+
+		@Override
+		public String getNamespace(String prefix) throws SailException {
+			return namespaces.get(prefix);
+		}
+
+		@Override
+		public CloseableIteration<? extends Resource, SailException> getContextIDs() throws SailException {
+			Set<Long> contexts = new LinkedHashSet<>();
+			Iterator<long[]> it = getIndex(inferred).search(0, 0, 0, null);
+			while (it.hasNext()) {
+				long c = it.next()[3];
+				if (c != 0) {
+					contexts.add(c);
+				}
+			}
+			return new CloseableIteratorIteration<>(
+					contexts.stream().map(c -> (Resource) dictionary.decode(c)).iterator());
+		}
+
+		@Override
+		public CloseableIteration<? extends Statement, SailException> getStatements(Resource subj, IRI pred, Value obj,
+				Resource... contexts) throws SailException {
+			long s = encodePattern(subj);
+			long p = encodePattern(pred);
+			long o = encodePattern(obj);
+			long[] c = encodeContexts(contexts);
+			if (s == -1 || p == -1 || o == -1 || (c != null && c.length == 0)) {
+				return new EmptyIteration<>();
+			}
+			Iterator<long[]> it = getIndex(inferred).search(s, p, o, c);
+			return new CloseableIteratorIteration<>(new Iterator<Statement>() {
+				@Override
+				public boolean hasNext() {
+					return it.hasNext();
+				}
+
+				@Override
+				public Statement next() {
+					return decodeStatement(it.next());
+				}
+			});
+		}
+	}
+}
@@ -0,0 +1,80 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.LinkedHashModel;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.sail.NotifyingSailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailStore;
+import org.eclipse.rdf4j.sail.base.SnapshotSailStore;
+import org.eclipse.rdf4j.sail.helpers.AbstractNotifyingSail;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Delta store of the {@link EndpointStore} keyed by the HDT ids, the HDT terms
+ * are stored as longs and only the other terms are stored as strings.
+ *
+ * @see HDTDeltaSailStore
+ */
+public class HDTDeltaStore extends AbstractNotifyingSail {
+	private final File dataDir;
+	private HDTDeltaSailStore backingStore;
+	private SailStore sailStore;
+
+	/**
+	 * create the store
+	 *
+	 * @param dataDir data directory of the store
+	 */
+	public HDTDeltaStore(File dataDir) {
+		this.dataDir = dataDir;
+		setDataDir(dataDir);
+	}
+
+	/**
+	 * @return the store, null if the sail isn't initialized
+	 */
+	public SailStore getSailStore() {
+		return sailStore;
+	}
+
+	@Override
+	protected void initializeInternal() throws SailException {
+		try {
+			backingStore = new HDTDeltaSailStore(dataDir.toPath());
+		} catch (IOException e) {
+			throw new SailException("Can't load the delta store " + dataDir, e);
+		}
+		sailStore = new SnapshotSailStore(backingStore, LinkedHashModel::new);
+	}
+
+	@Override
+	protected void shutDownInternal() throws SailException {
+		try {
+			if (sailStore != null) {
+				sailStore.close();
+			}
+		} finally {
+			sailStore = null;
+			backingStore = null;
+		}
+	}
+
+	@Override
+	protected NotifyingSailConnection getConnectionInternal() throws SailException {
+		return new HDTDeltaStoreConnection(this);
+	}
+
+	@Override
+	public boolean isWritable() throws SailException {
+		return true;
+	}
+
+	@Override
+	public ValueFactory getValueFactory() {
+		return SimpleValueFactory.getInstance();
+	}
+}
@@ -0,0 +1,28 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.StrictEvaluationStrategyFactory;
+import org.eclipse.rdf4j.sail.SailException;
+import org.eclipse.rdf4j.sail.base.SailSourceConnection;
+
+/**
+ * Connection of the {@link HDTDeltaStore}
+ */
+public class HDTDeltaStoreConnection extends SailSourceConnection {
+	protected HDTDeltaStoreConnection(HDTDeltaStore sail) {
+		super(sail, sail.getSailStore(), new StrictEvaluationStrategyFactory());
+	}
+
+	@Override
+	protected void addStatementInternal(Resource subj, IRI pred, Value obj, Resource... contexts) throws SailException {
+		// the statements are added by the sink
+	}
+
+	@Override
+	protected void removeStatementsInternal(Resource subj, IRI pred, Value obj, Resource... contexts)
+			throws SailException {
+		// the statements are removed by the sink
+	}
+}
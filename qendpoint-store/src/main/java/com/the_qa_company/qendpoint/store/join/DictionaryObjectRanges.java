@@ -0,0 +1,241 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.dictionary.impl.MultipleBaseDictionary;
+import com.the_qa_company.qendpoint.core.dictionary.impl.MultipleLangBaseDictionary;
+import com.the_qa_company.qendpoint.core.util.LiteralsUtils;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Object id ranges of the literals of a multi-section dictionary, each datatype
+ * (and each language for the MSDL dictionary) has its own section, so its
+ * literals are using a contiguous range of object ids.
+ */
+public class DictionaryObjectRanges {
+	/**
+	 * read the ranges of a dictionary
+	 *
+	 * @param dictionary dictionary
+	 * @return ranges, null if the dictionary isn't split by datatype
+	 */
+	public static DictionaryObjectRanges of(Dictionary dictionary) {
+		if (dictionary instanceof MultipleBaseDictionary msd) {
+			return ofMSD(msd);
+		}
+		if (dictionary instanceof MultipleLangBaseDictionary msdl) {
+			return ofMSDL(msdl);
+		}
+		return null;
+	}
+
+	private static DictionaryObjectRanges ofMSD(MultipleBaseDictionary dictionary) {
+		DictionaryObjectRanges ranges = new DictionaryObjectRanges(false);
+		// same order as the global ids
+		long offset = dictionary.getNshared();
+		for (Map.Entry<? extends CharSequence, DictionarySection> e : dictionary.getAllObjects().entrySet()) {
+			DictionarySection section = e.getValue();
+			String type = e.getKey().toString();
+			if (LiteralsUtils.NO_DATATYPE_STR.equals(type)) {
+				ranges.addPlainLiterals(section, offset);
+			} else if (LiteralsUtils.LITERAL_LANG_TYPE_STR.equals(type)) {
+				ranges.languageLiterals = ObjectIdRanges.of(offset + 1, offset + section.getNumberOfElements());
+			} else {
+				ranges.datatypes.put(type, ObjectIdRanges.of(offset + 1, offset + section.getNumberOfElements()));
+			}
+			offset += section.getNumberOfElements();
+		}
+		return ranges;
+	}
+
+	private static DictionaryObjectRanges ofMSDL(MultipleLangBaseDictionary dictionary) {
+		DictionaryObjectRanges ranges = new DictionaryObjectRanges(true);
+		for (int i = 0; i < dictionary.getObjectsSectionCount(); i++) {
+			MultipleLangBaseDictionary.ObjectIdLocationData data = dictionary.getObjectsSectionFromId(i);
+			DictionarySection section = data.section();
+			ObjectIdRanges range = ObjectIdRanges.of(data.location() + 1,
+					data.location() + section.getNumberOfElements());
+			if (data.suffix().isEmpty()) {
+				if (LiteralsUtils.NO_DATATYPE.equals(data.name())) {
+					ranges.addPlainLiterals(section, data.location());
+				}
+				// shared section, no literal
+			} else if (data.suffix().charAt(0) == '@') {
+				ranges.languages.put(data.name().toString(), range);
+				ranges.languageLiterals = ranges.languageLiterals.union(range);
+			} else {
+				ranges.datatypes.put(data.name().toString(), range);
+			}
+		}
+		return ranges;
+	}
+
+	/**
+	 * section of the literals of a datatype
+	 *
+	 * @param datatype datatype IRI, with the brackets
+	 * @param offset   id offset of the section
+	 * @param section  section
+	 */
+	public record DatatypeSection(String datatype, long offset, DictionarySection section) {}
+
+	/**
+	 * list the sections of the typed literals of a dictionary, the plain and
+	 * the language literals are ignored
+	 *
+	 * @param dictionary dictionary
+	 * @return sections, null if the dictionary isn't split by datatype
+	 */
+	public static List<DatatypeSection> getDatatypeSections(Dictionary dictionary) {
+		List<DatatypeSection> sections = new ArrayList<>();
+		if (dictionary instanceof MultipleBaseDictionary msd) {
+			long offset = msd.getNshared();
+			for (Map.Entry<? extends CharSequence, DictionarySection> e : msd.getAllObjects().entrySet()) {
+				String type = e.getKey().toString();
+				if (!LiteralsUtils.NO_DATATYPE_STR.equals(type) && !LiteralsUtils.LITERAL_LANG_TYPE_STR.equals(type)) {
+					sections.add(new DatatypeSection(type, offset, e.getValue()));
+				}
+				offset += e.getValue().getNumberOfElements();
+			}
+			return sections;
+		}
+		if (dictionary instanceof MultipleLangBaseDictionary msdl) {
+			for (int i = 0; i < msdl.getObjectsSectionCount(); i++) {
+				MultipleLangBaseDictionary.ObjectIdLocationData data = msdl.getObjectsSectionFromId(i);
+				if (!data.suffix().isEmpty() && data.suffix().charAt(0) != '@') {
+					sections.add(new DatatypeSection(data.name().toString(), data.location(), data.section()));
+				}
+			}
+			return sections;
+		}
+		return null;
+	}
+
+	private final boolean languageSections;
+	private final Map<String, ObjectIdRanges> datatypes = new HashMap<>();
+	private final Map<String, ObjectIdRanges> languages = new HashMap<>();
+	private ObjectIdRanges plainLiterals = ObjectIdRanges.empty();
+	private ObjectIdRanges languageLiterals = ObjectIdRanges.empty();
+
+	private DictionaryObjectRanges(boolean languageSections) {
+		this.languageSections = languageSections;
+	}
+
+	/**
+	 * find the plain literals of the non typed section, the literals are
+	 * starting with a quote, so they are before the IRIs and the blank nodes
+	 *
+	 * @param section non typed section
+	 * @param offset  id offset of the section
+	 */
+	private void addPlainLiterals(DictionarySection section, long offset) {
+		long start = firstIdWithPrefixAfter(section, '"' - 1);
+		long end = firstIdWithPrefixAfter(section, '"') - 1;
+		plainLiterals = ObjectIdRanges.of(offset + start, offset + end);
+	}
+
+	/**
+	 * binary search of the first element of a section starting with a char
+	 * greater than a char
+	 *
+	 * @param section section
+	 * @param c       char
+	 * @return local id, number of elements + 1 if none
+	 */
+	private static long firstIdWithPrefixAfter(DictionarySection section, int c) {
+		long low = 1;
+		long high = section.getNumberOfElements() + 1;
+		while (low < high) {
+			long mid = (low + high) >>> 1;
+			CharSequence str = section.extract(mid);
+			if (str.length() == 0 || str.charAt(0) <= c) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * @return the ids of all the literals
+	 */
+	public ObjectIdRanges getLiterals() {
+		ObjectIdRanges ranges = plainLiterals.union(languageLiterals);
+		for (ObjectIdRanges range : datatypes.values()) {
+			ranges = ranges.union(range);
+		}
+		return ranges;
+	}
+
+	/**
+	 * @return the ids of the literals with a language
+	 */
+	public ObjectIdRanges getLanguageLiterals() {
+		return languageLiterals;
+	}
+
+	/**
+	 * get the ids of the literals of a datatype
+	 *
+	 * @param datatype datatype IRI
+	 * @return ranges
+	 */
+	public ObjectIdRanges getDatatype(String datatype) {
+		if (RDF.LANGSTRING.stringValue().equals(datatype)) {
+			return languageLiterals;
+		}
+		ObjectIdRanges ranges = datatypes.getOrDefault("<" + datatype + ">", ObjectIdRanges.empty());
+		if (XSD.STRING.stringValue().equals(datatype)) {
+			// the plain literals are xsd:string literals
+			return ranges.union(plainLiterals);
+		}
+		return ranges;
+	}
+
+	/**
+	 * get the ids of the literals of a language
+	 *
+	 * @param language language
+	 * @return ranges, null if the dictionary can't split the languages
+	 */
+	public ObjectIdRanges getLanguage(String language) {
+		if (!languageSections) {
+			return null;
+		}
+		return languages.getOrDefault(language, ObjectIdRanges.empty());
+	}
+
+	/**
+	 * get the ids of the literals with a language matching a language range,
+	 * same matching as the SPARQL langMatches function
+	 *
+	 * @param languageRange language range
+	 * @return ranges, null if the dictionary can't split the languages
+	 */
+	public ObjectIdRanges getLanguageMatching(String languageRange) {
+		if ("*".equals(languageRange)) {
+			return languageLiterals;
+		}
+		if (!languageSections || languageRange.isEmpty()) {
+			// the empty range is matching the literals without language
+			return null;
+		}
+		String range = languageRange.toLowerCase(Locale.ROOT);
+		ObjectIdRanges ranges = ObjectIdRanges.empty();
+		for (Map.Entry<String, ObjectIdRanges> e : languages.entrySet()) {
+			String language = e.getKey().toLowerCase(Locale.ROOT);
+			if (language.equals(range) || (language.startsWith(range) && language.charAt(range.length()) == '-')) {
+				ranges = ranges.union(e.getValue());
+			}
+		}
+		return ranges;
+	}
+}
@@ -0,0 +1,120 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.QueryModelVisitor;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.UnaryTupleOperator;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Query node describing a basic graph pattern evaluated with the HDT ids, the
+ * argument is the original join tree, it is used to read the patterns in the
+ * join order and as a fallback if the ids can't be used (delta store containing
+ * matching triples)
+ */
+public class HDTIdJoin extends UnaryTupleOperator {
+
+	/**
+	 * test if a node can be evaluated as an id join, the node should only
+	 * contain joins of default graph statement patterns
+	 *
+	 * @param expr the node
+	 * @return true if the node can be used as an id join argument
+	 */
+	public static boolean isIdJoinBGP(TupleExpr expr) {
+		return isIdJoinBGP(expr, false);
+	}
+
+	/**
+	 * test if a node can be evaluated as an id join, the node should only
+	 * contain joins of default graph statement patterns, the patterns can be
+	 * filtered by {@link HDTObjectRangeFilter} if allowRangeFilters is true
+	 *
+	 * @param expr              the node
+	 * @param allowRangeFilters allow the object range filters on the patterns
+	 * @return true if the node can be used as an id join argument
+	 */
+	public static boolean isIdJoinBGP(TupleExpr expr, boolean allowRangeFilters) {
+		if (expr instanceof Join join) {
+			return isIdJoinBGP(join.getLeftArg(), allowRangeFilters)
+					&& isIdJoinBGP(join.getRightArg(), allowRangeFilters);
+		}
+		if (allowRangeFilters && expr instanceof HDTObjectRangeFilter filter) {
+			return !(filter.getArg() instanceof Join) && isIdJoinBGP(filter.getArg(), true);
+		}
+		if (expr instanceof StatementPattern sp) {
+			return sp.getContextVar() == null && sp.getScope() == StatementPattern.Scope.DEFAULT_CONTEXTS;
+		}
+		return false;
+	}
+
+	public HDTIdJoin() {
+	}
+
+	public HDTIdJoin(TupleExpr arg) {
+		super(arg);
+	}
+
+	/**
+	 * @return the statement patterns of the argument, in the evaluation order
+	 */
+	public List<StatementPattern> getPatterns() {
+		List<StatementPattern> patterns = new ArrayList<>();
+		fillPatterns(getArg(), patterns, null, null);
+		return patterns;
+	}
+
+	/**
+	 * @return the object ids of the patterns filtered by a
+	 *         {@link HDTObjectRangeFilter}, the map is using the identity of
+	 *         the patterns
+	 */
+	public Map<StatementPattern, ObjectIdFilter> getObjectFilters() {
+		Map<StatementPattern, ObjectIdFilter> ranges = new IdentityHashMap<>();
+		fillPatterns(getArg(), new ArrayList<>(), ranges, null);
+		return ranges;
+	}
+
+	private static void fillPatterns(TupleExpr expr, List<StatementPattern> patterns,
+			Map<StatementPattern, ObjectIdFilter> rangesMap, ObjectIdFilter ranges) {
+		if (expr instanceof Join join) {
+			fillPatterns(join.getLeftArg(), patterns, rangesMap, null);
+			fillPatterns(join.getRightArg(), patterns, rangesMap, null);
+		} else if (expr instanceof HDTObjectRangeFilter filter) {
+			fillPatterns(filter.getArg(), patterns, rangesMap,
+					ranges == null ? filter.getIds() : ranges.and(filter.getIds()));
+		} else if (expr instanceof StatementPattern sp) {
+			patterns.add(sp);
+			if (rangesMap != null && ranges != null) {
+				rangesMap.put(sp, ranges);
+			}
+		} else {
+			throw new IllegalArgumentException("Unsupported id join node: " + expr.getClass());
+		}
+	}
+
+	@Override
+	public <X extends Exception> void visit(QueryModelVisitor<X> visitor) throws X {
+		visitor.meetOther(this);
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof HDTIdJoin && super.equals(other);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode() ^ "HDTIdJoin".hashCode();
+	}
+
+	@Override
+	public HDTIdJoin clone() {
+		return (HDTIdJoin) super.clone();
+	}
+}
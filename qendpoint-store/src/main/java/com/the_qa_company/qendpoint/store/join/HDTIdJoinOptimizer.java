@@ -0,0 +1,59 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+
+/**
+ * QueryOptimizer to replace the joins of statement patterns by an
+ * {@link HDTIdJoin}, should be used after the join order optimization.
+ */
+public class HDTIdJoinOptimizer implements QueryOptimizer {
+
+	@Override
+	public void optimize(TupleExpr tupleExpr, Dataset dataset, BindingSet bindings) {
+		if (dataset != null) {
+			// the dataset is filtering the contexts, not supported by the id
+			// join
+			return;
+		}
+		tupleExpr.visit(new IdJoinVisitor());
+	}
+
+	private static class IdJoinVisitor extends AbstractSimpleQueryModelVisitor<RuntimeException> {
+		private IdJoinVisitor() {
+			super(false);
+		}
+
+		@Override
+		public void meet(Join node) {
+			if (HDTIdJoin.isIdJoinBGP(node, true)) {
+				// the whole join tree is a bgp, no need to visit the children
+				replaceWithIdJoin(node);
+				return;
+			}
+			super.meet(node);
+		}
+
+		@Override
+		public void meet(Filter node) {
+			if (node instanceof HDTObjectRangeFilter && HDTIdJoin.isIdJoinBGP(node, true)) {
+				// single filtered pattern, the ranges are only used by the id
+				// join
+				replaceWithIdJoin(node);
+				return;
+			}
+			super.meet(node);
+		}
+
+		private void replaceWithIdJoin(TupleExpr node) {
+			HDTIdJoin idJoin = new HDTIdJoin();
+			node.replaceWith(idJoin);
+			idJoin.setArg(node);
+		}
+	}
+}
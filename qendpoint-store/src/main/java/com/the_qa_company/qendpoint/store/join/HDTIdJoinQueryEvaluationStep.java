@@ -0,0 +1,526 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.EndpointStoreConnection;
+import com.the_qa_company.qendpoint.store.HDTConverter;
+import com.the_qa_company.qendpoint.store.exception.EndpointTimeoutException;
+import com.the_qa_company.qendpoint.utils.BitArrayDisk;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.common.iteration.LookAheadIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.MutableBindingSet;
+import org.eclipse.rdf4j.query.QueryEvaluationException;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryEvaluationStep;
+import org.eclipse.rdf4j.query.algebra.evaluation.impl.QueryEvaluationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Evaluation step of a {@link HDTIdJoin}, the bindings are kept as HDT ids with
+ * the role of the component binding them during the join and the values are
+ * only created for the final binding sets.
+ */
+public class HDTIdJoinQueryEvaluationStep implements QueryEvaluationStep {
+	private static final TripleComponentRole[] ROLES = TripleComponentRole.values();
+	/**
+	 * the component is a constant
+	 */
+	static final byte KIND_CONST = 0;
+	/**
+	 * the component is a variable bound before this pattern
+	 */
+	static final byte KIND_BOUND = 1;
+	/**
+	 * the component is a variable bound by this pattern
+	 */
+	static final byte KIND_NEW = 2;
+	/**
+	 * the component is a variable bound by a previous component of this pattern
+	 */
+	static final byte KIND_REPEAT = 3;
+
+	private final EndpointStore endpoint;
+	private final EndpointStoreConnection connection;
+	private final QueryEvaluationStep fallback;
+	private final QueryEvaluationContext context;
+	private final HDTConverter converter;
+	private final HDT hdt;
+	private final String[] varNames;
+	private final Function<BindingSet, Value>[] getters;
+	private final BiConsumer<Value, MutableBindingSet>[] setters;
+	/**
+	 * [pattern][component] var slot or -1 if constant
+	 */
+	private final int[][] patternVars;
+	/**
+	 * [pattern][component] constant id, 0 for variables and -1 for constants
+	 * not in the HDT
+	 */
+	private final long[][] patternConstants;
+	/**
+	 * [pattern] filter of the object ids, null if the object isn't filtered
+	 */
+	private final ObjectIdFilter[] patternRanges;
+	private final List<Var> valuedVars = new ArrayList<>();
+	/**
+	 * number of patterns at the start of the join forming a subject star, 0 if
+	 * none
+	 */
+	private final int starSize;
+	private Boolean canUseIds;
+
+	@SuppressWarnings("unchecked")
+	public HDTIdJoinQueryEvaluationStep(EndpointStore endpoint, EndpointStoreConnection connection, HDTIdJoin join,
+			QueryEvaluationStep fallback, QueryEvaluationContext context) {
+		this.endpoint = endpoint;
+		this.connection = connection;
+		this.fallback = fallback;
+		this.context = context;
+		this.converter = endpoint.getHdtConverter();
+		this.hdt = endpoint.getHdt();
+
+		List<StatementPattern> patterns = join.getPatterns();
+		Map<StatementPattern, ObjectIdFilter> objectRanges = join.getObjectFilters();
+		List<StatementPattern> star = findStar(patterns);
+		if (star.size() >= 2) {
+			// move the star to the start of the join
+			List<StatementPattern> reordered = new ArrayList<>(star);
+			for (StatementPattern sp : patterns) {
+				if (star.stream().noneMatch(starPattern -> starPattern == sp)) {
+					reordered.add(sp);
+				}
+			}
+			patterns = reordered;
+			starSize = star.size();
+		} else {
+			starSize = 0;
+		}
+		patternVars = new int[patterns.size()][ROLES.length];
+		patternConstants = new long[patterns.size()][ROLES.length];
+		patternRanges = new ObjectIdFilter[patterns.size()];
+
+		Map<String, Integer> slots = new HashMap<>();
+		List<String> names = new ArrayList<>();
+		for (int i = 0; i < patterns.size(); i++) {
+			StatementPattern sp = patterns.get(i);
+			patternRanges[i] = objectRanges.get(sp);
+			Var[] vars = { sp.getSubjectVar(), sp.getPredicateVar(), sp.getObjectVar() };
+			for (int j = 0; j < ROLES.length; j++) {
+				Var var = vars[j];
+				if (var.hasValue()) {
+					patternVars[i][j] = -1;
+					patternConstants[i][j] = valueToId(var.getValue(), ROLES[j]);
+					if (!var.isConstant()) {
+						// pre-bound variable, it should be in the output
+						valuedVars.add(var);
+					}
+				} else {
+					patternVars[i][j] = slots.computeIfAbsent(var.getName(), name -> {
+						names.add(name);
+						return names.size() - 1;
+					});
+				}
+			}
+		}
+
+		varNames = names.toArray(String[]::new);
+		getters = new Function[varNames.length];
+		setters = new BiConsumer[varNames.length];
+		for (int i = 0; i < varNames.length; i++) {
+			getters[i] = context.getValue(varNames[i]);
+			setters[i] = context.setBinding(varNames[i]);
+		}
+	}
+
+	/**
+	 * find the patterns {@code ?s p ?o} sharing the subject of the first
+	 * pattern, the first pattern is the most selective one after the join
+	 * ordering, so the star is only searched from it.
+	 *
+	 * @param patterns patterns
+	 * @return star patterns, the first pattern is the first of the join
+	 */
+	private static List<StatementPattern> findStar(List<StatementPattern> patterns) {
+		List<StatementPattern> star = new ArrayList<>();
+		StatementPattern first = patterns.get(0);
+		if (!isStarPattern(first)) {
+			return star;
+		}
+		String subject = first.getSubjectVar().getName();
+		Set<String> objects = new HashSet<>();
+		for (StatementPattern sp : patterns) {
+			if (isStarPattern(sp) && sp.getSubjectVar().getName().equals(subject)
+					&& objects.add(sp.getObjectVar().getName())) {
+				star.add(sp);
+			}
+		}
+		return star;
+	}
+
+	private static boolean isStarPattern(StatementPattern sp) {
+		Var subject = sp.getSubjectVar();
+		Var object = sp.getObjectVar();
+		return !subject.hasValue() && sp.getPredicateVar().hasValue() && !object.hasValue()
+				&& !object.getName().equals(subject.getName());
+	}
+
+	private long valueToId(Value value, TripleComponentRole role) {
+		long id = switch (role) {
+		case SUBJECT -> value instanceof Resource res ? converter.subjectToID(res) : -1;
+		case PREDICATE -> value instanceof IRI iri ? converter.predicateToID(iri) : -1;
+		case OBJECT -> converter.objectToID(value);
+		};
+		return id <= 0 ? -1 : id;
+	}
+
+	/**
+	 * test if the id join can be used, all the constants should be in the HDT
+	 * and the delta shouldn't contain a triple matching a pattern.
+	 *
+	 * @return true if the id join can be used, false for the fallback
+	 */
+	private boolean canUseIds() {
+		if (canUseIds == null) {
+			canUseIds = computeCanUseIds();
+		}
+		return canUseIds;
+	}
+
+	private boolean computeCanUseIds() {
+		boolean deltaEmpty = endpoint.isDeltaEmpty();
+		for (long[] constants : patternConstants) {
+			for (long constant : constants) {
+				if (constant == -1) {
+					// this constant can only be in the delta
+					return false;
+				}
+			}
+			if (!deltaEmpty && endpoint.shouldSearchOverRDF4J(constants[0], constants[1], constants[2])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public CloseableIteration<BindingSet, QueryEvaluationException> evaluate(BindingSet bindings) {
+		if (!canUseIds()) {
+			return fallback.evaluate(bindings);
+		}
+		return new IdJoinIteration(bindings);
+	}
+
+	private class IdJoinIteration extends LookAheadIteration<BindingSet, QueryEvaluationException> {
+		private final BindingSet parent;
+		private final BitArrayDisk deleteBitMap = endpoint.getDeleteBitMap();
+		private final long[] values = new long[varNames.length];
+		private final TripleComponentRole[] roles = new TripleComponentRole[varNames.length];
+		/**
+		 * value of the slot bound by the parent binding set, null if bound by
+		 * the join
+		 */
+		private final Value[] inputValues = new Value[varNames.length];
+		/**
+		 * [slot][role] cache of the ids of the input values, 0 if not computed
+		 */
+		private final long[][] inputIds = new long[varNames.length][];
+		private final byte[][] kinds = new byte[patternVars.length][ROLES.length];
+		private final IteratorTripleID[] iterators = new IteratorTripleID[patternVars.length];
+		private final TripleID searchPattern = new TripleID();
+		private int depth;
+		private SubjectMergeJoin mergeJoin;
+		private boolean useMergeJoin;
+
+		IdJoinIteration(BindingSet parent) {
+			this.parent = parent;
+			for (int i = 0; i < varNames.length; i++) {
+				Value value = getters[i].apply(parent);
+				if (value != null) {
+					inputValues[i] = value;
+					inputIds[i] = new long[ROLES.length];
+				}
+			}
+
+			// compute the kind of each component
+			boolean[] bound = new boolean[varNames.length];
+			for (int i = 0; i < varNames.length; i++) {
+				bound[i] = inputValues[i] != null;
+			}
+			for (int i = 0; i < patternVars.length; i++) {
+				int[] vars = patternVars[i];
+				for (int j = 0; j < ROLES.length; j++) {
+					int slot = vars[j];
+					if (slot == -1) {
+						kinds[i][j] = KIND_CONST;
+					} else if (bound[slot]) {
+						kinds[i][j] = KIND_BOUND;
+					} else {
+						kinds[i][j] = KIND_NEW;
+						for (int k = 0; k < j; k++) {
+							if (vars[k] == slot) {
+								kinds[i][j] = KIND_REPEAT;
+								break;
+							}
+						}
+					}
+				}
+				for (int slot : vars) {
+					if (slot != -1) {
+						bound[slot] = true;
+					}
+				}
+			}
+
+			if (starSize != 0 && !connection.hasConfig(EndpointStore.QUERY_CONFIG_NO_MERGE_JOIN)) {
+				// the star variables should all be bound by the star
+				useMergeJoin = kinds[0][0] == KIND_NEW;
+				for (int i = 0; i < starSize && useMergeJoin; i++) {
+					useMergeJoin = kinds[i][2] == KIND_NEW;
+				}
+			}
+		}
+
+		/**
+		 * get the id of a bound slot in a particular role
+		 *
+		 * @param slot slot
+		 * @param role role
+		 * @return id, -1 if it can't be found for this role
+		 */
+		private long getId(int slot, TripleComponentRole role) {
+			if (inputValues[slot] != null) {
+				long[] ids = inputIds[slot];
+				long id = ids[role.ordinal()];
+				if (id == 0) {
+					ids[role.ordinal()] = id = valueToId(inputValues[slot], role);
+				}
+				return id;
+			}
+			return converter.convertId(values[slot], roles[slot], role);
+		}
+
+		private IteratorTripleID openIterator(int index) {
+			int[] vars = patternVars[index];
+			long[] constants = patternConstants[index];
+			byte[] kind = kinds[index];
+			long[] ids = new long[ROLES.length];
+			for (int j = 0; j < ROLES.length; j++) {
+				switch (kind[j]) {
+				case KIND_CONST -> ids[j] = constants[j];
+				case KIND_BOUND -> {
+					long id = getId(vars[j], ROLES[j]);
+					if (id <= 0) {
+						// can't match in the HDT
+						return null;
+					}
+					ids[j] = id;
+				}
+				default -> ids[j] = 0;
+				}
+			}
+			searchPattern.setAll(ids[0], ids[1], ids[2]);
+			IteratorTripleID it = hdt.getTriples().search(searchPattern);
+			ObjectIdFilter ranges = patternRanges[index];
+			if (ranges != null) {
+				if (ranges.isEmpty()) {
+					return null;
+				}
+				if (it.canGoToObject()) {
+					// skip the objects before the first range
+					it.goToObject(ranges.ceiling(1));
+				}
+			}
+			return it;
+		}
+
+		/**
+		 * open the merge join of the star patterns
+		 *
+		 * @return merge join, null if the triples aren't sorted by subject
+		 */
+		private SubjectMergeJoin openMergeJoin() {
+			IteratorTripleID[] its = new IteratorTripleID[starSize];
+			for (int i = 0; i < starSize; i++) {
+				searchPattern.setAll(0, patternConstants[i][1], 0);
+				// the permutations sorted by object are ignored
+				IteratorTripleID it = hdt.getTriples().searchSubjectSorted(searchPattern);
+				// the iterators able to seek a subject are sorted by subject
+				if (it.getOrder() != TripleComponentOrder.SPO && !it.canGoToSubject()) {
+					return null;
+				}
+				its[i] = it;
+			}
+			return new SubjectMergeJoin(its, deleteBitMap);
+		}
+
+		/**
+		 * move the merge join to the next combination and bind the star
+		 * variables
+		 *
+		 * @return if a combination was found
+		 */
+		private boolean nextMergeJoin() {
+			do {
+				if (!mergeJoin.next()) {
+					return false;
+				}
+			} while (!isMergeJoinInRanges());
+			int subjectSlot = patternVars[0][0];
+			values[subjectSlot] = mergeJoin.getSubject();
+			roles[subjectSlot] = TripleComponentRole.SUBJECT;
+			for (int i = 0; i < starSize; i++) {
+				int objectSlot = patternVars[i][2];
+				values[objectSlot] = mergeJoin.getObject(i);
+				roles[objectSlot] = TripleComponentRole.OBJECT;
+			}
+			return true;
+		}
+
+		/**
+		 * @return if the objects of the current merge join combination are in
+		 *         the ranges of their patterns
+		 */
+		private boolean isMergeJoinInRanges() {
+			for (int i = 0; i < starSize; i++) {
+				ObjectIdFilter ranges = patternRanges[i];
+				if (ranges != null && !ranges.contains(mergeJoin.getObject(i))) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * move an iterator to the next non deleted triple matching the pattern
+		 * and bind its variables
+		 *
+		 * @param index the pattern index
+		 * @return if a triple was found
+		 */
+		private boolean nextTriple(int index) {
+			IteratorTripleID it = iterators[index];
+			int[] vars = patternVars[index];
+			byte[] kind = kinds[index];
+			ObjectIdFilter ranges = patternRanges[index];
+			while (it.hasNext()) {
+				TripleID triple = it.next();
+				if (ranges != null && !ranges.contains(triple.getObject())) {
+					if (it.canGoToObject()) {
+						// the objects are sorted, seek the next range
+						long next = ranges.ceiling(triple.getObject());
+						if (next == -1) {
+							return false;
+						}
+						if (next > triple.getObject()) {
+							it.goToObject(next);
+						}
+					}
+					continue;
+				}
+				if (deleteBitMap.access(it.getLastTriplePosition())) {
+					continue;
+				}
+				long[] ids = { triple.getSubject(), triple.getPredicate(), triple.getObject() };
+				boolean match = true;
+				for (int j = 0; j < ROLES.length; j++) {
+					if (kind[j] == KIND_NEW) {
+						values[vars[j]] = ids[j];
+						roles[vars[j]] = ROLES[j];
+					} else if (kind[j] == KIND_REPEAT
+							&& converter.convertId(values[vars[j]], roles[vars[j]], ROLES[j]) != ids[j]) {
+						match = false;
+						break;
+					}
+				}
+				if (match) {
+					return true;
+				}
+			}
+			return false;
+		}
+
+		@Override
+		protected BindingSet getNextElement() throws QueryEvaluationException {
+			if (connection.isTimeout()) {
+				throw new EndpointTimeoutException();
+			}
+			while (depth >= 0) {
+				if (useMergeJoin && depth < starSize) {
+					if (mergeJoin == null) {
+						mergeJoin = openMergeJoin();
+						if (mergeJoin == null) {
+							// can't merge, use the nested loops
+							useMergeJoin = false;
+							continue;
+						}
+					}
+					if (!nextMergeJoin()) {
+						depth = -1;
+						break;
+					}
+					if (starSize == iterators.length) {
+						return createBindingSet();
+					}
+					depth = starSize;
+					continue;
+				}
+				if (iterators[depth] == null) {
+					IteratorTripleID it = openIterator(depth);
+					if (it == null) {
+						depth--;
+						continue;
+					}
+					iterators[depth] = it;
+				}
+				if (!nextTriple(depth)) {
+					iterators[depth] = null;
+					depth--;
+					continue;
+				}
+				if (depth == iterators.length - 1) {
+					return createBindingSet();
+				}
+				depth++;
+			}
+			return null;
+		}
+
+		private BindingSet createBindingSet() {
+			MutableBindingSet bs = context.createBindingSet(parent);
+			for (int i = 0; i < varNames.length; i++) {
+				if (inputValues[i] == null) {
+					setters[i].accept(converter.idToValue(roles[i], values[i]), bs);
+				}
+			}
+			for (Var var : valuedVars) {
+				if (!bs.hasBinding(var.getName())) {
+					bs.setBinding(var.getName(), var.getValue());
+				}
+			}
+			return bs;
+		}
+
+		@Override
+		protected void handleClose() throws QueryEvaluationException {
+			depth = -1;
+			super.handleClose();
+		}
+	}
+}
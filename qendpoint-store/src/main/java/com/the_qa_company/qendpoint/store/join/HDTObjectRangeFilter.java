@@ -0,0 +1,68 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.ValueExpr;
+
+import java.util.Objects;
+
+/**
+ * Filter on the object of a statement pattern, the condition is only true for
+ * the objects of the HDT with an id in the ranges. The ranges are used by the
+ * {@link HDTIdJoin} evaluation, the condition is evaluated by the fallback.
+ */
+public class HDTObjectRangeFilter extends Filter {
+	private final String varName;
+	private final ObjectIdFilter ids;
+
+	public HDTObjectRangeFilter(ValueExpr condition, String varName, ObjectIdRanges ranges) {
+		this(condition, varName, ObjectIdFilter.of(ranges));
+	}
+
+	public HDTObjectRangeFilter(ValueExpr condition, String varName, ObjectIdFilter ids) {
+		setCondition(condition);
+		this.varName = Objects.requireNonNull(varName, "varName can't be null!");
+		this.ids = Objects.requireNonNull(ids, "ids can't be null!");
+	}
+
+	/**
+	 * @return the name of the object variable
+	 */
+	public String getVarName() {
+		return varName;
+	}
+
+	/**
+	 * @return the ranges of the object ids
+	 */
+	public ObjectIdRanges getRanges() {
+		return ids.getRanges();
+	}
+
+	/**
+	 * @return the object ids matching the condition
+	 */
+	public ObjectIdFilter getIds() {
+		return ids;
+	}
+
+	@Override
+	public String getSignature() {
+		return super.getSignature() + " (?" + varName + " in " + ids + ")";
+	}
+
+	@Override
+	public boolean equals(Object other) {
+		return other instanceof HDTObjectRangeFilter o && super.equals(other) && varName.equals(o.varName)
+				&& ids.equals(o.ids);
+	}
+
+	@Override
+	public int hashCode() {
+		return super.hashCode() ^ ids.hashCode();
+	}
+
+	@Override
+	public HDTObjectRangeFilter clone() {
+		return (HDTObjectRangeFilter) super.clone();
+	}
+}
@@ -0,0 +1,249 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.triples.TriplesStatistics;
+import com.the_qa_company.qendpoint.store.HDTConverter;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Estimate the cardinality of a left-deep join of statement patterns with the
+ * {@link TriplesStatistics} of the HDT. The patterns are added one by one with
+ * {@link #add(StatementPattern)}.
+ * <ul>
+ * <li>a pattern joined on the subject of a star {@code ?s p1 ?o1 . ?s p2 ?o2}
+ * uses the characteristic sets to get the number of triples of the new
+ * predicate by subject of the star,</li>
+ * <li>the other joins are using the number of distinct values of the join
+ * variables, {@code |R| * |t| / max(distinct(R.v), distinct(t.v))}, the
+ * distinct values of a pattern are read from the statistics of its
+ * predicate.</li>
+ * </ul>
+ */
+public class JoinCardinalityEstimator {
+	private final TriplesStatistics statistics;
+	private final HDTConverter converter;
+	private final ToDoubleFunction<StatementPattern> patternCardinality;
+	/**
+	 * estimated number of distinct values of the bound variables
+	 */
+	private final Map<String, Double> distinct = new HashMap<>();
+	/**
+	 * constant predicates of the patterns using a variable as subject
+	 */
+	private final Map<String, List<Long>> stars = new HashMap<>();
+	/**
+	 * subject variables used with a variable predicate, the star can't be
+	 * estimated with the characteristic sets
+	 */
+	private final Set<String> invalidStars = new HashSet<>();
+	private double cardinality;
+	private boolean empty = true;
+
+	/**
+	 * create an estimator
+	 *
+	 * @param statistics         HDT statistics
+	 * @param converter          converter to get the HDT ids of the constants
+	 * @param patternCardinality cardinality of a single pattern
+	 */
+	public JoinCardinalityEstimator(TriplesStatistics statistics, HDTConverter converter,
+			ToDoubleFunction<StatementPattern> patternCardinality) {
+		this.statistics = statistics;
+		this.converter = converter;
+		this.patternCardinality = patternCardinality;
+	}
+
+	/**
+	 * @return the estimated cardinality of the join of the added patterns
+	 */
+	public double getCardinality() {
+		return cardinality;
+	}
+
+	/**
+	 * test if a pattern is sharing a variable with the added patterns
+	 *
+	 * @param sp pattern
+	 * @return true if the pattern is using a bound variable
+	 */
+	public boolean isConnected(StatementPattern sp) {
+		for (Var var : sp.getVarList()) {
+			if (!var.hasValue() && distinct.containsKey(var.getName())) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * estimate the cardinality of the join after adding a pattern, the pattern
+	 * isn't added
+	 *
+	 * @param sp pattern
+	 * @return estimated cardinality
+	 */
+	public double estimate(StatementPattern sp) {
+		return estimate(new PatternInfo(sp));
+	}
+
+	/**
+	 * add a pattern to the join
+	 *
+	 * @param sp pattern
+	 * @return the new estimated cardinality
+	 */
+	public double add(StatementPattern sp) {
+		PatternInfo info = new PatternInfo(sp);
+		double newCardinality = estimate(info);
+
+		cardinality = newCardinality;
+		empty = false;
+
+		// the distinct values are bounded by the cardinality
+		distinct.replaceAll((name, value) -> Math.min(value, newCardinality));
+		addDistinct(info.subject, info.distinctSubjects(), newCardinality);
+		addDistinct(info.predicate, info.distinctPredicates(), newCardinality);
+		addDistinct(info.object, info.distinctObjects(), newCardinality);
+
+		if (info.subject != null && !invalidStars.contains(info.subject)) {
+			if (info.predicateId > 0) {
+				stars.computeIfAbsent(info.subject, k -> new ArrayList<>()).add(info.predicateId);
+			} else {
+				invalidStars.add(info.subject);
+				stars.remove(info.subject);
+			}
+		}
+		return newCardinality;
+	}
+
+	private void addDistinct(String var, double value, double max) {
+		if (var == null) {
+			return;
+		}
+		distinct.merge(var, Math.min(value, max), Math::min);
+	}
+
+	private double estimate(PatternInfo info) {
+		if (empty) {
+			return info.cardinality;
+		}
+
+		Set<String> joinVars = new HashSet<>();
+		for (String var : new String[] { info.subject, info.predicate, info.object }) {
+			if (var != null && distinct.containsKey(var)) {
+				joinVars.add(var);
+			}
+		}
+
+		if (joinVars.isEmpty()) {
+			// cross product
+			return cardinality * info.cardinality;
+		}
+
+		double estimation;
+		List<Long> star = info.subject != null ? stars.get(info.subject) : null;
+		if (star != null && info.predicateId > 0 && joinVars.contains(info.subject)) {
+			// join on the subject of a star, use the characteristic sets
+			long[] predicates = new long[star.size()];
+			for (int i = 0; i < star.size(); i++) {
+				predicates[i] = star.get(i);
+			}
+			double before = statistics.estimateStar(predicates);
+			predicates = Arrays.copyOf(predicates, predicates.length + 1);
+			predicates[star.size()] = info.predicateId;
+			double after = statistics.estimateStar(predicates);
+
+			double fanout = before == 0 ? 0 : after / before;
+			if (info.object == null) {
+				// constant object, only a part of the triples of the predicate
+				fanout *= info.cardinality / Math.max(1, statistics.getPredicateTriples(info.predicateId));
+			}
+			estimation = cardinality * fanout;
+			joinVars.remove(info.subject);
+		} else {
+			estimation = cardinality * info.cardinality;
+			if (joinVars.contains(info.subject)) {
+				estimation /= Math.max(1, Math.max(distinct.get(info.subject), info.distinctSubjects()));
+				joinVars.remove(info.subject);
+			}
+		}
+
+		if (joinVars.contains(info.predicate)) {
+			estimation /= Math.max(1, Math.max(distinct.get(info.predicate), info.distinctPredicates()));
+		}
+		if (joinVars.contains(info.object)) {
+			estimation /= Math.max(1, Math.max(distinct.get(info.object), info.distinctObjects()));
+		}
+		return estimation;
+	}
+
+	private static String varName(Var var) {
+		if (var == null || var.hasValue()) {
+			return null;
+		}
+		return var.getName();
+	}
+
+	private class PatternInfo {
+		private final String subject;
+		private final String predicate;
+		private final String object;
+		/**
+		 * id of the constant predicate, 0 if the predicate is a variable or
+		 * isn't in the HDT
+		 */
+		private final long predicateId;
+		private final double cardinality;
+
+		private PatternInfo(StatementPattern sp) {
+			subject = varName(sp.getSubjectVar());
+			predicate = varName(sp.getPredicateVar());
+			object = varName(sp.getObjectVar());
+			if (predicate == null) {
+				Value value = sp.getPredicateVar().getValue();
+				predicateId = value instanceof IRI iri ? Math.max(0, converter.predicateToID(iri)) : 0;
+			} else {
+				predicateId = 0;
+			}
+			cardinality = patternCardinality.applyAsDouble(sp);
+		}
+
+		private double distinctSubjects() {
+			if (subject == null) {
+				return 1;
+			}
+			if (predicateId > 0) {
+				return Math.min(cardinality, statistics.getPredicateSubjects(predicateId));
+			}
+			return Math.min(cardinality, statistics.getNumberOfSubjects());
+		}
+
+		private double distinctPredicates() {
+			if (predicate == null) {
+				return 1;
+			}
+			return Math.min(cardinality, statistics.getNumberOfPredicates());
+		}
+
+		private double distinctObjects() {
+			if (object == null) {
+				return 1;
+			}
+			if (predicateId > 0) {
+				return Math.min(cardinality, statistics.getPredicateObjects(predicateId));
+			}
+			return Math.min(cardinality, statistics.getNumberOfObjects());
+		}
+	}
+}
@@ -0,0 +1,33 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.model.SimpleLiteralHDT;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+
+/**
+ * Value comparator of the ORDER BY using the {@link NumericValueIndex} to
+ * compare the numeric and date literals of the HDT without decoding them, the
+ * other values are compared with the rdf4j comparator.
+ */
+public class NumericValueComparator extends ValueComparator {
+	private final HDT hdt;
+	private final NumericValueIndex index;
+
+	public NumericValueComparator(HDT hdt, NumericValueIndex index) {
+		this.hdt = hdt;
+		this.index = index;
+	}
+
+	@Override
+	public int compare(Value o1, Value o2) {
+		if (o1 instanceof SimpleLiteralHDT l1 && o2 instanceof SimpleLiteralHDT l2 && l1.getHdt() == hdt
+				&& l2.getHdt() == hdt) {
+			int compare = index.compare(l1.getHdtID(), l2.getHdtID());
+			if (compare != NumericValueIndex.NOT_COMPARABLE) {
+				return compare;
+			}
+		}
+		return super.compare(o1, o2);
+	}
+}
@@ -0,0 +1,944 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.compact.integer.VByte;
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.dictionary.DictionarySection;
+import com.the_qa_company.qendpoint.core.exceptions.CRCException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.util.crc.CRC32;
+import com.the_qa_company.qendpoint.core.util.crc.CRCInputStream;
+import com.the_qa_company.qendpoint.core.util.crc.CRCOutputStream;
+import com.the_qa_company.qendpoint.core.util.io.IOUtil;
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.query.algebra.Compare;
+
+import javax.xml.datatype.DatatypeConstants;
+import javax.xml.datatype.XMLGregorianCalendar;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.LongPredicate;
+import java.util.function.LongToIntFunction;
+
+/**
+ * Index of the values of the numeric and date literals of a multi-section
+ * dictionary. The literals of a section are sorted by their lexical form, the
+ * index stores for each numeric or date section the parsed values as longs, by
+ * local id, and the local ids sorted by value, so the comparisons with a
+ * constant can be converted to object ids and the literals can be ordered
+ * without decoding them.
+ * <p>
+ * A section is only indexed if all its values are valid and can be stored
+ * without loss: integers fitting in a long, decimals fitting in a long with a
+ * common scale, doubles, floats, dates and dateTimes with a millisecond
+ * precision and a consistent use of the timezones. The comparisons are
+ * following the rdf4j comparisons of the literals.
+ */
+public class NumericValueIndex {
+	/**
+	 * Current version of the index file
+	 */
+	public static final byte VERSION = 0x11;
+	public static final byte[] MAGIC = { '$', 'Q', 'E', 'P', 'N', 'V', 'I' };
+	/**
+	 * value returned by {@link #compare(long, long)} if the ids can't be
+	 * compared with the index
+	 */
+	public static final int NOT_COMPARABLE = Integer.MIN_VALUE;
+	/**
+	 * maximum number of matching ids converted into ranges by
+	 * {@link #match(Compare.CompareOp, Literal)}, the larger matches are using
+	 * a predicate on the indexed values
+	 */
+	public static final int MAX_RANGE_IDS = 1 << 16;
+	private static final int MAX_DECIMAL_SCALE = 18;
+	private static final int MAX_SECTION_SIZE = Integer.MAX_VALUE - 8;
+	private static final int MIN_YEAR = 1;
+	private static final int MAX_YEAR = 9999;
+	// timezone of the date sections without timezone
+	private static final int NO_TIMEZONE = DatatypeConstants.FIELD_UNDEFINED;
+	// timezone of the dateTime sections with different timezones
+	private static final int ANY_TIMEZONE = Integer.MAX_VALUE;
+	private static final Map<String, CoreDatatype.XSD> XSD_DATATYPES = new HashMap<>();
+
+	static {
+		for (CoreDatatype.XSD datatype : CoreDatatype.XSD.values()) {
+			XSD_DATATYPES.put(datatype.getIri().stringValue(), datatype);
+		}
+	}
+
+	/**
+	 * kind of the values of a section
+	 */
+	enum ValueKind {
+		INTEGER, DECIMAL, FLOAT, DOUBLE, DATETIME, DATE;
+
+		/**
+		 * get the kind of the values of a datatype
+		 *
+		 * @param datatype datatype
+		 * @return kind, null if the datatype can't be indexed
+		 */
+		static ValueKind of(CoreDatatype.XSD datatype) {
+			if (datatype.isIntegerDatatype()) {
+				return INTEGER;
+			}
+			return switch (datatype) {
+			case DECIMAL -> DECIMAL;
+			case FLOAT -> FLOAT;
+			case DOUBLE -> DOUBLE;
+			case DATETIME -> DATETIME;
+			case DATE -> DATE;
+			default -> null;
+			};
+		}
+
+		boolean isNumeric() {
+			return this != DATETIME && this != DATE;
+		}
+
+		boolean isFloating() {
+			return this == FLOAT || this == DOUBLE;
+		}
+	}
+
+	/**
+	 * build the index of the numeric and date sections of a dictionary
+	 *
+	 * @param dictionary dictionary
+	 * @return index
+	 * @throws IllegalArgumentException if the dictionary isn't split by
+	 *                                  datatype
+	 */
+	public static NumericValueIndex build(Dictionary dictionary) {
+		List<DictionaryObjectRanges.DatatypeSection> datatypeSections = DictionaryObjectRanges
+				.getDatatypeSections(dictionary);
+		if (datatypeSections == null) {
+			throw new IllegalArgumentException("The dictionary isn't split by datatype: " + dictionary.getType());
+		}
+		List<Section> sections = new ArrayList<>();
+		Set<String> unindexed = new TreeSet<>();
+		for (DictionaryObjectRanges.DatatypeSection ds : datatypeSections) {
+			String datatype = datatypeIRI(ds);
+			CoreDatatype.XSD xsd = valueDatatype(datatype);
+			if (xsd == null) {
+				continue;
+			}
+			ValueKind kind = ValueKind.of(xsd);
+			Section section = kind == null ? null : buildSection(datatype, xsd, kind, ds.offset(), ds.section());
+			if (section != null) {
+				sections.add(section);
+			} else if (ds.section().getNumberOfElements() != 0) {
+				unindexed.add(datatype);
+			}
+		}
+		return new NumericValueIndex(signature(datatypeSections), dictionary.getNshared(), dictionary.getNsubjects(),
+				dictionary.getNpredicates(), dictionary.getNobjects(), sections.toArray(Section[]::new), unindexed);
+	}
+
+	private static String datatypeIRI(DictionaryObjectRanges.DatatypeSection ds) {
+		String type = ds.datatype();
+		return type.startsWith("<") && type.endsWith(">") ? type.substring(1, type.length() - 1) : type;
+	}
+
+	/**
+	 * @param datatype datatype IRI
+	 * @return the XSD datatype, null if it can't be compared with the numbers
+	 *         or the dates
+	 */
+	private static CoreDatatype.XSD valueDatatype(String datatype) {
+		CoreDatatype.XSD xsd = XSD_DATATYPES.get(datatype);
+		if (xsd == null || !(xsd.isNumericDatatype() || xsd.isCalendarDatatype())) {
+			return null;
+		}
+		return xsd;
+	}
+
+	/**
+	 * compute the signature of the numeric and date sections of a dictionary,
+	 * the CRC32 of their datatypes, offsets and strings
+	 *
+	 * @param datatypeSections the datatype sections of the dictionary
+	 * @return signature
+	 */
+	private static long signature(List<DictionaryObjectRanges.DatatypeSection> datatypeSections) {
+		CRC32 crc = new CRC32();
+		for (DictionaryObjectRanges.DatatypeSection ds : datatypeSections) {
+			String datatype = datatypeIRI(ds);
+			if (valueDatatype(datatype) == null) {
+				continue;
+			}
+			update(crc, datatype);
+			update(crc, Long.toString(ds.offset()));
+			update(crc, Long.toString(ds.section().getNumberOfElements()));
+			Iterator<? extends CharSequence> it = ds.section().getSortedEntries();
+			while (it.hasNext()) {
+				update(crc, it.next());
+			}
+		}
+		return crc.getValue();
+	}
+
+	private static void update(CRC32 crc, CharSequence seq) {
+		ByteString str = ByteString.of(seq);
+		crc.update(str.getBuffer(), 0, str.length());
+		// separator
+		crc.update((byte) 0);
+	}
+
+	private static Section buildSection(String datatype, CoreDatatype.XSD xsd, ValueKind kind, long offset,
+			DictionarySection section) {
+		long count = section.getNumberOfElements();
+		if (count == 0 || count > MAX_SECTION_SIZE) {
+			return null;
+		}
+		int size = (int) count;
+		long[] values = new long[size];
+		int scale = 0;
+		int timezone = NO_TIMEZONE;
+		try {
+			if (kind == ValueKind.DECIMAL) {
+				// the decimals are stored with the scale of the most precise
+				// value
+				Iterator<? extends CharSequence> it = section.getSortedEntries();
+				while (it.hasNext()) {
+					String label = label(it.next());
+					if (label == null || !XMLDatatypeUtil.isValidValue(label, xsd)) {
+						return null;
+					}
+					scale = Math.max(scale, XMLDatatypeUtil.parseDecimal(label).stripTrailingZeros().scale());
+					if (scale > MAX_DECIMAL_SCALE) {
+						return null;
+					}
+				}
+			}
+
+			Iterator<? extends CharSequence> it = section.getSortedEntries();
+			int index = 0;
+			while (it.hasNext() && index < size) {
+				String label = label(it.next());
+				if (label == null || !XMLDatatypeUtil.isValidValue(label, xsd)) {
+					return null;
+				}
+				switch (kind) {
+				case INTEGER -> {
+					BigInteger value = XMLDatatypeUtil.parseInteger(label);
+					if (value.bitLength() >= Long.SIZE || (value.signum() == 0 && label.indexOf('-') != -1)) {
+						// -0 is converted to the double -0.0
+						return null;
+					}
+					values[index] = value.longValue();
+				}
+				case DECIMAL -> {
+					BigInteger value = XMLDatatypeUtil.parseDecimal(label).setScale(scale).unscaledValue();
+					if (value.bitLength() >= Long.SIZE) {
+						return null;
+					}
+					values[index] = value.longValue();
+				}
+				case DOUBLE -> values[index] = Double.doubleToLongBits(XMLDatatypeUtil.parseDouble(label));
+				case FLOAT -> {
+					// the double value is used in the comparisons with the
+					// doubles, it should give the same float value
+					double value = XMLDatatypeUtil.parseDouble(label);
+					if (Float.compare((float) value, XMLDatatypeUtil.parseFloat(label)) != 0) {
+						return null;
+					}
+					values[index] = Double.doubleToLongBits(value);
+				}
+				case DATETIME, DATE -> {
+					XMLGregorianCalendar calendar = XMLDatatypeUtil.parseCalendar(label);
+					if (!isCalendarIndexable(calendar)) {
+						return null;
+					}
+					int tz = calendar.getTimezone();
+					if (index == 0) {
+						timezone = tz;
+					} else if (tz != timezone) {
+						// the dateTimes with a timezone are compared with
+						// their instant, the others are compared by fields
+						if (kind != ValueKind.DATETIME || tz == NO_TIMEZONE || timezone == NO_TIMEZONE) {
+							return null;
+						}
+						timezone = ANY_TIMEZONE;
+					}
+					values[index] = calendarKey(calendar);
+				}
+				}
+				index++;
+			}
+			if (index != size || it.hasNext()) {
+				return null;
+			}
+		} catch (IllegalArgumentException | ArithmeticException | DateTimeException e) {
+			return null;
+		}
+
+		return new Section(datatype, xsd, kind, offset, scale, timezone, values, null);
+	}
+
+	/**
+	 * get the label of a literal of a datatype section
+	 *
+	 * @param literal literal
+	 * @return label, null if the literal isn't quoted
+	 */
+	private static String label(CharSequence literal) {
+		String str = literal.toString();
+		int end = str.lastIndexOf('"');
+		if (str.isEmpty() || str.charAt(0) != '"' || end <= 0) {
+			return null;
+		}
+		return str.substring(1, end);
+	}
+
+	private static boolean isCalendarIndexable(XMLGregorianCalendar calendar) {
+		if (calendar.getEon() != null || calendar.getYear() == DatatypeConstants.FIELD_UNDEFINED
+				|| calendar.getMonth() == DatatypeConstants.FIELD_UNDEFINED
+				|| calendar.getDay() == DatatypeConstants.FIELD_UNDEFINED || calendar.getYear() < MIN_YEAR
+				|| calendar.getYear() > MAX_YEAR || calendar.getHour() == 24) {
+			return false;
+		}
+		BigDecimal fraction = calendar.getFractionalSecond();
+		return fraction == null || fraction.movePointRight(3).stripTrailingZeros().scale() <= 0;
+	}
+
+	/**
+	 * compute the key of a calendar, the number of milliseconds since the
+	 * epoch, the calendar should be indexable
+	 *
+	 * @param calendar calendar
+	 * @return key
+	 */
+	private static long calendarKey(XMLGregorianCalendar calendar) {
+		int hour = Math.max(0, calendar.getHour());
+		int minute = Math.max(0, calendar.getMinute());
+		int second = Math.max(0, calendar.getSecond());
+		BigDecimal fraction = calendar.getFractionalSecond();
+		long millis = fraction == null ? 0 : fraction.movePointRight(3).longValueExact();
+		long key = LocalDateTime.of(calendar.getYear(), calendar.getMonth(), calendar.getDay(), hour, minute, second)
+				.toEpochSecond(ZoneOffset.UTC) * 1000 + millis;
+		if (calendar.getTimezone() != DatatypeConstants.FIELD_UNDEFINED) {
+			key -= calendar.getTimezone() * 60_000L;
+		}
+		return key;
+	}
+
+	/**
+	 * load an index from a file
+	 *
+	 * @param file file
+	 * @return index
+	 * @throws IOException can't read the file
+	 */
+	public static NumericValueIndex load(Path file) throws IOException {
+		try (InputStream is = new BufferedInputStream(Files.newInputStream(file))) {
+			byte[] header = is.readNBytes(MAGIC.length + 1);
+			if (header.length < MAGIC.length + 1) {
+				throw new EOFException("Can't read value index magic!");
+			}
+			for (int i = 0; i < MAGIC.length; i++) {
+				if (header[i] != MAGIC[i]) {
+					throw new IOException("Bad magic header!");
+				}
+			}
+			if (header[MAGIC.length] != VERSION) {
+				throw new IOException("Unknown value index version: " + header[MAGIC.length] + ", current: " + VERSION);
+			}
+
+			CRCInputStream in = new CRCInputStream(is, new CRC32());
+			long signature = VByte.decode(in);
+			long nshared = VByte.decode(in);
+			long nsubjects = VByte.decode(in);
+			long npredicates = VByte.decode(in);
+			long nobjects = VByte.decode(in);
+
+			int numUnindexed = (int) VByte.decode(in);
+			Set<String> unindexed = new TreeSet<>();
+			for (int i = 0; i < numUnindexed; i++) {
+				unindexed.add(IOUtil.readSizedString(in, null));
+			}
+
+			int numSections = (int) VByte.decode(in);
+			Section[] sections = new Section[numSections];
+			for (int i = 0; i < numSections; i++) {
+				String datatype = IOUtil.readSizedString(in, null);
+				CoreDatatype.XSD xsd = XSD_DATATYPES.get(datatype);
+				ValueKind kind = ValueKind.values()[in.read()];
+				if (xsd == null || ValueKind.of(xsd) != kind) {
+					throw new IOException("Bad section datatype: " + datatype + " (" + kind + ")");
+				}
+				long offset = VByte.decode(in);
+				int size = (int) VByte.decode(in);
+				int scale = (int) VByte.decode(in);
+				int timezone = IOUtil.readInt(in);
+				long[] values = new long[size];
+				for (int j = 0; j < size; j++) {
+					values[j] = IOUtil.readLong(in);
+				}
+				int[] order = new int[size];
+				for (int j = 0; j < size; j++) {
+					order[j] = IOUtil.readInt(in);
+				}
+				sections[i] = new Section(datatype, xsd, kind, offset, scale, timezone, values, order);
+			}
+
+			if (!in.readCRCAndCheck()) {
+				throw new CRCException("CRC Error while reading the value index " + file);
+			}
+
+			return new NumericValueIndex(signature, nshared, nsubjects, npredicates, nobjects, sections, unindexed);
+		}
+	}
+
+	private final long signature;
+	private final long nshared;
+	private final long nsubjects;
+	private final long npredicates;
+	private final long nobjects;
+	// sorted by offset
+	private final Section[] sections;
+	// numeric and date datatypes of the dictionary which can't be indexed
+	private final Set<String> unindexed;
+
+	private NumericValueIndex(long signature, long nshared, long nsubjects, long npredicates, long nobjects,
+			Section[] sections, Set<String> unindexed) {
+		this.signature = signature;
+		this.nshared = nshared;
+		this.nsubjects = nsubjects;
+		this.npredicates = npredicates;
+		this.nobjects = nobjects;
+		this.sections = sections;
+		this.unindexed = unindexed;
+		Arrays.sort(sections, (s1, s2) -> Long.compare(s1.offset, s2.offset));
+	}
+
+	/**
+	 * save the index into a file
+	 *
+	 * @param file file
+	 * @throws IOException can't write the file
+	 */
+	public void save(Path file) throws IOException {
+		try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(file))) {
+			os.write(MAGIC);
+			os.write(VERSION);
+
+			CRCOutputStream out = new CRCOutputStream(os, new CRC32());
+			VByte.encode(out, signature);
+			VByte.encode(out, nshared);
+			VByte.encode(out, nsubjects);
+			VByte.encode(out, npredicates);
+			VByte.encode(out, nobjects);
+
+			VByte.encode(out, unindexed.size());
+			for (String datatype : unindexed) {
+				IOUtil.writeSizedString(out, datatype, null);
+			}
+
+			VByte.encode(out, sections.length);
+			for (Section section : sections) {
+				IOUtil.writeSizedString(out, section.datatype, null);
+				out.write(section.kind.ordinal());
+				VByte.encode(out, section.offset);
+				VByte.encode(out, section.values.length);
+				VByte.encode(out, section.scale);
+				IOUtil.writeInt(out, section.timezone);
+				for (long value : section.values) {
+					IOUtil.writeLong(out, value);
+				}
+				for (int id : section.order) {
+					IOUtil.writeInt(out, id);
+				}
+			}
+
+			out.writeCRC();
+		}
+	}
+
+	/**
+	 * test if this index was computed for an HDT, the sizes of the dictionary
+	 * and the signature of its numeric and date sections are compared
+	 *
+	 * @param hdt hdt
+	 * @return true if the index can be used with this HDT
+	 */
+	public boolean isComputedFor(HDT hdt) {
+		Dictionary dict = hdt.getDictionary();
+		if (dict.getNshared() != nshared || dict.getNsubjects() != nsubjects || dict.getNpredicates() != npredicates
+				|| dict.getNobjects() != nobjects) {
+			return false;
+		}
+		List<DictionaryObjectRanges.DatatypeSection> datatypeSections = DictionaryObjectRanges
+				.getDatatypeSections(dict);
+		return datatypeSections != null && signature(datatypeSections) == signature;
+	}
+
+	/**
+	 * @return the number of indexed sections
+	 */
+	public int getNumberOfSections() {
+		return sections.length;
+	}
+
+	/**
+	 * @return the number of indexed values
+	 */
+	public long getNumberOfValues() {
+		long count = 0;
+		for (Section section : sections) {
+			count += section.values.length;
+		}
+		return count;
+	}
+
+	/**
+	 * @return the numeric and date datatypes of the dictionary which can't be
+	 *         indexed
+	 */
+	public Set<String> getUnindexedDatatypes() {
+		return unindexed;
+	}
+
+	/**
+	 * find the section containing an object id
+	 *
+	 * @param id object id
+	 * @return section, null if the id isn't in an indexed section
+	 */
+	private Section getSection(long id) {
+		int low = 0;
+		int high = sections.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sections[mid].offset < id) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		if (low == 0) {
+			return null;
+		}
+		Section section = sections[low - 1];
+		return section.contains(id) ? section : null;
+	}
+
+	/**
+	 * compare two objects like the ordering of the literals of the ORDER BY
+	 *
+	 * @param id1 first object id
+	 * @param id2 second object id
+	 * @return comparison, {@link #NOT_COMPARABLE} if the ids can't be compared
+	 *         with the index
+	 */
+	public int compare(long id1, long id2) {
+		Section s1 = getSection(id1);
+		Section s2 = s1 == null ? null : getSection(id2);
+		if (s2 == null) {
+			return NOT_COMPARABLE;
+		}
+		long v1 = s1.value(id1);
+		long v2 = s2.value(id2);
+		if (s1 == s2) {
+			if (s1.kind == ValueKind.FLOAT) {
+				return Float.compare(s1.floatValue(v1), s1.floatValue(v2));
+			}
+			return Long.compare(s1.sortKey(v1), s1.sortKey(v2));
+		}
+		if (!s1.kind.isNumeric() || !s2.kind.isNumeric()) {
+			// only the dates of the same datatype can be compared
+			return NOT_COMPARABLE;
+		}
+		if (s1.xsd == CoreDatatype.XSD.DOUBLE || s2.xsd == CoreDatatype.XSD.DOUBLE) {
+			return Double.compare(s1.doubleValue(v1), s2.doubleValue(v2));
+		}
+		if (s1.xsd == CoreDatatype.XSD.FLOAT || s2.xsd == CoreDatatype.XSD.FLOAT) {
+			return Float.compare(s1.floatValue(v1), s2.floatValue(v2));
+		}
+		if (s1.scale == s2.scale) {
+			return Long.compare(v1, v2);
+		}
+		return BigDecimal.valueOf(v1, s1.scale).compareTo(BigDecimal.valueOf(v2, s2.scale));
+	}
+
+	/**
+	 * find the objects matching a comparison with a constant, the comparison is
+	 * done like the rdf4j non-strict comparison of the filters
+	 *
+	 * @param operator comparison operator, the object is the left operand
+	 * @param constant constant, the right operand
+	 * @return ids of the matching objects, null if the comparison can't be
+	 *         converted with this index
+	 */
+	public ObjectIdFilter match(Compare.CompareOp operator, Literal constant) {
+		return match(operator, constant, MAX_RANGE_IDS);
+	}
+
+	/**
+	 * find the objects matching a comparison with a constant
+	 *
+	 * @param operator    comparison operator, the object is the left operand
+	 * @param constant    constant, the right operand
+	 * @param maxRangeIds maximum number of matching ids converted into ranges
+	 * @return ids of the matching objects, null if the comparison can't be
+	 *         converted with this index
+	 * @see #match(Compare.CompareOp, Literal)
+	 */
+	ObjectIdFilter match(Compare.CompareOp operator, Literal constant, int maxRangeIds) {
+		if (operator == Compare.CompareOp.NE) {
+			// true for all the values which aren't literals
+			return null;
+		}
+		CoreDatatype.XSD cxsd = constant.getCoreDatatype().asXSDDatatype().orElse(null);
+		ValueKind ckind = cxsd == null ? null : ValueKind.of(cxsd);
+		if (ckind == null || !XMLDatatypeUtil.isValidValue(constant.getLabel(), cxsd)) {
+			return null;
+		}
+
+		for (String datatype : unindexed) {
+			CoreDatatype.XSD xsd = XSD_DATATYPES.get(datatype);
+			if (ckind.isNumeric() ? xsd.isNumericDatatype() : xsd.isCalendarDatatype()) {
+				// the values of this section can match the constant
+				return null;
+			}
+		}
+
+		List<SectionMatch> matches = new ArrayList<>();
+		long total = 0;
+		try {
+			for (Section section : sections) {
+				if (section.kind.isNumeric() != ckind.isNumeric()) {
+					continue;
+				}
+				if (!ckind.isNumeric() && section.xsd != cxsd) {
+					// the other date types can be compared in non-strict mode
+					return null;
+				}
+				LongToIntFunction cmp = section.comparator(cxsd, ckind, constant);
+				if (cmp == null) {
+					return null;
+				}
+				// first rank greater or equal, first rank greater
+				int lower = section.firstRank(cmp, 0);
+				int upper = section.firstRank(cmp, 1);
+				int start;
+				int end;
+				switch (operator) {
+				case LT -> {
+					start = 0;
+					end = lower;
+				}
+				case LE -> {
+					start = 0;
+					end = upper;
+				}
+				case GT -> {
+					start = upper;
+					end = section.values.length;
+				}
+				case GE -> {
+					start = lower;
+					end = section.values.length;
+				}
+				case EQ -> {
+					start = lower;
+					end = upper;
+				}
+				default -> throw new AssertionError(operator);
+				}
+				if (start < end) {
+					matches.add(new SectionMatch(section, start, end));
+					total += end - start;
+				}
+			}
+		} catch (IllegalArgumentException | DateTimeException e) {
+			// bad constant
+			return null;
+		}
+
+		if (total <= maxRangeIds) {
+			long[] ids = new long[(int) total];
+			int count = 0;
+			for (SectionMatch match : matches) {
+				for (int i = match.start; i < match.end; i++) {
+					ids[count++] = match.section.offset + match.section.order[i];
+				}
+			}
+			Arrays.sort(ids);
+			return ObjectIdFilter.of(ObjectIdRanges.ofSortedIds(ids, count));
+		}
+
+		ObjectIdRanges ranges = ObjectIdRanges.empty();
+		List<SectionMatch> partials = new ArrayList<>();
+		for (SectionMatch match : matches) {
+			Section section = match.section;
+			ranges = ranges.union(ObjectIdRanges.of(section.offset + 1, section.offset + section.values.length));
+			if (match.end - match.start != section.values.length) {
+				partials.add(match);
+			}
+		}
+		if (partials.isEmpty()) {
+			return ObjectIdFilter.of(ranges);
+		}
+		SectionMatch[] partialMatches = partials.toArray(SectionMatch[]::new);
+		LongPredicate predicate = id -> {
+			for (SectionMatch match : partialMatches) {
+				if (match.section.contains(id)) {
+					return match.contains(id);
+				}
+			}
+			return true;
+		};
+		return ObjectIdFilter.of(ranges, predicate);
+	}
+
+	/**
+	 * section of the dictionary with its values
+	 */
+	private static class Section {
+		private final String datatype;
+		private final CoreDatatype.XSD xsd;
+		private final ValueKind kind;
+		private final long offset;
+		private final int scale;
+		private final int timezone;
+		// value of each local id - 1
+		private final long[] values;
+		// local ids sorted by value
+		private final int[] order;
+
+		/**
+		 * create a section
+		 *
+		 * @param datatype datatype IRI
+		 * @param xsd      datatype
+		 * @param kind     kind of the values
+		 * @param offset   id offset of the section
+		 * @param scale    scale of the decimal values
+		 * @param timezone timezone of the date values
+		 * @param values   values by local id
+		 * @param order    local ids sorted by value, null to sort them
+		 */
+		Section(String datatype, CoreDatatype.XSD xsd, ValueKind kind, long offset, int scale, int timezone,
+				long[] values, int[] order) {
+			this.datatype = datatype;
+			this.xsd = xsd;
+			this.kind = kind;
+			this.offset = offset;
+			this.scale = scale;
+			this.timezone = timezone;
+			this.values = values;
+			this.order = order != null ? order : sortByValue();
+		}
+
+		boolean contains(long id) {
+			return id > offset && id <= offset + values.length;
+		}
+
+		long value(long id) {
+			return values[(int) (id - offset - 1)];
+		}
+
+		/**
+		 * convert a value to a double, same value as the double value of its
+		 * label
+		 *
+		 * @param value value
+		 * @return double
+		 */
+		double doubleValue(long value) {
+			return switch (kind) {
+			case FLOAT, DOUBLE -> Double.longBitsToDouble(value);
+			// correctly rounded, like the parsing of the label
+			case DECIMAL -> BigDecimal.valueOf(value, scale).doubleValue();
+			default -> (double) value;
+			};
+		}
+
+		/**
+		 * convert a value to a float, same value as the float value of its
+		 * label
+		 *
+		 * @param value value
+		 * @return float
+		 */
+		float floatValue(long value) {
+			return switch (kind) {
+			case FLOAT, DOUBLE -> (float) Double.longBitsToDouble(value);
+			case DECIMAL -> BigDecimal.valueOf(value, scale).floatValue();
+			default -> (float) value;
+			};
+		}
+
+		/**
+		 * convert a value to a key with the same order as the values
+		 *
+		 * @param value value
+		 * @return key
+		 */
+		long sortKey(long value) {
+			if (kind.isFloating()) {
+				// same order as Double.compare
+				return value ^ ((value >> 63) & Long.MAX_VALUE);
+			}
+			return value;
+		}
+
+		/**
+		 * sort the local ids by value, the ids of the same value are kept in
+		 * the id order
+		 *
+		 * @return sorted ids
+		 */
+		int[] sortByValue() {
+			int size = values.length;
+			long[] keys = new long[size];
+			int[] ids = new int[size];
+			for (int i = 0; i < size; i++) {
+				keys[i] = sortKey(values[i]);
+				ids[i] = i + 1;
+			}
+			// bottom-up merge sort of the ids
+			int[] buffer = new int[size];
+			for (int width = 1; width < size; width *= 2) {
+				for (int start = 0; start < size; start += 2 * width) {
+					int mid = Math.min(start + width, size);
+					int end = Math.min(start + 2 * width, size);
+					int i = start;
+					int j = mid;
+					int k = start;
+					while (i < mid && j < end) {
+						if (keys[ids[j] - 1] < keys[ids[i] - 1]) {
+							buffer[k++] = ids[j++];
+						} else {
+							buffer[k++] = ids[i++];
+						}
+					}
+					while (i < mid) {
+						buffer[k++] = ids[i++];
+					}
+					while (j < end) {
+						buffer[k++] = ids[j++];
+					}
+				}
+				int[] tmp = ids;
+				ids = buffer;
+				buffer = tmp;
+			}
+			return ids;
+		}
+
+		/**
+		 * create the comparator of the values of this section with a constant
+		 *
+		 * @param cxsd     constant datatype
+		 * @param ckind    constant kind
+		 * @param constant constant
+		 * @return comparator of a value with the constant, null if the values
+		 *         can't be compared with the constant
+		 */
+		LongToIntFunction comparator(CoreDatatype.XSD cxsd, ValueKind ckind, Literal constant) {
+			if (!kind.isNumeric()) {
+				XMLGregorianCalendar calendar = constant.calendarValue();
+				if (!isCalendarIndexable(calendar)) {
+					return null;
+				}
+				int tz = calendar.getTimezone();
+				boolean comparable;
+				if (timezone == NO_TIMEZONE || kind == ValueKind.DATE) {
+					comparable = tz == timezone;
+				} else {
+					// the dateTimes with a timezone are compared on the
+					// timeline
+					comparable = tz != NO_TIMEZONE;
+				}
+				if (!comparable) {
+					// the comparison could be indeterminate
+					return null;
+				}
+				long key = calendarKey(calendar);
+				return value -> Long.compare(value, key);
+			}
+			// common datatype of the comparison
+			if (xsd == CoreDatatype.XSD.DOUBLE || cxsd == CoreDatatype.XSD.DOUBLE) {
+				double c = constant.doubleValue();
+				return value -> Double.compare(doubleValue(value), c);
+			}
+			if (xsd == CoreDatatype.XSD.FLOAT || cxsd == CoreDatatype.XSD.FLOAT) {
+				float c = constant.floatValue();
+				return value -> Float.compare(floatValue(value), c);
+			}
+			BigDecimal c = constant.decimalValue();
+			return value -> BigDecimal.valueOf(value, scale).compareTo(c);
+		}
+
+		/**
+		 * find the first rank of the sorted values with a comparison greater or
+		 * equal to a minimum, the comparison should be increasing with the rank
+		 *
+		 * @param cmp comparator
+		 * @param min minimum comparison
+		 * @return rank, the number of values if none
+		 */
+		int firstRank(LongToIntFunction cmp, int min) {
+			int low = 0;
+			int high = order.length;
+			while (low < high) {
+				int mid = (low + high) >>> 1;
+				if (Integer.signum(cmp.applyAsInt(values[order[mid] - 1])) < min) {
+					low = mid + 1;
+				} else {
+					high = mid;
+				}
+			}
+			return low;
+		}
+	}
+
+	/**
+	 * sorted values of a section matching a comparison
+	 */
+	private static class SectionMatch {
+		private final Section section;
+		private final int start;
+		private final int end;
+		private final long minKey;
+		private final long maxKey;
+
+		SectionMatch(Section section, int start, int end) {
+			this.section = section;
+			this.start = start;
+			this.end = end;
+			minKey = section.sortKey(section.values[section.order[start] - 1]);
+			maxKey = section.sortKey(section.values[section.order[end - 1] - 1]);
+		}
+
+		boolean contains(long id) {
+			// the matching values are a contiguous part of the sorted values
+			long key = section.sortKey(section.value(id));
+			return key >= minKey && key <= maxKey;
+		}
+	}
+}
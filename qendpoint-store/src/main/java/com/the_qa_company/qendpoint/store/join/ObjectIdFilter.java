@@ -0,0 +1,136 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import java.util.Objects;
+import java.util.function.LongPredicate;
+
+/**
+ * Set of object ids described by ranges, with an optional predicate when the
+ * ids of the ranges aren't all in the set. The ranges are used to seek the
+ * iterators, the predicate is only tested for the ids inside the ranges.
+ */
+public class ObjectIdFilter {
+	/**
+	 * create a filter containing the ids of ranges
+	 *
+	 * @param ranges ranges
+	 * @return filter
+	 */
+	public static ObjectIdFilter of(ObjectIdRanges ranges) {
+		return new ObjectIdFilter(ranges, null);
+	}
+
+	/**
+	 * create a filter containing the ids of ranges matching a predicate
+	 *
+	 * @param ranges    ranges
+	 * @param predicate predicate, null to accept all the ids of the ranges
+	 * @return filter
+	 */
+	public static ObjectIdFilter of(ObjectIdRanges ranges, LongPredicate predicate) {
+		return new ObjectIdFilter(ranges, predicate);
+	}
+
+	private final ObjectIdRanges ranges;
+	private final LongPredicate predicate;
+
+	private ObjectIdFilter(ObjectIdRanges ranges, LongPredicate predicate) {
+		this.ranges = Objects.requireNonNull(ranges, "ranges can't be null!");
+		this.predicate = predicate;
+	}
+
+	/**
+	 * @return the ranges containing the ids of the filter
+	 */
+	public ObjectIdRanges getRanges() {
+		return ranges;
+	}
+
+	/**
+	 * @return if all the ids of the ranges are in the filter
+	 */
+	public boolean isExact() {
+		return predicate == null;
+	}
+
+	/**
+	 * @return if the filter doesn't contain any id
+	 */
+	public boolean isEmpty() {
+		return ranges.isEmpty();
+	}
+
+	/**
+	 * test if an id is in the filter
+	 *
+	 * @param id id
+	 * @return true if the id is in the filter
+	 */
+	public boolean contains(long id) {
+		return ranges.contains(id) && (predicate == null || predicate.test(id));
+	}
+
+	/**
+	 * get the lowest id of the ranges greater or equal to an id, the returned
+	 * id isn't always in the filter if it isn't exact
+	 *
+	 * @param id id
+	 * @return id, -1 if all the ranges are before the id
+	 */
+	public long ceiling(long id) {
+		return ranges.ceiling(id);
+	}
+
+	/**
+	 * intersection of this filter with another filter
+	 *
+	 * @param other other filter
+	 * @return intersection
+	 */
+	public ObjectIdFilter and(ObjectIdFilter other) {
+		ObjectIdRanges newRanges = ranges.intersect(other.ranges);
+		if (other.predicate == null || newRanges.isEmpty()) {
+			return new ObjectIdFilter(newRanges, newRanges.isEmpty() ? null : predicate);
+		}
+		if (predicate == null) {
+			return new ObjectIdFilter(newRanges, other.predicate);
+		}
+		LongPredicate p1 = predicate;
+		LongPredicate p2 = other.predicate;
+		return new ObjectIdFilter(newRanges, id -> p1.test(id) && p2.test(id));
+	}
+
+	/**
+	 * union of this filter with another filter
+	 *
+	 * @param other other filter
+	 * @return union
+	 */
+	public ObjectIdFilter or(ObjectIdFilter other) {
+		ObjectIdRanges newRanges = ranges.union(other.ranges);
+		if (predicate == null && other.predicate == null) {
+			return new ObjectIdFilter(newRanges, null);
+		}
+		return new ObjectIdFilter(newRanges, id -> contains(id) || other.contains(id));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ObjectIdFilter other)) {
+			return false;
+		}
+		return ranges.equals(other.ranges) && Objects.equals(predicate, other.predicate);
+	}
+
+	@Override
+	public int hashCode() {
+		return ranges.hashCode() * 31 + Objects.hashCode(predicate);
+	}
+
+	@Override
+	public String toString() {
+		return predicate == null ? ranges.toString() : ranges + " filtered";
+	}
+}
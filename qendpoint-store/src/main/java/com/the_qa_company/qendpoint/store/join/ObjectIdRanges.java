@@ -0,0 +1,237 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import java.util.Arrays;
+
+/**
+ * Immutable set of object id ranges, the ranges are sorted, disjoint and their
+ * bounds are inclusive.
+ */
+public class ObjectIdRanges {
+	private static final ObjectIdRanges EMPTY = new ObjectIdRanges(new long[0], new long[0]);
+
+	/**
+	 * @return empty ranges
+	 */
+	public static ObjectIdRanges empty() {
+		return EMPTY;
+	}
+
+	/**
+	 * create ranges containing one range
+	 *
+	 * @param start start id (inclusive)
+	 * @param end   end id (inclusive)
+	 * @return ranges, empty if end is lower than start
+	 */
+	public static ObjectIdRanges of(long start, long end) {
+		if (end < start) {
+			return EMPTY;
+		}
+		return new ObjectIdRanges(new long[] { start }, new long[] { end });
+	}
+
+	/**
+	 * create ranges containing a set of ids, the consecutive ids are merged
+	 *
+	 * @param ids   sorted ids
+	 * @param count number of ids to read
+	 * @return ranges
+	 */
+	public static ObjectIdRanges ofSortedIds(long[] ids, int count) {
+		if (count == 0) {
+			return EMPTY;
+		}
+		long[] newStarts = new long[count];
+		long[] newEnds = new long[count];
+		int ranges = 0;
+		for (int i = 0; i < count; i++) {
+			if (ranges != 0 && ids[i] <= newEnds[ranges - 1] + 1) {
+				newEnds[ranges - 1] = Math.max(newEnds[ranges - 1], ids[i]);
+			} else {
+				newStarts[ranges] = ids[i];
+				newEnds[ranges++] = ids[i];
+			}
+		}
+		return new ObjectIdRanges(Arrays.copyOf(newStarts, ranges), Arrays.copyOf(newEnds, ranges));
+	}
+
+	private final long[] starts;
+	private final long[] ends;
+
+	private ObjectIdRanges(long[] starts, long[] ends) {
+		this.starts = starts;
+		this.ends = ends;
+	}
+
+	/**
+	 * @return if the ranges don't contain any id
+	 */
+	public boolean isEmpty() {
+		return starts.length == 0;
+	}
+
+	/**
+	 * @return the number of ids in the ranges
+	 */
+	public long size() {
+		long size = 0;
+		for (int i = 0; i < starts.length; i++) {
+			size += ends[i] - starts[i] + 1;
+		}
+		return size;
+	}
+
+	/**
+	 * @return the number of disjoint ranges
+	 */
+	public int getRangeCount() {
+		return starts.length;
+	}
+
+	/**
+	 * index of the range containing the id or of the next range
+	 *
+	 * @param id id
+	 * @return range index, {@link #getRangeCount()} if all the ranges are
+	 *         before the id
+	 */
+	private int findRange(long id) {
+		int low = 0;
+		int high = starts.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (ends[mid] < id) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	/**
+	 * test if an id is in the ranges
+	 *
+	 * @param id id
+	 * @return true if the id is in a range
+	 */
+	public boolean contains(long id) {
+		int range = findRange(id);
+		return range < starts.length && starts[range] <= id;
+	}
+
+	/**
+	 * get the lowest id of the ranges greater or equal to an id
+	 *
+	 * @param id id
+	 * @return id, -1 if all the ranges are before the id
+	 */
+	public long ceiling(long id) {
+		int range = findRange(id);
+		if (range == starts.length) {
+			return -1;
+		}
+		return Math.max(id, starts[range]);
+	}
+
+	/**
+	 * union of these ranges with other ranges
+	 *
+	 * @param other other ranges
+	 * @return union
+	 */
+	public ObjectIdRanges union(ObjectIdRanges other) {
+		if (other.isEmpty()) {
+			return this;
+		}
+		if (isEmpty()) {
+			return other;
+		}
+		long[] newStarts = new long[starts.length + other.starts.length];
+		long[] newEnds = new long[newStarts.length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < starts.length || j < other.starts.length) {
+			long start;
+			long end;
+			if (j == other.starts.length || (i < starts.length && starts[i] <= other.starts[j])) {
+				start = starts[i];
+				end = ends[i++];
+			} else {
+				start = other.starts[j];
+				end = other.ends[j++];
+			}
+			if (count != 0 && start <= newEnds[count - 1] + 1) {
+				// merge with the previous range
+				newEnds[count - 1] = Math.max(newEnds[count - 1], end);
+			} else {
+				newStarts[count] = start;
+				newEnds[count++] = end;
+			}
+		}
+		return new ObjectIdRanges(Arrays.copyOf(newStarts, count), Arrays.copyOf(newEnds, count));
+	}
+
+	/**
+	 * intersection of these ranges with other ranges
+	 *
+	 * @param other other ranges
+	 * @return intersection
+	 */
+	public ObjectIdRanges intersect(ObjectIdRanges other) {
+		if (isEmpty() || other.isEmpty()) {
+			return EMPTY;
+		}
+		long[] newStarts = new long[starts.length + other.starts.length];
+		long[] newEnds = new long[newStarts.length];
+		int count = 0;
+		int i = 0;
+		int j = 0;
+		while (i < starts.length && j < other.starts.length) {
+			long start = Math.max(starts[i], other.starts[j]);
+			long end = Math.min(ends[i], other.ends[j]);
+			if (start <= end) {
+				newStarts[count] = start;
+				newEnds[count++] = end;
+			}
+			if (ends[i] < other.ends[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		if (count == 0) {
+			return EMPTY;
+		}
+		return new ObjectIdRanges(Arrays.copyOf(newStarts, count), Arrays.copyOf(newEnds, count));
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if (!(o instanceof ObjectIdRanges other)) {
+			return false;
+		}
+		return Arrays.equals(starts, other.starts) && Arrays.equals(ends, other.ends);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(starts) * 31 + Arrays.hashCode(ends);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder bld = new StringBuilder("[");
+		for (int i = 0; i < starts.length; i++) {
+			if (i != 0) {
+				bld.append(", ");
+			}
+			bld.append(starts[i]).append("-").append(ends[i]);
+		}
+		return bld.append("]").toString();
+	}
+}
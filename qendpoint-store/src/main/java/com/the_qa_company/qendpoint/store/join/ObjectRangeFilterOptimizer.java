@@ -0,0 +1,301 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.And;
+import org.eclipse.rdf4j.query.algebra.Compare;
+import org.eclipse.rdf4j.query.algebra.Datatype;
+import org.eclipse.rdf4j.query.algebra.Filter;
+import org.eclipse.rdf4j.query.algebra.IsLiteral;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.Lang;
+import org.eclipse.rdf4j.query.algebra.LangMatches;
+import org.eclipse.rdf4j.query.algebra.Or;
+import org.eclipse.rdf4j.query.algebra.SameTerm;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.ValueConstant;
+import org.eclipse.rdf4j.query.algebra.ValueExpr;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+
+/**
+ * QueryOptimizer to replace the filters on the datatype or the language of an
+ * object by a {@link HDTObjectRangeFilter}, the literals of a datatype or a
+ * language are stored in the same section of the multi-section dictionaries, so
+ * the filter can be evaluated on the HDT ids. Should be used after the filter
+ * optimization and before the {@link HDTIdJoinOptimizer}.
+ * <p>
+ * Supported conditions, with {@code &&} and {@code ||} of conditions on the
+ * same variable:
+ * <ul>
+ * <li>{@code isLiteral(?o)}</li>
+ * <li>{@code datatype(?o) = xsd:integer} or
+ * {@code sameTerm(datatype(?o), xsd:integer)}</li>
+ * <li>{@code lang(?o) = "lang"} (MSDL only)</li>
+ * <li>{@code langMatches(lang(?o), "range")} (MSDL only, except for
+ * {@code "*"})</li>
+ * <li>{@code ?o < 42}, {@code ?o >= "2020-01-01"^^xsd:date}, ... with a numeric
+ * or date constant (with a {@link NumericValueIndex} only)</li>
+ * </ul>
+ */
+public class ObjectRangeFilterOptimizer implements QueryOptimizer {
+	private final HDT hdt;
+	private final NumericValueIndex valueIndex;
+	private DictionaryObjectRanges dictionaryRanges;
+	private boolean dictionaryRangesLoaded;
+
+	public ObjectRangeFilterOptimizer(HDT hdt) {
+		this(hdt, null);
+	}
+
+	/**
+	 * create the optimizer
+	 *
+	 * @param hdt        hdt
+	 * @param valueIndex index of the numeric values of the HDT, null to keep
+	 *                   the comparisons of the values
+	 */
+	public ObjectRangeFilterOptimizer(HDT hdt, NumericValueIndex valueIndex) {
+		this.hdt = hdt;
+		this.valueIndex = valueIndex;
+	}
+
+	@Override
+	public void optimize(TupleExpr tupleExpr, Dataset dataset, BindingSet bindings) {
+		if (dataset != null) {
+			// the id join isn't used with a dataset
+			return;
+		}
+		tupleExpr.visit(new RangeFilterVisitor());
+	}
+
+	private DictionaryObjectRanges getDictionaryRanges() {
+		if (!dictionaryRangesLoaded) {
+			dictionaryRanges = DictionaryObjectRanges.of(hdt.getDictionary());
+			dictionaryRangesLoaded = true;
+		}
+		return dictionaryRanges;
+	}
+
+	/**
+	 * object ranges of a variable
+	 *
+	 * @param varName variable
+	 * @param ranges  ranges
+	 */
+	private record VarRanges(String varName, ObjectIdFilter ranges) {}
+
+	/**
+	 * convert a condition to the ranges of the ids of a variable
+	 *
+	 * @param expr condition
+	 * @return ranges, null if the condition can't be converted
+	 */
+	private VarRanges convert(ValueExpr expr) {
+		if (expr instanceof And and) {
+			VarRanges left = convert(and.getLeftArg());
+			VarRanges right = left == null ? null : convert(and.getRightArg());
+			if (right == null || !left.varName.equals(right.varName)) {
+				return null;
+			}
+			return new VarRanges(left.varName, left.ranges.and(right.ranges));
+		}
+		if (expr instanceof Or or) {
+			VarRanges left = convert(or.getLeftArg());
+			VarRanges right = left == null ? null : convert(or.getRightArg());
+			if (right == null || !left.varName.equals(right.varName)) {
+				return null;
+			}
+			return new VarRanges(left.varName, left.ranges.or(right.ranges));
+		}
+		if (expr instanceof IsLiteral isLiteral) {
+			String varName = unboundVarName(isLiteral.getArg());
+			if (varName == null || getDictionaryRanges() == null) {
+				return null;
+			}
+			return new VarRanges(varName, ObjectIdFilter.of(getDictionaryRanges().getLiterals()));
+		}
+		if (expr instanceof Compare compare) {
+			if (compare.getOperator() == Compare.CompareOp.EQ) {
+				VarRanges ranges = convertEquals(compare.getLeftArg(), compare.getRightArg());
+				if (ranges == null) {
+					ranges = convertEquals(compare.getRightArg(), compare.getLeftArg());
+				}
+				if (ranges != null) {
+					return ranges;
+				}
+			}
+			VarRanges ranges = convertValueCompare(compare.getLeftArg(), compare.getOperator(), compare.getRightArg());
+			return ranges != null ? ranges
+					: convertValueCompare(compare.getRightArg(), reverse(compare.getOperator()), compare.getLeftArg());
+		}
+		if (expr instanceof SameTerm sameTerm) {
+			if (sameTerm.getLeftArg() instanceof Datatype) {
+				return convertEquals(sameTerm.getLeftArg(), sameTerm.getRightArg());
+			}
+			if (sameTerm.getRightArg() instanceof Datatype) {
+				return convertEquals(sameTerm.getRightArg(), sameTerm.getLeftArg());
+			}
+			return null;
+		}
+		if (expr instanceof LangMatches langMatches) {
+			if (!(langMatches.getLeftArg() instanceof Lang lang)
+					|| !(constantValue(langMatches.getRightArg()) instanceof Literal range)
+					|| !isSimpleLiteral(range)) {
+				return null;
+			}
+			String varName = unboundVarName(lang.getArg());
+			if (varName == null || getDictionaryRanges() == null) {
+				return null;
+			}
+			ObjectIdRanges ranges = getDictionaryRanges().getLanguageMatching(range.getLabel());
+			return ranges == null ? null : new VarRanges(varName, ObjectIdFilter.of(ranges));
+		}
+		return null;
+	}
+
+	/**
+	 * convert an equality between a datatype or a lang function and a constant
+	 *
+	 * @param function function
+	 * @param constant constant
+	 * @return ranges, null if the equality can't be converted
+	 */
+	private VarRanges convertEquals(ValueExpr function, ValueExpr constant) {
+		Value value = constantValue(constant);
+		if (value == null) {
+			return null;
+		}
+		if (function instanceof Datatype datatype) {
+			String varName = unboundVarName(datatype.getArg());
+			if (varName == null || !(value instanceof IRI iri) || getDictionaryRanges() == null) {
+				return null;
+			}
+			return new VarRanges(varName, ObjectIdFilter.of(getDictionaryRanges().getDatatype(iri.stringValue())));
+		}
+		if (function instanceof Lang lang) {
+			String varName = unboundVarName(lang.getArg());
+			if (varName == null || !(value instanceof Literal literal) || !isSimpleLiteral(literal)
+					|| literal.getLabel().isEmpty() || getDictionaryRanges() == null) {
+				return null;
+			}
+			ObjectIdRanges ranges = getDictionaryRanges().getLanguage(literal.getLabel());
+			return ranges == null ? null : new VarRanges(varName, ObjectIdFilter.of(ranges));
+		}
+		return null;
+	}
+
+	/**
+	 * convert a comparison between a variable and a numeric or date constant
+	 * with the value index
+	 *
+	 * @param variable variable
+	 * @param operator operator
+	 * @param constant constant
+	 * @return ranges, null if the comparison can't be converted
+	 */
+	private VarRanges convertValueCompare(ValueExpr variable, Compare.CompareOp operator, ValueExpr constant) {
+		String varName = unboundVarName(variable);
+		if (valueIndex == null || varName == null || !(constantValue(constant) instanceof Literal literal)) {
+			return null;
+		}
+		ObjectIdFilter ids = valueIndex.match(operator, literal);
+		return ids == null ? null : new VarRanges(varName, ids);
+	}
+
+	private static Compare.CompareOp reverse(Compare.CompareOp operator) {
+		return switch (operator) {
+		case LT -> Compare.CompareOp.GT;
+		case LE -> Compare.CompareOp.GE;
+		case GT -> Compare.CompareOp.LT;
+		case GE -> Compare.CompareOp.LE;
+		default -> operator;
+		};
+	}
+
+	private static boolean isSimpleLiteral(Literal literal) {
+		return literal.getLanguage().isEmpty() && XSD.STRING.equals(literal.getDatatype());
+	}
+
+	private static Value constantValue(ValueExpr expr) {
+		if (expr instanceof ValueConstant constant) {
+			return constant.getValue();
+		}
+		if (expr instanceof Var var) {
+			return var.getValue();
+		}
+		return null;
+	}
+
+	private static String unboundVarName(ValueExpr expr) {
+		if (expr instanceof Var var && !var.hasValue()) {
+			return var.getName();
+		}
+		return null;
+	}
+
+	/**
+	 * find a pattern of a bgp using a variable as object
+	 *
+	 * @param expr    bgp
+	 * @param varName variable
+	 * @return pattern, null if no pattern is using the variable as object
+	 */
+	private static StatementPattern findObjectPattern(TupleExpr expr, String varName) {
+		if (expr instanceof Join join) {
+			StatementPattern sp = findObjectPattern(join.getLeftArg(), varName);
+			return sp != null ? sp : findObjectPattern(join.getRightArg(), varName);
+		}
+		if (expr instanceof HDTObjectRangeFilter filter) {
+			return findObjectPattern(filter.getArg(), varName);
+		}
+		if (expr instanceof StatementPattern sp) {
+			Var object = sp.getObjectVar();
+			if (object.hasValue() || !object.getName().equals(varName) || varName.equals(sp.getSubjectVar().getName())
+					|| varName.equals(sp.getPredicateVar().getName())) {
+				return null;
+			}
+			return sp;
+		}
+		return null;
+	}
+
+	private class RangeFilterVisitor extends AbstractSimpleQueryModelVisitor<RuntimeException> {
+		private RangeFilterVisitor() {
+			super(false);
+		}
+
+		@Override
+		public void meet(Filter filter) {
+			super.meet(filter);
+
+			if (filter instanceof HDTObjectRangeFilter || !HDTIdJoin.isIdJoinBGP(filter.getArg(), true)) {
+				return;
+			}
+
+			VarRanges ranges = convert(filter.getCondition());
+			if (ranges == null) {
+				return;
+			}
+
+			StatementPattern sp = findObjectPattern(filter.getArg(), ranges.varName);
+			if (sp == null) {
+				return;
+			}
+
+			// move the condition to the pattern binding the variable
+			HDTObjectRangeFilter rangeFilter = new HDTObjectRangeFilter(filter.getCondition(), ranges.varName,
+					ranges.ranges);
+			sp.replaceWith(rangeFilter);
+			rangeFilter.setArg(sp);
+			filter.replaceWith(filter.getArg());
+		}
+	}
+}
@@ -0,0 +1,117 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.Dataset;
+import org.eclipse.rdf4j.query.algebra.Join;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.TupleExpr;
+import org.eclipse.rdf4j.query.algebra.evaluation.QueryOptimizer;
+import org.eclipse.rdf4j.query.algebra.helpers.AbstractSimpleQueryModelVisitor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * QueryOptimizer to order the joins of statement patterns with a
+ * {@link JoinCardinalityEstimator}, the next pattern is the connected pattern
+ * giving the smallest intermediate result. Should be used after the
+ * {@link org.eclipse.rdf4j.query.algebra.evaluation.optimizer.QueryJoinOptimizer},
+ * only the basic graph patterns are reordered.
+ */
+public class StatisticsJoinOptimizer implements QueryOptimizer {
+	private final Supplier<JoinCardinalityEstimator> estimatorSupplier;
+
+	/**
+	 * create the optimizer
+	 *
+	 * @param estimatorSupplier supplier to create an estimator for each basic
+	 *                          graph pattern
+	 */
+	public StatisticsJoinOptimizer(Supplier<JoinCardinalityEstimator> estimatorSupplier) {
+		this.estimatorSupplier = estimatorSupplier;
+	}
+
+	@Override
+	public void optimize(TupleExpr tupleExpr, Dataset dataset, BindingSet bindings) {
+		tupleExpr.visit(new StatisticsJoinVisitor());
+	}
+
+	/**
+	 * order the patterns of a basic graph pattern
+	 *
+	 * @param patterns  patterns
+	 * @param estimator estimator
+	 * @return ordered patterns
+	 */
+	static List<StatementPattern> orderPatterns(List<StatementPattern> patterns, JoinCardinalityEstimator estimator) {
+		List<StatementPattern> remaining = new ArrayList<>(patterns);
+		List<StatementPattern> ordered = new ArrayList<>(patterns.size());
+
+		while (!remaining.isEmpty()) {
+			StatementPattern best = null;
+			double bestCost = Double.POSITIVE_INFINITY;
+			boolean bestConnected = false;
+
+			for (StatementPattern sp : remaining) {
+				// avoid the cross products when we can
+				boolean connected = estimator.isConnected(sp);
+				if (bestConnected && !connected) {
+					continue;
+				}
+				double cost = estimator.estimate(sp);
+				if (best == null || (connected && !bestConnected) || cost < bestCost) {
+					best = sp;
+					bestCost = cost;
+					bestConnected = connected;
+				}
+			}
+
+			remaining.remove(best);
+			ordered.add(best);
+			best.setCostEstimate(bestCost);
+			estimator.add(best);
+		}
+		return ordered;
+	}
+
+	private static void fillPatterns(TupleExpr expr, List<StatementPattern> patterns) {
+		if (expr instanceof Join join) {
+			fillPatterns(join.getLeftArg(), patterns);
+			fillPatterns(join.getRightArg(), patterns);
+		} else {
+			patterns.add((StatementPattern) expr);
+		}
+	}
+
+	private class StatisticsJoinVisitor extends AbstractSimpleQueryModelVisitor<RuntimeException> {
+		private StatisticsJoinVisitor() {
+			super(false);
+		}
+
+		@Override
+		public void meet(Join node) {
+			if (!HDTIdJoin.isIdJoinBGP(node)) {
+				super.meet(node);
+				return;
+			}
+			JoinCardinalityEstimator estimator = estimatorSupplier.get();
+			if (estimator == null) {
+				return;
+			}
+			List<StatementPattern> patterns = new ArrayList<>();
+			fillPatterns(node, patterns);
+
+			List<StatementPattern> ordered = orderPatterns(patterns, estimator);
+
+			// right-recursive hierarchy, like the QueryJoinOptimizer
+			int i = ordered.size() - 1;
+			TupleExpr replacement = ordered.get(i);
+			for (i--; i >= 0; i--) {
+				replacement = new Join(ordered.get(i), replacement);
+			}
+			replacement.setResultSizeEstimate(estimator.getCardinality());
+			node.replaceWith(replacement);
+		}
+	}
+}
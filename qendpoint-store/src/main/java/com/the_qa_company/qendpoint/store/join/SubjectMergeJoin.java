@@ -0,0 +1,205 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.triples.IteratorTripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.utils.BitArrayDisk;
+
+import java.util.Arrays;
+
+/**
+ * Merge join on the subject of triple iterators sorted by subject, used to
+ * evaluate the stars {@code ?s p1 ?o1 . ?s p2 ?o2 ...}. The lagging iterators
+ * are moved with {@link IteratorTripleID#goToSubject(long)} when they can,
+ * giving a leapfrog intersection of the subjects.
+ * <p>
+ * Each {@link #next()} call returns a combination of the objects of the current
+ * subject.
+ */
+class SubjectMergeJoin {
+	private final IteratorTripleID[] iterators;
+	private final BitArrayDisk deleteBitMap;
+	/**
+	 * subject and object of the next triple of each iterator
+	 */
+	private final long[] headSubjects;
+	private final long[] headObjects;
+	/**
+	 * objects of the current subject for each iterator
+	 */
+	private final long[][] objects;
+	private final int[] counts;
+	private final int[] cursors;
+	private long subject;
+	private boolean started;
+	private boolean ended;
+
+	/**
+	 * create a merge join
+	 *
+	 * @param iterators    iterators sorted by subject
+	 * @param deleteBitMap delete bitmap of the triples
+	 */
+	SubjectMergeJoin(IteratorTripleID[] iterators, BitArrayDisk deleteBitMap) {
+		this.iterators = iterators;
+		this.deleteBitMap = deleteBitMap;
+		headSubjects = new long[iterators.length];
+		headObjects = new long[iterators.length];
+		objects = new long[iterators.length][4];
+		counts = new int[iterators.length];
+		cursors = new int[iterators.length];
+	}
+
+	/**
+	 * @return the subject of the current combination
+	 */
+	long getSubject() {
+		return subject;
+	}
+
+	/**
+	 * get the object of an iterator in the current combination
+	 *
+	 * @param index iterator index
+	 * @return object
+	 */
+	long getObject(int index) {
+		return objects[index][cursors[index]];
+	}
+
+	/**
+	 * move to the next combination
+	 *
+	 * @return if a combination was found
+	 */
+	boolean next() {
+		if (ended) {
+			return false;
+		}
+		if (!started) {
+			started = true;
+			for (int i = 0; i < iterators.length; i++) {
+				if (!advance(i)) {
+					ended = true;
+					return false;
+				}
+			}
+		} else if (nextCombination()) {
+			return true;
+		}
+
+		if (!findNextSubject()) {
+			ended = true;
+			return false;
+		}
+
+		// read all the objects of this subject
+		for (int i = 0; i < iterators.length; i++) {
+			int count = 0;
+			long[] objs = objects[i];
+			do {
+				if (count == objs.length) {
+					objects[i] = objs = Arrays.copyOf(objs, count * 2);
+				}
+				objs[count++] = headObjects[i];
+			} while (advance(i) && headSubjects[i] == subject);
+			counts[i] = count;
+			cursors[i] = 0;
+		}
+		return true;
+	}
+
+	private boolean nextCombination() {
+		for (int i = iterators.length - 1; i >= 0; i--) {
+			if (++cursors[i] < counts[i]) {
+				return true;
+			}
+			cursors[i] = 0;
+		}
+		return false;
+	}
+
+	/**
+	 * align all the iterators on the same subject
+	 *
+	 * @return false if an iterator is ended
+	 */
+	private boolean findNextSubject() {
+		long target = 0;
+		for (int i = 0; i < iterators.length; i++) {
+			if (headSubjects[i] == 0) {
+				return false; // ended
+			}
+			target = Math.max(target, headSubjects[i]);
+		}
+
+		while (true) {
+			boolean aligned = true;
+			for (int i = 0; i < iterators.length; i++) {
+				if (!moveTo(i, target)) {
+					return false;
+				}
+				if (headSubjects[i] > target) {
+					target = headSubjects[i];
+					aligned = false;
+				}
+			}
+			if (aligned) {
+				subject = target;
+				return true;
+			}
+		}
+	}
+
+	/**
+	 * move an iterator to the first triple with a subject greater or equal than
+	 * a subject
+	 *
+	 * @param index   iterator index
+	 * @param subject subject
+	 * @return false if the iterator is ended
+	 */
+	private boolean moveTo(int index, long subject) {
+		if (headSubjects[index] >= subject) {
+			return true;
+		}
+		// the next subject is usually close, try the next triple before
+		// seeking
+		if (!advance(index)) {
+			return false;
+		}
+		IteratorTripleID it = iterators[index];
+		if (headSubjects[index] < subject && it.canGoToSubject()) {
+			it.goToSubject(subject);
+			if (!advance(index)) {
+				return false;
+			}
+		}
+		while (headSubjects[index] < subject) {
+			if (!advance(index)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * read the next non deleted triple of an iterator
+	 *
+	 * @param index iterator index
+	 * @return false if the iterator is ended
+	 */
+	private boolean advance(int index) {
+		IteratorTripleID it = iterators[index];
+		while (it.hasNext()) {
+			TripleID triple = it.next();
+			if (deleteBitMap.access(it.getLastTriplePosition())) {
+				continue;
+			}
+			headSubjects[index] = triple.getSubject();
+			headObjects[index] = triple.getObject();
+			return true;
+		}
+		headSubjects[index] = 0;
+		return false;
+	}
+}
@@ -0,0 +1,163 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Buffered byte output of the result writers, the bytes are copied in a buffer
+ * flushed to the stream when full or when {@link #flush()} is called.
+ */
+public class ByteOutput {
+	/**
+	 * create an escape table for the ASCII chars
+	 *
+	 * @param chars        ASCII chars to escape
+	 * @param replacements replacement of each char
+	 * @return table, indexed by the byte, null for the bytes without
+	 *         replacement
+	 */
+	public static byte[][] escapeTable(String chars, String... replacements) {
+		if (chars.length() != replacements.length) {
+			throw new IllegalArgumentException("chars and replacements don't have the same size");
+		}
+		byte[][] table = new byte[128][];
+		for (int i = 0; i < replacements.length; i++) {
+			table[chars.charAt(i)] = replacements[i].getBytes(StandardCharsets.UTF_8);
+		}
+		return table;
+	}
+
+	private final OutputStream stream;
+	private final byte[] buffer;
+	private int size;
+
+	public ByteOutput(OutputStream stream) {
+		this(stream, 1 << 13);
+	}
+
+	public ByteOutput(OutputStream stream, int bufferSize) {
+		this.stream = stream;
+		this.buffer = new byte[bufferSize];
+	}
+
+	/**
+	 * write a byte
+	 *
+	 * @param b byte
+	 * @throws IOException write exception
+	 */
+	public void write(int b) throws IOException {
+		if (size == buffer.length) {
+			flushBuffer();
+		}
+		buffer[size++] = (byte) b;
+	}
+
+	/**
+	 * write bytes
+	 *
+	 * @param bytes bytes
+	 * @throws IOException write exception
+	 */
+	public void write(byte[] bytes) throws IOException {
+		write(bytes, 0, bytes.length);
+	}
+
+	/**
+	 * write bytes
+	 *
+	 * @param bytes bytes
+	 * @param start start in the bytes (inclusive)
+	 * @param end   end in the bytes (exclusive)
+	 * @throws IOException write exception
+	 */
+	public void write(byte[] bytes, int start, int end) throws IOException {
+		int len = end - start;
+		if (len > buffer.length - size) {
+			flushBuffer();
+			if (len >= buffer.length) {
+				stream.write(bytes, start, len);
+				return;
+			}
+		}
+		System.arraycopy(bytes, start, buffer, size, len);
+		size += len;
+	}
+
+	/**
+	 * write a string with the UTF-8 encoding
+	 *
+	 * @param str string
+	 * @throws IOException write exception
+	 */
+	public void write(String str) throws IOException {
+		write(str.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * write bytes, the ASCII bytes with a replacement in the escape table are
+	 * replaced
+	 *
+	 * @param bytes   bytes
+	 * @param start   start in the bytes (inclusive)
+	 * @param end     end in the bytes (exclusive)
+	 * @param escapes escape table, created with
+	 *                {@link #escapeTable(String, String...)}
+	 * @throws IOException write exception
+	 */
+	public void writeEscaped(byte[] bytes, int start, int end, byte[][] escapes) throws IOException {
+		int run = start;
+		for (int i = start; i < end; i++) {
+			byte b = bytes[i];
+			if (b >= 0 && escapes[b] != null) {
+				write(bytes, run, i);
+				write(escapes[b]);
+				run = i + 1;
+			}
+		}
+		write(bytes, run, end);
+	}
+
+	/**
+	 * test if bytes contain a byte with a replacement in an escape table
+	 *
+	 * @param bytes   bytes
+	 * @param start   start in the bytes (inclusive)
+	 * @param end     end in the bytes (exclusive)
+	 * @param escapes escape table, created with
+	 *                {@link #escapeTable(String, String...)}
+	 * @return true if a byte should be escaped
+	 */
+	public static boolean requiresEscape(byte[] bytes, int start, int end, byte[][] escapes) {
+		for (int i = start; i < end; i++) {
+			byte b = bytes[i];
+			if (b >= 0 && escapes[b] != null) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * write the buffer to the stream without flushing the stream
+	 *
+	 * @throws IOException write exception
+	 */
+	public void flushBuffer() throws IOException {
+		if (size != 0) {
+			stream.write(buffer, 0, size);
+			size = 0;
+		}
+	}
+
+	/**
+	 * write the buffer to the stream and flush the stream
+	 *
+	 * @throws IOException write exception
+	 */
+	public void flush() throws IOException {
+		flushBuffer();
+		stream.flush();
+	}
+}
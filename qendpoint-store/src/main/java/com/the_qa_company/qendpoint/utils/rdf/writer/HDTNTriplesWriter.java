@@ -0,0 +1,203 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import org.eclipse.rdf4j.common.text.ASCIIUtil;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandlerException;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.AbstractRDFWriter;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * N-Triples writer copying the bytes of the HDT values, same output as the
+ * {@link org.eclipse.rdf4j.rio.ntriples.NTriplesWriter} without the unicode
+ * escaping.
+ */
+public class HDTNTriplesWriter extends AbstractRDFWriter {
+	private static final byte[][] LITERAL_ESCAPES = ByteOutput.escapeTable("\\\"\n\r\t", "\\\\", "\\\"", "\\n", "\\r",
+			"\\t");
+	private static final byte[][] IRI_ESCAPES = new byte[128][];
+	private static final byte[][] IRI_C1_ESCAPES = new byte[32][];
+	private static final byte[] XSD_STRING = CoreDatatype.XSD.STRING.getIri().stringValue()
+			.getBytes(StandardCharsets.UTF_8);
+
+	static {
+		// same chars as NTriplesUtil#escapeIRI, the other chars under 160 are
+		// percent encoded
+		String allowed = "_~.-!$&'()*+,;=:/?#@%[]";
+		for (int c = 0; c < IRI_ESCAPES.length; c++) {
+			if (!ASCIIUtil.isLetterOrNumber(c) && allowed.indexOf(c) == -1) {
+				IRI_ESCAPES[c] = ("%" + Integer.toHexString(c).toUpperCase(Locale.ROOT))
+						.getBytes(StandardCharsets.US_ASCII);
+			}
+		}
+		for (int c = 0; c < IRI_C1_ESCAPES.length; c++) {
+			IRI_C1_ESCAPES[c] = ("%" + Integer.toHexString(0x80 + c).toUpperCase(Locale.ROOT))
+					.getBytes(StandardCharsets.US_ASCII);
+		}
+	}
+
+	private final ByteOutput out;
+	private final ValueBytes valueBytes = new ValueBytes();
+	private boolean xsdStringToPlainLiteral = true;
+
+	public HDTNTriplesWriter(OutputStream out) {
+		this.out = new ByteOutput(out);
+	}
+
+	@Override
+	public RDFFormat getRDFFormat() {
+		return RDFFormat.NTRIPLES;
+	}
+
+	@Override
+	public void startRDF() throws RDFHandlerException {
+		super.startRDF();
+		xsdStringToPlainLiteral = getWriterConfig().get(BasicWriterSettings.XSD_STRING_TO_PLAIN_LITERAL);
+	}
+
+	@Override
+	public void endRDF() throws RDFHandlerException {
+		checkWritingStarted();
+		try {
+			out.flush();
+		} catch (IOException e) {
+			throw new RDFHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) {
+		// N-Triples does not support namespace prefixes
+		checkWritingStarted();
+	}
+
+	@Override
+	public void handleComment(String comment) throws RDFHandlerException {
+		checkWritingStarted();
+		try {
+			out.write('#');
+			out.write(comment);
+			out.write('\n');
+		} catch (IOException e) {
+			throw new RDFHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void consumeStatement(Statement st) {
+		try {
+			writeValue(st.getSubject());
+			out.write(' ');
+			writeValue(st.getPredicate());
+			out.write(' ');
+			writeValue(st.getObject());
+			out.write(' ');
+			out.write('.');
+			out.write('\n');
+		} catch (IOException e) {
+			throw new RDFHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof BNode bnode) {
+			writeBNode(bnode);
+			return;
+		}
+		if (!valueBytes.read(value)) {
+			throw new IllegalArgumentException("Unknown value type: " + value.getClass());
+		}
+		byte[] buffer = valueBytes.getBuffer();
+		if (valueBytes.getType() == ValueBytes.Type.IRI) {
+			writeIRI(buffer, valueBytes.getStart(), valueBytes.getEnd());
+			return;
+		}
+		out.write('"');
+		out.writeEscaped(buffer, valueBytes.getStart(), valueBytes.getEnd(), LITERAL_ESCAPES);
+		out.write('"');
+		if (valueBytes.hasLanguage()) {
+			out.write('@');
+			out.write(buffer, valueBytes.getLanguageStart(), valueBytes.getLanguageEnd());
+		} else if (valueBytes.hasDatatype()) {
+			out.write('^');
+			out.write('^');
+			writeIRI(buffer, valueBytes.getDatatypeStart(), valueBytes.getDatatypeEnd());
+		} else if (!xsdStringToPlainLiteral) {
+			out.write('^');
+			out.write('^');
+			writeIRI(XSD_STRING, 0, XSD_STRING.length);
+		}
+	}
+
+	private void writeIRI(byte[] buffer, int start, int end) throws IOException {
+		out.write('<');
+		int run = start;
+		for (int i = start; i < end; i++) {
+			byte b = buffer[i];
+			byte[] escape;
+			if (b >= 0) {
+				escape = IRI_ESCAPES[b];
+			} else if (b == (byte) 0xC2 && i + 1 < end && (buffer[i + 1] & 0xFF) < 0xA0) {
+				// C1 control char, encoded with 2 bytes
+				escape = IRI_C1_ESCAPES[buffer[i + 1] & 0x1F];
+			} else {
+				continue;
+			}
+			if (escape == null) {
+				continue;
+			}
+			out.write(buffer, run, i);
+			out.write(escape);
+			if (b < 0) {
+				i++;
+			}
+			run = i + 1;
+		}
+		out.write(buffer, run, end);
+		out.write('>');
+	}
+
+	private void writeBNode(BNode bnode) throws IOException {
+		// the id is rewritten with the letters and the numbers, so the string
+		// is used
+		String id = bnode.getID();
+		out.write('_');
+		out.write(':');
+		if (id.isEmpty()) {
+			out.write("genid");
+			out.write(Integer.toHexString(bnode.hashCode()));
+			return;
+		}
+		if (!ASCIIUtil.isLetter(id.charAt(0))) {
+			out.write("genid");
+			out.write(Integer.toHexString(id.charAt(0)));
+		}
+		for (int i = 0; i < id.length(); i++) {
+			char c = id.charAt(i);
+			if (ASCIIUtil.isLetterOrNumber(c)) {
+				out.write(c);
+			} else {
+				out.write(Integer.toHexString(c));
+			}
+		}
+	}
+
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		Set<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
+		result.add(BasicWriterSettings.XSD_STRING_TO_PLAIN_LITERAL);
+		return result;
+	}
+}
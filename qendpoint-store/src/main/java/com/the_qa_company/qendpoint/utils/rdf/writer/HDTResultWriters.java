@@ -0,0 +1,54 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFWriter;
+
+import java.io.OutputStream;
+
+/**
+ * Factory of the writers copying the bytes of the HDT values into the output
+ */
+public class HDTResultWriters {
+	/**
+	 * create a tuple query result writer
+	 *
+	 * @param format format
+	 * @param out    output stream
+	 * @return writer, null if the format isn't supported
+	 */
+	public static TupleQueryResultWriter createTupleWriter(QueryResultFormat format, OutputStream out) {
+		if (TupleQueryResultFormat.JSON.equals(format)) {
+			return new HDTSPARQLResultsJSONWriter(out);
+		}
+		if (TupleQueryResultFormat.SPARQL.equals(format)) {
+			return new HDTSPARQLResultsXMLWriter(out);
+		}
+		if (TupleQueryResultFormat.TSV.equals(format)) {
+			return new HDTSPARQLResultsTSVWriter(out);
+		}
+		if (TupleQueryResultFormat.CSV.equals(format)) {
+			return new HDTSPARQLResultsCSVWriter(out);
+		}
+		return null;
+	}
+
+	/**
+	 * create a RDF writer
+	 *
+	 * @param format format
+	 * @param out    output stream
+	 * @return writer, null if the format isn't supported
+	 */
+	public static RDFWriter createRDFWriter(RDFFormat format, OutputStream out) {
+		if (RDFFormat.NTRIPLES.equals(format)) {
+			return new HDTNTriplesWriter(out);
+		}
+		return null;
+	}
+
+	private HDTResultWriters() {
+	}
+}
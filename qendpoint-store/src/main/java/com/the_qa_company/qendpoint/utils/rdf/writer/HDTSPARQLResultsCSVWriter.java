@@ -0,0 +1,184 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * SPARQL CSV results writer copying the bytes of the HDT values, same output as
+ * the {@link org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter}
+ */
+public class HDTSPARQLResultsCSVWriter extends AbstractQueryResultWriter implements TupleQueryResultWriter {
+	private static final byte[][] QUOTED_CHARS = ByteOutput.escapeTable(",\r\n\"", "", "", "", "");
+	private static final byte[][] ESCAPES = ByteOutput.escapeTable("\"", "\"\"");
+	private static final byte[][] IRI_QUOTED_CHARS = ByteOutput.escapeTable(",", "");
+
+	private final ByteOutput out;
+	private final ValueBytes valueBytes = new ValueBytes();
+	private List<String> bindingNames;
+
+	public HDTSPARQLResultsCSVWriter(OutputStream out) {
+		this.out = new ByteOutput(out);
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+		this.bindingNames = bindingNames;
+		try {
+			for (int i = 0; i < bindingNames.size(); i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				out.write(bindingNames.get(i));
+			}
+			out.write('\r');
+			out.write('\n');
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (bindingNames == null) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+		try {
+			out.flush();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (bindingNames == null) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+		try {
+			for (int i = 0; i < bindingNames.size(); i++) {
+				if (i != 0) {
+					out.write(',');
+				}
+				Value value = bindingSet.getValue(bindingNames.get(i));
+				if (value != null) {
+					writeValue(value);
+				}
+			}
+			out.write('\r');
+			out.write('\n');
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (!valueBytes.read(value)) {
+			throw new IllegalArgumentException("Unknown Value object type: " + value.getClass());
+		}
+		byte[] buffer = valueBytes.getBuffer();
+		int start = valueBytes.getStart();
+		int end = valueBytes.getEnd();
+		switch (valueBytes.getType()) {
+		case IRI -> {
+			if (ByteOutput.requiresEscape(buffer, start, end, IRI_QUOTED_CHARS)) {
+				out.write('"');
+				out.write(buffer, start, end);
+				out.write('"');
+			} else {
+				out.write(buffer, start, end);
+			}
+		}
+		case BNODE -> {
+			out.write('_');
+			out.write(':');
+			out.write(buffer, start, end);
+		}
+		case LITERAL -> writeLiteral(buffer, start, end);
+		}
+	}
+
+	private void writeLiteral(byte[] buffer, int start, int end) throws IOException {
+		CoreDatatype datatype = valueBytes.getCoreDatatype();
+		if (datatype instanceof CoreDatatype.XSD xsd
+				&& (xsd.isIntegerDatatype() || xsd.isDecimalDatatype() || xsd == CoreDatatype.XSD.DOUBLE)) {
+			if (xsd.isIntegerDatatype() && valueBytes.isCanonicalInteger()) {
+				// normalized or invalid for the datatype, written as it is in
+				// both cases
+				out.write(buffer, start, end);
+				return;
+			}
+			try {
+				out.write(XMLDatatypeUtil.normalize(valueBytes.getString(), xsd));
+				return;
+			} catch (IllegalArgumentException e) {
+				// not a valid numeric value, write it as a literal
+			}
+		}
+
+		if (ByteOutput.requiresEscape(buffer, start, end, QUOTED_CHARS)) {
+			out.write('"');
+			out.writeEscaped(buffer, start, end, ESCAPES);
+			out.write('"');
+		} else {
+			out.write(buffer, start, end);
+		}
+	}
+
+	@Override
+	public TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.CSV;
+	}
+
+	@Override
+	public QueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		throw new UnsupportedOperationException("Cannot handle boolean results");
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// namespaces are not supported in the CSV format
+	}
+
+	@Override
+	public void startDocument() throws QueryResultHandlerException {
+		// no document header in the CSV format
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		// stylesheets are not supported in the CSV format
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		// the header is written with the binding names
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		// links are not supported in the CSV format
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		// the header is written with the binding names
+	}
+}
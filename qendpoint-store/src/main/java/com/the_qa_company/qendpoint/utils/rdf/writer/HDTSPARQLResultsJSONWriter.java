@@ -0,0 +1,336 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonFactoryBuilder;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.the_qa_company.qendpoint.utils.rdf.QEPSPARQLResultsJSONWriter;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.BasicQueryWriterSettings;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * SPARQL JSON results writer copying the bytes of the HDT values, same output
+ * as the {@link QEPSPARQLResultsJSONWriter}. The generator is writing UTF-8
+ * bytes, so the labels are written without being decoded.
+ */
+public class HDTSPARQLResultsJSONWriter extends AbstractQueryResultWriter implements TupleQueryResultWriter {
+	private static final JsonFactory JSON_FACTORY = new JsonFactoryBuilder()
+			.disable(JsonFactory.Feature.INTERN_FIELD_NAMES).disable(JsonFactory.Feature.CANONICALIZE_FIELD_NAMES)
+			.disable(StreamWriteFeature.AUTO_CLOSE_TARGET).build();
+
+	private final JsonGenerator jg;
+	private final ValueBytes valueBytes = new ValueBytes();
+	private QEPSPARQLResultsJSONWriter.IOExceptionConsumer<JsonGenerator> componentBuilder;
+	private boolean documentOpen;
+	private boolean headerOpen;
+	private boolean headerComplete;
+	private boolean tupleVariablesFound;
+
+	public HDTSPARQLResultsJSONWriter(OutputStream out) {
+		try {
+			jg = JSON_FACTORY.createGenerator(out, JsonEncoding.UTF8);
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+	}
+
+	/**
+	 * set a writer called before writing the header
+	 *
+	 * @param componentBuilder writer
+	 * @see QEPSPARQLResultsJSONWriter#setHeaderWriter(QEPSPARQLResultsJSONWriter.IOExceptionConsumer)
+	 */
+	public void setHeaderWriter(QEPSPARQLResultsJSONWriter.IOExceptionConsumer<JsonGenerator> componentBuilder) {
+		this.componentBuilder = componentBuilder;
+	}
+
+	@Override
+	public void startDocument() throws QueryResultHandlerException {
+		if (documentOpen) {
+			return;
+		}
+		documentOpen = true;
+		headerOpen = false;
+		headerComplete = false;
+		tupleVariablesFound = false;
+		try {
+			if (getWriterConfig().get(BasicWriterSettings.PRETTY_PRINT)) {
+				jg.setPrettyPrinter(
+						new DefaultPrettyPrinter().withArrayIndenter(DefaultIndenter.SYSTEM_LINEFEED_INSTANCE)
+								.withObjectIndenter(DefaultIndenter.SYSTEM_LINEFEED_INSTANCE));
+			}
+			if (getWriterConfig().isSet(BasicQueryWriterSettings.JSONP_CALLBACK)) {
+				jg.writeRaw(getWriterConfig().get(BasicQueryWriterSettings.JSONP_CALLBACK));
+				jg.writeRaw("(");
+			}
+			jg.writeStartObject();
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		// stylesheets are not supported in the JSON format
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (headerOpen) {
+			return;
+		}
+		try {
+			if (componentBuilder != null) {
+				componentBuilder.accept(jg);
+			}
+			jg.writeObjectFieldStart("head");
+			headerOpen = true;
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		try {
+			jg.writeArrayFieldStart("link");
+			for (String link : linkUrls) {
+				jg.writeString(link);
+			}
+			jg.writeEndArray();
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		if (headerComplete) {
+			return;
+		}
+		try {
+			jg.writeEndObject();
+			if (tupleVariablesFound) {
+				jg.writeObjectFieldStart("results");
+				jg.writeArrayFieldStart("bindings");
+			}
+			headerComplete = true;
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		tupleVariablesFound = true;
+		try {
+			jg.writeArrayFieldStart("vars");
+			for (String name : bindingNames) {
+				jg.writeString(name);
+			}
+			jg.writeEndArray();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+		try {
+			jg.writeStartObject();
+			for (Binding binding : bindingSet) {
+				jg.writeFieldName(binding.getName());
+				writeValue(binding.getValue());
+			}
+			jg.writeEndObject();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof Triple triple) {
+			// only written if the RDF-star values aren't encoded, same layout
+			// as the SPARQLResultsJSONWriter
+			jg.writeStartObject();
+			jg.writeStringField("type", "triple");
+			jg.writeObjectFieldStart("value");
+			jg.writeFieldName("s");
+			writeValue(triple.getSubject());
+			jg.writeFieldName("p");
+			writeValue(triple.getPredicate());
+			jg.writeFieldName("o");
+			writeValue(triple.getObject());
+			jg.writeEndObject();
+			jg.writeEndObject();
+			return;
+		}
+		if (!valueBytes.read(value)) {
+			throw new TupleQueryResultHandlerException("Unknown Value object type: " + value.getClass());
+		}
+		byte[] buffer = valueBytes.getBuffer();
+		int start = valueBytes.getStart();
+		int len = valueBytes.getEnd() - start;
+		jg.writeStartObject();
+		switch (valueBytes.getType()) {
+		case IRI -> {
+			jg.writeStringField("type", "uri");
+			jg.writeFieldName("value");
+			jg.writeUTF8String(buffer, start, len);
+		}
+		case BNODE -> {
+			jg.writeStringField("type", "bnode");
+			jg.writeFieldName("value");
+			jg.writeUTF8String(buffer, start, len);
+		}
+		case LITERAL -> {
+			if (valueBytes.hasLanguage()) {
+				jg.writeFieldName("xml:lang");
+				jg.writeUTF8String(buffer, valueBytes.getLanguageStart(),
+						valueBytes.getLanguageEnd() - valueBytes.getLanguageStart());
+			} else if (valueBytes.hasDatatype()) {
+				jg.writeFieldName("datatype");
+				jg.writeUTF8String(buffer, valueBytes.getDatatypeStart(),
+						valueBytes.getDatatypeEnd() - valueBytes.getDatatypeStart());
+			} else if (!xsdStringToPlainLiteral()) {
+				jg.writeStringField("datatype", XSD.STRING.stringValue());
+			}
+			jg.writeStringField("type", "literal");
+			jg.writeFieldName("value");
+			jg.writeUTF8String(buffer, start, len);
+		}
+		}
+		jg.writeEndObject();
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+		try {
+			jg.writeEndArray();
+			jg.writeEndObject();
+			endDocument();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (tupleVariablesFound) {
+			throw new QueryResultHandlerException("Cannot call handleBoolean after startQueryResults");
+		}
+		try {
+			jg.writeBooleanField("boolean", value);
+			endDocument();
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	private void endDocument() throws IOException {
+		jg.writeEndObject();
+		if (getWriterConfig().isSet(BasicQueryWriterSettings.JSONP_CALLBACK)) {
+			jg.writeRaw(");");
+		}
+		jg.flush();
+		documentOpen = false;
+		headerOpen = false;
+		headerComplete = false;
+		tupleVariablesFound = false;
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// namespaces are not supported in the JSON format
+	}
+
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		Set<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
+		result.add(BasicQueryWriterSettings.JSONP_CALLBACK);
+		result.add(BasicWriterSettings.PRETTY_PRINT);
+		return result;
+	}
+
+	@Override
+	public TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.JSON;
+	}
+
+	@Override
+	public QueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+}
@@ -0,0 +1,237 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.model.datatypes.XMLDatatypeUtil;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * SPARQL TSV results writer copying the bytes of the HDT values, same output as
+ * the {@link org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter}
+ */
+public class HDTSPARQLResultsTSVWriter extends AbstractQueryResultWriter implements TupleQueryResultWriter {
+	private static final byte[][] ESCAPES = ByteOutput.escapeTable("\\\t\n\r\"", "\\\\", "\\t", "\\n", "\\r", "\\\"");
+	private static final byte[] XSD_STRING = CoreDatatype.XSD.STRING.getIri().stringValue()
+			.getBytes(StandardCharsets.UTF_8);
+
+	private final ByteOutput out;
+	private final ValueBytes valueBytes = new ValueBytes();
+	private List<String> bindingNames;
+
+	public HDTSPARQLResultsTSVWriter(OutputStream out) {
+		this.out = new ByteOutput(out);
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+		this.bindingNames = bindingNames;
+		try {
+			for (int i = 0; i < bindingNames.size(); i++) {
+				if (i != 0) {
+					out.write('\t');
+				}
+				out.write('?');
+				out.write(bindingNames.get(i));
+			}
+			out.write('\n');
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (bindingNames == null) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+		try {
+			out.flush();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (bindingNames == null) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+		try {
+			for (int i = 0; i < bindingNames.size(); i++) {
+				if (i != 0) {
+					out.write('\t');
+				}
+				Value value = bindingSet.getValue(bindingNames.get(i));
+				if (value != null) {
+					writeValue(value);
+				}
+			}
+			out.write('\n');
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof Triple triple) {
+			out.write('<');
+			out.write('<');
+			writeValue(triple.getSubject());
+			out.write(' ');
+			writeValue(triple.getPredicate());
+			out.write(' ');
+			writeValue(triple.getObject());
+			out.write('>');
+			out.write('>');
+			return;
+		}
+		if (!valueBytes.read(value)) {
+			throw new IllegalArgumentException("Unknown Value object type: " + value.getClass());
+		}
+		byte[] buffer = valueBytes.getBuffer();
+		int start = valueBytes.getStart();
+		int end = valueBytes.getEnd();
+		switch (valueBytes.getType()) {
+		case IRI -> {
+			out.write('<');
+			out.write(buffer, start, end);
+			out.write('>');
+		}
+		case BNODE -> {
+			out.write('_');
+			out.write(':');
+			out.write(buffer, start, end);
+		}
+		case LITERAL -> writeLiteral(buffer, start, end);
+		}
+	}
+
+	private void writeLiteral(byte[] buffer, int start, int end) throws IOException {
+		CoreDatatype datatype = valueBytes.getCoreDatatype();
+		if (datatype == CoreDatatype.XSD.INTEGER && valueBytes.isCanonicalInteger()) {
+			out.write(buffer, start, end);
+			return;
+		}
+		if (datatype == CoreDatatype.XSD.INTEGER || datatype == CoreDatatype.XSD.DECIMAL
+				|| datatype == CoreDatatype.XSD.DOUBLE) {
+			try {
+				out.write(XMLDatatypeUtil.normalize(valueBytes.getString(), (CoreDatatype.XSD) datatype));
+				return;
+			} catch (IllegalArgumentException e) {
+				// not a valid numeric value, write it as a literal
+			}
+		}
+
+		if (valueBytes.hasLanguage()) {
+			writeQuoted(buffer, start, end);
+			out.write('@');
+			out.write(buffer, valueBytes.getLanguageStart(), valueBytes.getLanguageEnd());
+		} else if (valueBytes.hasDatatype() || !xsdStringToPlainLiteral()) {
+			writeQuoted(buffer, start, end);
+			out.write('^');
+			out.write('^');
+			out.write('<');
+			if (valueBytes.hasDatatype()) {
+				out.write(buffer, valueBytes.getDatatypeStart(), valueBytes.getDatatypeEnd());
+			} else {
+				out.write(XSD_STRING);
+			}
+			out.write('>');
+		} else if (start != end && !ByteOutput.requiresEscape(buffer, start, end, ESCAPES) && buffer[start] != '<'
+				&& buffer[start] != '_' && !isNumericLike(buffer, start, end)) {
+			out.write(buffer, start, end);
+		} else {
+			writeQuoted(buffer, start, end);
+		}
+	}
+
+	private void writeQuoted(byte[] buffer, int start, int end) throws IOException {
+		out.write('"');
+		out.writeEscaped(buffer, start, end, ESCAPES);
+		out.write('"');
+	}
+
+	/**
+	 * same as matching the label with the regex {@code ^[\+\-]?[\d\.].*}, the
+	 * labels of this kind are quoted to not be read as numbers
+	 */
+	private static boolean isNumericLike(byte[] buffer, int start, int end) {
+		int i = start;
+		if (buffer[i] == '+' || buffer[i] == '-') {
+			i++;
+		}
+		if (i == end || !(buffer[i] == '.' || (buffer[i] >= '0' && buffer[i] <= '9'))) {
+			return false;
+		}
+		// the regex dot isn't matching the line terminators, \r and \n are
+		// already escaped, so only NEL, LS and PS are remaining
+		for (i++; i < end; i++) {
+			if (buffer[i] == (byte) 0xC2 && i + 1 < end && buffer[i + 1] == (byte) 0x85) {
+				return false;
+			}
+			if (buffer[i] == (byte) 0xE2 && i + 2 < end && buffer[i + 1] == (byte) 0x80
+					&& (buffer[i + 2] == (byte) 0xA8 || buffer[i + 2] == (byte) 0xA9)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	@Override
+	public TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.TSV;
+	}
+
+	@Override
+	public QueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		throw new UnsupportedOperationException("Cannot handle boolean results");
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// namespaces are not supported in the TSV format
+	}
+
+	@Override
+	public void startDocument() throws QueryResultHandlerException {
+		// no document header in the TSV format
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		// stylesheets are not supported in the TSV format
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		// the header is written with the binding names
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		// links are not supported in the TSV format
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		// the header is written with the binding names
+	}
+}
@@ -0,0 +1,420 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Triple;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.Binding;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryResultHandlerException;
+import org.eclipse.rdf4j.query.TupleQueryResultHandlerException;
+import org.eclipse.rdf4j.query.resultio.AbstractQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.BasicQueryWriterSettings;
+import org.eclipse.rdf4j.query.resultio.QueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.rio.RioSetting;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * SPARQL XML results writer copying the bytes of the HDT values, same output as
+ * the
+ * {@link org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLWriter}.
+ */
+public class HDTSPARQLResultsXMLWriter extends AbstractQueryResultWriter implements TupleQueryResultWriter {
+	private static final byte[][] TEXT_ESCAPES = ByteOutput.escapeTable("&<>\r", "&amp;", "&lt;", "&gt;", "&#xD;");
+	private static final byte[][] ATTRIBUTE_ESCAPES = ByteOutput.escapeTable("&<>\t\n\r'", "&amp;", "&lt;", "&gt;",
+			"&#x9;", "&#xA;", "&#xD;", "&apos;");
+	private static final byte[] LINE_SEPARATOR = System.lineSeparator().getBytes(StandardCharsets.UTF_8);
+
+	private final ByteOutput out;
+	private final ValueBytes valueBytes = new ValueBytes();
+	// namespace -> prefix, same map as the rdf4j writer to write the
+	// declarations in the same order
+	private final Map<String, String> namespaceTable = new HashMap<>();
+	private boolean qnames;
+	private boolean prettyPrint;
+	private int indent;
+	private boolean documentOpen;
+	private boolean headerOpen;
+	private boolean headerComplete;
+	private boolean tupleVariablesFound;
+
+	public HDTSPARQLResultsXMLWriter(OutputStream out) {
+		this.out = new ByteOutput(out);
+	}
+
+	@Override
+	public void startDocument() throws QueryResultHandlerException {
+		if (documentOpen) {
+			return;
+		}
+		documentOpen = true;
+		headerOpen = false;
+		headerComplete = false;
+		tupleVariablesFound = false;
+		prettyPrint = getWriterConfig().get(BasicWriterSettings.PRETTY_PRINT);
+		qnames = getWriterConfig().get(BasicQueryWriterSettings.ADD_SESAME_QNAME);
+		indent = 0;
+		try {
+			out.write("<?xml version='1.0' encoding='UTF-8'?>");
+			newLine();
+			startLine();
+			out.write("<sparql xmlns='http://www.w3.org/2005/sparql-results#'");
+			if (qnames) {
+				out.write(" xmlns:q='http://www.openrdf.org/schema/qname#'");
+			}
+			for (Map.Entry<String, String> e : namespaceTable.entrySet()) {
+				out.write(" xmlns:");
+				writeAttributeValue(e.getValue());
+				out.write("='");
+				writeAttributeValue(e.getKey());
+				out.write("'");
+			}
+			out.write('>');
+			newLine();
+			indent++;
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleStylesheet(String stylesheetUrl) throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		try {
+			out.write("<?xml-stylesheet type='text/xsl' href='");
+			writeAttributeValue(stylesheetUrl);
+			out.write("'?>");
+			newLine();
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void startHeader() throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (headerOpen) {
+			return;
+		}
+		try {
+			startTag("head");
+			headerOpen = true;
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleLinks(List<String> linkUrls) throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		try {
+			for (String link : linkUrls) {
+				startLine();
+				out.write("<link href='");
+				writeAttributeValue(link);
+				out.write("'/>");
+				newLine();
+			}
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void endHeader() throws QueryResultHandlerException {
+		if (headerComplete) {
+			return;
+		}
+		try {
+			endTag("head");
+			if (tupleVariablesFound) {
+				startTag("results");
+			}
+			headerComplete = true;
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void startQueryResult(List<String> bindingNames) throws TupleQueryResultHandlerException {
+		super.startQueryResult(bindingNames);
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		tupleVariablesFound = true;
+		try {
+			for (String name : bindingNames) {
+				startLine();
+				out.write("<variable name='");
+				writeAttributeValue(name);
+				out.write("'/>");
+				newLine();
+			}
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	protected void handleSolutionImpl(BindingSet bindingSet) throws TupleQueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Must call startQueryResult before handleSolution");
+		}
+		try {
+			startTag("result");
+			for (Binding binding : bindingSet) {
+				startLine();
+				out.write("<binding name='");
+				writeAttributeValue(binding.getName());
+				out.write("'>");
+				newLine();
+				indent++;
+				writeValue(binding.getValue());
+				endTag("binding");
+			}
+			endTag("result");
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	private void writeValue(Value value) throws IOException {
+		if (value instanceof Triple triple) {
+			startTag("triple");
+			startTag("subject");
+			writeValue(triple.getSubject());
+			endTag("subject");
+			startTag("predicate");
+			writeValue(triple.getPredicate());
+			endTag("predicate");
+			startTag("object");
+			writeValue(triple.getObject());
+			endTag("object");
+			endTag("triple");
+			return;
+		}
+		// qname of the IRI or of the datatype, the values are only decoded
+		// for it if the qnames are written
+		String qname = null;
+		if (qnames && !namespaceTable.isEmpty()) {
+			if (value instanceof IRI iri) {
+				qname = qname(iri);
+			} else if (value instanceof Literal literal && literal.getLanguage().isEmpty()) {
+				qname = qname(literal.getDatatype());
+			}
+		}
+		if (!valueBytes.read(value)) {
+			throw new IllegalArgumentException("Unknown Value object type: " + value.getClass());
+		}
+		byte[] buffer = valueBytes.getBuffer();
+		int start = valueBytes.getStart();
+		int end = valueBytes.getEnd();
+		startLine();
+		switch (valueBytes.getType()) {
+		case IRI -> {
+			out.write("<uri");
+			writeQName(qname);
+			out.write('>');
+			out.writeEscaped(buffer, start, end, TEXT_ESCAPES);
+			out.write("</uri>");
+		}
+		case BNODE -> {
+			out.write("<bnode>");
+			out.writeEscaped(buffer, start, end, TEXT_ESCAPES);
+			out.write("</bnode>");
+		}
+		case LITERAL -> {
+			if (valueBytes.hasLanguage()) {
+				out.write("<literal xml:lang='");
+				out.writeEscaped(buffer, valueBytes.getLanguageStart(), valueBytes.getLanguageEnd(), ATTRIBUTE_ESCAPES);
+				out.write("'>");
+			} else if (valueBytes.hasDatatype()) {
+				out.write("<literal");
+				writeQName(qname);
+				out.write(" datatype='");
+				out.writeEscaped(buffer, valueBytes.getDatatypeStart(), valueBytes.getDatatypeEnd(), ATTRIBUTE_ESCAPES);
+				out.write("'>");
+			} else if (!xsdStringToPlainLiteral()) {
+				out.write("<literal");
+				writeQName(qname);
+				out.write(" datatype='");
+				writeAttributeValue(XSD.STRING.stringValue());
+				out.write("'>");
+			} else {
+				out.write("<literal>");
+			}
+			out.writeEscaped(buffer, start, end, TEXT_ESCAPES);
+			out.write("</literal>");
+		}
+		}
+		newLine();
+	}
+
+	@Override
+	public void endQueryResult() throws TupleQueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (!tupleVariablesFound) {
+			throw new IllegalStateException("Could not end query result as startQueryResult was not called first.");
+		}
+		try {
+			endTag("results");
+			endDocument();
+		} catch (IOException e) {
+			throw new TupleQueryResultHandlerException(e);
+		}
+	}
+
+	@Override
+	public void handleBoolean(boolean value) throws QueryResultHandlerException {
+		if (!documentOpen) {
+			startDocument();
+		}
+		if (!headerOpen) {
+			startHeader();
+		}
+		if (!headerComplete) {
+			endHeader();
+		}
+		if (tupleVariablesFound) {
+			throw new QueryResultHandlerException("Cannot call handleBoolean after startQueryResults");
+		}
+		try {
+			startLine();
+			out.write(value ? "<boolean>true</boolean>" : "<boolean>false</boolean>");
+			newLine();
+			endDocument();
+		} catch (IOException e) {
+			throw new QueryResultHandlerException(e);
+		}
+	}
+
+	private void endDocument() throws IOException {
+		endTag("sparql");
+		out.flush();
+		documentOpen = false;
+		headerOpen = false;
+		headerComplete = false;
+		tupleVariablesFound = false;
+	}
+
+	private void startTag(String name) throws IOException {
+		startLine();
+		out.write('<');
+		out.write(name);
+		out.write('>');
+		newLine();
+		indent++;
+	}
+
+	private void endTag(String name) throws IOException {
+		indent--;
+		startLine();
+		out.write('<');
+		out.write('/');
+		out.write(name);
+		out.write('>');
+		newLine();
+	}
+
+	private void startLine() throws IOException {
+		if (prettyPrint) {
+			for (int i = 0; i < indent; i++) {
+				out.write('\t');
+			}
+		}
+	}
+
+	private void newLine() throws IOException {
+		if (prettyPrint) {
+			out.write(LINE_SEPARATOR);
+		}
+	}
+
+	private String qname(IRI iri) {
+		String prefix = namespaceTable.get(iri.getNamespace());
+		return prefix == null ? null : prefix + ":" + iri.getLocalName();
+	}
+
+	private void writeQName(String qname) throws IOException {
+		if (qname != null) {
+			out.write(" q:qname='");
+			writeAttributeValue(qname);
+			out.write("'");
+		}
+	}
+
+	private void writeAttributeValue(String value) throws IOException {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		out.writeEscaped(bytes, 0, bytes.length, ATTRIBUTE_ESCAPES);
+	}
+
+	@Override
+	public void handleNamespace(String prefix, String uri) throws QueryResultHandlerException {
+		// same rules as the rdf4j writer, the declarations are written with
+		// the document start
+		if (!documentOpen && !prefix.isBlank() && !prefix.trim().equals("q")) {
+			namespaceTable.put(uri, prefix);
+		}
+	}
+
+	@Override
+	public Collection<RioSetting<?>> getSupportedSettings() {
+		Set<RioSetting<?>> result = new HashSet<>(super.getSupportedSettings());
+		result.add(BasicWriterSettings.PRETTY_PRINT);
+		result.add(BasicQueryWriterSettings.ADD_SESAME_QNAME);
+		return result;
+	}
+
+	@Override
+	public TupleQueryResultFormat getTupleQueryResultFormat() {
+		return TupleQueryResultFormat.SPARQL;
+	}
+
+	@Override
+	public QueryResultFormat getQueryResultFormat() {
+		return getTupleQueryResultFormat();
+	}
+}
@@ -0,0 +1,313 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import com.the_qa_company.qendpoint.core.util.string.ByteString;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
+import com.the_qa_company.qendpoint.model.HDTValue;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.base.CoreDatatype;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * UTF-8 view of a value, the HDT values are read from the bytes of their
+ * dictionary string without creating the label, the language or the datatype
+ * strings, the other values are encoded. The view and its buffers are reused
+ * between the values, so a value should be written before reading the next one.
+ */
+public class ValueBytes {
+	private static final byte[] XSD_STRING = CoreDatatype.XSD.STRING.getIri().stringValue()
+			.getBytes(StandardCharsets.UTF_8);
+	private static final int DATATYPE_CACHE_SIZE = 16;
+
+	/**
+	 * type of the read value
+	 */
+	public enum Type {
+		IRI, BNODE, LITERAL
+	}
+
+	private Type type;
+	private byte[] buffer;
+	private int start;
+	private int end;
+	private int languageStart;
+	private int languageEnd;
+	private int datatypeStart;
+	private int datatypeEnd;
+	private final ReplazableString decodeBuffer = new ReplazableString();
+	private byte[] encodeBuffer = new byte[128];
+	private int encodeSize;
+	private final byte[][] datatypeCache = new byte[DATATYPE_CACHE_SIZE][];
+	private final CoreDatatype[] coreDatatypeCache = new CoreDatatype[DATATYPE_CACHE_SIZE];
+	private int nextDatatypeCache;
+
+	/**
+	 * read a value
+	 *
+	 * @param value value
+	 * @return false if the value can't be read, for example for a triple
+	 */
+	public boolean read(Value value) {
+		if (value instanceof HDTValue hdtValue && readHDT(hdtValue)) {
+			return true;
+		}
+		languageStart = languageEnd = datatypeStart = datatypeEnd = 0;
+		encodeSize = 0;
+		if (value instanceof IRI iri) {
+			type = Type.IRI;
+			start = encodeSize;
+			encode(iri.stringValue());
+			end = encodeSize;
+		} else if (value instanceof BNode bnode) {
+			type = Type.BNODE;
+			start = encodeSize;
+			encode(bnode.getID());
+			end = encodeSize;
+		} else if (value instanceof Literal literal) {
+			type = Type.LITERAL;
+			start = encodeSize;
+			encode(literal.getLabel());
+			end = encodeSize;
+			if (literal.getLanguage().isPresent()) {
+				languageStart = encodeSize;
+				encode(literal.getLanguage().get());
+				languageEnd = encodeSize;
+			} else if (!CoreDatatype.XSD.STRING.equals(literal.getCoreDatatype())) {
+				datatypeStart = encodeSize;
+				encode(literal.getDatatype().stringValue());
+				datatypeEnd = encodeSize;
+			}
+		} else {
+			return false;
+		}
+		buffer = encodeBuffer;
+		return true;
+	}
+
+	private boolean readHDT(HDTValue value) {
+		CharSequence str = value.getDictionaryString(decodeBuffer);
+		if (str == null) {
+			return false;
+		}
+		ByteString bstr = ByteString.of(str);
+		byte[] buff = bstr.getBuffer();
+		int len = bstr.length();
+		languageStart = languageEnd = datatypeStart = datatypeEnd = 0;
+		if (value instanceof IRI) {
+			type = Type.IRI;
+			start = 0;
+			end = len;
+		} else if (value instanceof BNode) {
+			if (len < 2) {
+				return false;
+			}
+			type = Type.BNODE;
+			start = 2;
+			end = len;
+		} else if (value instanceof Literal) {
+			if (len == 0 || buff[0] != '"') {
+				return false;
+			}
+			int lastQuote = len - 1;
+			while (buff[lastQuote] != '"') {
+				lastQuote--;
+			}
+			if (lastQuote == 0) {
+				return false;
+			}
+			type = Type.LITERAL;
+			start = 1;
+			end = lastQuote;
+			int suffix = lastQuote + 1;
+			if (suffix == len) {
+				// plain literal
+			} else if (buff[suffix] == '@') {
+				languageStart = suffix + 1;
+				languageEnd = len;
+			} else if (len - suffix >= 4 && buff[suffix] == '^' && buff[suffix + 1] == '^' && buff[suffix + 2] == '<'
+					&& buff[len - 1] == '>') {
+				for (int i = suffix + 3; i < len - 1; i++) {
+					if (buff[i] == '\\') {
+						// escaped datatype, the string value has to be
+						// unescaped
+						return false;
+					}
+				}
+				if (!Arrays.equals(buff, suffix + 3, len - 1, XSD_STRING, 0, XSD_STRING.length)) {
+					datatypeStart = suffix + 3;
+					datatypeEnd = len - 1;
+				}
+			} else {
+				return false;
+			}
+		} else {
+			return false;
+		}
+		buffer = buff;
+		return true;
+	}
+
+	private void encode(String str) {
+		byte[] bytes = str.getBytes(StandardCharsets.UTF_8);
+		if (encodeSize + bytes.length > encodeBuffer.length) {
+			encodeBuffer = Arrays.copyOf(encodeBuffer, Math.max(encodeBuffer.length * 2, encodeSize + bytes.length));
+		}
+		System.arraycopy(bytes, 0, encodeBuffer, encodeSize, bytes.length);
+		encodeSize += bytes.length;
+	}
+
+	/**
+	 * @return the type of the value
+	 */
+	public Type getType() {
+		return type;
+	}
+
+	/**
+	 * @return the buffer containing the bytes of the value
+	 */
+	public byte[] getBuffer() {
+		return buffer;
+	}
+
+	/**
+	 * @return the start of the IRI, of the blank node id or of the literal
+	 *         label in the buffer (inclusive)
+	 */
+	public int getStart() {
+		return start;
+	}
+
+	/**
+	 * @return the end of the IRI, of the blank node id or of the literal label
+	 *         in the buffer (exclusive)
+	 */
+	public int getEnd() {
+		return end;
+	}
+
+	/**
+	 * @return if the value is a literal with a language
+	 */
+	public boolean hasLanguage() {
+		return languageEnd != languageStart;
+	}
+
+	/**
+	 * @return the start of the language in the buffer (inclusive)
+	 */
+	public int getLanguageStart() {
+		return languageStart;
+	}
+
+	/**
+	 * @return the end of the language in the buffer (exclusive)
+	 */
+	public int getLanguageEnd() {
+		return languageEnd;
+	}
+
+	/**
+	 * @return if the value is a literal with a datatype other than xsd:string
+	 *         and rdf:langString
+	 */
+	public boolean hasDatatype() {
+		return datatypeEnd != datatypeStart;
+	}
+
+	/**
+	 * @return the start of the datatype in the buffer (inclusive)
+	 */
+	public int getDatatypeStart() {
+		return datatypeStart;
+	}
+
+	/**
+	 * @return the end of the datatype in the buffer (exclusive)
+	 */
+	public int getDatatypeEnd() {
+		return datatypeEnd;
+	}
+
+	/**
+	 * @return the value as a string, the label for a literal
+	 */
+	public String getString() {
+		return new String(buffer, start, end - start, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the language as a string
+	 */
+	public String getLanguageString() {
+		return new String(buffer, languageStart, languageEnd - languageStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return the datatype as a string
+	 */
+	public String getDatatypeString() {
+		return new String(buffer, datatypeStart, datatypeEnd - datatypeStart, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @return if the label is an integer in its canonical form, the normalized
+	 *         integer is then the label
+	 */
+	public boolean isCanonicalInteger() {
+		if (end - start == 1 && buffer[start] == '0') {
+			return true;
+		}
+		int i = start;
+		if (i < end && buffer[i] == '-') {
+			i++;
+		}
+		if (i == end || buffer[i] < '1' || buffer[i] > '9') {
+			return false;
+		}
+		for (i++; i < end; i++) {
+			if (buffer[i] < '0' || buffer[i] > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return the core datatype of the literal, the last datatypes are cached
+	 *         to avoid reading the same datatype strings
+	 */
+	public CoreDatatype getCoreDatatype() {
+		if (type != Type.LITERAL) {
+			return CoreDatatype.NONE;
+		}
+		if (hasLanguage()) {
+			return CoreDatatype.RDF.LANGSTRING;
+		}
+		if (!hasDatatype()) {
+			return CoreDatatype.XSD.STRING;
+		}
+		for (int i = 0; i < DATATYPE_CACHE_SIZE; i++) {
+			byte[] dt = datatypeCache[i];
+			if (dt != null && Arrays.equals(dt, 0, dt.length, buffer, datatypeStart, datatypeEnd)) {
+				return coreDatatypeCache[i];
+			}
+		}
+		CoreDatatype coreDatatype;
+		try {
+			coreDatatype = CoreDatatype.from(SimpleValueFactory.getInstance().createIRI(getDatatypeString()));
+		} catch (IllegalArgumentException e) {
+			coreDatatype = CoreDatatype.NONE;
+		}
+		int index = nextDatatypeCache;
+		nextDatatypeCache = (nextDatatypeCache + 1) % DATATYPE_CACHE_SIZE;
+		datatypeCache[index] = Arrays.copyOfRange(buffer, datatypeStart, datatypeEnd);
+		coreDatatypeCache[index] = coreDatatype;
+		return coreDatatype;
+	}
+}
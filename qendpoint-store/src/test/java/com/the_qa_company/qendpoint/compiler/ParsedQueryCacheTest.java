@@ -0,0 +1,124 @@
+package com.the_qa_company.qendpoint.compiler;
+
+import com.the_qa_company.qendpoint.store.Utility;
+import com.the_qa_company.qendpoint.utils.rdf.ClosableResult;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Values;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.parser.ParsedQuery;
+import org.eclipse.rdf4j.query.parser.QueryParserUtil;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+
+public class ParsedQueryCacheTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private SparqlRepository repo;
+
+	@Before
+	public void createRepository() throws IOException {
+		repo = CompiledSail.compiler().withSourceSail(new MemoryStore()).compileToSparqlRepository();
+		repo.init();
+		SimpleValueFactory vf = SimpleValueFactory.getInstance();
+		try (SailRepositoryConnection connection = repo.getConnection()) {
+			connection.add(vf.createIRI(NS, "s1"), vf.createIRI(NS, "p"), vf.createLiteral("o1"));
+			connection.add(vf.createIRI(NS, "s2"), vf.createIRI(NS, "p"), vf.createLiteral("o2"));
+			connection.add(vf.createIRI(NS, "s3"), vf.createIRI(NS, "q"), vf.createLiteral("o3"));
+		}
+	}
+
+	@After
+	public void shutDown() {
+		repo.shutDown();
+	}
+
+	private List<String> select(String query) {
+		List<String> values = new ArrayList<>();
+		try (ClosableResult<TupleQueryResult> result = repo.executeTupleQuery(query, 0)) {
+			for (BindingSet bs : result.getResult()) {
+				values.add(bs.getValue("o").stringValue());
+			}
+		}
+		values.sort(String::compareTo);
+		return values;
+	}
+
+	@Test
+	public void reuseTest() {
+		String query = "SELECT ?o { ?s <" + NS + "p> ?o } ORDER BY ?o";
+		assertEquals(List.of("o1", "o2"), select(query));
+		assertEquals(1, repo.getQueryCache().size());
+		// the cached query wasn't modified by the previous evaluation
+		assertEquals(List.of("o1", "o2"), select(query));
+		assertEquals(1, repo.getQueryCache().size());
+		// the config lines aren't part of the key
+		assertEquals(List.of("o1", "o2"), select("#cfg_value:value_v\n" + query));
+		assertEquals(1, repo.getQueryCache().size());
+
+		assertTrue(repo.executeBooleanQuery("ASK { ?s <" + NS + "q> ?o }", 0));
+		assertTrue(repo.executeBooleanQuery("ASK { ?s <" + NS + "q> ?o }", 0));
+		for (int i = 0; i < 2; i++) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			repo.execute("CONSTRUCT { ?s <" + NS + "r> ?o } WHERE { ?s ?p ?o }", 0, "application/n-triples", mime -> {},
+					out);
+			assertEquals(3, out.toString(StandardCharsets.UTF_8).split("\n").length);
+		}
+		assertEquals(3, repo.getQueryCache().size());
+	}
+
+	@Test
+	public void boundedTest() {
+		repo.getOptions().setQueryCacheSize(2);
+		select("SELECT ?o { ?s <" + NS + "p> ?o }");
+		select("SELECT ?o { ?s <" + NS + "q> ?o }");
+		select("SELECT ?o { ?s <" + NS + "r> ?o }");
+		assertEquals(2, repo.getQueryCache().size());
+
+		repo.getOptions().setQueryCacheSize(0);
+		repo.getQueryCache().clear();
+		assertEquals(List.of("o3"), select("SELECT ?o { ?s <" + NS + "q> ?o }"));
+		assertEquals(0, repo.getQueryCache().size());
+	}
+
+	@Test
+	public void prefixTest() {
+		String query = "SELECT ?o { ?s ex:p ?o }";
+		repo.setDefaultPrefixes(Values.namespace("ex", NS));
+		assertEquals(List.of("o1", "o2"), select(query));
+		assertEquals(1, repo.getQueryCache().size());
+
+		// the cached query is using the old prefix
+		repo.setDefaultPrefixes(Values.namespace("ex", NS + "other/"));
+		assertEquals(0, repo.getQueryCache().size());
+		assertEquals(List.of(), select(query));
+	}
+
+	@Test
+	public void copyTest() {
+		ParsedQueryCache cache = new ParsedQueryCache();
+		IRI p = Values.iri(NS, "p");
+		String query = "SELECT ?o { ?s <" + p + "> ?o }";
+		ParsedQuery q1 = cache.get(query, 10, s -> QueryParserUtil.parseQuery(QueryLanguage.SPARQL, s, null));
+		ParsedQuery q2 = cache.get(query, 10, s -> { throw new AssertionError("the query should be cached"); });
+		assertNotSame(q1, q2);
+		assertNotSame(q1.getTupleExpr(), q2.getTupleExpr());
+		assertEquals(q1.getTupleExpr(), q2.getTupleExpr());
+		assertEquals(query, q2.getSourceString());
+		assertEquals(1, cache.size());
+	}
+}
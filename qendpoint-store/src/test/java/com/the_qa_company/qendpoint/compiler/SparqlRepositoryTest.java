@@ -0,0 +1,45 @@
+package com.the_qa_company.qendpoint.compiler;
+
+import com.the_qa_company.qendpoint.store.Utility;
+import com.the_qa_company.qendpoint.utils.rdf.ClosableResult;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.GraphQueryResult;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.sail.memory.MemoryStore;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class SparqlRepositoryTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+
+	@Test
+	public void graphQueryTest() throws IOException {
+		SparqlRepository repo = CompiledSail.compiler().withSourceSail(new MemoryStore()).compileToSparqlRepository();
+		try {
+			repo.init();
+			SimpleValueFactory vf = SimpleValueFactory.getInstance();
+			try (SailRepositoryConnection connection = repo.getConnection()) {
+				connection.add(vf.createIRI(NS, "s1"), vf.createIRI(NS, "p"), vf.createLiteral("o1"));
+				connection.add(vf.createIRI(NS, "s2"), vf.createIRI(NS, "p"), vf.createLiteral("o2"));
+			}
+
+			List<Statement> statements = new ArrayList<>();
+			try (ClosableResult<GraphQueryResult> result = repo
+					.executeGraphQuery("CONSTRUCT { ?s <" + NS + "q> ?o } WHERE { ?s <" + NS + "p> ?o }", 0)) {
+				result.getResult().forEach(statements::add);
+			}
+			assertEquals(2, statements.size());
+			for (Statement st : statements) {
+				assertEquals(vf.createIRI(NS, "q"), st.getPredicate());
+			}
+		} finally {
+			repo.shutDown();
+		}
+	}
+}
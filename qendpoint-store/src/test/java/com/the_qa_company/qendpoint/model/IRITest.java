@@ -5,14 +5,18 @@ import com.the_qa_company.qendpoint.store.Utility;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
 import com.the_qa_company.qendpoint.core.hdt.HDT;
 import com.the_qa_company.qendpoint.core.options.HDTOptions;
 import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.util.string.ReplazableString;
 
 import java.io.IOException;
 
@@ -43,4 +47,24 @@ public class IRITest {
 		Assert.assertEquals(s1.isIRI(), s2.isIRI());
 	}
 
+	@Test
+	public void decodeBufferTest() throws IOException {
+		HDT hdt = Utility.createTempHdtIndex(tempDir, false, false, spec);
+		long typeId = hdt.getDictionary().stringToId(RDF.TYPE.stringValue(), TripleComponentRole.PREDICATE);
+		long personId = hdt.getDictionary().stringToId(FOAF.PERSON.stringValue(), TripleComponentRole.OBJECT);
+		SimpleIRIHDT type = new SimpleIRIHDT(hdt, SimpleIRIHDT.PREDICATE_POS, typeId);
+		SimpleIRIHDT person = new SimpleIRIHDT(hdt, SimpleIRIHDT.OBJECT_POS, personId);
+
+		// the strings of the values are copied out of the decode buffer
+		String typeString = type.stringValue();
+		Assert.assertEquals(FOAF.PERSON.stringValue(), person.stringValue());
+		Assert.assertEquals(RDF.TYPE.stringValue(), typeString);
+
+		ReplazableString typeBuffer = new ReplazableString();
+		ReplazableString personBuffer = new ReplazableString();
+		CharSequence typeSeq = type.getDictionaryString(typeBuffer);
+		CharSequence personSeq = person.getDictionaryString(personBuffer);
+		Assert.assertEquals(RDF.TYPE.stringValue(), typeSeq.toString());
+		Assert.assertEquals(FOAF.PERSON.stringValue(), personSeq.toString());
+	}
 }
@@ -523,6 +523,46 @@ public class EndpointStoreTest {
 		}
 	}
 
+	@Test
+	public void testMergeLiterals() throws IOException, InterruptedException {
+		File nativeStore = tempDir.newFolder("native-store");
+		File hdtStore = tempDir.newFolder("hdt-store");
+		try (HDT hdt = Utility.createTempHdtIndex(tempDir, false, false, spec)) {
+			assert hdt != null;
+			hdt.saveToHDT(hdtStore.getAbsolutePath() + File.separatorChar + HDT_INDEX_NAME, null);
+		}
+		EndpointStore store = new EndpointStore(hdtStore.getAbsolutePath() + File.separatorChar, HDT_INDEX_NAME, spec,
+				nativeStore.getAbsolutePath() + File.separatorChar, false);
+		SailRepository endpointStore = new SailRepository(store);
+		try {
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			String ex = "http://example.com/";
+			IRI guo = vf.createIRI(ex, "Guo");
+			IRI ali = vf.createIRI(ex, "Ali");
+			List<Statement> statements = List.of(vf.createStatement(ali, RDF.TYPE, FOAF.PERSON),
+					vf.createStatement(guo, RDFS.LABEL, vf.createLiteral("Guo \"the\" \\ name\n\tend")),
+					vf.createStatement(guo, RDFS.LABEL, vf.createLiteral("Guo", "en")),
+					vf.createStatement(ali, FOAF.AGE, vf.createLiteral(42)), vf.createStatement(ali, FOAF.KNOWS, guo));
+
+			try (RepositoryConnection connection = endpointStore.getConnection()) {
+				connection.add(statements);
+			}
+			store.mergeStore();
+			MergeRunnable.debugWaitMerge();
+
+			assertEquals(statements.size() + 1, store.getHdt().getTriples().getNumberOfElements());
+			try (RepositoryConnection connection = endpointStore.getConnection()) {
+				for (Statement statement : statements) {
+					assertTrue(statement.toString(), connection.hasStatement(statement, false));
+				}
+				assertTrue(connection.hasStatement(guo, RDF.TYPE, FOAF.PERSON, false));
+				assertEquals(statements.size() + 1, connection.size());
+			}
+		} finally {
+			endpointStore.shutDown();
+		}
+	}
+
 	@Test
 	public void testDeleteWhileMerge() throws IOException, InterruptedException {
 		File nativeStore = tempDir.newFolder("native-store");
@@ -0,0 +1,135 @@
+package com.the_qa_company.qendpoint.store;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.exceptions.NotFoundException;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TriplesStatistics;
+import org.eclipse.rdf4j.common.iteration.CloseableIteration;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.sail.SailConnection;
+import org.eclipse.rdf4j.sail.SailException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * test the files computed from the HDT are replaced during a merge
+ */
+public class MergeIndexFilesTest {
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private EndpointStore store;
+	private EndpointFiles files;
+
+	@Before
+	public void setup() throws IOException, NotFoundException {
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS, "POS");
+		MergeRunnableStopPoint.debug = true;
+		File root = tempDir.newFolder();
+		File nativeStore = new File(root, "native-store");
+		assertTrue(nativeStore.mkdirs());
+		File hdtStore = new File(root, "hdt-store");
+		assertTrue(hdtStore.mkdirs());
+
+		try (HDT hdt = MergeRestartTest.createTestHDT(tempDir.newFile().getAbsolutePath(), spec, 4)) {
+			hdt.saveToHDT(hdtStore.getAbsolutePath() + "/" + EndpointStoreTest.HDT_INDEX_NAME, null);
+		}
+
+		files = new EndpointFiles(nativeStore.getAbsolutePath() + "/", hdtStore.getAbsolutePath() + "/",
+				EndpointStoreTest.HDT_INDEX_NAME);
+		store = new EndpointStore(files, spec);
+		store.init();
+	}
+
+	@After
+	public void clearStore() {
+		MergeRunnableStopPoint.debug = false;
+		store.shutDown();
+	}
+
+	private IRI iri(String name) {
+		return store.getValueFactory().createIRI(Utility.EXAMPLE_NAMESPACE, name);
+	}
+
+	private Set<String> subjects(IRI object) {
+		Set<String> subjects = new HashSet<>();
+		try (SailConnection connection = store.getConnection();
+				CloseableIteration<? extends Statement, SailException> it = connection.getStatements(null, iri("testP"),
+						object, false)) {
+			while (it.hasNext()) {
+				subjects.add(it.next().getSubject().stringValue());
+			}
+		}
+		return subjects;
+	}
+
+	/**
+	 * replace a triple of the HDT and merge the store, the number of triples of
+	 * the HDT is the same after the merge
+	 */
+	private void replaceTripleAndMerge() throws InterruptedException {
+		ValueFactory vf = store.getValueFactory();
+		try (SailConnection connection = store.getConnection()) {
+			connection.begin();
+			connection.removeStatements(iri("testHDT1"), iri("testP"), iri("Bidule"));
+			connection.addStatement(iri("testHDT5"), iri("testP"), vf.createIRI(Utility.EXAMPLE_NAMESPACE, "Other"));
+			connection.commit();
+		}
+		long numTriples = store.getHdt().getTriples().getNumberOfElements();
+		store.mergeStore();
+		MergeRunnable.debugWaitMerge();
+		assertEquals(numTriples, store.getHdt().getTriples().getNumberOfElements());
+	}
+
+	@Test
+	public void permutationTest() throws InterruptedException {
+		Path pos = Path.of(files.getHDTIndexPermutation(TripleComponentOrder.POS));
+		assertTrue(Files.exists(pos));
+
+		replaceTripleAndMerge();
+
+		assertTrue(Files.exists(pos));
+		assertFalse(Files.exists(Path.of(files.getHDTNewIndexPermutation(TripleComponentOrder.POS))));
+
+		assertEquals(
+				Set.of(iri("testHDT2").stringValue(), iri("testHDT3").stringValue(), iri("testHDT4").stringValue()),
+				subjects(iri("Bidule")));
+		assertEquals(Set.of(iri("testHDT5").stringValue()), subjects(iri("Other")));
+	}
+
+	@Test
+	public void statisticsTest() throws InterruptedException, IOException {
+		Path stats = Path.of(files.getHDTStatistics());
+		assertTrue(Files.exists(stats));
+		long testP = store.getHdt().getDictionary().stringToId(iri("testP").stringValue(),
+				TripleComponentRole.PREDICATE);
+		assertEquals(1, store.getStatistics().getPredicateObjects(testP));
+
+		replaceTripleAndMerge();
+
+		assertTrue(Files.exists(stats));
+		assertFalse(Files.exists(Path.of(files.getHDTNewStatistics())));
+		assertTrue(store.getStatistics().isComputedFor(store.getHdt()));
+		assertTrue(TriplesStatistics.load(stats).isComputedFor(store.getHdt()));
+		testP = store.getHdt().getDictionary().stringToId(iri("testP").stringValue(), TripleComponentRole.PREDICATE);
+		assertEquals(2, store.getStatistics().getPredicateObjects(testP));
+	}
+}
@@ -0,0 +1,263 @@
+package com.the_qa_company.qendpoint.store.delta;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.model.HDTIdIRI;
+import com.the_qa_company.qendpoint.model.SimpleIRIHDT;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.MergeRunnable;
+import com.the_qa_company.qendpoint.store.MergeRunnableStopPoint;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Statement;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.FOAF;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.repository.RepositoryConnection;
+import org.eclipse.rdf4j.repository.RepositoryResult;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HDTDeltaStoreTest {
+	private static final ValueFactory VF = SimpleValueFactory.getInstance();
+	private static final String EX = "http://example.org/";
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+
+	private final IRI s1 = new HDTIdIRI(SimpleIRIHDT.SUBJECT_POS, 12);
+	private final IRI p1 = new HDTIdIRI(SimpleIRIHDT.PREDICATE_POS, 3);
+	private final IRI o1 = new HDTIdIRI(SimpleIRIHDT.SHARED_POS, 42);
+	private final IRI s2 = VF.createIRI(EX, "s2");
+	private final IRI p2 = VF.createIRI(EX, "p2");
+	private final IRI g1 = VF.createIRI(EX, "g1");
+
+	@Before
+	public void setUp() {
+		MergeRunnableStopPoint.debug = true;
+	}
+
+	@After
+	public void complete() throws InterruptedException {
+		MergeRunnable.debugWaitMerge();
+		MergeRunnableStopPoint.debug = false;
+	}
+
+	private static Set<Statement> statements(RepositoryConnection connection, Resource s, IRI p,
+			org.eclipse.rdf4j.model.Value o, Resource... contexts) {
+		Set<Statement> set = new HashSet<>();
+		try (RepositoryResult<Statement> result = connection.getStatements(s, p, o, false, contexts)) {
+			result.forEach(st -> set
+					.add(VF.createStatement(st.getSubject(), st.getPredicate(), st.getObject(), st.getContext())));
+		}
+		return set;
+	}
+
+	private void addData(RepositoryConnection connection) {
+		connection.add(s1, p1, o1);
+		connection.add(s1, p2, VF.createLiteral("text", "en"));
+		connection.add(s2, p1, o1, g1);
+		connection.add(s2, p2, VF.createLiteral(12));
+		connection.add(s2, p2, s1);
+		connection.setNamespace("ex", EX);
+	}
+
+	private void assertData(RepositoryConnection connection) {
+		assertEquals(5, connection.size());
+		assertEquals(Set.of(VF.createStatement(s1, p1, o1), VF.createStatement(s2, p1, o1, g1)),
+				statements(connection, null, p1, null));
+		// the HDT ids are parsed back from the string IRIs
+		assertEquals(Set.of(VF.createStatement(s1, p1, o1), VF.createStatement(s2, p1, o1, g1)),
+				statements(connection, null, null, VF.createIRI(o1.stringValue())));
+		assertEquals(Set.of(VF.createStatement(s2, p1, o1, g1)), statements(connection, null, null, null, g1));
+		assertEquals(Set.of(VF.createStatement(s2, p2, VF.createLiteral(12)), VF.createStatement(s2, p2, s1)),
+				statements(connection, s2, p2, null, (Resource) null));
+		assertEquals(Set.of(VF.createStatement(s1, p2, VF.createLiteral("text", "en"))),
+				statements(connection, s1, p2, VF.createLiteral("text", "en")));
+		assertTrue(statements(connection, null, null, VF.createLiteral("text")).isEmpty());
+		assertTrue(statements(connection, VF.createIRI(EX, "unknown"), null, null).isEmpty());
+		assertTrue(statements(connection, null, null, null, VF.createIRI(EX, "g2")).isEmpty());
+		assertEquals(List.of(g1), connection.getContextIDs().stream().toList());
+		assertEquals(EX, connection.getNamespace("ex"));
+	}
+
+	@Test
+	public void addRemoveTest() throws IOException {
+		SailRepository repository = new SailRepository(new HDTDeltaStore(tempDir.newFolder()));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			addData(connection);
+			assertData(connection);
+
+			connection.remove(s2, p2, s1);
+			connection.remove(s2, p1, o1, g1);
+			connection.remove(s1, VF.createIRI(EX, "unknown"), o1);
+			assertEquals(3, connection.size());
+			assertTrue(statements(connection, null, null, null, g1).isEmpty());
+			assertEquals(Set.of(VF.createStatement(s2, p2, VF.createLiteral(12))),
+					statements(connection, s2, null, null));
+
+			connection.clear();
+			assertEquals(0, connection.size());
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void rollbackTest() throws IOException {
+		SailRepository repository = new SailRepository(new HDTDeltaStore(tempDir.newFolder()));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			addData(connection);
+
+			connection.begin();
+			connection.add(s1, p1, s2);
+			connection.remove(s1, p1, o1);
+			connection.rollback();
+
+			assertData(connection);
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void clearContextTest() throws IOException {
+		SailRepository repository = new SailRepository(new HDTDeltaStore(tempDir.newFolder()));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			addData(connection);
+
+			connection.begin();
+			connection.add(s1, p1, o1, g1);
+			connection.clear(g1);
+			connection.commit();
+
+			assertEquals(4, connection.size());
+			assertTrue(statements(connection, null, null, null, g1).isEmpty());
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void persistenceTest() throws IOException {
+		File dir = tempDir.newFolder();
+		SailRepository repository = new SailRepository(new HDTDeltaStore(dir));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			addData(connection);
+			connection.remove(s2, p2, s1);
+			connection.add(s2, p2, s1);
+		} finally {
+			repository.shutDown();
+		}
+
+		// partial record written by a crash
+		try (OutputStream stream = Files.newOutputStream(dir.toPath().resolve(HDTDeltaSailStore.QUADS_FILE),
+				StandardOpenOption.APPEND)) {
+			stream.write(new byte[] { 1, 0, 0 });
+		}
+
+		repository = new SailRepository(new HDTDeltaStore(dir));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			assertData(connection);
+			connection.remove(s2, p2, s1);
+		} finally {
+			repository.shutDown();
+		}
+
+		repository = new SailRepository(new HDTDeltaStore(dir));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			assertEquals(4, connection.size());
+			assertFalse(connection.hasStatement(s2, p2, s1, false));
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void compactTest() throws IOException {
+		File dir = tempDir.newFolder();
+		Path quads = dir.toPath().resolve(HDTDeltaSailStore.QUADS_FILE);
+		SailRepository repository = new SailRepository(new HDTDeltaStore(dir));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			for (int i = 0; i < 5000; i++) {
+				connection.add(VF.createIRI(EX, "s" + i), p1, o1);
+			}
+			connection.remove((Resource) null, p1, o1);
+			connection.add(s1, p1, o1);
+		} finally {
+			repository.shutDown();
+		}
+		long size = Files.size(quads);
+
+		repository = new SailRepository(new HDTDeltaStore(dir));
+		try (RepositoryConnection connection = repository.getConnection()) {
+			assertTrue(Files.size(quads) < size);
+			assertEquals(1, connection.size());
+			assertTrue(connection.hasStatement(s1, p1, o1, false));
+		} finally {
+			repository.shutDown();
+		}
+	}
+
+	@Test
+	public void endpointStoreTest() throws IOException, InterruptedException {
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY,
+				HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS, EndpointStore.OPTION_DELTA_STORE,
+				EndpointStore.DELTA_STORE_HDT_ID);
+		File nativeStore = tempDir.newFolder("native-store");
+		File hdtStore = tempDir.newFolder("hdt-store");
+		try (HDT hdt = Utility.createTempHdtIndex(tempDir, false, false, spec)) {
+			assert hdt != null;
+			hdt.saveToHDT(hdtStore.getAbsolutePath() + File.separatorChar + "index.hdt", null);
+		}
+		EndpointStore store = new EndpointStore(hdtStore.getAbsolutePath() + File.separatorChar, "index.hdt", spec,
+				nativeStore.getAbsolutePath() + File.separatorChar, false);
+		assertTrue(store.getNativeStoreA() instanceof HDTDeltaStore);
+		SailRepository repository = new SailRepository(store);
+		try {
+			IRI guo = VF.createIRI("http://example.com/", "Guo");
+			IRI ali = VF.createIRI("http://example.com/", "Ali");
+			Set<Statement> expected = Set.of(VF.createStatement(ali, RDF.TYPE, FOAF.PERSON),
+					VF.createStatement(ali, FOAF.KNOWS, guo));
+			try (RepositoryConnection connection = repository.getConnection()) {
+				connection.add(ali, RDF.TYPE, FOAF.PERSON);
+				connection.add(ali, FOAF.KNOWS, guo);
+				connection.remove(guo, RDF.TYPE, FOAF.PERSON);
+
+				assertEquals(expected, statements(connection, null, null, null));
+				assertEquals(Set.of(VF.createStatement(ali, RDF.TYPE, FOAF.PERSON)),
+						statements(connection, null, RDF.TYPE, null));
+			}
+
+			store.mergeStore();
+			MergeRunnable.debugWaitMerge();
+
+			try (RepositoryConnection connection = repository.getConnection()) {
+				assertEquals(expected, statements(connection, null, null, null));
+			}
+			assertEquals(2, store.getHdt().getTriples().getNumberOfElements());
+		} finally {
+			repository.shutDown();
+		}
+	}
+}
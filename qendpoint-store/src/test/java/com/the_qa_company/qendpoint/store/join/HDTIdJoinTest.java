@@ -0,0 +1,199 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.enums.TripleComponentOrder;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleID;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.store.EndpointFiles;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.EndpointStoreConnection;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.explanation.Explanation;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class HDTIdJoinTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private static final String PREFIXES = "PREFIX ex: <" + NS + ">\n";
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private SailRepository repository;
+
+	@Before
+	public void setupStore() throws Exception {
+		createStore(HDTOptions.of());
+	}
+
+	private void createStore(HDTOptions spec) throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			String person = NS + "person" + i;
+			triples.add(new TripleString(person, NS + "type", NS + "Person"));
+			triples.add(new TripleString(person, NS + "name", "\"name" + i + "\""));
+			triples.add(new TripleString(person, NS + "age",
+					"\"" + (20 + i) + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+			triples.add(new TripleString(person, NS + "knows", NS + "person" + ((i + 1) % 20)));
+			if (i % 3 == 0) {
+				triples.add(new TripleString(person, NS + "likes", NS + "person" + ((i + 5) % 20)));
+			}
+			if (i % 4 == 0) {
+				triples.add(new TripleString(person, NS + "likes", NS + "person" + ((i + 7) % 20)));
+			}
+		}
+		// a predicate also used as a subject and as an object
+		triples.add(new TripleString(NS + "knows", NS + "label", "\"knows\""));
+		triples.add(new TripleString(NS + "person0", NS + "favoriteProperty", NS + "knows"));
+
+		Path root = tempDir.newFolder().toPath();
+		Path hdtStore = root.resolve("hdt-store");
+		Path locationNative = root.resolve("native");
+		String indexName = "index.hdt";
+		java.nio.file.Files.createDirectories(hdtStore);
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), NS, HDTOptions.of(), null)) {
+			hdt.saveToHDT(hdtStore.resolve(indexName).toAbsolutePath().toString(), null);
+		}
+
+		EndpointStore store = new EndpointStore(new EndpointFiles(locationNative, hdtStore, indexName), spec);
+		store.setThreshold(-1);
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void closeStore() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	private Set<BindingSet> query(String query, String... configs) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			for (String config : configs) {
+				((EndpointStoreConnection) connection.getSailConnection()).setConfig(config);
+			}
+			Set<BindingSet> result = new HashSet<>();
+			try (TupleQueryResult res = connection.prepareTupleQuery(PREFIXES + query).evaluate()) {
+				res.forEach(result::add);
+			}
+			return result;
+		}
+	}
+
+	private String explain(String query) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, PREFIXES + query);
+			return tq.explain(Explanation.Level.Executed).toString();
+		}
+	}
+
+	private void assertSameResults(String query, int count) {
+		Set<BindingSet> expected = query(query, EndpointStore.QUERY_CONFIG_NO_ID_JOIN);
+		assertEquals(count, expected.size());
+		assertEquals(expected, query(query, EndpointStore.QUERY_CONFIG_NO_MERGE_JOIN));
+		assertEquals(expected, query(query));
+	}
+
+	@Test
+	public void starQueryTest() {
+		String query = "SELECT * { ?s ex:type ex:Person ; ex:name ?name ; ex:age ?age }";
+		assertTrue(explain(query).contains(HDTIdJoin.class.getSimpleName()));
+		assertSameResults(query, 20);
+	}
+
+	@Test
+	public void chainQueryTest() {
+		assertSameResults("SELECT * { ?a ex:knows ?b . ?b ex:knows ?c . ?c ex:name ?name }", 20);
+		assertSameResults("SELECT * { ?a ex:likes ?b . ?b ex:likes ?c }", 6);
+	}
+
+	@Test
+	public void repeatedVariableTest() {
+		assertSameResults("SELECT * { ?a ex:knows ?b . ?b ex:knows ?a }", 0);
+		assertSameResults("SELECT * { ?a ex:knows ?b . ?b ?p ?a }", 0);
+	}
+
+	@Test
+	public void predicateRoleJoinTest() {
+		assertSameResults("SELECT * { ex:person0 ex:favoriteProperty ?p . ?s ?p ?o }", 20);
+		assertSameResults("SELECT * { ?s ?p ?o . ?p ex:label ?label }", 20);
+	}
+
+	@Test
+	public void boundValuesTest() {
+		assertSameResults("SELECT * { VALUES ?s { ex:person1 ex:person2 ex:unknown } ?s ex:knows ?o . ?o ex:name ?n }",
+				2);
+	}
+
+	@Test
+	public void mergeJoinTest() {
+		assertSameResults("SELECT * { ?s ex:name ?name ; ex:age ?age ; ex:likes ?o }", 12);
+		assertSameResults("SELECT * { ?s ex:likes ?a ; ex:likes ?b }", 16);
+		assertSameResults("SELECT * { ?s ex:likes ?o ; ex:knows ?k . ?k ex:name ?name }", 12);
+		assertSameResults("SELECT * { ?s ex:label ?label ; ex:name ?name }", 0);
+	}
+
+	@Test
+	public void mergeJoinPermutationTest() throws Exception {
+		repository.shutDown();
+		createStore(HDTOptions.of(HDTOptionsKeys.BITMAPTRIPLES_INDEX_OTHERS, "POS"));
+		EndpointStore store = (EndpointStore) repository.getSail();
+		long name = store.getHdt().getDictionary().stringToId(NS + "name", TripleComponentRole.PREDICATE);
+		TripleID pattern = new TripleID(0, name, 0);
+		// the ?P? patterns are searched with POS, sorted by object, the merge
+		// join is using the predicate index
+		assertEquals(TripleComponentOrder.POS, store.getHdt().getTriples().search(pattern).getOrder());
+		assertTrue(store.getHdt().getTriples().searchSubjectSorted(pattern).canGoToSubject());
+		mergeJoinTest();
+	}
+
+	@Test
+	public void deleteTest() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			ValueFactory vf = connection.getValueFactory();
+			connection.begin();
+			connection.remove(vf.createIRI(NS + "person3"), vf.createIRI(NS + "name"), vf.createLiteral("name3"));
+			connection.commit();
+		}
+		assertSameResults("SELECT * { ?s ex:type ex:Person ; ex:name ?name }", 19);
+	}
+
+	@Test
+	public void deltaTest() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			ValueFactory vf = connection.getValueFactory();
+			connection.begin();
+			connection.add(vf.createIRI(NS + "person3"), vf.createIRI(NS + "name"), vf.createLiteral("other"));
+			connection.add(vf.createIRI(NS + "newPerson"), vf.createIRI(NS + "type"), vf.createIRI(NS + "Person"));
+			connection.commit();
+		}
+		assertFalse(((EndpointStore) repository.getSail()).isDeltaEmpty());
+		// use the delta
+		assertSameResults("SELECT * { ?s ex:type ex:Person ; ex:name ?name }", 21);
+		// not in the delta
+		assertSameResults("SELECT * { ?s ex:age ?age ; ex:likes ?o }", 12);
+	}
+}
@@ -0,0 +1,299 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.dictionary.Dictionary;
+import com.the_qa_company.qendpoint.core.enums.TripleComponentRole;
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.store.EndpointFiles;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.EndpointStoreConnection;
+import com.the_qa_company.qendpoint.store.MergeRunnable;
+import com.the_qa_company.qendpoint.store.MergeRunnableStopPoint;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.Compare;
+import org.eclipse.rdf4j.query.algebra.evaluation.ValueExprEvaluationException;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.QueryEvaluationUtil;
+import org.eclipse.rdf4j.query.algebra.evaluation.util.ValueComparator;
+import org.eclipse.rdf4j.query.explanation.Explanation;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.rio.helpers.NTriplesUtil;
+import org.junit.After;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class NumericValueIndexTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private static final String PREFIXES = "PREFIX ex: <" + NS + ">\n"
+			+ "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>\n";
+	private static final String XSD_NS = XSD.NAMESPACE;
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> params() {
+		return List.of(new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS },
+				new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG });
+	}
+
+	@Parameterized.Parameter
+	public String dictionaryType;
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private SailRepository repository;
+	private EndpointStore store;
+	private Path hdtStore;
+
+	@After
+	public void closeStore() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	private static String typed(Object value, String type) {
+		return "\"" + value + "\"^^<" + XSD_NS + type + ">";
+	}
+
+	private static List<TripleString> createTriples(boolean dates) {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 50; i++) {
+			String item = NS + "item" + i;
+			triples.add(new TripleString(item, NS + "type", NS + "Item"));
+			triples.add(new TripleString(item, NS + "value", typed(i * 37 % 101 - 20, "integer")));
+			if (i % 2 == 0) {
+				triples.add(new TripleString(item, NS + "value", typed(i + ".25", "decimal")));
+				triples.add(new TripleString(item, NS + "value", "\"" + i + "\""));
+			}
+			if (i % 3 == 0) {
+				triples.add(new TripleString(item, NS + "value", typed(i * 1.5 + "E0", "double")));
+			}
+			if (i % 4 == 0) {
+				triples.add(new TripleString(item, NS + "value", typed(i / 4 + ".1", "float")));
+				triples.add(new TripleString(item, NS + "value", typed(i, "int")));
+				triples.add(new TripleString(item, NS + "value", NS + "item" + (i + 1)));
+			}
+			triples.add(new TripleString(item, NS + "time",
+					typed(String.format("2020-01-%02dT%02d:30:00Z", i % 28 + 1, i % 24), "dateTime")));
+			if (dates) {
+				triples.add(new TripleString(item, NS + "time",
+						typed(String.format("2021-%02d-%02d", i % 12 + 1, i % 28 + 1), "date")));
+			}
+		}
+		triples.add(new TripleString(NS + "item0", NS + "value", typed("NaN", "double")));
+		triples.add(new TripleString(NS + "item0", NS + "value", typed("+7", "integer")));
+		return triples;
+	}
+
+	private HDTOptions createSpec() {
+		return HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictionaryType,
+				HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH);
+	}
+
+	private void createStore() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		hdtStore = root.resolve("hdt-store");
+		Path locationNative = root.resolve("native");
+		String indexName = "index.hdt";
+		Files.createDirectories(hdtStore);
+		HDTOptions spec = createSpec();
+		try (HDT hdt = HDTManager.generateHDT(createTriples(false).iterator(), NS, spec, null)) {
+			hdt.saveToHDT(hdtStore.resolve(indexName).toAbsolutePath().toString(), null);
+		}
+
+		spec.set(EndpointStore.OPTION_VALUE_INDEX, true);
+		store = new EndpointStore(new EndpointFiles(locationNative, hdtStore, indexName), spec);
+		store.setThreshold(-1);
+		repository = new SailRepository(store);
+		repository.init();
+		assertNotNull(store.getValueIndex());
+		assertTrue(Files.exists(hdtStore.resolve(indexName + ".values")));
+	}
+
+	private List<BindingSet> query(String query, String... configs) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			for (String config : configs) {
+				((EndpointStoreConnection) connection.getSailConnection()).setConfig(config);
+			}
+			List<BindingSet> result = new ArrayList<>();
+			try (TupleQueryResult res = connection.prepareTupleQuery(PREFIXES + query).evaluate()) {
+				res.forEach(result::add);
+			}
+			return result;
+		}
+	}
+
+	private String explain(String query) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, PREFIXES + query);
+			return tq.explain(Explanation.Level.Executed).toString();
+		}
+	}
+
+	private void assertSameResults(String query, int count, boolean converted) {
+		Set<BindingSet> expected = new HashSet<>(query(query, EndpointStore.QUERY_CONFIG_NO_VALUE_INDEX));
+		assertEquals(count, expected.size());
+		assertEquals(expected, new HashSet<>(query(query)));
+		assertEquals(expected, new HashSet<>(query(query, EndpointStore.QUERY_CONFIG_NO_MERGE_JOIN)));
+		assertEquals(converted, explain(query).contains(HDTObjectRangeFilter.class.getSimpleName()));
+	}
+
+	@Test
+	public void filterTest() throws Exception {
+		createStore();
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v > 30) }", 50, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v <= 10.5) }", 40, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v = 12) }", 1, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v >= 1.5e1) }", 73, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(12 > ?v) }", 41, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v > 3 && ?v < 10) }", 17, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v < -5 || ?v > 70) }", 15, true);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v != 12) }", 157, false);
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(?v > '12') }", 22, false);
+		assertSameResults("SELECT * { ?s ex:type ex:Item ; ex:value ?v ; ex:time ?t"
+				+ " FILTER(?t >= '2020-01-20T00:00:00Z'^^xsd:dateTime && ?v > 50) }", 5, true);
+		assertSameResults("SELECT * { ?s ex:time ?t FILTER(?t < '2020-01-05T05:00:00+02:00'^^xsd:dateTime) }", 8, true);
+		// the dateTimes with a timezone can't be compared to a dateTime without
+		// timezone
+		assertSameResults("SELECT * { ?s ex:time ?t FILTER(?t < '2020-01-05T05:00:00'^^xsd:dateTime) }", 8, false);
+	}
+
+	@Test
+	public void orderByTest() throws Exception {
+		createStore();
+		for (String query : List.of("SELECT ?v { ?s ex:value ?v } ORDER BY ?v ?s",
+				"SELECT ?v { ?s ex:value ?v } ORDER BY DESC(?v) ?s", "SELECT ?t { ?s ex:time ?t } ORDER BY ?t ?s",
+				"SELECT ?v { ?s ex:value ?v FILTER(?v > 4) } ORDER BY ?v LIMIT 10")) {
+			assertEquals(query, query(query, EndpointStore.QUERY_CONFIG_NO_VALUE_INDEX), query(query));
+		}
+	}
+
+	@Test
+	public void mergeTest() throws Exception {
+		MergeRunnableStopPoint.debug = true;
+		try {
+			createStore();
+			// replace "4"^^xsd:int with "5"^^xsd:int, the HDT and its
+			// dictionary have the same sizes after the merge
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			try (SailRepositoryConnection connection = repository.getConnection()) {
+				connection.remove(vf.createIRI(NS, "item4"), vf.createIRI(NS, "value"), vf.createLiteral("4", XSD.INT));
+				connection.add(vf.createIRI(NS, "item4"), vf.createIRI(NS, "value"), vf.createLiteral("5", XSD.INT));
+			}
+			long numTriples = store.getHdt().getTriples().getNumberOfElements();
+			long numObjects = store.getHdt().getDictionary().getNobjects();
+			store.mergeStore();
+			MergeRunnable.debugWaitMerge();
+			assertEquals(numTriples, store.getHdt().getTriples().getNumberOfElements());
+			assertEquals(numObjects, store.getHdt().getDictionary().getNobjects());
+
+			assertTrue(Files.exists(hdtStore.resolve("index.hdt.values")));
+			assertFalse(Files.exists(hdtStore.resolve("index.hdt.new.hdt.values")));
+			assertTrue(store.getValueIndex().isComputedFor(store.getHdt()));
+			assertTrue(NumericValueIndex.load(hdtStore.resolve("index.hdt.values")).isComputedFor(store.getHdt()));
+
+			for (String query : List.of("SELECT * { ?s ex:value ?v FILTER(?v = '5'^^xsd:int) }",
+					"SELECT * { ?s ex:value ?v FILTER(?v > 4 && ?v < 8) }",
+					"SELECT ?s ?v { ?s ex:value ?v } ORDER BY ?v ?s")) {
+				List<BindingSet> expected = query(query, EndpointStore.QUERY_CONFIG_NO_VALUE_INDEX);
+				assertTrue(query, expected.stream().anyMatch(bs -> bs.getValue("s").equals(vf.createIRI(NS, "item4"))
+						&& bs.getValue("v").equals(vf.createLiteral("5", XSD.INT))));
+				assertEquals(query, expected, query(query));
+			}
+		} finally {
+			MergeRunnableStopPoint.debug = false;
+		}
+	}
+
+	@Test
+	public void indexTest() throws Exception {
+		Path file = tempDir.newFile().toPath();
+		try (HDT hdt = HDTManager.generateHDT(createTriples(true).iterator(), NS, createSpec(), null)) {
+			NumericValueIndex built = NumericValueIndex.build(hdt.getDictionary());
+			built.save(file);
+			NumericValueIndex index = NumericValueIndex.load(file);
+			assertTrue(index.isComputedFor(hdt));
+			assertEquals(built.getNumberOfValues(), index.getNumberOfValues());
+			// integer, decimal, double, float, int, dateTime and date
+			assertEquals(7, index.getNumberOfSections());
+			assertTrue(index.getUnindexedDatatypes().isEmpty());
+
+			ValueFactory vf = SimpleValueFactory.getInstance();
+			Dictionary dict = hdt.getDictionary();
+			List<Long> ids = new ArrayList<>();
+			List<Value> values = new ArrayList<>();
+			for (long id = 1; id <= dict.getNobjects(); id++) {
+				ids.add(id);
+				String str = dict.idToString(id, TripleComponentRole.OBJECT).toString();
+				values.add(str.startsWith("\"") ? NTriplesUtil.parseLiteral(str, vf) : vf.createIRI(str));
+			}
+
+			List<Literal> constants = List.of(vf.createLiteral("12", XSD.INTEGER),
+					vf.createLiteral("-0.5", XSD.DECIMAL), vf.createLiteral("10.25", XSD.DECIMAL),
+					vf.createLiteral("1.5E1", XSD.DOUBLE), vf.createLiteral("2.1", XSD.FLOAT),
+					vf.createLiteral("NaN", XSD.DOUBLE), vf.createLiteral("3", XSD.INT));
+			for (Literal constant : constants) {
+				for (Compare.CompareOp op : List.of(Compare.CompareOp.LT, Compare.CompareOp.LE, Compare.CompareOp.EQ,
+						Compare.CompareOp.GE, Compare.CompareOp.GT)) {
+					for (int maxRangeIds : new int[] { NumericValueIndex.MAX_RANGE_IDS, 0 }) {
+						ObjectIdFilter filter = index.match(op, constant, maxRangeIds);
+						assertNotNull(op + " " + constant, filter);
+						for (int i = 0; i < ids.size(); i++) {
+							boolean expected;
+							try {
+								expected = QueryEvaluationUtil.compare(values.get(i), constant, op, false);
+							} catch (ValueExprEvaluationException e) {
+								expected = false;
+							}
+							assertEquals(values.get(i) + " " + op + " " + constant, expected,
+									filter.contains(ids.get(i)));
+						}
+					}
+				}
+			}
+			// the dates can be compared to the dateTimes in non-strict mode
+			assertNull(index.match(Compare.CompareOp.LT, vf.createLiteral("2020-01-10T00:00:00Z", XSD.DATETIME)));
+			assertNull(index.match(Compare.CompareOp.NE, vf.createLiteral("12", XSD.INTEGER)));
+
+			ValueComparator comparator = new ValueComparator();
+			for (int i = 0; i < ids.size(); i++) {
+				for (int j = 0; j < ids.size(); j++) {
+					int compare = index.compare(ids.get(i), ids.get(j));
+					if (compare != NumericValueIndex.NOT_COMPARABLE) {
+						assertEquals(values.get(i) + " <> " + values.get(j),
+								Integer.signum(comparator.compare(values.get(i), values.get(j))),
+								Integer.signum(compare));
+					}
+				}
+			}
+		}
+	}
+}
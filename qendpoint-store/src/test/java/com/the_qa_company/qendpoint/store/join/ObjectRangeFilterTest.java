@@ -0,0 +1,223 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.store.EndpointFiles;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.EndpointStoreConnection;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.QueryLanguage;
+import org.eclipse.rdf4j.query.TupleQuery;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.explanation.Explanation;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class ObjectRangeFilterTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private static final String PREFIXES = "PREFIX ex: <" + NS + ">\n"
+			+ "PREFIX xsd: <http://www.w3.org/2001/XMLSchema#>\n"
+			+ "PREFIX rdf: <http://www.w3.org/1999/02/22-rdf-syntax-ns#>\n";
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> params() {
+		return List.of(new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS },
+				new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG },
+				new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION });
+	}
+
+	@Parameterized.Parameter
+	public String dictionaryType;
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private SailRepository repository;
+
+	@Before
+	public void setupStore() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		String[] languages = { "en", "en-US", "fr", "de" };
+		for (int i = 0; i < 20; i++) {
+			String item = NS + "item" + i;
+			triples.add(new TripleString(item, NS + "type", NS + "Item"));
+			triples.add(new TripleString(item, NS + "label", "\"label" + i + "\""));
+			for (int j = 0; j < languages.length; j++) {
+				if ((i + j) % 3 != 0) {
+					triples.add(new TripleString(item, NS + "label", "\"label" + i + "\"@" + languages[j]));
+				}
+			}
+			triples.add(
+					new TripleString(item, NS + "value", "\"" + i + "\"^^<http://www.w3.org/2001/XMLSchema#integer>"));
+			if (i % 2 == 0) {
+				triples.add(new TripleString(item, NS + "value",
+						"\"" + i + ".5\"^^<http://www.w3.org/2001/XMLSchema#double>"));
+				triples.add(new TripleString(item, NS + "value", NS + "item" + (i + 1)));
+			}
+			if (i % 5 == 0) {
+				triples.add(new TripleString(item, NS + "value", "_:b" + i));
+			}
+		}
+
+		Path root = tempDir.newFolder().toPath();
+		Path hdtStore = root.resolve("hdt-store");
+		Path locationNative = root.resolve("native");
+		String indexName = "index.hdt";
+		Files.createDirectories(hdtStore);
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictionaryType,
+				HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH);
+		if (dictionaryType.equals(HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION)) {
+			spec.set(HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_HASH);
+		}
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), NS, spec, null)) {
+			hdt.saveToHDT(hdtStore.resolve(indexName).toAbsolutePath().toString(), null);
+		}
+
+		EndpointStore store = new EndpointStore(new EndpointFiles(locationNative, hdtStore, indexName), spec);
+		store.setThreshold(-1);
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void closeStore() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	private Set<BindingSet> query(String query, String... configs) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			for (String config : configs) {
+				((EndpointStoreConnection) connection.getSailConnection()).setConfig(config);
+			}
+			Set<BindingSet> result = new HashSet<>();
+			try (TupleQueryResult res = connection.prepareTupleQuery(PREFIXES + query).evaluate()) {
+				res.forEach(result::add);
+			}
+			return result;
+		}
+	}
+
+	private String explain(String query) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			TupleQuery tq = connection.prepareTupleQuery(QueryLanguage.SPARQL, PREFIXES + query);
+			return tq.explain(Explanation.Level.Executed).toString();
+		}
+	}
+
+	private boolean isMultiSection() {
+		return !dictionaryType.equals(HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION);
+	}
+
+	private boolean isLanguageSections() {
+		return dictionaryType.equals(HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG);
+	}
+
+	private void assertSameResults(String query, int count, boolean rangeFilter) {
+		Set<BindingSet> expected = query(query, EndpointStore.QUERY_CONFIG_NO_RANGE_FILTER);
+		assertEquals(count, expected.size());
+		assertEquals(expected, query(query));
+		assertEquals(expected, query(query, EndpointStore.QUERY_CONFIG_NO_MERGE_JOIN));
+		assertEquals(rangeFilter, explain(query).contains(HDTObjectRangeFilter.class.getSimpleName()));
+	}
+
+	@Test
+	public void datatypeTest() {
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(datatype(?v) = xsd:integer) }", 20, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(sameTerm(datatype(?v), xsd:double)) }", 10,
+				isMultiSection());
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(datatype(?v) = xsd:date) }", 0, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(datatype(?l) = xsd:string) }", 20, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(datatype(?l) = rdf:langString) }", 53, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(datatype(?v) = xsd:integer || datatype(?v) = xsd:double) }",
+				30, isMultiSection());
+	}
+
+	@Test
+	public void isLiteralTest() {
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(isLiteral(?v)) }", 30, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(isLiteral(?l)) }", 73, isMultiSection());
+	}
+
+	@Test
+	public void languageTest() {
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(lang(?l) = 'en') }", 13, isLanguageSections());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER('fr' = lang(?l)) }", 13, isLanguageSections());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(lang(?l) = 'es') }", 0, isLanguageSections());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(langMatches(lang(?l), 'en')) }", 27, isLanguageSections());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(langMatches(lang(?l), '*')) }", 53, isMultiSection());
+		// the empty language can't be converted
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(lang(?l) = '') }", 20, false);
+	}
+
+	@Test
+	public void bgpTest() {
+		assertSameResults(
+				"SELECT * { ?s ex:type ex:Item ; ex:label ?l ; ex:value ?v FILTER(lang(?l) = 'en' && isLiteral(?v)) }",
+				19, isMultiSection());
+		assertSameResults("SELECT * { ?s ex:type ex:Item ; ex:value ?v ; ex:label ?l FILTER(datatype(?v) = xsd:double)"
+				+ " FILTER(langMatches(lang(?l), '*')) }", 26, isMultiSection());
+		// bound subject, seek the objects of the pattern
+		assertSameResults("SELECT * { ex:item1 ex:value ?o . ?s ex:label ?l FILTER(lang(?l) = 'de') }", 13,
+				isLanguageSections());
+		assertSameResults("SELECT * { VALUES ?s { ex:item1 ex:item2 } ?s ex:label ?l FILTER(lang(?l) = 'fr') }", 1,
+				isLanguageSections());
+	}
+
+	@Test
+	public void deltaTest() {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			ValueFactory vf = connection.getValueFactory();
+			connection.begin();
+			connection.add(vf.createIRI(NS + "item1"), vf.createIRI(NS + "label"), vf.createLiteral("new", "en"));
+			connection.add(vf.createIRI(NS + "item1"), vf.createIRI(NS + "value"), vf.createLiteral(42));
+			connection.commit();
+		}
+		assertFalse(((EndpointStore) repository.getSail()).isDeltaEmpty());
+		assertSameResults("SELECT * { ?s ex:label ?l FILTER(lang(?l) = 'en') }", 14, isLanguageSections());
+		assertSameResults("SELECT * { ?s ex:value ?v FILTER(datatype(?v) = xsd:int) }", 1, isMultiSection());
+	}
+
+	@Test
+	public void rangesTest() {
+		ObjectIdRanges a = ObjectIdRanges.of(1, 5).union(ObjectIdRanges.of(10, 20));
+		ObjectIdRanges b = ObjectIdRanges.of(4, 11).union(ObjectIdRanges.of(19, 30));
+
+		assertEquals(ObjectIdRanges.of(1, 30), a.union(b));
+		assertEquals(ObjectIdRanges.of(1, 7), ObjectIdRanges.of(1, 3).union(ObjectIdRanges.of(4, 7)));
+		ObjectIdRanges inter = a.intersect(b);
+		assertEquals(3, inter.getRangeCount());
+		assertEquals(2 + 2 + 2, inter.size());
+		assertTrue(inter.contains(4));
+		assertTrue(inter.contains(11));
+		assertFalse(inter.contains(12));
+		assertEquals(19, inter.ceiling(12));
+		assertEquals(-1, inter.ceiling(21));
+		assertTrue(ObjectIdRanges.of(5, 4).isEmpty());
+		assertTrue(a.intersect(ObjectIdRanges.of(6, 9)).isEmpty());
+	}
+}
@@ -0,0 +1,167 @@
+package com.the_qa_company.qendpoint.store.join;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.store.EndpointFiles;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.EndpointStoreConnection;
+import com.the_qa_company.qendpoint.store.EndpointStoreEvaluationStatisticsHDT;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.query.BindingSet;
+import org.eclipse.rdf4j.query.TupleQueryResult;
+import org.eclipse.rdf4j.query.algebra.StatementPattern;
+import org.eclipse.rdf4j.query.algebra.Var;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+public class StatisticsJoinOptimizerTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private static final String PREFIXES = "PREFIX ex: <" + NS + ">\n";
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private EndpointFiles files;
+	private EndpointStore store;
+	private SailRepository repository;
+
+	@Before
+	public void setupStore() throws Exception {
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			String person = NS + "person" + i;
+			triples.add(new TripleString(person, NS + "type", NS + "Person"));
+			triples.add(new TripleString(person, NS + "name", "\"name" + i + "\""));
+			triples.add(new TripleString(person, NS + "knows", NS + "person" + ((i + 1) % 20)));
+			if (i % 3 == 0) {
+				triples.add(new TripleString(person, NS + "likes", NS + "person" + ((i + 5) % 20)));
+			}
+			if (i % 4 == 0) {
+				triples.add(new TripleString(person, NS + "likes", NS + "person" + ((i + 7) % 20)));
+			}
+			// a and b are never used by the same subject, c is a subset of a
+			if (i < 10) {
+				triples.add(new TripleString(person, NS + "a", "\"a" + i + "\""));
+				if (i < 5) {
+					triples.add(new TripleString(person, NS + "c", "\"c" + i + "\""));
+				}
+			} else {
+				triples.add(new TripleString(person, NS + "b", "\"b" + i + "\""));
+			}
+		}
+
+		Path root = tempDir.newFolder().toPath();
+		Path hdtStore = root.resolve("hdt-store");
+		Path locationNative = root.resolve("native");
+		String indexName = "index.hdt";
+		Files.createDirectories(hdtStore);
+		try (HDT hdt = HDTManager.generateHDT(triples.iterator(), NS, HDTOptions.of(), null)) {
+			hdt.saveToHDT(hdtStore.resolve(indexName).toAbsolutePath().toString(), null);
+		}
+
+		files = new EndpointFiles(locationNative, hdtStore, indexName);
+		store = new EndpointStore(files);
+		store.setThreshold(-1);
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void closeStore() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	private Set<BindingSet> query(String query, String... configs) {
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			for (String config : configs) {
+				((EndpointStoreConnection) connection.getSailConnection()).setConfig(config);
+			}
+			Set<BindingSet> result = new HashSet<>();
+			try (TupleQueryResult res = connection.prepareTupleQuery(PREFIXES + query).evaluate()) {
+				res.forEach(result::add);
+			}
+			return result;
+		}
+	}
+
+	private JoinCardinalityEstimator createEstimator() {
+		EndpointStoreEvaluationStatisticsHDT statistics = new EndpointStoreEvaluationStatisticsHDT(store);
+		JoinCardinalityEstimator estimator = statistics.createJoinEstimator(statistics::getCardinality);
+		assertNotNull(estimator);
+		return estimator;
+	}
+
+	private static StatementPattern pattern(String subject, String predicate, String object) {
+		ValueFactory vf = SimpleValueFactory.getInstance();
+		return new StatementPattern(new Var(subject), new Var("_const_" + predicate, vf.createIRI(NS + predicate)),
+				new Var(object));
+	}
+
+	@Test
+	public void statisticsFileTest() {
+		assertNotNull(store.getStatistics());
+		assertTrue(Files.exists(Path.of(files.getHDTStatistics())));
+	}
+
+	@Test
+	public void starEstimationTest() {
+		JoinCardinalityEstimator estimator = createEstimator();
+		StatementPattern type = new StatementPattern(new Var("s"),
+				new Var("_const_type", SimpleValueFactory.getInstance().createIRI(NS + "type")),
+				new Var("_const_Person", SimpleValueFactory.getInstance().createIRI(NS + "Person")));
+		assertEquals(20, estimator.add(type), 0.0001);
+		// 12 likes triples, all the subjects are persons
+		assertEquals(12, estimator.add(pattern("s", "likes", "l")), 0.0001);
+	}
+
+	@Test
+	public void chainEstimationTest() {
+		JoinCardinalityEstimator estimator = createEstimator();
+		assertEquals(20, estimator.add(pattern("s", "knows", "k")), 0.0001);
+		assertEquals(20, estimator.add(pattern("k", "name", "n")), 0.0001);
+	}
+
+	@Test
+	public void correlationOrderTest() {
+		StatementPattern a = pattern("s", "a", "x");
+		StatementPattern b = pattern("s", "b", "y");
+		StatementPattern c = pattern("s", "c", "z");
+
+		JoinCardinalityEstimator estimator = createEstimator();
+		List<StatementPattern> ordered = StatisticsJoinOptimizer.orderPatterns(List.of(a, b, c), estimator);
+		// c is the smallest pattern, a and b have the same size, but b isn't
+		// used with c
+		assertEquals(List.of(c, b, a), ordered);
+		assertEquals(0, estimator.getCardinality(), 0.0001);
+	}
+
+	@Test
+	public void sameResultsTest() {
+		for (String query : List.of("SELECT * { ?s ex:a ?x ; ex:b ?y ; ex:c ?z }",
+				"SELECT * { ?s ex:type ex:Person ; ex:likes ?l . ?l ex:name ?n ; ex:knows ?k }",
+				"SELECT * { ?s ex:knows ?k . ?k ex:c ?c . ?s ex:name ?n }")) {
+			Set<BindingSet> expected = query(query, EndpointStore.QUERY_CONFIG_NO_STATISTICS);
+			assertEquals(expected, query(query));
+		}
+	}
+}
@@ -0,0 +1,237 @@
+package com.the_qa_company.qendpoint.utils.rdf.writer;
+
+import com.the_qa_company.qendpoint.core.hdt.HDT;
+import com.the_qa_company.qendpoint.core.hdt.HDTManager;
+import com.the_qa_company.qendpoint.core.options.HDTOptions;
+import com.the_qa_company.qendpoint.core.options.HDTOptionsKeys;
+import com.the_qa_company.qendpoint.core.triples.TripleString;
+import com.the_qa_company.qendpoint.store.EndpointFiles;
+import com.the_qa_company.qendpoint.store.EndpointStore;
+import com.the_qa_company.qendpoint.store.Utility;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XSD;
+import org.eclipse.rdf4j.query.TupleQueryResultHandler;
+import org.eclipse.rdf4j.query.resultio.BasicQueryWriterSettings;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultFormat;
+import org.eclipse.rdf4j.query.resultio.TupleQueryResultWriter;
+import org.eclipse.rdf4j.query.resultio.sparqljson.SPARQLResultsJSONWriter;
+import org.eclipse.rdf4j.query.resultio.sparqlxml.SPARQLResultsXMLWriter;
+import org.eclipse.rdf4j.query.resultio.text.csv.SPARQLResultsCSVWriter;
+import org.eclipse.rdf4j.query.resultio.text.tsv.SPARQLResultsTSVWriter;
+import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.repository.sail.SailRepositoryConnection;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.RDFHandler;
+import org.eclipse.rdf4j.rio.helpers.BasicWriterSettings;
+import org.eclipse.rdf4j.rio.ntriples.NTriplesWriter;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+@RunWith(Parameterized.class)
+public class HDTResultWritersTest {
+	private static final String NS = Utility.EXAMPLE_NAMESPACE;
+	private static final String SELECT_QUERY = "PREFIX ex: <" + NS + ">\n"
+			+ "SELECT * { ?s ?p ?o OPTIONAL { ?s ex:none ?none } BIND(STR(?o) AS ?str) BIND(LANG(?o) AS ?lang) }";
+	private static final String TRIPLE_QUERY = "PREFIX ex: <" + NS + ">\n"
+			+ "SELECT * { ?s ex:p0 ?o VALUES ?t { <<ex:s1 ex:p1 \"hello\"@en>> <<<<ex:s2 ex:p1 ex:object>> ex:q 42>> } }";
+	private static final String CONSTRUCT_QUERY = "CONSTRUCT WHERE { ?s ?p ?o }";
+
+	@Parameterized.Parameters(name = "{0}")
+	public static Collection<Object[]> params() {
+		return List.of(new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_FOUR_SECTION },
+				new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS },
+				new Object[] { HDTOptionsKeys.DICTIONARY_TYPE_VALUE_MULTI_OBJECTS_LANG });
+	}
+
+	@Parameterized.Parameter
+	public String dictionaryType;
+	@Rule
+	public TemporaryFolder tempDir = TemporaryFolder.builder().assureDeletion().build();
+	private SailRepository repository;
+
+	private static String typed(String label, String type) {
+		return "\"" + label + "\"^^<" + type + ">";
+	}
+
+	private static List<TripleString> createTriples() {
+		List<String> objects = List.of("\"simple\"", "\"\"", "\"with \"quotes\"\"", "\"tab\there\"", "\"new\nline\r\"",
+				"\"comma,value\"", "\"back\\slash\"", "\"<bracket\"", "\"_underscore\"", "\"12 number like\"", "\"+5\"",
+				"\"+\"", "\".5\u2028separator\"", "\"1\u0085next line\"", "\"xml &<>'\"", "\"control\u0001\u0085\"",
+				"\"unicode \u00e9\uD83D\uDE00\"", "\"hello\"@en", "\"bonjour \"\"@fr-BE",
+				typed("42", XSD.INTEGER.stringValue()), typed("-0042", XSD.INTEGER.stringValue()),
+				typed("-0", XSD.INTEGER.stringValue()), typed("abc", XSD.INTEGER.stringValue()),
+				typed("300", XSD.BYTE.stringValue()), typed("12", XSD.INT.stringValue()),
+				typed("1.50", XSD.DECIMAL.stringValue()), typed("1e3", XSD.DOUBLE.stringValue()),
+				typed("2.5", XSD.FLOAT.stringValue()), typed("val,ue", NS + "type"),
+				typed("typed", XSD.STRING.stringValue()), NS + "object", NS + "with,comma", NS + "with'&<>",
+				NS + "with\u0085control sp", NS + "\u00e9t\u00e9", "_:b1", "_:a-b_c");
+		List<TripleString> triples = new ArrayList<>();
+		for (int i = 0; i < objects.size(); i++) {
+			String subject = i % 3 == 0 ? "_:s" + i : NS + "s" + i;
+			triples.add(new TripleString(subject, NS + "p" + (i % 4), objects.get(i)));
+		}
+		return triples;
+	}
+
+	@Before
+	public void createStore() throws Exception {
+		Path root = tempDir.newFolder().toPath();
+		Path hdtStore = root.resolve("hdt-store");
+		Path locationNative = root.resolve("native");
+		String indexName = "index.hdt";
+		Files.createDirectories(hdtStore);
+		HDTOptions spec = HDTOptions.of(HDTOptionsKeys.DICTIONARY_TYPE_KEY, dictionaryType,
+				HDTOptionsKeys.TEMP_DICTIONARY_IMPL_KEY, HDTOptionsKeys.TEMP_DICTIONARY_IMPL_VALUE_MULT_HASH);
+		try (HDT hdt = HDTManager.generateHDT(createTriples().iterator(), NS, spec, null)) {
+			hdt.saveToHDT(hdtStore.resolve(indexName).toAbsolutePath().toString(), null);
+		}
+		EndpointStore store = new EndpointStore(new EndpointFiles(locationNative, hdtStore, indexName), spec);
+		store.setThreshold(-1);
+		repository = new SailRepository(store);
+		repository.init();
+	}
+
+	@After
+	public void closeStore() {
+		if (repository != null) {
+			repository.shutDown();
+		}
+	}
+
+	private String select(Function<OutputStream, TupleQueryResultHandler> writer) {
+		return select(SELECT_QUERY, writer);
+	}
+
+	private String select(String query, Function<OutputStream, TupleQueryResultHandler> writer) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.prepareTupleQuery(query).evaluate(writer.apply(out));
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private void assertSameOutput(String query, TupleQueryResultFormat format,
+			Function<OutputStream, TupleQueryResultWriter> rdf4j, Consumer<TupleQueryResultWriter> config) {
+		String expected = select(query, out -> {
+			TupleQueryResultWriter writer = rdf4j.apply(out);
+			config.accept(writer);
+			return writer;
+		});
+		assertEquals(expected, select(query, out -> {
+			TupleQueryResultWriter writer = HDTResultWriters.createTupleWriter(format, out);
+			config.accept(writer);
+			return writer;
+		}));
+	}
+
+	private String construct(Function<OutputStream, RDFHandler> writer) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		try (SailRepositoryConnection connection = repository.getConnection()) {
+			connection.prepareGraphQuery(CONSTRUCT_QUERY).evaluate(writer.apply(out));
+		}
+		return out.toString(StandardCharsets.UTF_8);
+	}
+
+	private void assertSameOutput(TupleQueryResultFormat format,
+			Function<OutputStream, TupleQueryResultHandler> rdf4j) {
+		String expected = select(rdf4j);
+		assertEquals(expected, select(out -> HDTResultWriters.createTupleWriter(format, out)));
+		// all the triples are written
+		assertTrue(expected.length() > 500);
+	}
+
+	@Test
+	public void jsonTest() {
+		assertSameOutput(TupleQueryResultFormat.JSON, SPARQLResultsJSONWriter::new);
+	}
+
+	@Test
+	public void xmlTest() {
+		assertSameOutput(TupleQueryResultFormat.SPARQL, SPARQLResultsXMLWriter::new);
+	}
+
+	@Test
+	public void tripleTest() {
+		for (boolean encode : new boolean[] { true, false }) {
+			Consumer<TupleQueryResultWriter> config = w -> w.getWriterConfig().set(BasicWriterSettings.ENCODE_RDF_STAR,
+					encode);
+			assertSameOutput(TRIPLE_QUERY, TupleQueryResultFormat.JSON, SPARQLResultsJSONWriter::new, config);
+			assertSameOutput(TRIPLE_QUERY, TupleQueryResultFormat.SPARQL, SPARQLResultsXMLWriter::new, config);
+			assertSameOutput(TRIPLE_QUERY, TupleQueryResultFormat.TSV, SPARQLResultsTSVWriter::new, config);
+		}
+		String json = select(TRIPLE_QUERY, out -> {
+			TupleQueryResultWriter writer = HDTResultWriters.createTupleWriter(TupleQueryResultFormat.JSON, out);
+			writer.getWriterConfig().set(BasicWriterSettings.ENCODE_RDF_STAR, false);
+			return writer;
+		});
+		assertTrue(json.contains("\"triple\""));
+	}
+
+	@Test
+	public void xmlNamespaceTest() {
+		for (boolean qnames : new boolean[] { false, true }) {
+			Consumer<TupleQueryResultWriter> config = w -> {
+				w.getWriterConfig().set(BasicQueryWriterSettings.ADD_SESAME_QNAME, qnames);
+				w.handleNamespace("ex", NS);
+				w.handleNamespace("xsd", XSD.NAMESPACE);
+				w.handleNamespace("rdf", RDF.NAMESPACE);
+				// ignored by the writers
+				w.handleNamespace("", NS + "empty/");
+				w.handleNamespace("q", NS + "q/");
+			};
+			assertSameOutput(SELECT_QUERY, TupleQueryResultFormat.SPARQL, SPARQLResultsXMLWriter::new, config);
+		}
+		String xml = select(SELECT_QUERY, out -> {
+			TupleQueryResultWriter writer = HDTResultWriters.createTupleWriter(TupleQueryResultFormat.SPARQL, out);
+			writer.getWriterConfig().set(BasicQueryWriterSettings.ADD_SESAME_QNAME, true);
+			writer.handleNamespace("ex", NS);
+			return writer;
+		});
+		assertTrue(xml.contains("xmlns:ex='" + NS + "'"));
+		assertTrue(xml.contains("q:qname='ex:object'"));
+	}
+
+	@Test
+	public void tsvTest() {
+		assertSameOutput(TupleQueryResultFormat.TSV, SPARQLResultsTSVWriter::new);
+	}
+
+	@Test
+	public void csvTest() {
+		assertSameOutput(TupleQueryResultFormat.CSV, SPARQLResultsCSVWriter::new);
+	}
+
+	@Test
+	public void nTriplesTest() {
+		String expected = construct(NTriplesWriter::new);
+		assertEquals(expected, construct(out -> HDTResultWriters.createRDFWriter(RDFFormat.NTRIPLES, out)));
+		assertEquals(createTriples().size(), expected.split("\n").length);
+	}
+
+	@Test
+	public void unsupportedFormatTest() {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		assertNull(HDTResultWriters.createTupleWriter(TupleQueryResultFormat.BINARY, out));
+		assertNull(HDTResultWriters.createRDFWriter(RDFFormat.TURTLE, out));
+	}
+}